@@ -27,6 +27,8 @@ package org.omnimc.trix;
 import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.Remapper;
 import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.trix.mapping.ClassNameIndex;
+import org.omnimc.trix.mapping.MappingLookup;
 
 /**
  * {@code TrixRemapper} is a custom remapper that uses information from the {@linkplain MappingContainer} to translate
@@ -36,14 +38,52 @@ import org.omnimc.lumina.paser.MappingContainer;
  * based on the mappings provided by the {@linkplain MappingContainer}. It's especially useful when working with
  * obfuscated code and you need to map it to more meaningful names.</p>
  *
+ * <p>Class names can be looked up in a {@linkplain ClassNameIndex} instead of the container, which rejects the names
+ * of unmapped packages without a full lookup. Any other {@linkplain MappingLookup}, such as a
+ * {@linkplain org.omnimc.trix.mapping.MappingTable} read by a {@linkplain org.omnimc.trix.mapping.TinyReader}, can be
+ * used in place of a container.</p>
+ *
  * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
  * @since 1.0.0
  */
 public class TrixRemapper extends Remapper {
-    private final MappingContainer container;
+    private final MappingLookup container;
+    private final ClassNameIndex classNameIndex;
 
     public TrixRemapper(MappingContainer container) {
-        this.container = container;
+        this(container, null);
+    }
+
+    /**
+     * <h6>Creates a new {@code TrixRemapper} that maps every name with the given {@linkplain MappingLookup}.
+     *
+     * @param lookup The {@linkplain MappingLookup} to remap with.
+     */
+    public TrixRemapper(MappingLookup lookup) {
+        this(lookup, null);
+    }
+
+    /**
+     * <h6>Creates a new {@code TrixRemapper} that looks up class names in the given index.
+     *
+     * @param container      The {@linkplain MappingContainer} to remap methods and fields with.
+     * @param classNameIndex The {@linkplain ClassNameIndex} holding every class the container maps, or {@code null}
+     *                       to look up class names in the container.
+     */
+    public TrixRemapper(MappingContainer container, ClassNameIndex classNameIndex) {
+        this(MappingLookup.of(container), classNameIndex);
+    }
+
+    /**
+     * <h6>Creates a new {@code TrixRemapper} that looks up class names in the given index.
+     *
+     * @param lookup         The {@linkplain MappingLookup} to remap methods and fields with.
+     * @param classNameIndex The {@linkplain ClassNameIndex} holding every class the lookup maps, or {@code null} to
+     *                       look up class names in the lookup.
+     */
+    public TrixRemapper(MappingLookup lookup, ClassNameIndex classNameIndex) {
+        this.container = lookup;
+        this.classNameIndex = classNameIndex;
     }
 
     /**
@@ -66,6 +106,10 @@ public class TrixRemapper extends Remapper {
      */
     @Override
     public String mapType(String internalName) {
+        if (classNameIndex != null) {
+            return classNameIndex.map(internalName);
+        }
+
         return container.getClassName(internalName);
     }
 
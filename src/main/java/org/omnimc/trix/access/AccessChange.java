@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.access;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * {@code AccessChange} is the change a single access transformer rule makes to the access flags of a class, field or
+ * method.
+ *
+ * <p>Like every access transformer, it only ever widens access, a rule asking for less than the current access is
+ * ignored. It can also add or remove the {@code final} flag, written as {@code public+f} and {@code public-f}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class AccessChange {
+
+    private static final int VISIBILITY = Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_PRIVATE;
+
+    private final Level level;
+    private final FinalChange finalChange;
+
+    public AccessChange(@NotNull Level level, @NotNull FinalChange finalChange) {
+        this.level = level;
+        this.finalChange = finalChange;
+    }
+
+    /**
+     * <h6>Parses a modifier as written in an access transformer, e.g. {@code public-f}.
+     *
+     * @param modifier The modifier to parse.
+     * @return The parsed {@linkplain AccessChange}.
+     * @throws IllegalArgumentException If the modifier is not valid.
+     */
+    public static AccessChange parse(@NotNull String modifier) {
+        FinalChange finalChange = FinalChange.KEEP;
+        String levelName = modifier;
+
+        if (modifier.endsWith("-f")) {
+            finalChange = FinalChange.REMOVE;
+            levelName = modifier.substring(0, modifier.length() - 2);
+        } else if (modifier.endsWith("+f")) {
+            finalChange = FinalChange.ADD;
+            levelName = modifier.substring(0, modifier.length() - 2);
+        }
+
+        for (Level level : Level.values()) {
+            if (level.getModifier().equals(levelName)) {
+                return new AccessChange(level, finalChange);
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown access modifier: " + modifier);
+    }
+
+    /**
+     * <h6>Applies this change to the given access flags.
+     *
+     * @param access The access flags to change.
+     * @return The changed access flags.
+     */
+    public int apply(int access) {
+        if (level.ordinal() < Level.of(access).ordinal()) {
+            access = (access & ~VISIBILITY) | level.getFlag();
+        }
+
+        return switch (finalChange) {
+            case KEEP -> access;
+            case ADD -> access | Opcodes.ACC_FINAL;
+            case REMOVE -> access & ~Opcodes.ACC_FINAL;
+        };
+    }
+
+    /**
+     * <h6>Merges two changes of the same target, the widest access and removing {@code final} win.
+     *
+     * @param other The other {@linkplain AccessChange}.
+     * @return The merged {@linkplain AccessChange}.
+     */
+    public AccessChange merge(@NotNull AccessChange other) {
+        Level mergedLevel = level.ordinal() <= other.level.ordinal() ? level : other.level;
+        FinalChange mergedFinal = finalChange.ordinal() >= other.finalChange.ordinal() ? finalChange : other.finalChange;
+
+        return new AccessChange(mergedLevel, mergedFinal);
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public FinalChange getFinalChange() {
+        return finalChange;
+    }
+
+    @Override
+    public String toString() {
+        return level.getModifier() + (finalChange == FinalChange.ADD ? "+f" : finalChange == FinalChange.REMOVE ? "-f" : "");
+    }
+
+    /**
+     * The access level a rule asks for, from widest to narrowest.
+     */
+    public enum Level {
+        PUBLIC("public", Opcodes.ACC_PUBLIC),
+        PROTECTED("protected", Opcodes.ACC_PROTECTED),
+        DEFAULT("default", 0),
+        PRIVATE("private", Opcodes.ACC_PRIVATE);
+
+        private final String modifier;
+        private final int flag;
+
+        Level(String modifier, int flag) {
+            this.modifier = modifier;
+            this.flag = flag;
+        }
+
+        public static Level of(int access) {
+            if ((access & Opcodes.ACC_PUBLIC) != 0) {
+                return PUBLIC;
+            }
+
+            if ((access & Opcodes.ACC_PROTECTED) != 0) {
+                return PROTECTED;
+            }
+
+            if ((access & Opcodes.ACC_PRIVATE) != 0) {
+                return PRIVATE;
+            }
+
+            return DEFAULT;
+        }
+
+        public String getModifier() {
+            return modifier;
+        }
+
+        public int getFlag() {
+            return flag;
+        }
+    }
+
+    /**
+     * What a rule does with the {@code final} flag, ordered by precedence when merging.
+     */
+    public enum FinalChange {
+        KEEP,
+        ADD,
+        REMOVE
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.access;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code AccessIndex} is a compiled {@linkplain AccessTransformer}, indexed by mapped class name.
+ *
+ * <p>The mapping pass probes it once per class, classes without any rule pay nothing more than that.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class AccessIndex {
+
+    /**
+     * An index without any rules.
+     */
+    public static final AccessIndex EMPTY = new AccessIndex(Collections.emptyMap());
+
+    private final Map<String, ClassAccess> classes;
+
+    AccessIndex(Map<String, ClassAccess> classes) {
+        this.classes = classes;
+    }
+
+    AccessIndex() {
+        this(new HashMap<>());
+    }
+
+    ClassAccess getOrCreate(String mappedClassName) {
+        return classes.computeIfAbsent(mappedClassName, key -> new ClassAccess());
+    }
+
+    /**
+     * <h6>Gets the rules of a class.
+     *
+     * @param mappedClassName The mapped internal name of the class.
+     * @return The {@linkplain ClassAccess} of the class, or {@code null} if it has no rules.
+     */
+    @Nullable
+    public ClassAccess get(@NotNull String mappedClassName) {
+        return classes.get(mappedClassName);
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    public int size() {
+        return classes.size();
+    }
+}
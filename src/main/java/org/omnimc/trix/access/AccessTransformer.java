@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.access;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code AccessTransformer} holds access transformer rules in the usual format:
+ * <pre>{@code
+ * public net.minecraft.world.level.Level
+ * public-f net.minecraft.world.level.Level isClientSide
+ * protected net.minecraft.world.level.Level getBlockState(Lnet/minecraft/core/BlockPos;)Lnet/minecraft/world/level/block/state/BlockState;
+ * public net.minecraft.world.level.Level *()
+ * }</pre>
+ *
+ * <p>Rules may use mapped or obfuscated names, even mixed in the same file. They are applied during the mapping pass
+ * itself instead of over the finished jar, see {@linkplain #compile(Remapper)} and
+ * {@linkplain org.omnimc.trix.contexts.MappingContext#MappingContext(Remapper, AccessIndex)}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class AccessTransformer {
+
+    private final List<Rule> rules = new ArrayList<>();
+
+    /**
+     * <h6>Reads an access transformer file.
+     *
+     * @param path The {@linkplain Path} of the file.
+     * @return The read {@linkplain AccessTransformer}.
+     * @throws IOException If the file could not be read.
+     */
+    public static AccessTransformer read(@NotNull Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * <h6>Parses access transformer rules.
+     *
+     * @param reader The {@linkplain Reader} to parse from, it is not closed.
+     * @return The parsed {@linkplain AccessTransformer}.
+     * @throws IOException              If the reader fails.
+     * @throws IllegalArgumentException If a line is not a valid rule.
+     */
+    public static AccessTransformer parse(@NotNull Reader reader) throws IOException {
+        AccessTransformer accessTransformer = new AccessTransformer();
+        BufferedReader bufferedReader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = bufferedReader.readLine()) != null) {
+            lineNumber++;
+
+            int comment = line.indexOf('#');
+            if (comment != -1) {
+                line = line.substring(0, comment);
+            }
+
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Invalid access transformer rule at line " + lineNumber + ": " + line);
+            }
+
+            AccessChange change;
+            try {
+                change = AccessChange.parse(parts[0]);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid access transformer rule at line " + lineNumber + ": " + line, e);
+            }
+
+            String owner = parts[1].replace('.', '/');
+            if (parts.length == 2) {
+                accessTransformer.addClass(owner, change);
+                continue;
+            }
+
+            String member = parts[2];
+            int descriptorStart = member.indexOf('(');
+            if (descriptorStart == -1) {
+                accessTransformer.addField(owner, member, change);
+            } else {
+                accessTransformer.addMethod(owner, member.substring(0, descriptorStart), member.substring(descriptorStart), change);
+            }
+        }
+
+        return accessTransformer;
+    }
+
+    /**
+     * <h6>Adds a class rule.
+     *
+     * @param owner  The internal name of the class.
+     * @param change The {@linkplain AccessChange} to apply.
+     * @return This {@linkplain AccessTransformer}.
+     */
+    public AccessTransformer addClass(@NotNull String owner, @NotNull AccessChange change) {
+        rules.add(new Rule(owner, null, null, change));
+        return this;
+    }
+
+    /**
+     * <h6>Adds a field rule, {@code *} targets every field of the class.
+     *
+     * @param owner  The internal name of the class.
+     * @param name   The name of the field.
+     * @param change The {@linkplain AccessChange} to apply.
+     * @return This {@linkplain AccessTransformer}.
+     */
+    public AccessTransformer addField(@NotNull String owner, @NotNull String name, @NotNull AccessChange change) {
+        rules.add(new Rule(owner, name, null, change));
+        return this;
+    }
+
+    /**
+     * <h6>Adds a method rule, {@code *} targets every method of the class, the descriptor is then ignored.
+     *
+     * @param owner      The internal name of the class.
+     * @param name       The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @param change     The {@linkplain AccessChange} to apply.
+     * @return This {@linkplain AccessTransformer}.
+     */
+    public AccessTransformer addMethod(@NotNull String owner, @NotNull String name, @NotNull String descriptor, @NotNull AccessChange change) {
+        rules.add(new Rule(owner, name, descriptor, change));
+        return this;
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    /**
+     * <h6>Compiles the rules into an {@linkplain AccessIndex} keyed by mapped names.
+     * <p>Class names and method descriptors are mapped with the given {@linkplain Remapper}, names that are already
+     * mapped are left as they are by it. Member names are kept as written and matched against both the obfuscated and
+     * the mapped name of a member.</p>
+     *
+     * @param remapper The {@linkplain Remapper} of the mapping pass the index is used in.
+     * @return The compiled {@linkplain AccessIndex}.
+     */
+    public AccessIndex compile(@NotNull Remapper remapper) {
+        if (rules.isEmpty()) {
+            return AccessIndex.EMPTY;
+        }
+
+        AccessIndex accessIndex = new AccessIndex();
+        for (Rule rule : rules) {
+            ClassAccess classAccess = accessIndex.getOrCreate(remapper.mapType(rule.owner()));
+
+            if (rule.name() == null) {
+                classAccess.addClass(rule.change());
+            } else if (rule.descriptor() == null) {
+                classAccess.addField(rule.name(), rule.change());
+            } else {
+                String descriptor = rule.name().equals("*") ? "" : remapper.mapMethodDesc(rule.descriptor());
+                classAccess.addMethod(rule.name(), descriptor, rule.change());
+            }
+        }
+
+        return accessIndex;
+    }
+
+    private record Rule(String owner, String name, String descriptor, AccessChange change) {
+    }
+}
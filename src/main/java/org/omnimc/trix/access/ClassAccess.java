@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.access;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+
+/**
+ * {@code ClassAccess} holds the compiled access transformer rules of a single class.
+ *
+ * <p>Member rules may have been written with obfuscated or mapped names, so lookups take both names and try each. Method
+ * rules are keyed by name and mapped descriptor, field rules by name only, as in the access transformer format.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ClassAccess {
+
+    private final HashMap<String, AccessChange> fields = new HashMap<>();
+    private final HashMap<String, AccessChange> methods = new HashMap<>();
+
+    private AccessChange classChange;
+    private AccessChange allFields;
+    private AccessChange allMethods;
+
+    ClassAccess() {
+    }
+
+    void addClass(AccessChange change) {
+        classChange = classChange == null ? change : classChange.merge(change);
+    }
+
+    void addField(String name, AccessChange change) {
+        if (name.equals("*")) {
+            allFields = allFields == null ? change : allFields.merge(change);
+            return;
+        }
+
+        fields.merge(name, change, AccessChange::merge);
+    }
+
+    void addMethod(String name, String mappedDescriptor, AccessChange change) {
+        if (name.equals("*")) {
+            allMethods = allMethods == null ? change : allMethods.merge(change);
+            return;
+        }
+
+        methods.merge(name + mappedDescriptor, change, AccessChange::merge);
+    }
+
+    /**
+     * <h6>Applies the class rule, if any, to the access flags of the class.
+     *
+     * @param access The access flags of the class.
+     * @return The changed access flags.
+     */
+    public int applyToClass(int access) {
+        return classChange == null ? access : classChange.apply(access);
+    }
+
+    /**
+     * <h6>Applies the rules matching a field to its access flags.
+     *
+     * @param access         The access flags of the field.
+     * @param obfuscatedName The obfuscated name of the field.
+     * @param mappedName     The mapped name of the field.
+     * @return The changed access flags.
+     */
+    public int applyToField(int access, @NotNull String obfuscatedName, @NotNull String mappedName) {
+        AccessChange change = getFieldChange(obfuscatedName, mappedName);
+        return change == null ? access : change.apply(access);
+    }
+
+    /**
+     * <h6>Applies the rules matching a method to its access flags.
+     *
+     * @param access           The access flags of the method.
+     * @param obfuscatedName   The obfuscated name of the method.
+     * @param mappedName       The mapped name of the method.
+     * @param mappedDescriptor The mapped descriptor of the method.
+     * @return The changed access flags.
+     */
+    public int applyToMethod(int access, @NotNull String obfuscatedName, @NotNull String mappedName, @NotNull String mappedDescriptor) {
+        AccessChange change = getMethodChange(obfuscatedName, mappedName, mappedDescriptor);
+        return change == null ? access : change.apply(access);
+    }
+
+    @Nullable
+    public AccessChange getFieldChange(@NotNull String obfuscatedName, @NotNull String mappedName) {
+        AccessChange change = fields.get(mappedName);
+        if (change == null && !obfuscatedName.equals(mappedName)) {
+            change = fields.get(obfuscatedName);
+        }
+
+        if (allFields != null) {
+            change = change == null ? allFields : change.merge(allFields);
+        }
+
+        return change;
+    }
+
+    @Nullable
+    public AccessChange getMethodChange(@NotNull String obfuscatedName, @NotNull String mappedName, @NotNull String mappedDescriptor) {
+        if (obfuscatedName.startsWith("<")) {
+            // Constructors are only ever targeted by name, never by the wildcard.
+            return methods.get(obfuscatedName + mappedDescriptor);
+        }
+
+        AccessChange change = methods.get(mappedName + mappedDescriptor);
+        if (change == null && !obfuscatedName.equals(mappedName)) {
+            change = methods.get(obfuscatedName + mappedDescriptor);
+        }
+
+        if (allMethods != null) {
+            change = change == null ? allMethods : change.merge(allMethods);
+        }
+
+        return change;
+    }
+}
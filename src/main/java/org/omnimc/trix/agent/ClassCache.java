@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * {@code ClassCache} is a persistent, content-addressed cache of remapped classes.
+ *
+ * <p>Every entry is stored under the SHA-256 hash of the original class bytes, inside a directory named after the
+ * mapping set it was remapped with. A class that was remapped on a previous launch is therefore served straight from
+ * disk without any ASM work, while a change to either the class or the mappings simply misses the cache.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class ClassCache {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directory;
+
+    /**
+     * <h6>Creates a new {@code ClassCache}.
+     *
+     * @param root       The root directory of the cache.
+     * @param mappingsId An id of the mapping set, any change to the mappings must change this id.
+     * @throws IOException If the cache directory can't be created.
+     */
+    public ClassCache(@NotNull Path root, @NotNull String mappingsId) throws IOException {
+        this.directory = Files.createDirectories(root.resolve(mappingsId));
+    }
+
+    /**
+     * <h6>Hashes class bytes into the key used by this cache.
+     *
+     * @param classBytes The original class bytes.
+     * @return The key of the class.
+     */
+    @NotNull
+    public static String key(byte[] classBytes) {
+        try {
+            return HEX.formatHex(MessageDigest.getInstance("SHA-256").digest(classBytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    /**
+     * <h6>Gets a cached remapped class.
+     *
+     * @param key The key of the original class bytes.
+     * @return The remapped bytes, or {@code null} if they aren't cached.
+     */
+    @Nullable
+    public byte[] get(@NotNull String key) {
+        try {
+            return Files.readAllBytes(directory.resolve(key));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * <h6>Stores a remapped class. Failing to store a class is ignored, it will simply be remapped again next time.
+     *
+     * @param key        The key of the original class bytes.
+     * @param classBytes The remapped bytes.
+     */
+    public void put(@NotNull String key, byte[] classBytes) {
+        try {
+            Path tempFile = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tempFile, classBytes);
+            Files.move(tempFile, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {
+        }
+    }
+}
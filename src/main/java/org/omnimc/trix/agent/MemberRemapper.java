@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.commons.Remapper;
+
+/**
+ * {@code MemberRemapper} is a {@linkplain Remapper} that only renames fields and methods, keeping every class name as
+ * it is.
+ *
+ * <p>When a class is transformed at load time the JVM has already bound it to the name it was asked for, so a
+ * {@linkplain java.lang.instrument.ClassFileTransformer} can't rename classes. Member names are looked up through the
+ * full remapper, which still needs the obfuscated class names to find them.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class MemberRemapper extends Remapper {
+
+    private final Remapper remapper;
+
+    /**
+     * <h6>Creates a new {@code MemberRemapper} that renames members using the given {@linkplain Remapper}.
+     *
+     * @param remapper The full {@linkplain Remapper} to look member names up with.
+     */
+    public MemberRemapper(@NotNull Remapper remapper) {
+        this.remapper = remapper;
+    }
+
+    @Override
+    public String map(String internalName) {
+        return internalName;
+    }
+
+    @Override
+    public String mapType(String internalName) {
+        return internalName;
+    }
+
+    @Override
+    public String mapMethodName(String owner, String name, String descriptor) {
+        return remapper.mapMethodName(owner, name, descriptor);
+    }
+
+    @Override
+    public String mapFieldName(String owner, String name, String descriptor) {
+        return remapper.mapFieldName(owner, name, descriptor);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.agent;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+
+/**
+ * {@code RemapTransformer} runs the Trix mapping pipeline on classes as they are loaded.
+ *
+ * <p>Classes of the JDK, and of Trix and its own dependencies, are never touched. Every other class is looked up in
+ * the {@linkplain ClassCache} first and only remapped on a miss, and the time spent on every class is recorded in the
+ * {@linkplain TransformStatistics}. Any failure leaves the class as it was instead of breaking the class load.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class RemapTransformer implements ClassFileTransformer {
+
+    private static final String[] IGNORED_PACKAGES = {
+            "java/", "javax/", "jdk/", "sun/", "com/sun/",
+            "org/omnimc/trix/", "org/omnimc/asm/", "org/omnimc/lumina/", "org/objectweb/asm/", "org/jetbrains/annotations/",
+            "com/google/", "dev/tori/"
+    };
+
+    private final Remapper remapper;
+    private final ClassCache cache;
+    private final TransformStatistics statistics;
+
+    /**
+     * <h6>Creates a new {@code RemapTransformer}.
+     *
+     * @param remapper   The {@linkplain Remapper} to remap classes with.
+     * @param cache      The {@linkplain ClassCache} to reuse previous remaps from, may be {@code null}.
+     * @param statistics The {@linkplain TransformStatistics} to record latencies in.
+     */
+    public RemapTransformer(@NotNull Remapper remapper, @Nullable ClassCache cache, @NotNull TransformStatistics statistics) {
+        this.remapper = remapper;
+        this.cache = cache;
+        this.statistics = statistics;
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className == null || isIgnored(className)) {
+            return null;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            String key = cache == null ? null : ClassCache.key(classfileBuffer);
+            byte[] classBytes = key == null ? null : cache.get(key);
+
+            final boolean cacheHit = classBytes != null;
+            if (!cacheHit) {
+                classBytes = new MappingChange(new MappingContext(remapper)).remap(classfileBuffer);
+                if (key != null) {
+                    cache.put(key, classBytes);
+                }
+            }
+
+            statistics.record(className, System.nanoTime() - start, cacheHit);
+            return classBytes;
+        } catch (Throwable throwable) {
+            System.err.println("Trix agent failed to remap " + className + ": " + throwable);
+            return null;
+        }
+    }
+
+    private static boolean isIgnored(String className) {
+        for (String ignoredPackage : IGNORED_PACKAGES) {
+            if (className.startsWith(ignoredPackage)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.agent;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code TransformStatistics} records how long every load-time transform took.
+ *
+ * <p>Latencies are kept in a histogram of power-of-two microsecond buckets, so recording one is a couple of atomic
+ * increments and percentiles can still be reported at the end.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class TransformStatistics {
+
+    private static final int BUCKETS = 32;
+
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder remapped = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicReference<String> slowestClass = new AtomicReference<>();
+
+    /**
+     * <h6>Records a single transform.
+     *
+     * @param className The name of the transformed class.
+     * @param nanos     The time the transform took.
+     * @param cacheHit  {@code true} if the class was served from the {@linkplain ClassCache}.
+     */
+    public void record(@NotNull String className, long nanos, boolean cacheHit) {
+        (cacheHit ? cacheHits : remapped).increment();
+        totalNanos.add(nanos);
+
+        final long micros = Math.max(1, nanos / 1000);
+        histogram.incrementAndGet(Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros)));
+
+        long max = maxNanos.get();
+        while (nanos > max) {
+            if (maxNanos.compareAndSet(max, nanos)) {
+                slowestClass.set(className);
+                break;
+            }
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * <h6>Gets the upper bound of the given percentile in microseconds.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The upper bound of the bucket the percentile falls in.
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += histogram.get(i);
+        }
+
+        final long target = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram.get(i);
+            if (seen >= target && seen > 0) {
+                return 1L << (i + 1);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        final long count = remapped.sum() + cacheHits.sum();
+        final double totalMillis = totalNanos.sum() / 1_000_000.0;
+
+        return String.format("Trix agent: %d classes (%d remapped, %d from cache) in %.1f ms, mean %.1f us, "
+                             + "p50 < %d us, p99 < %d us, max %.1f ms (%s)",
+                count, remapped.sum(), cacheHits.sum(), totalMillis,
+                count == 0 ? 0.0 : totalNanos.sum() / 1000.0 / count,
+                getPercentileMicros(0.5), getPercentileMicros(0.99),
+                maxNanos.get() / 1_000_000.0, slowestClass.get());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.agent;
+
+import org.omnimc.trix.hierarchy.HierarchySnapshot;
+
+import java.io.IOException;
+import java.lang.instrument.Instrumentation;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+/**
+ * {@code TrixAgent} is the entry point of the Trix {@code java.lang.instrument} agent.
+ *
+ * <p>It remaps already packaged obfuscated launches at load time, using a {@linkplain HierarchySnapshot} that is
+ * memory-mapped instead of rebuilt and a persistent {@linkplain ClassCache}, so a second launch with the same
+ * mappings does no ASM work at all. Since the JVM has already bound every class to its obfuscated name, only fields
+ * and methods are renamed, see {@linkplain MemberRemapper}.</p>
+ *
+ * <p>The agent is configured with comma separated {@code key=value} arguments:</p>
+ * <ul>
+ *     <li>{@code snapshot} - the path of the {@linkplain HierarchySnapshot} to remap with, this is required.</li>
+ *     <li>{@code cache} - the root directory of the {@linkplain ClassCache}, leave it out to disable caching.</li>
+ *     <li>{@code report} - {@code true} to print the {@linkplain TransformStatistics} when the JVM exits.</li>
+ * </ul>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class TrixAgent {
+
+    private TrixAgent() {
+    }
+
+    /**
+     * <h6>Installs the agent when it is given on the command line with {@code -javaagent}.
+     *
+     * @param arguments       The agent arguments.
+     * @param instrumentation The {@linkplain Instrumentation} of the JVM.
+     * @throws IOException If the snapshot can't be opened or the cache can't be created.
+     */
+    public static void premain(String arguments, Instrumentation instrumentation) throws IOException {
+        install(arguments, instrumentation);
+    }
+
+    /**
+     * <h6>Installs the agent when it is attached to a running JVM. Only classes loaded after this are remapped.
+     *
+     * @param arguments       The agent arguments.
+     * @param instrumentation The {@linkplain Instrumentation} of the JVM.
+     * @throws IOException If the snapshot can't be opened or the cache can't be created.
+     */
+    public static void agentmain(String arguments, Instrumentation instrumentation) throws IOException {
+        install(arguments, instrumentation);
+    }
+
+    private static void install(String arguments, Instrumentation instrumentation) throws IOException {
+        HashMap<String, String> options = new HashMap<>();
+        if (arguments != null) {
+            for (String argument : arguments.split(",")) {
+                int separator = argument.indexOf('=');
+                if (separator > 0) {
+                    options.put(argument.substring(0, separator).trim(), argument.substring(separator + 1).trim());
+                }
+            }
+        }
+
+        String snapshotPath = options.get("snapshot");
+        if (snapshotPath == null) {
+            throw new IllegalArgumentException("The Trix agent needs a snapshot=<path> argument.");
+        }
+
+        Path snapshotFile = Path.of(snapshotPath);
+        HierarchySnapshot snapshot = HierarchySnapshot.open(snapshotFile);
+
+        ClassCache cache = null;
+        if (options.containsKey("cache")) {
+            /* The snapshot file changes whenever the mappings do, so its size and age identify the mapping set */
+            String mappingsId = Long.toHexString(Files.size(snapshotFile)) + "-"
+                                + Long.toHexString(Files.getLastModifiedTime(snapshotFile).toMillis());
+            cache = new ClassCache(Path.of(options.get("cache")), mappingsId);
+        }
+
+        TransformStatistics statistics = new TransformStatistics();
+        MemberRemapper remapper = new MemberRemapper(snapshot.createHierarchyManager().getRemapper());
+        instrumentation.addTransformer(new RemapTransformer(remapper, cache, statistics));
+
+        if (Boolean.parseBoolean(options.get("report"))) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println(statistics), "Trix-Agent-Report"));
+        }
+    }
+}
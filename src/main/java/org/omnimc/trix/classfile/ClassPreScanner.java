@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.classfile;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * {@code ClassPreScanner} is used to find the classes a rename can't change at all, before any of them is remapped.
+ *
+ * <p>Everything a rename touches is stored in {@code CONSTANT_Utf8} entries. Class names are found there on their
+ * own and inside descriptors and signatures, and a member name can only change when the class declaring or
+ * referencing it is a class the {@linkplain HierarchyManager} has {@linkplain HierarchyManager#isAffected(String)
+ * mappings for}, whose name is in the pool as well. So the pool alone is scanned and no class whose pool names none of
+ * those classes is ever visited, its original bytes and entry name can be kept as they are.</p>
+ *
+ * <p>Entries are searched as bytes with a {@linkplain DescriptorScanner}, which jumps from one character that can
+ * start or end a class name to the next. The scan is conservative, anything that looks like a name of an affected
+ * class, such as a string constant, is enough for a class to be remapped. One instance can be shared between threads, the number of classes it let through
+ * and the number it sent to be remapped are counted across all of them.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ClassPreScanner {
+
+    /* Anything that can start a class name, or change how the next one is read. */
+    private static final byte[] SCAN_STOPS = {'L', '.', '<', '>', ';'};
+    private static final byte[] NAME_ENDS = {';', '<', '.'};
+
+    private final Predicate<String> affected;
+    private final DescriptorScanner scanner;
+    private final LongAdder skippedClasses = new LongAdder();
+    private final LongAdder remappedClasses = new LongAdder();
+
+    /**
+     * <h6>Creates a new {@code ClassPreScanner}.
+     *
+     * @param hierarchyManager The {@linkplain HierarchyManager} classes are remapped with, it should be
+     *                         {@linkplain HierarchyManager#freeze() frozen}.
+     */
+    public ClassPreScanner(@NotNull HierarchyManager hierarchyManager) {
+        this(hierarchyManager, DescriptorScanner.getInstance());
+    }
+
+    /**
+     * <h6>Creates a new {@code ClassPreScanner} with a given {@linkplain DescriptorScanner}.
+     *
+     * @param hierarchyManager The {@linkplain HierarchyManager} classes are remapped with.
+     * @param scanner          The {@linkplain DescriptorScanner} entries are searched with.
+     */
+    public ClassPreScanner(@NotNull HierarchyManager hierarchyManager, @NotNull DescriptorScanner scanner) {
+        this(hierarchyManager::isAffected, scanner);
+    }
+
+    /**
+     * <h6>Creates a new {@code ClassPreScanner} that only lets through classes naming one of a given set of classes,
+     * such as the classes a mapping edit changed.
+     *
+     * @param affected Whether remapping can change anything about a class, given its internal name.
+     * @param scanner  The {@linkplain DescriptorScanner} entries are searched with.
+     */
+    public ClassPreScanner(@NotNull Predicate<String> affected, @NotNull DescriptorScanner scanner) {
+        this.affected = affected;
+        this.scanner = scanner;
+    }
+
+    /**
+     * <h6>Checks whether a class references anything that is remapped, and counts the class as remapped or skipped.
+     *
+     * @param classBytes The bytes of the class.
+     * @return {@code false} if remapping would give back the class unchanged.
+     */
+    public boolean needsRemapping(byte[] classBytes) {
+        ConstantPool constantPool = new ConstantPool(classBytes);
+        ClassReader reader = constantPool.getReader();
+
+        for (int index = 1; index < constantPool.size(); index++) {
+            if (constantPool.getTag(index) != ConstantPool.UTF8) {
+                continue;
+            }
+
+            int start = constantPool.getOffset(index) + 2;
+            int end = start + reader.readUnsignedShort(start - 2);
+
+            boolean affected;
+            if (scanner.isAscii(classBytes, start, end)) {
+                affected = referencesAffectedClass(new String(classBytes, start, end - start, StandardCharsets.ISO_8859_1), classBytes, start, end);
+            } else {
+                // One byte per character, anything that isn't Latin-1 becomes '?', which is never scanned for.
+                String value = constantPool.readUtf8Entry(index);
+                byte[] latin1 = value.getBytes(StandardCharsets.ISO_8859_1);
+                affected = referencesAffectedClass(value, latin1, 0, latin1.length);
+            }
+
+            if (affected) {
+                remappedClasses.increment();
+                return true;
+            }
+        }
+
+        skippedClasses.increment();
+        return false;
+    }
+
+    /**
+     * @return The number of classes {@linkplain #needsRemapping(byte[])} let through unchanged.
+     */
+    public long getSkippedClasses() {
+        return skippedClasses.sum();
+    }
+
+    /**
+     * @return The number of classes {@linkplain #needsRemapping(byte[])} sent to be remapped.
+     */
+    public long getRemappedClasses() {
+        return remappedClasses.sum();
+    }
+
+    /* The value is a class name, or a descriptor or signature where every class name starts at an 'L'. Its characters
+     * are bytes[start, end), one each. */
+    private boolean referencesAffectedClass(String value, byte[] bytes, int start, int end) {
+        if (affected.test(value)) {
+            return true;
+        }
+
+        // The last class name read on each level of type arguments, so "LOuter<...>.Inner;" can be put back together.
+        String[] outerNames = new String[4];
+        int depth = 0;
+
+        int index = start;
+        while ((index = scanner.indexOfAny(bytes, index, end, SCAN_STOPS)) != -1) {
+            byte current = bytes[index];
+
+            if (current == 'L' || (current == '.' && outerNames[depth] != null)) {
+                int nameEnd = scanner.indexOfAny(bytes, index + 1, end, NAME_ENDS);
+                if (nameEnd == -1) {
+                    nameEnd = end;
+                }
+
+                String name = value.substring(index + 1 - start, nameEnd - start);
+                if (current == '.') {
+                    name = outerNames[depth] + '$' + name;
+                }
+
+                if (affected.test(name)) {
+                    return true;
+                }
+
+                outerNames[depth] = name;
+                index = nameEnd;
+                continue;
+            }
+
+            if (current == '<') {
+                if (++depth == outerNames.length) {
+                    outerNames = Arrays.copyOf(outerNames, depth * 2);
+                }
+                outerNames[depth] = null;
+            } else if (current == '>' && depth > 0) {
+                depth--;
+            } else if (current == ';') {
+                outerNames[depth] = null;
+            }
+
+            index++;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code ConstantPool} is a read-only view of the constant pool of a class file, on top of a {@linkplain ClassReader}.
+ *
+ * <p>Besides the entries themselves it knows where the fields, methods and attributes of the class start and where
+ * every bootstrap method is stored, which is everything needed to walk a class file without decoding it.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ConstantPool {
+
+    public static final int UTF8 = 1;
+    public static final int INTEGER = 3;
+    public static final int FLOAT = 4;
+    public static final int LONG = 5;
+    public static final int DOUBLE = 6;
+    public static final int CLASS = 7;
+    public static final int STRING = 8;
+    public static final int FIELD_REF = 9;
+    public static final int METHOD_REF = 10;
+    public static final int INTERFACE_METHOD_REF = 11;
+    public static final int NAME_AND_TYPE = 12;
+    public static final int METHOD_HANDLE = 15;
+    public static final int METHOD_TYPE = 16;
+    public static final int DYNAMIC = 17;
+    public static final int INVOKE_DYNAMIC = 18;
+    public static final int MODULE = 19;
+    public static final int PACKAGE = 20;
+
+    private static final DescriptorScanner SCANNER = DescriptorScanner.getInstance();
+
+    private final ClassReader reader;
+    private final byte @Nullable [] classBytes;
+    private final char[] buffer;
+    private final int fieldsOffset;
+    private final int methodsOffset;
+    private final int attributesOffset;
+    private int[] bootstrapMethodOffsets;
+
+    /**
+     * <h6>Creates a view of the constant pool of the given class bytes.
+     *
+     * @param classBytes The bytes of the class.
+     */
+    public ConstantPool(byte @NotNull [] classBytes) {
+        this(new ClassReader(classBytes), classBytes);
+    }
+
+    /**
+     * <h6>Creates a view of the constant pool of a class that has already been parsed.
+     *
+     * <p>Without the class bytes, {@linkplain #readUtf8Entry(int)} has to copy every entry it reads first.</p>
+     *
+     * @param reader The {@linkplain ClassReader} of the class.
+     */
+    public ConstantPool(@NotNull ClassReader reader) {
+        this(reader, null);
+    }
+
+    private ConstantPool(ClassReader reader, byte[] classBytes) {
+        this.reader = reader;
+        this.classBytes = classBytes;
+        this.buffer = new char[reader.getMaxStringLength()];
+
+        int offset = reader.header + 6;
+        this.fieldsOffset = offset + 2 + reader.readUnsignedShort(offset) * 2;
+        this.methodsOffset = skipMembers(fieldsOffset);
+        this.attributesOffset = skipMembers(methodsOffset);
+    }
+
+    /**
+     * @return The {@linkplain ClassReader} this pool is read from.
+     */
+    public ClassReader getReader() {
+        return reader;
+    }
+
+    /**
+     * @return The number of entries in the pool, including the unusable entry 0.
+     */
+    public int size() {
+        return reader.getItemCount();
+    }
+
+    /**
+     * <h6>Gets the tag of an entry.
+     *
+     * @param index The index of the entry.
+     * @return The tag of the entry, or {@code 0} for index 0 and the second slot of a long or double.
+     */
+    public int getTag(int index) {
+        int offset = reader.getItem(index);
+        return offset == 0 ? 0 : reader.readByte(offset - 1);
+    }
+
+    /**
+     * <h6>Gets where the contents of an entry start, right after its tag.
+     *
+     * @param index The index of the entry.
+     * @return The offset of the entry in the class file.
+     */
+    public int getOffset(int index) {
+        return reader.getItem(index);
+    }
+
+    /**
+     * <h6>Reads the {@code CONSTANT_Utf8} entry whose index is stored at the given offset.
+     *
+     * @param offset The offset of an unsigned short holding the index of the entry.
+     * @return The string, or {@code null} if the index is 0.
+     */
+    public String readUtf8(int offset) {
+        return reader.readUTF8(offset, buffer);
+    }
+
+    /**
+     * <h6>Reads a {@code CONSTANT_Utf8} entry by its own index.
+     *
+     * @param index The index of a {@code CONSTANT_Utf8} entry.
+     * @return The string.
+     */
+    public String readUtf8Entry(int index) {
+        int offset = reader.getItem(index) + 2;
+        int end = offset + reader.readUnsignedShort(offset - 2);
+
+        byte[] bytes = classBytes;
+        if (bytes == null) {
+            bytes = new byte[end - offset];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) reader.readByte(offset + i);
+            }
+            end -= offset;
+            offset = 0;
+        }
+
+        if (SCANNER.isAscii(bytes, offset, end)) {
+            // Nearly every entry, and one byte is one character.
+            return new String(bytes, offset, end - offset, StandardCharsets.ISO_8859_1);
+        }
+
+        int length = 0;
+
+        // Modified UTF-8, the same way ClassReader decodes it.
+        while (offset < end) {
+            int value = bytes[offset++];
+            if ((value & 0x80) == 0) {
+                buffer[length++] = (char) (value & 0x7F);
+            } else if ((value & 0xE0) == 0xC0) {
+                buffer[length++] = (char) (((value & 0x1F) << 6) + (bytes[offset++] & 0x3F));
+            } else {
+                buffer[length++] = (char) (((value & 0xF) << 12) + ((bytes[offset++] & 0x3F) << 6) + (bytes[offset++] & 0x3F));
+            }
+        }
+
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * <h6>Reads the name of the {@code CONSTANT_Class} entry whose index is stored at the given offset.
+     *
+     * @param offset The offset of an unsigned short holding the index of the entry.
+     * @return The internal name of the class, or {@code null} if the index is 0.
+     */
+    public String readClass(int offset) {
+        return reader.readClass(offset, buffer);
+    }
+
+    /**
+     * <h6>Reads a loadable entry, such as an {@code ldc} operand or a bootstrap method argument.
+     *
+     * @param index The index of the entry.
+     * @return The value, as it would be given to a {@linkplain org.objectweb.asm.MethodVisitor}.
+     */
+    public Object readConstant(int index) {
+        return reader.readConst(index, buffer);
+    }
+
+    /**
+     * @return The offset of the {@code fields_count} item.
+     */
+    public int getFieldsOffset() {
+        return fieldsOffset;
+    }
+
+    /**
+     * @return The offset of the {@code methods_count} item.
+     */
+    public int getMethodsOffset() {
+        return methodsOffset;
+    }
+
+    /**
+     * @return The offset of the {@code attributes_count} item of the class.
+     */
+    public int getAttributesOffset() {
+        return attributesOffset;
+    }
+
+    /**
+     * <h6>Gets where a bootstrap method is stored in the {@code BootstrapMethods} attribute.
+     *
+     * @param index The index of the bootstrap method.
+     * @return The offset of its {@code bootstrap_method_ref} item.
+     */
+    public int getBootstrapMethodOffset(int index) {
+        if (bootstrapMethodOffsets == null) {
+            bootstrapMethodOffsets = readBootstrapMethodOffsets();
+        }
+
+        return bootstrapMethodOffsets[index];
+    }
+
+    /**
+     * <h6>Skips an {@code attributes_count} item and the attributes following it.
+     *
+     * @param offset The offset of the {@code attributes_count} item.
+     * @return The offset right after the last attribute.
+     */
+    public int skipAttributes(int offset) {
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+
+        for (int i = 0; i < count; i++) {
+            offset += 6 + reader.readInt(offset + 2);
+        }
+
+        return offset;
+    }
+
+    private int[] readBootstrapMethodOffsets() {
+        int offset = attributesOffset + 2;
+        for (int i = reader.readUnsignedShort(attributesOffset); i > 0; i--) {
+            int length = reader.readInt(offset + 2);
+            if ("BootstrapMethods".equals(readUtf8(offset))) {
+                int current = offset + 6;
+                int[] offsets = new int[reader.readUnsignedShort(current)];
+                current += 2;
+
+                for (int j = 0; j < offsets.length; j++) {
+                    offsets[j] = current;
+                    current += 4 + reader.readUnsignedShort(current + 2) * 2;
+                }
+                return offsets;
+            }
+
+            offset += 6 + length;
+        }
+
+        return new int[0];
+    }
+
+    private int skipMembers(int offset) {
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+
+        for (int i = 0; i < count; i++) {
+            offset = skipAttributes(offset + 6);
+        }
+
+        return offset;
+    }
+}
@@ -0,0 +1,598 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.contexts.InvokeDynamicRemapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
+
+/**
+ * {@code ConstantPoolRemapper} is used to remap a class by rewriting its constant pool, without visiting it.
+ *
+ * <p>Renaming only ever changes {@code CONSTANT_Utf8} entries. The class file is walked once to find out what every
+ * reference to such an entry means, a class name, the name of a member of some owner, a descriptor or a signature, and
+ * each entry is given its mapped value. Everything else, code included, is copied byte for byte. When references to
+ * the same entry need different values, the entry is kept for some of them and new entries are added at the end of the
+ * pool for the others, so indexes used by the code never move.</p>
+ *
+ * <p>The result matches the output of a {@linkplain org.omnimc.trix.contexts.MappingContext} that only renames. Classes
+ * with attributes it doesn't know, module descriptors and classes that would run out of constant pool entries can't be
+ * remapped this way, {@linkplain #remap(byte[])} returns {@code null} for them so the caller can fall back to visiting
+ * the class.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ConstantPoolRemapper {
+
+    private static final int CLASS_ATTRIBUTES = 0;
+    private static final int FIELD_ATTRIBUTES = 1;
+    private static final int METHOD_ATTRIBUTES = 2;
+    private static final int CODE_ATTRIBUTES = 3;
+    private static final int RECORD_COMPONENT_ATTRIBUTES = 4;
+
+    private final Remapper globalRemapper;
+    private final InvokeDynamicRemapper dynamicRemapper;
+
+    public ConstantPoolRemapper(@NotNull Remapper globalRemapper) {
+        this.globalRemapper = globalRemapper;
+        this.dynamicRemapper = new InvokeDynamicRemapper(globalRemapper);
+    }
+
+    /**
+     * <h6>Remaps a class by rewriting its constant pool.
+     *
+     * @param classBytes The bytes of the class to remap.
+     * @return The remapped class bytes, the given array itself if nothing had to change, or {@code null} if the class
+     * can't be remapped this way.
+     */
+    public byte @Nullable [] remap(byte @NotNull [] classBytes) {
+        return new Rewrite(classBytes).run();
+    }
+
+    private final class Rewrite {
+
+        private final byte[] classBytes;
+        private final ClassReader reader;
+        private final ConstantPool constantPool;
+        private final String className;
+
+        /* Every reference to a Utf8 entry, with the value it needs or null to keep the entry as it is. */
+        private int[] slotOffsets = new int[256];
+        private String[] slotValues = new String[256];
+        private int slotCount;
+
+        /* Every reference to a NameAndType entry, with the name and descriptor it needs. */
+        private final ArrayList<NameAndTypeSlot> nameAndTypeSlots = new ArrayList<>();
+
+        private final HashMap<Integer, Integer> patches = new HashMap<>();
+        private final ArrayList<Object> appended = new ArrayList<>();
+        private final HashMap<Object, Integer> appendedIndexes = new HashMap<>();
+
+        private final String[] mappedDescriptors;
+        private String[] utf8Values;
+
+        private Rewrite(byte[] classBytes) {
+            this.classBytes = classBytes;
+            this.constantPool = new ConstantPool(classBytes);
+            this.reader = constantPool.getReader();
+            this.className = reader.getClassName();
+            this.mappedDescriptors = new String[constantPool.size()];
+        }
+
+        private byte[] run() {
+            try {
+                if (!readConstantPool() || !readMembers() || !readAttributes(constantPool.getAttributesOffset(), CLASS_ATTRIBUTES)) {
+                    return null;
+                }
+
+                resolveNameAndTypes();
+                boolean changed = resolveUtf8s();
+                if (!changed && patches.isEmpty()) {
+                    return classBytes;
+                }
+
+                if (constantPool.size() + appended.size() > 0xFFFF) {
+                    return null;
+                }
+
+                return write();
+            } catch (IOException | IllegalArgumentException e) {
+                // A mapped value doesn't fit in a Utf8 entry, or the class uses something this can't read.
+                return null;
+            }
+        }
+
+        /* Reading */
+
+        private boolean readConstantPool() {
+            for (int index = 1; index < constantPool.size(); index++) {
+                int offset = constantPool.getOffset(index);
+
+                switch (constantPool.getTag(index)) {
+                    case ConstantPool.CLASS -> {
+                        String name = constantPool.readUtf8(offset);
+                        addSlot(offset, name, name.startsWith("[") ? globalRemapper.mapDesc(name) : globalRemapper.mapType(name));
+                    }
+                    case ConstantPool.STRING -> addSlot(offset, null, null);
+                    case ConstantPool.METHOD_TYPE -> {
+                        String descriptor = constantPool.readUtf8(offset);
+                        addSlot(offset, descriptor, globalRemapper.mapMethodDesc(descriptor));
+                    }
+                    case ConstantPool.FIELD_REF -> readFieldRef(offset);
+                    case ConstantPool.METHOD_REF, ConstantPool.INTERFACE_METHOD_REF -> readMethodRef(offset);
+                    case ConstantPool.DYNAMIC, ConstantPool.INVOKE_DYNAMIC -> readDynamic(index, offset);
+                    case ConstantPool.MODULE, ConstantPool.PACKAGE -> {
+                        return false;
+                    }
+                    default -> {
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        private void readFieldRef(int offset) {
+            String owner = constantPool.readClass(offset);
+            int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+            String name = constantPool.readUtf8(nameAndType);
+            String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+            addNameAndTypeSlot(offset + 2, globalRemapper.mapFieldName(owner, name, descriptor), mapDescriptor(nameAndType + 2));
+        }
+
+        private void readMethodRef(int offset) {
+            String owner = constantPool.readClass(offset);
+            int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+            String name = constantPool.readUtf8(nameAndType);
+            String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+            if (owner.startsWith("[")) {
+                // Same as the method context, methods called on arrays are looked up on the element type.
+                owner = owner.replace("[", "");
+                if (owner.startsWith("L") && owner.endsWith(";")) {
+                    owner = owner.substring(1, owner.length() - 1);
+                }
+            }
+
+            String mappedDescriptor = globalRemapper.mapMethodDesc(descriptor);
+            addNameAndTypeSlot(offset + 2, globalRemapper.mapMethodName(owner, name, mappedDescriptor), mappedDescriptor);
+        }
+
+        private void readDynamic(int index, int offset) {
+            int bootstrapMethod = constantPool.getBootstrapMethodOffset(reader.readUnsignedShort(offset));
+            int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+            String name = constantPool.readUtf8(nameAndType);
+            String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+            Handle bootstrapMethodHandle = (Handle) constantPool.readConstant(reader.readUnsignedShort(bootstrapMethod));
+            Object[] bootstrapMethodArguments = new Object[reader.readUnsignedShort(bootstrapMethod + 2)];
+            for (int i = 0; i < bootstrapMethodArguments.length; i++) {
+                bootstrapMethodArguments[i] = constantPool.readConstant(reader.readUnsignedShort(bootstrapMethod + 4 + i * 2));
+            }
+
+            if (constantPool.getTag(index) == ConstantPool.DYNAMIC) {
+                addNameAndTypeSlot(offset + 2, globalRemapper.mapInvokeDynamicMethodName(name, descriptor), mapDescriptor(nameAndType + 2));
+            } else {
+                addNameAndTypeSlot(offset + 2,
+                        dynamicRemapper.mapInvokeDynamicName(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments),
+                        globalRemapper.mapMethodDesc(descriptor));
+            }
+
+            // Strings among the arguments can depend on other names, such as the component names of a record.
+            Object[] mappedArguments = dynamicRemapper.mapArguments(bootstrapMethodHandle, bootstrapMethodArguments);
+            for (int i = 0; i < bootstrapMethodArguments.length; i++) {
+                if (bootstrapMethodArguments[i] instanceof String value && !value.equals(mappedArguments[i])) {
+                    patches.put(bootstrapMethod + 4 + i * 2, append(new StringEntry(append((String) mappedArguments[i]))));
+                }
+            }
+        }
+
+        private boolean readMembers() {
+            int offset = constantPool.getFieldsOffset();
+            for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--) {
+                String name = constantPool.readUtf8(current + 2);
+                String descriptor = constantPool.readUtf8(current + 4);
+
+                addSlot(current + 2, name, globalRemapper.mapFieldName(className, name, descriptor));
+                addSlot(current + 4, descriptor, mapDescriptor(current + 4));
+                if (!readAttributes(current + 6, FIELD_ATTRIBUTES)) {
+                    return false;
+                }
+
+                current = constantPool.skipAttributes(current + 6);
+            }
+
+            offset = constantPool.getMethodsOffset();
+            for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--) {
+                String name = constantPool.readUtf8(current + 2);
+                String descriptor = constantPool.readUtf8(current + 4);
+
+                String mappedDescriptor = globalRemapper.mapMethodDesc(descriptor);
+                addSlot(current + 2, name, globalRemapper.mapMethodName(className, name, mappedDescriptor));
+                addSlot(current + 4, descriptor, mappedDescriptor);
+                if (!readAttributes(current + 6, METHOD_ATTRIBUTES)) {
+                    return false;
+                }
+
+                current = constantPool.skipAttributes(current + 6);
+            }
+
+            return true;
+        }
+
+        private boolean readAttributes(int offset, int kind) {
+            int count = reader.readUnsignedShort(offset);
+            offset += 2;
+
+            for (int i = 0; i < count; i++) {
+                String name = constantPool.readUtf8(offset);
+                int length = reader.readInt(offset + 2);
+                int start = offset + 6;
+
+                addSlot(offset, null, null);
+                if (!readAttribute(name, start, kind)) {
+                    return false;
+                }
+
+                offset = start + length;
+            }
+
+            return true;
+        }
+
+        private boolean readAttribute(String name, int offset, int kind) {
+            switch (name) {
+                case "ConstantValue", "Exceptions", "StackMapTable", "LineNumberTable", "Deprecated", "Synthetic",
+                     "SourceDebugExtension", "BootstrapMethods", "NestHost", "NestMembers", "PermittedSubclasses" -> {
+                    // These only refer to entries that are remapped on their own, if they refer to any.
+                    return true;
+                }
+                case "SourceFile" -> {
+                    addSlot(offset, null, null);
+                    return kind == CLASS_ATTRIBUTES;
+                }
+                case "Signature" -> {
+                    String signature = constantPool.readUtf8(offset);
+                    boolean typeSignature = kind == FIELD_ATTRIBUTES || kind == RECORD_COMPONENT_ATTRIBUTES;
+                    addSlot(offset, signature, globalRemapper.mapSignature(signature, typeSignature));
+                    return kind != CODE_ATTRIBUTES;
+                }
+                case "InnerClasses" -> {
+                    for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--, current += 8) {
+                        if (reader.readUnsignedShort(current + 4) != 0) {
+                            String innerName = constantPool.readUtf8(current + 4);
+                            addSlot(current + 4, innerName, globalRemapper.mapType(innerName));
+                        }
+                    }
+                    return kind == CLASS_ATTRIBUTES;
+                }
+                case "EnclosingMethod" -> {
+                    if (reader.readUnsignedShort(offset + 2) != 0) {
+                        String owner = constantPool.readClass(offset);
+                        int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+                        String mappedDescriptor = globalRemapper.mapMethodDesc(constantPool.readUtf8(nameAndType + 2));
+                        addNameAndTypeSlot(offset + 2,
+                                globalRemapper.mapMethodName(owner, constantPool.readUtf8(nameAndType), mappedDescriptor), mappedDescriptor);
+                    }
+                    return kind == CLASS_ATTRIBUTES;
+                }
+                case "Record" -> {
+                    int current = offset + 2;
+                    for (int i = reader.readUnsignedShort(offset); i > 0; i--) {
+                        addSlot(current, null, null);
+                        addSlot(current + 2, constantPool.readUtf8(current + 2), mapDescriptor(current + 2));
+                        if (!readAttributes(current + 4, RECORD_COMPONENT_ATTRIBUTES)) {
+                            return false;
+                        }
+                        current = constantPool.skipAttributes(current + 4);
+                    }
+                    return kind == CLASS_ATTRIBUTES;
+                }
+                case "MethodParameters" -> {
+                    for (int i = reader.readByte(offset), current = offset + 1; i > 0; i--, current += 4) {
+                        if (reader.readUnsignedShort(current) != 0) {
+                            addSlot(current, null, null);
+                        }
+                    }
+                    return kind == METHOD_ATTRIBUTES;
+                }
+                case "Code" -> {
+                    int codeEnd = offset + 8 + reader.readInt(offset + 4);
+                    int attributes = codeEnd + 2 + reader.readUnsignedShort(codeEnd) * 8;
+                    return kind == METHOD_ATTRIBUTES && readAttributes(attributes, CODE_ATTRIBUTES);
+                }
+                case "LocalVariableTable", "LocalVariableTypeTable" -> {
+                    boolean signatures = name.equals("LocalVariableTypeTable");
+                    for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--, current += 10) {
+                        addSlot(current + 4, null, null);
+
+                        String value = constantPool.readUtf8(current + 6);
+                        addSlot(current + 6, value, signatures ? globalRemapper.mapSignature(value, true) : mapDescriptor(current + 6));
+                    }
+                    return kind == CODE_ATTRIBUTES;
+                }
+                case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations" -> {
+                    // Only the class and method contexts map annotation types, fields and record components keep theirs.
+                    boolean mapType = kind == CLASS_ATTRIBUTES || kind == METHOD_ATTRIBUTES;
+                    for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--) {
+                        current = readAnnotation(current, mapType);
+                    }
+                    return kind != CODE_ATTRIBUTES;
+                }
+                case "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations" -> {
+                    boolean mapType = kind == CLASS_ATTRIBUTES || kind == METHOD_ATTRIBUTES || kind == CODE_ATTRIBUTES;
+                    for (int i = reader.readUnsignedShort(offset), current = offset + 2; i > 0; i--) {
+                        current = readTypeAnnotation(current, mapType);
+                    }
+                    return true;
+                }
+                case "RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations" -> {
+                    int current = offset + 1;
+                    for (int i = reader.readByte(offset); i > 0; i--) {
+                        int annotations = reader.readUnsignedShort(current);
+                        current += 2;
+                        for (int j = 0; j < annotations; j++) {
+                            current = readAnnotation(current, true);
+                        }
+                    }
+                    return kind == METHOD_ATTRIBUTES;
+                }
+                case "AnnotationDefault" -> {
+                    readElementValue(offset);
+                    return kind == METHOD_ATTRIBUTES;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private int readTypeAnnotation(int offset, boolean mapType) {
+            int targetType = reader.readByte(offset);
+            offset += switch (targetType) {
+                case 0x00, 0x01, 0x16 -> 2;
+                case 0x10, 0x17, 0x42, 0x43, 0x44, 0x45, 0x46 -> 3;
+                case 0x11, 0x12 -> 3;
+                case 0x13, 0x14, 0x15 -> 1;
+                case 0x40, 0x41 -> 3 + reader.readUnsignedShort(offset + 1) * 6;
+                case 0x47, 0x48, 0x49, 0x4A, 0x4B -> 4;
+                default -> throw new IllegalArgumentException("Unknown type annotation target " + targetType);
+            };
+
+            offset += 1 + reader.readByte(offset) * 2;
+            return readAnnotation(offset, mapType);
+        }
+
+        private int readAnnotation(int offset, boolean mapType) {
+            String descriptor = constantPool.readUtf8(offset);
+            addSlot(offset, descriptor, mapType ? mapDescriptor(offset) : null);
+
+            int current = offset + 4;
+            for (int i = reader.readUnsignedShort(offset + 2); i > 0; i--) {
+                addSlot(current, null, null);
+                current = readElementValue(current + 2);
+            }
+
+            return current;
+        }
+
+        private int readElementValue(int offset) {
+            int tag = reader.readByte(offset);
+            switch (tag) {
+                case 'e' -> {
+                    addSlot(offset + 1, null, null);
+                    addSlot(offset + 3, null, null);
+                    return offset + 5;
+                }
+                case 's', 'c' -> {
+                    addSlot(offset + 1, null, null);
+                    return offset + 3;
+                }
+                case '@' -> {
+                    return readAnnotation(offset + 1, false);
+                }
+                case '[' -> {
+                    int current = offset + 3;
+                    for (int i = reader.readUnsignedShort(offset + 1); i > 0; i--) {
+                        current = readElementValue(current);
+                    }
+                    return current;
+                }
+                default -> {
+                    return offset + 3;
+                }
+            }
+        }
+
+        private String mapDescriptor(int offset) {
+            int index = reader.readUnsignedShort(offset);
+            String mapped = mappedDescriptors[index];
+            if (mapped == null) {
+                mapped = globalRemapper.mapDesc(constantPool.readUtf8(offset));
+                mappedDescriptors[index] = mapped;
+            }
+
+            return mapped;
+        }
+
+        private void addSlot(int offset, @Nullable String value, @Nullable String mappedValue) {
+            if (slotCount == slotOffsets.length) {
+                slotOffsets = Arrays.copyOf(slotOffsets, slotCount * 2);
+                slotValues = Arrays.copyOf(slotValues, slotCount * 2);
+            }
+
+            slotOffsets[slotCount] = offset;
+            slotValues[slotCount] = mappedValue == null || mappedValue.equals(value) ? null : mappedValue;
+            slotCount++;
+        }
+
+        private void addNameAndTypeSlot(int offset, String name, String descriptor) {
+            nameAndTypeSlots.add(new NameAndTypeSlot(offset, reader.readUnsignedShort(offset), new NameAndType(name, descriptor)));
+        }
+
+        /* Resolving */
+
+        private void resolveNameAndTypes() {
+            HashMap<Integer, NameAndType> claimed = new HashMap<>();
+
+            for (NameAndTypeSlot slot : nameAndTypeSlots) {
+                NameAndType owner = claimed.get(slot.index());
+                if (owner == null) {
+                    // The first reference decides the value of the entry itself.
+                    claimed.put(slot.index(), slot.value());
+
+                    int offset = constantPool.getOffset(slot.index());
+                    addSlot(offset, constantPool.readUtf8(offset), slot.value().name());
+                    addSlot(offset + 2, constantPool.readUtf8(offset + 2), slot.value().descriptor());
+                } else if (!owner.equals(slot.value())) {
+                    patches.put(slot.offset(), append(new NameAndTypeEntry(append(slot.value().name()), append(slot.value().descriptor()))));
+                }
+            }
+        }
+
+        private boolean resolveUtf8s() {
+            String[] values = new String[constantPool.size()];
+            boolean[] decided = new boolean[constantPool.size()];
+            boolean changed = false;
+
+            for (int i = 0; i < slotCount; i++) {
+                int offset = slotOffsets[i];
+                String value = slotValues[i];
+                int index = reader.readUnsignedShort(offset);
+
+                if (!decided[index]) {
+                    decided[index] = true;
+                    values[index] = value;
+                    changed |= value != null;
+                } else if (!Objects.equals(values[index], value)) {
+                    // Another reference already changed the entry, this one gets an entry of its own.
+                    patches.put(offset, append(value == null ? constantPool.readUtf8(offset) : value));
+                }
+            }
+
+            this.utf8Values = values;
+            return changed;
+        }
+
+        private int append(Object entry) {
+            Integer index = appendedIndexes.get(entry);
+            if (index == null) {
+                index = constantPool.size() + appended.size();
+                appended.add(entry);
+                appendedIndexes.put(entry, index);
+            }
+
+            return index;
+        }
+
+        /* Writing */
+
+        private byte[] write() throws IOException {
+            byte[] body = classBytes.clone();
+            patches.forEach((offset, index) -> {
+                body[offset] = (byte) (index >>> 8);
+                body[offset + 1] = index.byteValue();
+            });
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(classBytes.length + classBytes.length / 4);
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.write(classBytes, 0, 8);
+            output.writeShort(constantPool.size() + appended.size());
+
+            for (int index = 1; index < constantPool.size(); index++) {
+                int offset = constantPool.getOffset(index);
+                if (offset == 0) {
+                    // The unusable entry after a long or double.
+                    continue;
+                }
+
+                int end = index + 1 < constantPool.size() && constantPool.getOffset(index + 1) != 0
+                        ? constantPool.getOffset(index + 1) - 1
+                        : entryEnd(index, offset);
+
+                if (constantPool.getTag(index) == ConstantPool.UTF8 && utf8Values[index] != null) {
+                    output.writeByte(ConstantPool.UTF8);
+                    output.writeUTF(utf8Values[index]);
+                } else {
+                    output.write(body, offset - 1, end - offset + 1);
+                }
+            }
+
+            for (Object entry : appended) {
+                if (entry instanceof String value) {
+                    output.writeByte(ConstantPool.UTF8);
+                    output.writeUTF(value);
+                } else if (entry instanceof StringEntry string) {
+                    output.writeByte(ConstantPool.STRING);
+                    output.writeShort(string.value());
+                } else if (entry instanceof NameAndTypeEntry nameAndType) {
+                    output.writeByte(ConstantPool.NAME_AND_TYPE);
+                    output.writeShort(nameAndType.name());
+                    output.writeShort(nameAndType.descriptor());
+                }
+            }
+
+            output.write(body, reader.header, body.length - reader.header);
+
+            return bytes.toByteArray();
+        }
+
+        private int entryEnd(int index, int offset) {
+            return switch (constantPool.getTag(index)) {
+                case ConstantPool.UTF8 -> offset + 2 + reader.readUnsignedShort(offset);
+                case ConstantPool.LONG, ConstantPool.DOUBLE -> offset + 8;
+                case ConstantPool.METHOD_HANDLE -> offset + 3;
+                case ConstantPool.CLASS, ConstantPool.STRING, ConstantPool.METHOD_TYPE, ConstantPool.MODULE, ConstantPool.PACKAGE -> offset + 2;
+                default -> offset + 4;
+            };
+        }
+    }
+
+    private record NameAndType(String name, String descriptor) {
+    }
+
+    private record NameAndTypeSlot(int offset, int index, NameAndType value) {
+    }
+
+    private record StringEntry(int value) {
+    }
+
+    private record NameAndTypeEntry(int name, int descriptor) {
+    }
+}
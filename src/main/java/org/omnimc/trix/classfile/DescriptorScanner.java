@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code DescriptorScanner} is used to search the bytes of {@code CONSTANT_Utf8} entries, such as descriptors and
+ * signatures, for the few characters that matter to a remap.
+ *
+ * <p>A class name starts at an {@code 'L'} and ends at a {@code ';'}, an array type is prefixed by {@code '['} and a
+ * package ends at the last {@code '/'}, everything in between can be skipped. When the {@code jdk.incubator.vector}
+ * module is part of the boot layer, {@linkplain #getInstance()} gives a scanner that compares a whole vector of bytes
+ * at once. Without it, or when {@code -Dtrix.vector=false} is given, the plain scalar one is used, both always give
+ * the same answers.</p>
+ *
+ * <p>Every range is given as {@code from} inclusive and {@code to} exclusive.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public interface DescriptorScanner {
+
+    /**
+     * <h6>Gets the best scanner the running JVM supports.
+     *
+     * @return The vectorized scanner if the Vector API is available, the scalar one otherwise.
+     */
+    @NotNull
+    static DescriptorScanner getInstance() {
+        return ScalarDescriptorScanner.PREFERRED;
+    }
+
+    /**
+     * @return The scanner that compares one byte at a time, always available.
+     */
+    @NotNull
+    static DescriptorScanner scalar() {
+        return ScalarDescriptorScanner.INSTANCE;
+    }
+
+    /**
+     * <h6>Checks whether a range only holds ASCII, in which case each byte is exactly one character.
+     *
+     * @param bytes The bytes to check.
+     * @param from  The first index to check.
+     * @param to    The index after the last one to check.
+     * @return {@code true} if no byte in the range has its high bit set.
+     */
+    boolean isAscii(byte[] bytes, int from, int to);
+
+    /**
+     * <h6>Finds the first occurrence of a byte.
+     *
+     * @param bytes The bytes to search.
+     * @param from  The first index to search.
+     * @param to    The index after the last one to search.
+     * @param value The byte to find, such as {@code 'L'} or {@code '['}.
+     * @return The index of the byte, or {@code -1} if it isn't in the range.
+     */
+    int indexOf(byte[] bytes, int from, int to, byte value);
+
+    /**
+     * <h6>Finds the first occurrence of any of the given bytes.
+     *
+     * @param bytes  The bytes to search.
+     * @param from   The first index to search.
+     * @param to     The index after the last one to search.
+     * @param values The bytes to find, like {@code ";<."} for the end of a class name.
+     * @return The index of the first matching byte, or {@code -1} if none of them is in the range.
+     */
+    int indexOfAny(byte[] bytes, int from, int to, byte[] values);
+
+    /**
+     * <h6>Finds the last occurrence of a byte.
+     *
+     * @param bytes The bytes to search.
+     * @param from  The first index to search.
+     * @param to    The index after the last one to search.
+     * @param value The byte to find, such as the {@code '/'} ending a package.
+     * @return The index of the byte, or {@code -1} if it isn't in the range.
+     */
+    int lastIndexOf(byte[] bytes, int from, int to, byte value);
+
+    /**
+     * @return {@code true} if this scanner uses the Vector API.
+     */
+    boolean isVectorized();
+}
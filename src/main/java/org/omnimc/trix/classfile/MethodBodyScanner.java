@@ -0,0 +1,439 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.contexts.InvokeDynamicRemapper;
+
+import java.util.BitSet;
+
+/**
+ * {@code MethodBodyScanner} is used to find the methods of a class whose bodies don't reference anything that would
+ * be remapped.
+ *
+ * <p>It walks the bytecode, exception table, local variable tables and stack map frames of every method straight from
+ * the class file and checks each constant pool entry they use against a {@linkplain Remapper}, the same way a
+ * {@linkplain org.omnimc.trix.contexts.MethodContext} would map it. Methods with annotations are never reported, since
+ * copying them would skip remapping their descriptors.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class MethodBodyScanner {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte UNCHANGED = 1;
+    private static final byte CHANGED = 2;
+
+    private final ConstantPool constantPool;
+    private final Remapper globalRemapper;
+    private final InvokeDynamicRemapper dynamicRemapper;
+    private final boolean remapStrings;
+    private final byte[] states;
+
+    /**
+     * <h6>Creates a new {@code MethodBodyScanner}.
+     *
+     * @param constantPool   The {@linkplain ConstantPool} of the class to scan.
+     * @param globalRemapper The {@linkplain Remapper} the class will be remapped with.
+     * @param remapStrings   {@code true} if string constants may be remapped too.
+     */
+    public MethodBodyScanner(@NotNull ConstantPool constantPool, @NotNull Remapper globalRemapper, boolean remapStrings) {
+        this.constantPool = constantPool;
+        this.globalRemapper = globalRemapper;
+        this.dynamicRemapper = new InvokeDynamicRemapper(globalRemapper);
+        this.remapStrings = remapStrings;
+        this.states = new byte[constantPool.size()];
+    }
+
+    /**
+     * <h6>Scans every method of the class.
+     *
+     * @return The indexes, in class file order, of the methods whose bodies stay the same when remapped.
+     */
+    public BitSet scan() {
+        BitSet unchanged = new BitSet();
+
+        int offset = constantPool.getMethodsOffset();
+        int count = constantPool.getReader().readUnsignedShort(offset);
+        offset += 2;
+
+        for (int i = 0; i < count; i++) {
+            if (isMethodUnchanged(offset + 6)) {
+                unchanged.set(i);
+            }
+
+            offset = constantPool.skipAttributes(offset + 6);
+        }
+
+        return unchanged;
+    }
+
+    /**
+     * <h6>Checks whether a constant pool entry would be changed by remapping.
+     *
+     * @param index The index of the entry.
+     * @return {@code true} if remapping changes the entry or anything it refers to.
+     */
+    public boolean isChanged(int index) {
+        byte state = states[index];
+        if (state == UNKNOWN) {
+            // Entries can't refer to themselves, but mark it first so a broken class file can't recurse forever.
+            states[index] = CHANGED;
+            state = computeChanged(index) ? CHANGED : UNCHANGED;
+            states[index] = state;
+        }
+
+        return state == CHANGED;
+    }
+
+    private boolean isMethodUnchanged(int attributesOffset) {
+        ClassReader reader = constantPool.getReader();
+
+        int offset = attributesOffset + 2;
+        for (int i = reader.readUnsignedShort(attributesOffset); i > 0; i--) {
+            String name = constantPool.readUtf8(offset);
+            int length = reader.readInt(offset + 2);
+
+            switch (name) {
+                case "Code" -> {
+                    if (!isCodeUnchanged(offset + 6)) {
+                        return false;
+                    }
+                }
+                case "RuntimeVisibleAnnotations", "RuntimeInvisibleAnnotations",
+                     "RuntimeVisibleParameterAnnotations", "RuntimeInvisibleParameterAnnotations",
+                     "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations", "AnnotationDefault" -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+
+            offset += 6 + length;
+        }
+
+        return true;
+    }
+
+    private boolean isCodeUnchanged(int offset) {
+        ClassReader reader = constantPool.getReader();
+
+        int codeStart = offset + 8;
+        int codeEnd = codeStart + reader.readInt(offset + 4);
+        if (!isBytecodeUnchanged(codeStart, codeEnd)) {
+            return false;
+        }
+
+        int current = codeEnd + 2;
+        for (int i = reader.readUnsignedShort(codeEnd); i > 0; i--) {
+            int catchType = reader.readUnsignedShort(current + 6);
+            if (catchType != 0 && isChanged(catchType)) {
+                return false;
+            }
+            current += 8;
+        }
+
+        for (int i = reader.readUnsignedShort(current), attribute = current + 2; i > 0; i--) {
+            String name = constantPool.readUtf8(attribute);
+            int length = reader.readInt(attribute + 2);
+            int start = attribute + 6;
+
+            boolean unchanged = switch (name) {
+                case "LocalVariableTable" -> isLocalVariableTableUnchanged(start, false);
+                case "LocalVariableTypeTable" -> isLocalVariableTableUnchanged(start, true);
+                case "StackMapTable" -> isStackMapTableUnchanged(start);
+                case "RuntimeVisibleTypeAnnotations", "RuntimeInvisibleTypeAnnotations", "StackMap" -> false;
+                default -> true;
+            };
+            if (!unchanged) {
+                return false;
+            }
+
+            attribute = start + length;
+        }
+
+        return true;
+    }
+
+    private boolean isBytecodeUnchanged(int codeStart, int codeEnd) {
+        ClassReader reader = constantPool.getReader();
+
+        int offset = codeStart;
+        while (offset < codeEnd) {
+            int opcode = reader.readByte(offset);
+
+            switch (opcode) {
+                case 0x12 -> { // ldc
+                    if (isChanged(reader.readByte(offset + 1))) {
+                        return false;
+                    }
+                    offset += 2;
+                }
+                case 0x13, 0x14, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xbb, 0xbd, 0xc0, 0xc1 -> {
+                    if (isChanged(reader.readUnsignedShort(offset + 1))) {
+                        return false;
+                    }
+                    offset += 3;
+                }
+                case 0xb9, 0xba -> { // invokeinterface, invokedynamic
+                    if (isChanged(reader.readUnsignedShort(offset + 1))) {
+                        return false;
+                    }
+                    offset += 5;
+                }
+                case 0xc5 -> { // multianewarray
+                    if (isChanged(reader.readUnsignedShort(offset + 1))) {
+                        return false;
+                    }
+                    offset += 4;
+                }
+                case 0xaa -> { // tableswitch
+                    offset += 4 - ((offset - codeStart) & 3);
+                    offset += 12 + (reader.readInt(offset + 8) - reader.readInt(offset + 4) + 1) * 4;
+                }
+                case 0xab -> { // lookupswitch
+                    offset += 4 - ((offset - codeStart) & 3);
+                    offset += 8 + reader.readInt(offset + 4) * 8;
+                }
+                case 0xc4 -> offset += reader.readByte(offset + 1) == 0x84 ? 6 : 4; // wide
+                default -> offset += instructionLength(opcode);
+            }
+        }
+
+        return true;
+    }
+
+    private static int instructionLength(int opcode) {
+        if (opcode == 0x10 || opcode == 0xa9 || opcode == 0xbc || (opcode >= 0x15 && opcode <= 0x19) || (opcode >= 0x36 && opcode <= 0x3a)) {
+            return 2; // bipush, ret, newarray, loads and stores with an index
+        }
+
+        if (opcode == 0x11 || opcode == 0x84 || (opcode >= 0x99 && opcode <= 0xa8) || opcode == 0xc6 || opcode == 0xc7) {
+            return 3; // sipush, iinc, branches
+        }
+
+        if (opcode == 0xc8 || opcode == 0xc9) {
+            return 5; // goto_w, jsr_w
+        }
+
+        return 1;
+    }
+
+    private boolean isLocalVariableTableUnchanged(int offset, boolean signatures) {
+        ClassReader reader = constantPool.getReader();
+
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+
+        for (int i = 0; i < count; i++) {
+            int index = reader.readUnsignedShort(offset + 6);
+            if (states[index] == UNKNOWN) {
+                String value = constantPool.readUtf8(offset + 6);
+                String mapped = signatures ? globalRemapper.mapSignature(value, true) : globalRemapper.mapDesc(value);
+                states[index] = value.equals(mapped) ? UNCHANGED : CHANGED;
+            }
+
+            if (states[index] == CHANGED) {
+                return false;
+            }
+            offset += 10;
+        }
+
+        return true;
+    }
+
+    private boolean isStackMapTableUnchanged(int offset) {
+        ClassReader reader = constantPool.getReader();
+
+        int count = reader.readUnsignedShort(offset);
+        offset += 2;
+
+        for (int i = 0; i < count; i++) {
+            int frameType = reader.readByte(offset++);
+
+            int types;
+            if (frameType < 64) {
+                types = 0;
+            } else if (frameType < 128) {
+                types = 1;
+            } else if (frameType == 247) {
+                offset += 2;
+                types = 1;
+            } else if (frameType < 252) {
+                offset += 2;
+                types = 0;
+            } else if (frameType < 255) {
+                offset += 2;
+                types = frameType - 251;
+            } else {
+                offset += 2;
+                offset = skipVerificationTypes(offset + 2, reader.readUnsignedShort(offset));
+                if (offset < 0) {
+                    return false;
+                }
+
+                types = reader.readUnsignedShort(offset);
+                offset += 2;
+            }
+
+            offset = skipVerificationTypes(offset, types);
+            if (offset < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /* Returns the offset after the types, or -1 when one of them refers to a class that gets remapped. */
+    private int skipVerificationTypes(int offset, int count) {
+        ClassReader reader = constantPool.getReader();
+
+        for (int i = 0; i < count; i++) {
+            int tag = reader.readByte(offset++);
+            if (tag == 7) { // Object_variable_info
+                if (isChanged(reader.readUnsignedShort(offset))) {
+                    return -1;
+                }
+                offset += 2;
+            } else if (tag == 8) { // Uninitialized_variable_info
+                offset += 2;
+            }
+        }
+
+        return offset;
+    }
+
+    private boolean computeChanged(int index) {
+        int offset = constantPool.getOffset(index);
+
+        return switch (constantPool.getTag(index)) {
+            case ConstantPool.CLASS -> isClassChanged(constantPool.readUtf8(offset));
+            case ConstantPool.STRING -> remapStrings;
+            case ConstantPool.FIELD_REF -> isFieldRefChanged(offset);
+            case ConstantPool.METHOD_REF, ConstantPool.INTERFACE_METHOD_REF -> isMethodRefChanged(offset);
+            case ConstantPool.METHOD_TYPE -> isMethodDescriptorChanged(constantPool.readUtf8(offset));
+            case ConstantPool.METHOD_HANDLE -> isChanged(constantPool.getReader().readUnsignedShort(offset + 1));
+            case ConstantPool.DYNAMIC, ConstantPool.INVOKE_DYNAMIC -> isDynamicChanged(index, offset);
+            default -> false;
+        };
+    }
+
+    private boolean isClassChanged(String name) {
+        if (name.startsWith("[")) {
+            return !name.equals(globalRemapper.mapDesc(name));
+        }
+
+        return !name.equals(globalRemapper.mapType(name));
+    }
+
+    private boolean isFieldRefChanged(int offset) {
+        ClassReader reader = constantPool.getReader();
+        if (isChanged(reader.readUnsignedShort(offset))) {
+            return true;
+        }
+
+        String owner = constantPool.readClass(offset);
+        int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+        String name = constantPool.readUtf8(nameAndType);
+        String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+        return !descriptor.equals(globalRemapper.mapDesc(descriptor))
+                || !name.equals(globalRemapper.mapFieldName(owner, name, descriptor));
+    }
+
+    private boolean isMethodRefChanged(int offset) {
+        ClassReader reader = constantPool.getReader();
+        if (isChanged(reader.readUnsignedShort(offset))) {
+            return true;
+        }
+
+        String owner = constantPool.readClass(offset);
+        int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+        String name = constantPool.readUtf8(nameAndType);
+        String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+        String mappedDescriptor = globalRemapper.mapMethodDesc(descriptor);
+        if (!descriptor.equals(mappedDescriptor)) {
+            return true;
+        }
+
+        if (owner.startsWith("[")) {
+            // Same as the method context, methods called on arrays are looked up on the element type.
+            owner = owner.replace("[", "");
+            if (owner.startsWith("L") && owner.endsWith(";")) {
+                owner = owner.substring(1, owner.length() - 1);
+            }
+        }
+
+        return !name.equals(globalRemapper.mapMethodName(owner, name, mappedDescriptor));
+    }
+
+    private boolean isMethodDescriptorChanged(String descriptor) {
+        return !descriptor.equals(globalRemapper.mapMethodDesc(descriptor));
+    }
+
+    private boolean isDynamicChanged(int index, int offset) {
+        ClassReader reader = constantPool.getReader();
+
+        int bootstrapMethod = constantPool.getBootstrapMethodOffset(reader.readUnsignedShort(offset));
+        int nameAndType = constantPool.getOffset(reader.readUnsignedShort(offset + 2));
+        String name = constantPool.readUtf8(nameAndType);
+        String descriptor = constantPool.readUtf8(nameAndType + 2);
+
+        if (isChanged(reader.readUnsignedShort(bootstrapMethod))) {
+            return true;
+        }
+
+        int argumentCount = reader.readUnsignedShort(bootstrapMethod + 2);
+        for (int i = 0; i < argumentCount; i++) {
+            if (isChanged(reader.readUnsignedShort(bootstrapMethod + 4 + i * 2))) {
+                return true;
+            }
+        }
+
+        if (constantPool.getTag(index) == ConstantPool.DYNAMIC) {
+            return !descriptor.equals(globalRemapper.mapDesc(descriptor))
+                    || !name.equals(globalRemapper.mapInvokeDynamicMethodName(name, descriptor));
+        }
+
+        if (isMethodDescriptorChanged(descriptor)) {
+            return true;
+        }
+
+        Handle bootstrapMethodHandle = (Handle) constantPool.readConstant(reader.readUnsignedShort(bootstrapMethod));
+        Object[] bootstrapMethodArguments = new Object[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            bootstrapMethodArguments[i] = constantPool.readConstant(reader.readUnsignedShort(bootstrapMethod + 4 + i * 2));
+        }
+
+        return !name.equals(dynamicRemapper.mapInvokeDynamicName(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments));
+    }
+}
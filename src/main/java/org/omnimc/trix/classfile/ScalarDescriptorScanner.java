@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+/**
+ * {@code ScalarDescriptorScanner} is the {@linkplain DescriptorScanner} that compares one byte at a time.
+ *
+ * <p>It also finishes the ranges too short for a whole vector, and picks the scanner
+ * {@linkplain DescriptorScanner#getInstance()} gives. The vectorized one is only loaded through reflection, so a JVM
+ * without the {@code jdk.incubator.vector} module never links against it.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+final class ScalarDescriptorScanner implements DescriptorScanner {
+
+    static final ScalarDescriptorScanner INSTANCE = new ScalarDescriptorScanner();
+    static final DescriptorScanner PREFERRED = findPreferred();
+
+    private ScalarDescriptorScanner() {
+    }
+
+    @Override
+    public boolean isAscii(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int indexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int indexOfAny(byte[] bytes, int from, int to, byte[] values) {
+        for (int i = from; i < to; i++) {
+            byte current = bytes[i];
+            for (byte value : values) {
+                if (current == value) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(byte[] bytes, int from, int to, byte value) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+
+    private static DescriptorScanner findPreferred() {
+        if (!Boolean.parseBoolean(System.getProperty("trix.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return INSTANCE;
+        }
+
+        try {
+            return (DescriptorScanner) Class.forName(ScalarDescriptorScanner.class.getPackageName() + ".VectorDescriptorScanner")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return INSTANCE;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.classfile;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code VectorDescriptorScanner} is the {@linkplain DescriptorScanner} that compares a whole vector of bytes at once,
+ * using the {@code jdk.incubator.vector} module.
+ *
+ * <p>It is only ever created by {@linkplain DescriptorScanner#getInstance()} once the module is known to be there.
+ * Whatever is left after the last whole vector is handed to the scalar scanner.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+final class VectorDescriptorScanner implements DescriptorScanner {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final DescriptorScanner SCALAR = DescriptorScanner.scalar();
+
+    VectorDescriptorScanner() {
+    }
+
+    @Override
+    public boolean isAscii(byte[] bytes, int from, int to) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            if (ByteVector.fromArray(SPECIES, bytes, i).compare(VectorOperators.LT, (byte) 0).anyTrue()) {
+                return false;
+            }
+        }
+
+        return SCALAR.isAscii(bytes, i, to);
+    }
+
+    @Override
+    public int indexOf(byte[] bytes, int from, int to, byte value) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            VectorMask<Byte> matches = ByteVector.fromArray(SPECIES, bytes, i).eq(value);
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+
+        return SCALAR.indexOf(bytes, i, to, value);
+    }
+
+    @Override
+    public int indexOfAny(byte[] bytes, int from, int to, byte[] values) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            ByteVector vector = ByteVector.fromArray(SPECIES, bytes, i);
+            VectorMask<Byte> matches = vector.eq(values[0]);
+            for (int j = 1; j < values.length; j++) {
+                matches = matches.or(vector.eq(values[j]));
+            }
+
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+
+        return SCALAR.indexOfAny(bytes, i, to, values);
+    }
+
+    @Override
+    public int lastIndexOf(byte[] bytes, int from, int to, byte value) {
+        int i = to;
+        for (int bound = to - SPECIES.loopBound(to - from); i > bound; i -= SPECIES.length()) {
+            VectorMask<Byte> matches = ByteVector.fromArray(SPECIES, bytes, i - SPECIES.length()).eq(value);
+            if (matches.anyTrue()) {
+                return i - SPECIES.length() + matches.lastTrue();
+            }
+        }
+
+        return SCALAR.lastIndexOf(bytes, from, i, value);
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}
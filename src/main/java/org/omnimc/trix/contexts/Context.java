@@ -26,7 +26,16 @@ package org.omnimc.trix.contexts;
 
 import org.objectweb.asm.commons.Remapper;
 import org.omnimc.asm.changes.IClassChange;
+import org.omnimc.trix.access.AccessTransformer;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMappingContextProvider;
 import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.mapping.RemapProfile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
 
 /**
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
@@ -37,4 +46,57 @@ public class Context {
     public static IClassChange ofMapping(Remapper remapper) {
         return new MappingChange(new MappingContext(remapper));
     }
+
+    /**
+     * <h6>Maps with the given {@linkplain Remapper}, reading and writing classes as the profile says.
+     *
+     * @param remapper The {@linkplain Remapper} to map with.
+     * @param profile  The {@linkplain RemapProfile} to use.
+     * @return The {@linkplain MappingChange}.
+     */
+    public static MappingChange ofMapping(Remapper remapper, RemapProfile profile) {
+        return new MappingChange(new MappingContext(remapper)).setProfile(profile);
+    }
+
+    /**
+     * <h6>Maps with the given {@linkplain Remapper} and applies the access transformer rules in the same pass.
+     *
+     * @param remapper          The {@linkplain Remapper} to map with.
+     * @param accessTransformer The {@linkplain AccessTransformer} to apply, rules may use mapped or obfuscated names.
+     * @return The {@linkplain MappingChange} doing both.
+     */
+    public static IClassChange ofMapping(Remapper remapper, AccessTransformer accessTransformer) {
+        return new MappingChange(new MappingContext(remapper, accessTransformer.compile(remapper)));
+    }
+
+    /**
+     * <h6>Runs the given contexts, in order, within a single mapping pass.
+     *
+     * @param mappingContexts The {@linkplain IMappingContext}s to run.
+     * @return The {@linkplain MappingChange} running them.
+     */
+    public static MappingChange ofChain(IMappingContext... mappingContexts) {
+        return new MappingChange(mappingContexts);
+    }
+
+    /**
+     * <h6>Maps with the given {@linkplain Remapper} and then runs every context found through
+     * {@linkplain IMappingContextProvider}, all within a single mapping pass.
+     *
+     * @param remapper The {@linkplain Remapper} to map with.
+     * @return The {@linkplain MappingChange} running them.
+     */
+    public static MappingChange ofServices(Remapper remapper) {
+        List<IMappingContextProvider> providers = new ArrayList<>();
+        ServiceLoader.load(IMappingContextProvider.class).forEach(providers::add);
+        providers.sort(Comparator.comparingInt(IMappingContextProvider::getOrder));
+
+        List<IMappingContext> mappingContexts = new ArrayList<>(providers.size() + 1);
+        mappingContexts.add(new MappingContext(remapper));
+        for (IMappingContextProvider provider : providers) {
+            mappingContexts.add(provider.create(remapper));
+        }
+
+        return new MappingChange(mappingContexts.toArray(new IMappingContext[0]));
+    }
 }
\ No newline at end of file
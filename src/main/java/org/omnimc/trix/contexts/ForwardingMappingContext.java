@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.contexts;
+
+import org.objectweb.asm.*;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+
+/**
+ * {@code ForwardingMappingContext} is an {@linkplain IMappingContext} that forwards everything unchanged.
+ *
+ * <p>It is meant as a base for contexts that only rewrite a few things. Subclasses override the callbacks they need
+ * and return them from {@linkplain #getCallbacks()}, which is {@code 0} here, so every other callback is skipped by the
+ * {@linkplain org.omnimc.trix.visitors.mapping.MappingClassVisitor} altogether.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class ForwardingMappingContext implements IMappingContext {
+
+    @Override
+    public int getCallbacks() {
+        return 0;
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces, ClassVisitor classVisitor) {
+        classVisitor.visit(version, access, name, signature, superName, interfaces);
+    }
+
+    @Override
+    public void visitOuterClass(String owner, String name, String descriptor, ClassVisitor classVisitor) {
+        classVisitor.visitOuterClass(owner, name, descriptor);
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access, ClassVisitor classVisitor) {
+        classVisitor.visitInnerClass(name, outerName, innerName, access);
+    }
+
+    @Override
+    public void visitPermittedSubclass(String permittedSubclass, ClassVisitor classVisitor) {
+        classVisitor.visitPermittedSubclass(permittedSubclass);
+    }
+
+    @Override
+    public void visitNestHost(String nestHost, ClassVisitor classVisitor) {
+        classVisitor.visitNestHost(nestHost);
+    }
+
+    @Override
+    public void visitNestMember(String nestMember, ClassVisitor classVisitor) {
+        classVisitor.visitNestMember(nestMember);
+    }
+
+    @Override
+    public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature, ClassVisitor classVisitor) {
+        return classVisitor.visitRecordComponent(name, descriptor, signature);
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value, ClassVisitor classVisitor) {
+        return classVisitor.visitField(access, name, descriptor, signature, value);
+    }
+
+    @Override
+    public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+        return new ForwardingMethodContext(classVisitor.visitMethod(access, name, descriptor, signature, exceptions));
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, ClassVisitor classVisitor) {
+        return classVisitor.visitTypeAnnotation(typeRef, typePath, descriptor, visible);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible, ClassVisitor classVisitor) {
+        return classVisitor.visitAnnotation(descriptor, visible);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.contexts;
+
+import org.objectweb.asm.*;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+
+/**
+ * {@code ForwardingMethodContext} is an {@linkplain IMethodContext} that forwards everything unchanged.
+ *
+ * <p>Like {@linkplain ForwardingMappingContext}, subclasses override the callbacks they need and return them from
+ * {@linkplain #getCallbacks()}. As it stands the method body isn't visited through it at all.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class ForwardingMethodContext implements IMethodContext {
+
+    private final MethodVisitor parentVisitor;
+
+    public ForwardingMethodContext(MethodVisitor parentVisitor) {
+        this.parentVisitor = parentVisitor;
+    }
+
+    @Override
+    public int getCallbacks() {
+        return 0;
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, MethodVisitor methodVisitor, Object... bootstrapMethodArguments) {
+        methodVisitor.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+    }
+
+    @Override
+    public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index, MethodVisitor methodVisitor) {
+        methodVisitor.visitLocalVariable(name, descriptor, signature, start, end, index);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value, MethodVisitor methodVisitor) {
+        methodVisitor.visitLdcInsn(value);
+    }
+
+    @Override
+    public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack, MethodVisitor methodVisitor) {
+        methodVisitor.visitFrame(type, numLocal, local, numStack, stack);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type, MethodVisitor methodVisitor) {
+        methodVisitor.visitTypeInsn(opcode, type);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor, MethodVisitor methodVisitor) {
+        methodVisitor.visitFieldInsn(opcode, owner, name, descriptor);
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface, MethodVisitor methodVisitor) {
+        methodVisitor.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+    }
+
+    @Override
+    public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitLocalVariableAnnotation(typeRef, typePath, start, end, index, descriptor, visible);
+    }
+
+    @Override
+    public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitInsnAnnotation(typeRef, typePath, descriptor, visible);
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type, MethodVisitor methodVisitor) {
+        methodVisitor.visitTryCatchBlock(start, end, handler, type);
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitTypeAnnotation(typeRef, typePath, descriptor, visible);
+    }
+
+    @Override
+    public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitParameterAnnotation(parameter, descriptor, visible);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitAnnotation(descriptor, visible);
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions, MethodVisitor methodVisitor) {
+        methodVisitor.visitMultiANewArrayInsn(descriptor, numDimensions);
+    }
+
+    @Override
+    public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, MethodVisitor methodVisitor) {
+        return methodVisitor.visitTryCatchAnnotation(typeRef, typePath, descriptor, visible);
+    }
+
+    @Override
+    public MethodVisitor getParentVisitor() {
+        return parentVisitor;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.contexts;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.Remapper;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code InvokeDynamicRemapper} is used to remap {@code invokedynamic} call sites, {@linkplain Handle}s and
+ * {@linkplain ConstantDynamic} constants.
+ *
+ * <p>Unlike {@linkplain Remapper#mapValue(Object)} it also renames the call site itself when it belongs to a
+ * {@code LambdaMetafactory}, where the name is the method the lambda implements on its functional interface, and it
+ * keeps the component names of records in line with their renamed fields.</p>
+ *
+ * <p>The same handles and bootstrap arguments are used by a large number of call sites, so remapped
+ * {@linkplain Handle}s and argument lists are cached. The cache is safe to share between threads, one instance is
+ * normally shared by every method of a {@linkplain MappingContext}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class InvokeDynamicRemapper {
+
+    private static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+    private static final String OBJECT_METHODS = "java/lang/runtime/ObjectMethods";
+
+    private final Remapper globalRemapper;
+    private final ConcurrentHashMap<Handle, Handle> handles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Arguments, Object[]> arguments = new ConcurrentHashMap<>();
+
+    public InvokeDynamicRemapper(@NotNull Remapper globalRemapper) {
+        this.globalRemapper = globalRemapper;
+    }
+
+    /**
+     * <h6>Maps the name of an {@code invokedynamic} call site.
+     *
+     * <p>For {@code LambdaMetafactory} call sites the name is looked up as a method of the functional interface, which
+     * is the return type of the call site's descriptor. Every other call site is left to
+     * {@linkplain Remapper#mapInvokeDynamicMethodName(String, String)}.</p>
+     *
+     * @param name                     The obfuscated name of the call site.
+     * @param descriptor               The obfuscated descriptor of the call site.
+     * @param bootstrapMethodHandle    The bootstrap method.
+     * @param bootstrapMethodArguments The obfuscated bootstrap method arguments.
+     * @return The mapped name.
+     */
+    public String mapInvokeDynamicName(String name, String descriptor, Handle bootstrapMethodHandle, Object[] bootstrapMethodArguments) {
+        if (LAMBDA_METAFACTORY.equals(bootstrapMethodHandle.getOwner())
+                && bootstrapMethodArguments.length > 0
+                && bootstrapMethodArguments[0] instanceof Type samType) {
+            Type returnType = Type.getReturnType(descriptor);
+            if (returnType.getSort() == Type.OBJECT) {
+                return globalRemapper.mapMethodName(returnType.getInternalName(), name, globalRemapper.mapMethodDesc(samType.getDescriptor()));
+            }
+        }
+
+        return globalRemapper.mapInvokeDynamicMethodName(name, descriptor);
+    }
+
+    /**
+     * <h6>Maps the bootstrap method arguments of a call site or dynamic constant.
+     *
+     * <p>The given array is never changed, a remapped copy is returned instead.</p>
+     *
+     * @param bootstrapMethodHandle    The obfuscated bootstrap method.
+     * @param bootstrapMethodArguments The obfuscated bootstrap method arguments.
+     * @return A new array holding the mapped arguments.
+     */
+    public Object[] mapArguments(Handle bootstrapMethodHandle, Object[] bootstrapMethodArguments) {
+        if (bootstrapMethodArguments == null || bootstrapMethodArguments.length == 0) {
+            return bootstrapMethodArguments;
+        }
+
+        Object[] mapped = arguments.get(new Arguments(bootstrapMethodHandle, bootstrapMethodArguments));
+        if (mapped == null) {
+            Object[] copy = bootstrapMethodArguments.clone();
+            mapped = computeArguments(bootstrapMethodHandle, copy);
+            arguments.putIfAbsent(new Arguments(bootstrapMethodHandle, copy), mapped);
+        }
+
+        return mapped.clone();
+    }
+
+    /**
+     * <h6>Maps a {@linkplain Handle}, its owner, name and descriptor.
+     *
+     * @param handle The obfuscated {@linkplain Handle}.
+     * @return The mapped {@linkplain Handle}.
+     */
+    public Handle mapHandle(Handle handle) {
+        Handle mapped = handles.get(handle);
+        if (mapped == null) {
+            mapped = computeHandle(handle);
+            handles.putIfAbsent(handle, mapped);
+        }
+
+        return mapped;
+    }
+
+    /**
+     * <h6>Maps a constant value, as found in {@code ldc} instructions and bootstrap method arguments.
+     *
+     * @param value The obfuscated value.
+     * @return The mapped value.
+     */
+    public Object mapValue(Object value) {
+        if (value instanceof Handle handle) {
+            return mapHandle(handle);
+        }
+
+        if (value instanceof ConstantDynamic constantDynamic) {
+            return mapConstantDynamic(constantDynamic);
+        }
+
+        return globalRemapper.mapValue(value);
+    }
+
+    private ConstantDynamic mapConstantDynamic(ConstantDynamic constantDynamic) {
+        Handle bootstrapMethod = constantDynamic.getBootstrapMethod();
+
+        Object[] bootstrapMethodArguments = new Object[constantDynamic.getBootstrapMethodArgumentCount()];
+        for (int i = 0; i < bootstrapMethodArguments.length; i++) {
+            bootstrapMethodArguments[i] = constantDynamic.getBootstrapMethodArgument(i);
+        }
+
+        return new ConstantDynamic(
+                globalRemapper.mapInvokeDynamicMethodName(constantDynamic.getName(), constantDynamic.getDescriptor()),
+                globalRemapper.mapDesc(constantDynamic.getDescriptor()),
+                mapHandle(bootstrapMethod),
+                mapArguments(bootstrapMethod, bootstrapMethodArguments));
+    }
+
+    private Handle computeHandle(Handle handle) {
+        String owner = handle.getOwner();
+        String name = handle.getName();
+        String descriptor = handle.getDesc();
+
+        // Looked up the same way as the field and method instructions are.
+        if (handle.getTag() <= Opcodes.H_PUTSTATIC) {
+            return new Handle(handle.getTag(), globalRemapper.mapType(owner), globalRemapper.mapFieldName(owner, name, descriptor),
+                    globalRemapper.mapDesc(descriptor), handle.isInterface());
+        }
+
+        String mappedDescriptor = globalRemapper.mapMethodDesc(descriptor);
+        String mappedName = globalRemapper.mapMethodName(owner, name, mappedDescriptor);
+
+        return new Handle(handle.getTag(), globalRemapper.mapType(owner), mappedName, mappedDescriptor, handle.isInterface());
+    }
+
+    private Object[] computeArguments(Handle bootstrapMethodHandle, Object[] bootstrapMethodArguments) {
+        Object[] mapped = new Object[bootstrapMethodArguments.length];
+        for (int i = 0; i < mapped.length; i++) {
+            mapped[i] = mapValue(bootstrapMethodArguments[i]);
+        }
+
+        if (OBJECT_METHODS.equals(bootstrapMethodHandle.getOwner()) && mapped.length > 1 && mapped[1] instanceof String) {
+            mapped[1] = mapRecordComponentNames(mapped);
+        }
+
+        return mapped;
+    }
+
+    /* ObjectMethods takes the component names joined by ';', followed by a getter handle for each of them. */
+    private String mapRecordComponentNames(Object[] mapped) {
+        StringBuilder names = new StringBuilder();
+        for (int i = 2; i < mapped.length; i++) {
+            if (!(mapped[i] instanceof Handle getter)) {
+                return (String) mapped[1];
+            }
+
+            if (i > 2) {
+                names.append(';');
+            }
+            names.append(getter.getName());
+        }
+
+        return names.toString();
+    }
+
+    private record Arguments(Handle bootstrapMethodHandle, Object[] bootstrapMethodArguments) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Arguments other
+                    && bootstrapMethodHandle.equals(other.bootstrapMethodHandle)
+                    && Arrays.equals(bootstrapMethodArguments, other.bootstrapMethodArguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * bootstrapMethodHandle.hashCode() + Arrays.hashCode(bootstrapMethodArguments);
+        }
+    }
+}
@@ -26,8 +26,15 @@ package org.omnimc.trix.contexts;
 
 import org.objectweb.asm.*;
 import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.access.AccessIndex;
+import org.omnimc.trix.access.ClassAccess;
 import org.omnimc.trix.contexts.interfaces.IMappingContext;
 import org.omnimc.trix.contexts.interfaces.IMethodContext;
+import org.omnimc.trix.mapping.LocalNameTable;
+import org.omnimc.trix.strings.StringRemapper;
+import org.omnimc.trix.strings.StringRemappingAnnotationVisitor;
+
+import java.util.BitSet;
 
 /**
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
@@ -36,16 +43,92 @@ import org.omnimc.trix.contexts.interfaces.IMethodContext;
 public class MappingContext implements IMappingContext {
 
     private final Remapper globalRemapper;
+    private final AccessIndex accessIndex;
+    private final InvokeDynamicRemapper dynamicRemapper;
+    private LocalNameTable localNameTable;
+    private StringRemapper stringRemapper;
     private String currentClass;
+    private ClassAccess classAccess;
+    private boolean classHasLocalNames;
+    private String[] methodLocalNames;
+    private String[] methodParameterNames;
+    private BitSet unchangedMethods;
+    private int methodIndex;
+    private boolean methodBodyUnchanged;
 
     public MappingContext(Remapper globalRemapper) {
+        this(globalRemapper, AccessIndex.EMPTY);
+    }
+
+    /**
+     * <h6>Creates a new {@code MappingContext} that also applies access transformer rules while mapping.
+     *
+     * @param globalRemapper The {@linkplain Remapper} to map with.
+     * @param accessIndex    The compiled rules, see {@linkplain org.omnimc.trix.access.AccessTransformer#compile(Remapper)}.
+     */
+    public MappingContext(Remapper globalRemapper, AccessIndex accessIndex) {
         this.globalRemapper = globalRemapper;
+        this.dynamicRemapper = new InvokeDynamicRemapper(globalRemapper);
+        this.accessIndex = accessIndex;
+    }
+
+    /**
+     * <h6>Sets the parameter names to apply while mapping.
+     *
+     * <p>{@linkplain org.omnimc.trix.session.RemapSession} and {@linkplain org.omnimc.trix.session.WatchSession} set
+     * the table of a {@linkplain org.omnimc.trix.mapping.MappingTable} on their own.</p>
+     *
+     * @param localNameTable The {@linkplain LocalNameTable}, or {@code null} to keep the names as they are.
+     * @return This {@linkplain MappingContext}.
+     */
+    public MappingContext setLocalNameTable(LocalNameTable localNameTable) {
+        this.localNameTable = localNameTable;
+        return this;
+    }
+
+    /**
+     * <h6>Sets the {@linkplain StringRemapper} used to remap names inside string constants and annotation values.
+     *
+     * @param stringRemapper The {@linkplain StringRemapper}, or {@code null} to leave strings as they are.
+     * @return This {@linkplain MappingContext}.
+     */
+    public MappingContext setStringRemapper(StringRemapper stringRemapper) {
+        this.stringRemapper = stringRemapper;
+        return this;
+    }
+
+    /**
+     * <h6>Sets which methods of the next class have bodies that don't need remapping.
+     *
+     * <p>Those methods are handed to the parent visitor without a {@linkplain MethodContext}, which lets a
+     * {@linkplain ClassWriter} created from the class's {@linkplain ClassReader} copy their bodies as they are. The
+     * {@linkplain ForwardingMethodContext} given for them has no callbacks, so the
+     * {@linkplain org.omnimc.trix.visitors.mapping.MappingClassVisitor} returns the parent visitor itself. Methods of
+     * classes with access transformer rules and methods with local names are always remapped.</p>
+     *
+     * @param unchangedMethods The indexes of the methods in class file order, see
+     *                         {@linkplain org.omnimc.trix.classfile.MethodBodyScanner}, or {@code null} to remap every
+     *                         method.
+     * @return This {@linkplain MappingContext}.
+     */
+    public MappingContext setUnchangedMethods(BitSet unchangedMethods) {
+        this.unchangedMethods = unchangedMethods;
+        return this;
     }
 
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces, ClassVisitor classVisitor) {
         this.currentClass = name;
-        classVisitor.visit(version, access, globalRemapper.mapType(name), globalRemapper.mapSignature(signature, false),
+        this.classHasLocalNames = localNameTable != null && localNameTable.hasClass(name);
+        this.methodIndex = 0;
+
+        String mappedName = globalRemapper.mapType(name);
+        this.classAccess = accessIndex.get(mappedName);
+        if (classAccess != null) {
+            access = classAccess.applyToClass(access);
+        }
+
+        classVisitor.visit(version, access, mappedName, globalRemapper.mapSignature(signature, false),
                 globalRemapper.mapType(superName), interfaces == null ? null : globalRemapper.mapTypes(interfaces));
     }
 
@@ -57,7 +140,15 @@ public class MappingContext implements IMappingContext {
 
     @Override
     public void visitInnerClass(String name, String outerName, String innerName, int access, ClassVisitor classVisitor) {
-        classVisitor.visitInnerClass(globalRemapper.mapType(name),
+        String mappedName = globalRemapper.mapType(name);
+        if (!accessIndex.isEmpty()) {
+            ClassAccess innerClassAccess = accessIndex.get(mappedName);
+            if (innerClassAccess != null) {
+                access = innerClassAccess.applyToClass(access);
+            }
+        }
+
+        classVisitor.visitInnerClass(mappedName,
                 outerName == null ? null : globalRemapper.mapType(outerName),
                 innerName == null ? null : globalRemapper.mapType(innerName), access);
     }
@@ -79,39 +170,191 @@ public class MappingContext implements IMappingContext {
 
     @Override
     public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature, ClassVisitor classVisitor) {
-        return classVisitor.visitRecordComponent(
+        RecordComponentVisitor recordComponentVisitor = classVisitor.visitRecordComponent(
                 name,
                 globalRemapper.mapDesc(descriptor),
                 globalRemapper.mapSignature(signature, true));
+        return recordComponentVisitor == null ? null : new AnnotatedRecordComponentVisitor(recordComponentVisitor);
     }
 
     @Override
     public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value, ClassVisitor classVisitor) {
-        return classVisitor.visitField(access,
-                globalRemapper.mapFieldName(currentClass, name, descriptor),
+        String mappedName = globalRemapper.mapFieldName(currentClass, name, descriptor);
+        if (classAccess != null) {
+            access = classAccess.applyToField(access, name, mappedName);
+        }
+
+        FieldVisitor fieldVisitor = classVisitor.visitField(access,
+                mappedName,
                 globalRemapper.mapDesc(descriptor),
-                globalRemapper.mapSignature(signature, true), globalRemapper.mapValue(value));
+                globalRemapper.mapSignature(signature, true), mapConstant(globalRemapper.mapValue(value)));
+        return fieldVisitor == null ? null : new AnnotatedFieldVisitor(fieldVisitor);
     }
 
     @Override
     public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+        MethodVisitor parentVisitor = visitMethodHeader(access, name, descriptor, signature, exceptions, classVisitor);
+        if (methodBodyUnchanged) {
+            return new ForwardingMethodContext(parentVisitor);
+        }
+
+        return createMethodContext(parentVisitor);
+    }
+
+    /**
+     * <h6>Creates the {@linkplain MethodContext} for a method of the class currently being visited.
+     *
+     * @param parentVisitor The {@linkplain MethodVisitor} the remapped method is forwarded to.
+     * @return A new {@linkplain MethodContext}.
+     */
+    public MethodContext createMethodContext(MethodVisitor parentVisitor) {
+        return new MethodContext(globalRemapper, parentVisitor, currentClass, classAccess, methodLocalNames, methodParameterNames, dynamicRemapper)
+                .setStringRemapper(stringRemapper);
+    }
+
+    /**
+     * <h6>Remaps the header of a method and visits it on the given {@linkplain ClassVisitor}, without creating a
+     * {@linkplain MethodContext} for its body.
+     *
+     * @param access       The access flags of the method.
+     * @param name         The obfuscated name of the method.
+     * @param descriptor   The obfuscated descriptor of the method.
+     * @param signature    The signature of the method, may be {@code null}.
+     * @param exceptions   The internal names of the exceptions of the method, may be {@code null}.
+     * @param classVisitor The {@linkplain ClassVisitor} to visit the remapped method on.
+     * @return The {@linkplain MethodVisitor} returned by the class visitor, may be {@code null}.
+     */
+    public MethodVisitor visitMethodHeader(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
         String mappedMethodDesc = globalRemapper.mapMethodDesc(descriptor);
+        String mappedName = globalRemapper.mapMethodName(currentClass, name, mappedMethodDesc);
+        if (classAccess != null) {
+            access = classAccess.applyToMethod(access, name, mappedName, mappedMethodDesc);
+        }
+
+        String[] localNames = classHasLocalNames ? localNameTable.getLocalNames(currentClass, name, descriptor) : null;
+        methodLocalNames = localNames == null ? null : LocalNameTable.getParameterSlotNames(localNames, access, descriptor);
+        methodParameterNames = methodLocalNames == null ? null : LocalNameTable.getParameterNames(methodLocalNames, access, descriptor);
+
+        int index = methodIndex++;
+        methodBodyUnchanged = unchangedMethods != null && classAccess == null && methodLocalNames == null && unchangedMethods.get(index);
+
         MethodVisitor methodVisitor = classVisitor.visitMethod(access,
-                globalRemapper.mapMethodName(currentClass, name, mappedMethodDesc),
+                mappedName,
                 mappedMethodDesc,
                 globalRemapper.mapSignature(signature, false),
                 exceptions == null ? null : globalRemapper.mapTypes(exceptions));
 
-        return new MethodContext(globalRemapper, methodVisitor);
+        // Annotation defaults aren't part of IMethodContext, only strings need remapping in them. Unchanged bodies never
+        // have one, their visitor has to be the writer's own for the body to be copied.
+        if (stringRemapper == null || methodBodyUnchanged || methodVisitor == null) {
+            return methodVisitor;
+        }
+
+        return new MethodVisitor(Opcodes.ASM9, methodVisitor) {
+            @Override
+            public AnnotationVisitor visitAnnotationDefault() {
+                return remapStrings(super.visitAnnotationDefault());
+            }
+        };
+    }
+
+    /**
+     * @return {@code true} if the method whose header was visited last has parameter or local variable names.
+     */
+    public boolean hasMethodLocalNames() {
+        return methodLocalNames != null;
+    }
+
+    /**
+     * @return {@code true} if the body of the method whose header was visited last doesn't need remapping.
+     */
+    public boolean isMethodBodyUnchanged() {
+        return methodBodyUnchanged;
+    }
+
+    /**
+     * @return {@code true} if this context does nothing but rename, without access transformer rules, local names or
+     * string remapping.
+     */
+    public boolean isRenameOnly() {
+        return accessIndex.isEmpty() && localNameTable == null && stringRemapper == null;
+    }
+
+    /**
+     * @return The {@linkplain StringRemapper} of this context, or {@code null} if strings aren't remapped.
+     */
+    public StringRemapper getStringRemapper() {
+        return stringRemapper;
+    }
+
+    /**
+     * @return The {@linkplain Remapper} this context remaps with.
+     */
+    public Remapper getRemapper() {
+        return globalRemapper;
     }
 
     @Override
     public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, ClassVisitor classVisitor) {
-        return classVisitor.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible);
+        return remapStrings(classVisitor.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible));
     }
 
     @Override
     public AnnotationVisitor visitAnnotation(String descriptor, boolean visible, ClassVisitor classVisitor) {
-        return classVisitor.visitAnnotation(globalRemapper.mapDesc(descriptor), visible);
+        return remapStrings(classVisitor.visitAnnotation(globalRemapper.mapDesc(descriptor), visible));
+    }
+
+    private Object mapConstant(Object value) {
+        if (stringRemapper != null && value instanceof String string) {
+            return stringRemapper.remap(string, currentClass);
+        }
+
+        return value;
+    }
+
+    private AnnotationVisitor remapStrings(AnnotationVisitor annotationVisitor) {
+        if (stringRemapper == null) {
+            return annotationVisitor;
+        }
+
+        return StringRemappingAnnotationVisitor.wrap(annotationVisitor, stringRemapper, currentClass);
+    }
+
+    /**
+     * Remaps the annotations of a field the same way as the annotations of its class.
+     */
+    private final class AnnotatedFieldVisitor extends FieldVisitor {
+        private AnnotatedFieldVisitor(FieldVisitor fieldVisitor) {
+            super(Opcodes.ASM9, fieldVisitor);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return remapStrings(super.visitAnnotation(globalRemapper.mapDesc(descriptor), visible));
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return remapStrings(super.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible));
+        }
+    }
+
+    /**
+     * Remaps the annotations of a record component the same way as the annotations of its class.
+     */
+    private final class AnnotatedRecordComponentVisitor extends RecordComponentVisitor {
+        private AnnotatedRecordComponentVisitor(RecordComponentVisitor recordComponentVisitor) {
+            super(Opcodes.ASM9, recordComponentVisitor);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            return remapStrings(super.visitAnnotation(globalRemapper.mapDesc(descriptor), visible));
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            return remapStrings(super.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible));
+        }
     }
 }
\ No newline at end of file
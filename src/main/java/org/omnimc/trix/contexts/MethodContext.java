@@ -26,7 +26,11 @@ package org.omnimc.trix.contexts;
 
 import org.objectweb.asm.*;
 import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.access.AccessChange;
+import org.omnimc.trix.access.ClassAccess;
 import org.omnimc.trix.contexts.interfaces.IMethodContext;
+import org.omnimc.trix.strings.StringRemapper;
+import org.omnimc.trix.strings.StringRemappingAnnotationVisitor;
 
 /**
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
@@ -36,51 +40,106 @@ public class MethodContext implements IMethodContext {
 
     private final MethodVisitor parentVisitor;
     private final Remapper globalRemapper;
+    private final String currentClass;
+    private final ClassAccess classAccess;
+    private final String[] localNames;
+    private final String[] parameterNames;
+    private final InvokeDynamicRemapper dynamicRemapper;
+    private StringRemapper stringRemapper;
+    private int parameterIndex;
 
     public MethodContext(Remapper globalRemapper, MethodVisitor parentVisitor) {
-        this.parentVisitor = parentVisitor;
-        this.globalRemapper = globalRemapper;
+        this(globalRemapper, parentVisitor, null, null);
     }
 
-    @Override
-    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, MethodVisitor methodVisitor, Object... bootstrapMethodArguments) {
-        if (bootstrapMethodArguments != null) {
-
-            for (int i = 0; i < bootstrapMethodArguments.length; i++) {
-                if (bootstrapMethodArguments[i] instanceof Type) { // this is descriptors
-                    bootstrapMethodArguments[i] = globalRemapper.mapValue(bootstrapMethodArguments[i]);
-                } else if (bootstrapMethodArguments[i] instanceof Handle) {
-                    String owner = ((Handle) bootstrapMethodArguments[i]).getOwner();
-                    String desc = ((Handle) bootstrapMethodArguments[i]).getDesc();
-
-                    if (desc.contains("(")) {
-                        desc = globalRemapper.mapMethodDesc(desc);
-                    } else {
-                        desc = globalRemapper.mapDesc(desc);
-                    }
+    /**
+     * <h6>Creates a new {@code MethodContext} for a method of a class with access transformer rules.
+     *
+     * @param globalRemapper The {@linkplain Remapper} to map with.
+     * @param parentVisitor  The {@linkplain MethodVisitor} the remapped method is forwarded to.
+     * @param currentClass   The obfuscated name of the class the method belongs to.
+     * @param classAccess    The rules of that class, may be {@code null}.
+     */
+    public MethodContext(Remapper globalRemapper, MethodVisitor parentVisitor, String currentClass, ClassAccess classAccess) {
+        this(globalRemapper, parentVisitor, currentClass, classAccess, null, null);
+    }
 
-                    String handleName = desc.contains("(") ? globalRemapper.mapMethodName(owner, ((Handle) bootstrapMethodArguments[i]).getName(), desc) : globalRemapper.mapFieldName(owner, ((Handle) bootstrapMethodArguments[i]).getName(), desc);
+    /**
+     * <h6>Creates a new {@code MethodContext} that also renames parameters.
+     *
+     * @param globalRemapper The {@linkplain Remapper} to map with.
+     * @param parentVisitor  The {@linkplain MethodVisitor} the remapped method is forwarded to.
+     * @param currentClass   The obfuscated name of the class the method belongs to.
+     * @param classAccess    The access transformer rules of that class, may be {@code null}.
+     * @param localNames     The new names indexed by local variable slot, may be {@code null}. It should only hold the
+     *                       slots of the parameters, see
+     *                       {@linkplain org.omnimc.trix.mapping.LocalNameTable#getParameterSlotNames(String[], int, String)}.
+     * @param parameterNames The new names indexed by parameter, may be {@code null}.
+     */
+    public MethodContext(Remapper globalRemapper, MethodVisitor parentVisitor, String currentClass, ClassAccess classAccess,
+                         String[] localNames, String[] parameterNames) {
+        this(globalRemapper, parentVisitor, currentClass, classAccess, localNames, parameterNames, new InvokeDynamicRemapper(globalRemapper));
+    }
 
-                    int tag = ((Handle) bootstrapMethodArguments[i]).getTag();
-                    boolean anInterface = ((Handle) bootstrapMethodArguments[i]).isInterface();
+    /**
+     * <h6>Creates a new {@code MethodContext} that shares its {@linkplain InvokeDynamicRemapper} with other methods.
+     *
+     * @param globalRemapper  The {@linkplain Remapper} to map with.
+     * @param parentVisitor   The {@linkplain MethodVisitor} the remapped method is forwarded to.
+     * @param currentClass    The obfuscated name of the class the method belongs to.
+     * @param classAccess     The access transformer rules of that class, may be {@code null}.
+     * @param localNames      The new names indexed by local variable slot, may be {@code null}.
+     * @param parameterNames  The new names indexed by parameter, may be {@code null}.
+     * @param dynamicRemapper The {@linkplain InvokeDynamicRemapper} used for call sites and constants.
+     */
+    public MethodContext(Remapper globalRemapper, MethodVisitor parentVisitor, String currentClass, ClassAccess classAccess,
+                         String[] localNames, String[] parameterNames, InvokeDynamicRemapper dynamicRemapper) {
+        this.dynamicRemapper = dynamicRemapper;
+        this.parentVisitor = parentVisitor;
+        this.globalRemapper = globalRemapper;
+        this.currentClass = currentClass;
+        this.classAccess = classAccess;
+        this.localNames = localNames;
+        this.parameterNames = parameterNames;
+    }
 
-                    bootstrapMethodArguments[i] = new Handle(tag, globalRemapper.mapType(owner), handleName, desc, anInterface);
-                }
-            }
-        }
+    /**
+     * <h6>Sets the {@linkplain StringRemapper} used to remap names inside string constants and annotation values.
+     *
+     * @param stringRemapper The {@linkplain StringRemapper}, or {@code null} to leave strings as they are.
+     * @return This {@linkplain MethodContext}.
+     */
+    public MethodContext setStringRemapper(StringRemapper stringRemapper) {
+        this.stringRemapper = stringRemapper;
+        return this;
+    }
 
-        methodVisitor.visitInvokeDynamicInsn(name, globalRemapper.mapMethodDesc(descriptor), (Handle) globalRemapper.mapValue(bootstrapMethodHandle), bootstrapMethodArguments);
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, MethodVisitor methodVisitor, Object... bootstrapMethodArguments) {
+        methodVisitor.visitInvokeDynamicInsn(dynamicRemapper.mapInvokeDynamicName(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments),
+                globalRemapper.mapMethodDesc(descriptor),
+                dynamicRemapper.mapHandle(bootstrapMethodHandle),
+                dynamicRemapper.mapArguments(bootstrapMethodHandle, bootstrapMethodArguments));
     }
 
     @Override
     public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index, MethodVisitor methodVisitor) {
+        if (localNames != null && index < localNames.length && localNames[index] != null) {
+            name = localNames[index];
+        }
+
         methodVisitor.visitLocalVariable(name, globalRemapper.mapDesc(descriptor),
                 globalRemapper.mapSignature(signature, true), start, end, index);
     }
 
     @Override
     public void visitLdcInsn(Object value, MethodVisitor methodVisitor) {
-        methodVisitor.visitLdcInsn(globalRemapper.mapValue(value));
+        if (stringRemapper != null && value instanceof String string) {
+            methodVisitor.visitLdcInsn(stringRemapper.remap(string, currentClass));
+            return;
+        }
+
+        methodVisitor.visitLdcInsn(dynamicRemapper.mapValue(value));
     }
 
     @Override
@@ -139,6 +198,14 @@ public class MethodContext implements IMethodContext {
 
         String remapedName = globalRemapper.mapMethodName(ownersName, name, mappedDescriptor);
 
+        if (classAccess != null && opcode == Opcodes.INVOKESPECIAL && owner.equals(currentClass) && !name.equals("<init>")) {
+            // A private method that is no longer private must be called virtually.
+            AccessChange change = classAccess.getMethodChange(name, remapedName, mappedDescriptor);
+            if (change != null && change.getLevel() != AccessChange.Level.PRIVATE) {
+                opcode = isInterface ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL;
+            }
+        }
+
         if (owner.contains("[")) {
             methodVisitor.visitMethodInsn(opcode, globalRemapper.mapDesc(owner), remapedName, mappedDescriptor, isInterface);
             return;
@@ -164,17 +231,17 @@ public class MethodContext implements IMethodContext {
 
     @Override
     public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, MethodVisitor methodVisitor) {
-        return methodVisitor.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible);
+        return remapStrings(methodVisitor.visitTypeAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible));
     }
 
     @Override
     public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible, MethodVisitor methodVisitor) {
-        return methodVisitor.visitParameterAnnotation(parameter, globalRemapper.mapDesc(descriptor), visible);
+        return remapStrings(methodVisitor.visitParameterAnnotation(parameter, globalRemapper.mapDesc(descriptor), visible));
     }
 
     @Override
     public AnnotationVisitor visitAnnotation(String descriptor, boolean visible, MethodVisitor methodVisitor) {
-        return methodVisitor.visitAnnotation(globalRemapper.mapDesc(descriptor), visible);
+        return remapStrings(methodVisitor.visitAnnotation(globalRemapper.mapDesc(descriptor), visible));
     }
 
     @Override
@@ -187,6 +254,24 @@ public class MethodContext implements IMethodContext {
         return methodVisitor.visitTryCatchAnnotation(typeRef, typePath, globalRemapper.mapDesc(descriptor), visible);
     }
 
+    @Override
+    public void visitParameter(String name, int access, MethodVisitor methodVisitor) {
+        int index = parameterIndex++;
+        if (parameterNames != null && index < parameterNames.length && parameterNames[index] != null) {
+            name = parameterNames[index];
+        }
+
+        methodVisitor.visitParameter(name, access);
+    }
+
+    private AnnotationVisitor remapStrings(AnnotationVisitor annotationVisitor) {
+        if (stringRemapper == null) {
+            return annotationVisitor;
+        }
+
+        return StringRemappingAnnotationVisitor.wrap(annotationVisitor, stringRemapper, currentClass);
+    }
+
     @Override
     public MethodVisitor getParentVisitor() {
         return parentVisitor;
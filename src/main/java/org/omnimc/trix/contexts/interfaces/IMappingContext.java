@@ -32,6 +32,32 @@ import org.objectweb.asm.*;
  */
 public interface IMappingContext {
 
+    /* Callbacks, see getCallbacks() */
+
+    int VISIT = 1;
+    int VISIT_OUTER_CLASS = 1 << 1;
+    int VISIT_INNER_CLASS = 1 << 2;
+    int VISIT_PERMITTED_SUBCLASS = 1 << 3;
+    int VISIT_NEST_HOST = 1 << 4;
+    int VISIT_NEST_MEMBER = 1 << 5;
+    int VISIT_RECORD_COMPONENT = 1 << 6;
+    int VISIT_FIELD = 1 << 7;
+    int VISIT_METHOD = 1 << 8;
+    int VISIT_TYPE_ANNOTATION = 1 << 9;
+    int VISIT_ANNOTATION = 1 << 10;
+    int ALL_CALLBACKS = (1 << 11) - 1;
+
+    /**
+     * <h6>Returns the callbacks this context wants to be called for.
+     * <p>Callbacks that are not part of the mask are forwarded straight to the next visitor without calling the
+     * context, so a context that only rewrites a few things costs nothing on the rest of the class.</p>
+     *
+     * @return A mask of the callback constants of this interface, {@linkplain #ALL_CALLBACKS} by default.
+     */
+    default int getCallbacks() {
+        return ALL_CALLBACKS;
+    }
+
     void visit(int version, int access, String name, String signature, String superName, String[] interfaces, ClassVisitor classVisitor);
 
     void visitOuterClass(String owner, String name, String descriptor, ClassVisitor classVisitor);
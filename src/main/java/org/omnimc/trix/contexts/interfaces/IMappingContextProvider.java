@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.contexts.interfaces;
+
+import org.objectweb.asm.commons.Remapper;
+
+/**
+ * {@code IMappingContextProvider} lets other jars add their own {@linkplain IMappingContext} to the mapping pass.
+ *
+ * <p>Providers are found with {@linkplain java.util.ServiceLoader} through
+ * {@code META-INF/services/org.omnimc.trix.contexts.interfaces.IMappingContextProvider}, see
+ * {@linkplain org.omnimc.trix.contexts.Context#ofServices(Remapper)}. Their contexts run after the mapping itself, in the
+ * same pass, so they see mapped names.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public interface IMappingContextProvider {
+
+    /**
+     * <h6>Creates a new context, every provided context is used for one class at a time.
+     *
+     * @param remapper The {@linkplain Remapper} of the current mapping pass.
+     * @return A new {@linkplain IMappingContext}.
+     */
+    IMappingContext create(Remapper remapper);
+
+    /**
+     * <h6>Orders the provided contexts, lower runs first.
+     *
+     * @return The order of this provider, {@code 0} by default.
+     */
+    default int getOrder() {
+        return 0;
+    }
+}
@@ -32,6 +32,37 @@ import org.objectweb.asm.*;
  */
 public interface IMethodContext {
 
+    /* Callbacks, see getCallbacks() */
+
+    int VISIT_INVOKE_DYNAMIC_INSN = 1;
+    int VISIT_LOCAL_VARIABLE = 1 << 1;
+    int VISIT_LDC_INSN = 1 << 2;
+    int VISIT_FRAME = 1 << 3;
+    int VISIT_TYPE_INSN = 1 << 4;
+    int VISIT_FIELD_INSN = 1 << 5;
+    int VISIT_METHOD_INSN = 1 << 6;
+    int VISIT_LOCAL_VARIABLE_ANNOTATION = 1 << 7;
+    int VISIT_INSN_ANNOTATION = 1 << 8;
+    int VISIT_TRY_CATCH_BLOCK = 1 << 9;
+    int VISIT_TYPE_ANNOTATION = 1 << 10;
+    int VISIT_PARAMETER_ANNOTATION = 1 << 11;
+    int VISIT_ANNOTATION = 1 << 12;
+    int VISIT_MULTI_ANEW_ARRAY_INSN = 1 << 13;
+    int VISIT_TRY_CATCH_ANNOTATION = 1 << 14;
+    int VISIT_PARAMETER = 1 << 15;
+    int ALL_CALLBACKS = (1 << 16) - 1;
+
+    /**
+     * <h6>Returns the callbacks this context wants to be called for.
+     * <p>Callbacks that are not part of the mask are forwarded straight to the parent visitor. A context that returns
+     * {@code 0} doesn't get a method visitor at all.</p>
+     *
+     * @return A mask of the callback constants of this interface, {@linkplain #ALL_CALLBACKS} by default.
+     */
+    default int getCallbacks() {
+        return ALL_CALLBACKS;
+    }
+
     void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, MethodVisitor methodVisitor, Object... bootstrapMethodArguments);
 
     void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index, MethodVisitor methodVisitor);
@@ -62,5 +93,16 @@ public interface IMethodContext {
 
     AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible, MethodVisitor methodVisitor);
 
+    /**
+     * <h6>Visits an entry of the {@code MethodParameters} attribute, forwards it unchanged by default.
+     *
+     * @param name          The name of the parameter, may be {@code null}.
+     * @param access        The access flags of the parameter.
+     * @param methodVisitor The {@linkplain MethodVisitor} to forward to.
+     */
+    default void visitParameter(String name, int access, MethodVisitor methodVisitor) {
+        methodVisitor.visitParameter(name, access);
+    }
+
     MethodVisitor getParentVisitor();
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.daemon;
+
+/**
+ * {@code DaemonProtocol} holds the constants shared by the {@linkplain TrixDaemon} and {@linkplain TrixClient}.
+ *
+ * <p>A client sends a single {@linkplain RemapRequest} per connection. The daemon then answers with a stream of
+ * frames, each starting with one of the frame types below:</p>
+ * <ul>
+ *     <li>{@link #ENTRY} - an entry name followed by the length and bytes of the (remapped) entry.</li>
+ *     <li>{@link #ERROR} - a message describing why the request failed, this ends the response.</li>
+ *     <li>{@link #END} - the number of remapped classes and the time the daemon spent in milliseconds.</li>
+ * </ul>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class DaemonProtocol {
+
+    public static final int MAGIC = 0x54524958; // TRIX
+
+    public static final byte ENTRY = 1;
+    public static final byte ERROR = 2;
+    public static final byte END = 3;
+
+    private DaemonProtocol() {
+    }
+}
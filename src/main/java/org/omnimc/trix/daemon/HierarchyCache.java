@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.daemon;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.lumina.reader.LuminaReader;
+import org.omnimc.trix.hierarchy.HierarchyChange;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.io.JarIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code HierarchyCache} keeps frozen {@linkplain HierarchyManager}s warm in memory, keyed by the mapping set and
+ * base jar they were built from.
+ *
+ * <p>Building a hierarchy means parsing the mappings, scanning the whole base jar and populating every class, so a
+ * cached hierarchy is reused for as long as it keeps getting requests. A hierarchy that hasn't been used for the
+ * idle timeout is evicted, unless a request is still using it. Changing the mappings or the base jar on disk gives a
+ * new key, so stale hierarchies are never handed out.</p>
+ *
+ * <p>A hierarchy is built by the first request asking for it, outside of any lock of the cache. Requests for the same
+ * key arriving meanwhile wait for that one build, requests for any other key aren't held up by it.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class HierarchyCache implements AutoCloseable {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final long idleTimeoutMillis;
+
+    /**
+     * <h6>Creates a new {@code HierarchyCache}.
+     *
+     * @param idleTimeout The time a hierarchy can go unused before it is evicted.
+     * @param unit        The unit of the idle timeout.
+     */
+    public HierarchyCache(long idleTimeout, @NotNull TimeUnit unit) {
+        this.idleTimeoutMillis = unit.toMillis(idleTimeout);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Trix-HierarchyCache-Evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * <h6>Gets the hierarchy for a mapping set and base jar, building it if it isn't cached yet.
+     *
+     * <p>The returned lease must be closed once the caller is done with the hierarchy, this is what keeps it from
+     * being evicted while in use.</p>
+     *
+     * @param mappings The path to the mappings.
+     * @param baseJar  The base jar to build the hierarchy from.
+     * @return A {@linkplain Lease} holding the frozen hierarchy.
+     * @throws IOException If the mappings or base jar can't be read.
+     */
+    @NotNull
+    public Lease acquire(@NotNull Path mappings, @NotNull Path baseJar) throws IOException {
+        Key key = new Key(mappings, Files.getLastModifiedTime(mappings).toMillis(),
+                baseJar, Files.getLastModifiedTime(baseJar).toMillis());
+
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.putIfAbsent(key, future);
+        if (existing == null) {
+            try {
+                future.complete(load(key));
+            } catch (IOException | RuntimeException e) {
+                // Failed builds aren't cached, the next request tries again.
+                entries.remove(key, future);
+                future.completeExceptionally(e);
+            }
+            existing = future;
+        }
+
+        Entry entry = await(existing);
+
+        entry.users.incrementAndGet();
+        entry.lastAccess = System.currentTimeMillis();
+        return new Lease(entry);
+    }
+
+    /**
+     * <h6>Gets the number of hierarchies currently cached.
+     *
+     * @return The number of cached hierarchies.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(future -> {
+            Entry entry = future.getNow(null);
+            return entry != null && entry.users.get() == 0 && now - entry.lastAccess > idleTimeoutMillis;
+        });
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a hierarchy to be built.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        entries.clear();
+    }
+
+    private static Entry load(Key key) throws IOException {
+        MappingContainer container = new LuminaReader().readPath(key.mappings.toString());
+        Map<String, byte[]> baseEntries = JarIO.readJar(key.baseJar);
+
+        HierarchyManager hierarchyManager = HierarchyChange.createHierarchy(baseEntries, container).freeze();
+        return new Entry(container, hierarchyManager);
+    }
+
+    /**
+     * {@code Lease} gives access to a cached hierarchy until it is closed.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        @NotNull
+        public MappingContainer getMappingContainer() {
+            return entry.container;
+        }
+
+        @NotNull
+        public HierarchyManager getHierarchyManager() {
+            return entry.hierarchyManager;
+        }
+
+        @NotNull
+        public Remapper getRemapper() {
+            return entry.remapper;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            entry.lastAccess = System.currentTimeMillis();
+            entry.users.decrementAndGet();
+        }
+    }
+
+    private static final class Entry {
+        private final MappingContainer container;
+        private final HierarchyManager hierarchyManager;
+        private final Remapper remapper;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private Entry(MappingContainer container, HierarchyManager hierarchyManager) {
+            this.container = container;
+            this.hierarchyManager = hierarchyManager;
+            this.remapper = hierarchyManager.getRemapper();
+        }
+    }
+
+    private static final class Key {
+        private final Path mappings;
+        private final long mappingsModified;
+        private final Path baseJar;
+        private final long baseJarModified;
+
+        private Key(Path mappings, long mappingsModified, Path baseJar, long baseJarModified) {
+            this.mappings = mappings;
+            this.mappingsModified = mappingsModified;
+            this.baseJar = baseJar;
+            this.baseJarModified = baseJarModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mappingsModified == key.mappingsModified
+                   && baseJarModified == key.baseJarModified
+                   && Objects.equals(mappings, key.mappings)
+                   && Objects.equals(baseJar, key.baseJar);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(mappings, mappingsModified, baseJar, baseJarModified);
+        }
+    }
+}
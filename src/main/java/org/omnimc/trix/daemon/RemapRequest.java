@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.daemon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@code RemapRequest} is a single remap job sent from a {@linkplain TrixClient} to a {@linkplain TrixDaemon}.
+ *
+ * <p>The daemon runs on the same machine as the client, so every jar and mapping set is passed by path and read by
+ * the daemon directly. Requests with a higher priority are picked up first when the daemon is busy.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class RemapRequest {
+
+    private final Path mappings;
+    private final Path baseJar;
+    private final Path inputJar;
+    private final int priority;
+
+    /**
+     * <h6>Creates a new {@code RemapRequest}.
+     *
+     * @param mappings The path to the mappings, as read by the {@linkplain org.omnimc.lumina.reader.LuminaReader}.
+     * @param baseJar  The jar the hierarchy is built from, this is normally the game jar.
+     * @param inputJar The jar to remap, this can be the same as the base jar.
+     * @param priority The priority of this request, higher values are handled first.
+     */
+    public RemapRequest(@NotNull Path mappings, @NotNull Path baseJar, @NotNull Path inputJar, int priority) {
+        this.mappings = mappings.toAbsolutePath().normalize();
+        this.baseJar = baseJar.toAbsolutePath().normalize();
+        this.inputJar = inputJar.toAbsolutePath().normalize();
+        this.priority = priority;
+    }
+
+    @NotNull
+    public Path getMappings() {
+        return mappings;
+    }
+
+    @NotNull
+    public Path getBaseJar() {
+        return baseJar;
+    }
+
+    @NotNull
+    public Path getInputJar() {
+        return inputJar;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * <h6>Writes this request to a stream.
+     *
+     * @param outputStream The stream to write to.
+     * @throws IOException If the request can't be written.
+     */
+    public void write(@NotNull DataOutputStream outputStream) throws IOException {
+        outputStream.writeInt(DaemonProtocol.MAGIC);
+        outputStream.writeUTF(mappings.toString());
+        outputStream.writeUTF(baseJar.toString());
+        outputStream.writeUTF(inputJar.toString());
+        outputStream.writeInt(priority);
+        outputStream.flush();
+    }
+
+    /**
+     * <h6>Reads a request from a stream.
+     *
+     * @param inputStream The stream to read from.
+     * @return The request that was read.
+     * @throws IOException If the request can't be read or isn't a Trix request.
+     */
+    @NotNull
+    public static RemapRequest read(@NotNull DataInputStream inputStream) throws IOException {
+        if (inputStream.readInt() != DaemonProtocol.MAGIC) {
+            throw new IOException("Not a Trix remap request.");
+        }
+
+        Path mappings = Path.of(inputStream.readUTF());
+        Path baseJar = Path.of(inputStream.readUTF());
+        Path inputJar = Path.of(inputStream.readUTF());
+        return new RemapRequest(mappings, baseJar, inputJar, inputStream.readInt());
+    }
+
+    @Override
+    public String toString() {
+        return "RemapRequest{" +
+                "mappings=" + mappings +
+                ", baseJar=" + baseJar +
+                ", inputJar=" + inputJar +
+                ", priority=" + priority +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.daemon;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * {@code TrixClient} is the thin front end of the {@linkplain TrixDaemon}.
+ *
+ * <p>It sends a single {@linkplain RemapRequest} and writes every entry the daemon streams back straight into the
+ * output jar, so the client itself never has to load the mappings or the hierarchy.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class TrixClient {
+
+    private final Path socketPath;
+
+    /**
+     * <h6>Creates a new {@code TrixClient} connecting to the given socket.
+     *
+     * @param socketPath The path of the daemon's Unix domain socket.
+     */
+    public TrixClient(@NotNull Path socketPath) {
+        this.socketPath = socketPath;
+    }
+
+    /**
+     * <h6>Sends a request to the daemon and writes the remapped jar.
+     *
+     * @param request   The request to send.
+     * @param outputJar The jar to write the remapped entries to.
+     * @return The number of classes the daemon remapped.
+     * @throws IOException If the daemon can't be reached or the request failed.
+     */
+    public int remap(@NotNull RemapRequest request, @NotNull Path outputJar) throws IOException {
+        Path tempJar = Files.createTempFile(outputJar.toAbsolutePath().getParent(), "trix", ".jar");
+
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+
+            request.write(new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel))));
+            DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            int remappedClasses;
+            try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(tempJar))) {
+                remappedClasses = readResponse(inputStream, zipOutputStream);
+            }
+
+            Files.move(tempJar, outputJar, StandardCopyOption.REPLACE_EXISTING);
+            return remappedClasses;
+        } finally {
+            Files.deleteIfExists(tempJar);
+        }
+    }
+
+    private static int readResponse(DataInputStream inputStream, ZipOutputStream zipOutputStream) throws IOException {
+        while (true) {
+            byte frame = inputStream.readByte();
+            switch (frame) {
+                case DaemonProtocol.ENTRY -> {
+                    zipOutputStream.putNextEntry(new ZipEntry(inputStream.readUTF()));
+                    zipOutputStream.write(inputStream.readNBytes(inputStream.readInt()));
+                    zipOutputStream.closeEntry();
+                }
+                case DaemonProtocol.ERROR -> throw new IOException("Daemon failed to remap: " + inputStream.readUTF());
+                case DaemonProtocol.END -> {
+                    int remappedClasses = inputStream.readInt();
+                    inputStream.readLong();
+                    return remappedClasses;
+                }
+                default -> throw new IOException("Unknown frame type " + frame);
+            }
+        }
+    }
+
+    /**
+     * <h6>Sends a request to a daemon from the command line.
+     *
+     * <p>Usage: {@code TrixClient <socket> <mappings> <base-jar> <input-jar> <output-jar> [priority]}</p>
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the request failed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: TrixClient <socket> <mappings> <base-jar> <input-jar> <output-jar> [priority]");
+            return;
+        }
+
+        int priority = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+        RemapRequest request = new RemapRequest(Path.of(args[1]), Path.of(args[2]), Path.of(args[3]), priority);
+
+        int remappedClasses = new TrixClient(Path.of(args[0])).remap(request, Path.of(args[4]));
+        System.out.println("Remapped " + remappedClasses + " classes into " + args[4]);
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.daemon;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyChange;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * {@code TrixDaemon} is a long-lived remap server listening on a local Unix domain socket.
+ *
+ * <p>Every build invocation normally pays for parsing the mappings, scanning the base jar and populating the
+ * hierarchy before a single class is remapped. The daemon keeps those hierarchies warm in a
+ * {@linkplain HierarchyCache} and only does the actual remapping per request, streaming every remapped entry back to
+ * the {@linkplain TrixClient} as soon as it is done.</p>
+ *
+ * <p>An input jar other than the base jar is given its own {@linkplain HierarchyManager#createOverlay() overlay} on
+ * top of the cached base, so concurrent requests never touch each other's classes.</p>
+ *
+ * <p>Requests are handled concurrently by a fixed pool of workers. When every worker is busy, waiting requests are
+ * picked up by {@linkplain RemapRequest#getPriority() priority} and then in the order they arrived. A request is read
+ * from its connection on a thread of its own before it is queued, so a client that connects and never sends anything
+ * only ever holds up itself.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class TrixDaemon implements Closeable {
+
+    private final Path socketPath;
+    private final HierarchyCache hierarchyCache;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService readers;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Consumer<IOException> errorListener = error -> {
+    };
+
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * <h6>Creates a new {@code TrixDaemon}.
+     *
+     * @param socketPath         The path of the Unix domain socket to listen on.
+     * @param workerCount        The number of requests that can be remapped at the same time.
+     * @param idleTimeoutMinutes The number of minutes a cached hierarchy can go unused before it is evicted.
+     */
+    public TrixDaemon(@NotNull Path socketPath, int workerCount, long idleTimeoutMinutes) {
+        this.socketPath = socketPath;
+        this.hierarchyCache = new HierarchyCache(idleTimeoutMinutes, TimeUnit.MINUTES);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> newDaemonThread(runnable, "Trix-Daemon-Worker-" + threadCount.incrementAndGet()));
+
+        AtomicInteger readerCount = new AtomicInteger();
+        this.readers = Executors.newCachedThreadPool(runnable -> newDaemonThread(runnable, "Trix-Daemon-Reader-" + readerCount.incrementAndGet()));
+    }
+
+    /**
+     * <h6>Sets what is told about a request that couldn't be read or answered, such as when its client went away.
+     *
+     * @param errorListener Called with the failure, on the thread that ran into it.
+     * @return This {@code TrixDaemon}.
+     */
+    public TrixDaemon setErrorListener(@NotNull Consumer<IOException> errorListener) {
+        this.errorListener = errorListener;
+        return this;
+    }
+
+    private static Thread newDaemonThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * <h6>Binds the socket and accepts requests until the daemon is closed.
+     *
+     * @throws IOException If the socket can't be bound.
+     */
+    public void run() throws IOException {
+        Files.deleteIfExists(socketPath);
+
+        serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        serverChannel.bind(UnixDomainSocketAddress.of(socketPath));
+
+        while (serverChannel.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            }
+
+            readers.execute(() -> accept(channel));
+        }
+    }
+
+    private void accept(SocketChannel channel) {
+        try {
+            RemapRequest request = RemapRequest.read(new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
+            workers.execute(new Job(request, channel, sequence.getAndIncrement()));
+        } catch (IOException e) {
+            errorListener.accept(e);
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverChannel != null) {
+            serverChannel.close();
+        }
+
+        readers.shutdownNow();
+        workers.shutdown();
+        hierarchyCache.close();
+        Files.deleteIfExists(socketPath);
+    }
+
+    private void handle(RemapRequest request, SocketChannel channel) throws IOException {
+        DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+        try (HierarchyCache.Lease lease = hierarchyCache.acquire(request.getMappings(), request.getBaseJar())) {
+            long start = System.currentTimeMillis();
+
+            Map<String, byte[]> entries = JarIO.readJar(request.getInputJar());
+
+            /* Anything but the base jar itself gets a small overlay, so its classes pick up inherited mappings */
+            Remapper remapper = lease.getRemapper();
+            if (!request.getInputJar().equals(request.getBaseJar())) {
+                remapper = HierarchyChange.createOverlay(lease.getHierarchyManager(), entries, lease.getMappingContainer())
+                        .freeze()
+                        .getRemapper();
+            }
+
+            MappingChange mappingChange = new MappingChange(new MappingContext(remapper));
+
+            int remappedClasses = 0;
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                String name = entry.getKey();
+                byte[] bytes = entry.getValue();
+
+                if (JarIO.isClass(name)) {
+                    name = remapper.mapType(name.substring(0, name.length() - ".class".length())) + ".class";
+                    bytes = mappingChange.remap(bytes);
+                    remappedClasses++;
+                }
+
+                outputStream.writeByte(DaemonProtocol.ENTRY);
+                outputStream.writeUTF(name);
+                outputStream.writeInt(bytes.length);
+                outputStream.write(bytes);
+            }
+
+            outputStream.writeByte(DaemonProtocol.END);
+            outputStream.writeInt(remappedClasses);
+            outputStream.writeLong(System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            outputStream.writeByte(DaemonProtocol.ERROR);
+            outputStream.writeUTF(String.valueOf(e));
+        } finally {
+            outputStream.flush();
+        }
+    }
+
+    private final class Job implements Runnable, Comparable<Job> {
+        private final RemapRequest request;
+        private final SocketChannel channel;
+        private final long sequence;
+
+        private Job(RemapRequest request, SocketChannel channel, long sequence) {
+            this.request = request;
+            this.channel = channel;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            try (channel) {
+                handle(request, channel);
+            } catch (IOException e) {
+                errorListener.accept(new IOException("Failed to answer " + request, e));
+            }
+        }
+
+        @Override
+        public int compareTo(@NotNull Job other) {
+            int compare = Integer.compare(other.request.getPriority(), request.getPriority());
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * <h6>Starts a daemon from the command line.
+     *
+     * <p>Usage: {@code TrixDaemon <socket> [workers] [idle-minutes]}</p>
+     *
+     * @param args The command line arguments.
+     * @throws IOException If the daemon can't be started.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TrixDaemon <socket> [workers] [idle-minutes]");
+            return;
+        }
+
+        int workerCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long idleTimeout = args.length > 2 ? Long.parseLong(args[2]) : 30;
+
+        TrixDaemon daemon = new TrixDaemon(Path.of(args[0]), workerCount, idleTimeout)
+                .setErrorListener(error -> System.err.println(error + (error.getCause() == null ? "" : ": " + error.getCause())));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                daemon.close();
+            } catch (IOException ignored) {
+            }
+        }));
+        daemon.run();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code CompositionReport} describes what a {@linkplain MappingComposer} found missing in each layer.
+ *
+ * <p>Entries are written in the names the layer was asked about, {@code class a/b}, {@code field a/b.c:I} or
+ * {@code method a/b.c(I)V}, so they can be looked up in the mappings of that layer directly.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class CompositionReport {
+
+    private final int layerCount;
+    private final int classCount;
+    private final List<List<String>> missingEntries = new ArrayList<>();
+    private final int[] missingClasses;
+    private final int[] missingFields;
+    private final int[] missingMethods;
+
+    CompositionReport(int layerCount, int classCount) {
+        this.layerCount = layerCount;
+        this.classCount = classCount;
+        this.missingClasses = new int[layerCount];
+        this.missingFields = new int[layerCount];
+        this.missingMethods = new int[layerCount];
+
+        for (int i = 0; i < layerCount; i++) {
+            missingEntries.add(new ArrayList<>());
+        }
+    }
+
+    void addMissingClass(int layer, String name) {
+        missingClasses[layer]++;
+        missingEntries.get(layer).add("class " + name);
+    }
+
+    void addMissingField(int layer, String owner, String name, String descriptor) {
+        missingFields[layer]++;
+        missingEntries.get(layer).add("field " + owner + '.' + name + ':' + descriptor);
+    }
+
+    void addMissingMethod(int layer, String owner, String name, String descriptor) {
+        missingMethods[layer]++;
+        missingEntries.get(layer).add("method " + owner + '.' + name + descriptor);
+    }
+
+    /**
+     * <h6>Gets the number of composed layers.
+     *
+     * @return The number of layers.
+     */
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    /**
+     * <h6>Gets the number of classes every layer was applied to.
+     *
+     * @return The number of classes.
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * <h6>Gets the number of classes a layer didn't rename.
+     *
+     * @param layer The index of the layer, in the order they were added.
+     * @return The number of missing classes.
+     */
+    public int getMissingClasses(int layer) {
+        return missingClasses[layer];
+    }
+
+    /**
+     * <h6>Gets the number of fields a layer didn't rename.
+     *
+     * @param layer The index of the layer, in the order they were added.
+     * @return The number of missing fields.
+     */
+    public int getMissingFields(int layer) {
+        return missingFields[layer];
+    }
+
+    /**
+     * <h6>Gets the number of methods a layer didn't rename.
+     *
+     * @param layer The index of the layer, in the order they were added.
+     * @return The number of missing methods.
+     */
+    public int getMissingMethods(int layer) {
+        return missingMethods[layer];
+    }
+
+    /**
+     * <h6>Gets every entry a layer didn't rename.
+     *
+     * @param layer The index of the layer, in the order they were added.
+     * @return The missing entries of the layer.
+     */
+    @NotNull
+    public List<String> getMissingEntries(int layer) {
+        return Collections.unmodifiableList(missingEntries.get(layer));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("CompositionReport{layerCount=").append(layerCount)
+                .append(", classCount=").append(classCount);
+        for (int i = 0; i < layerCount; i++) {
+            builder.append(", layer").append(i).append("={missingClasses=").append(missingClasses[i])
+                    .append(", missingFields=").append(missingFields[i])
+                    .append(", missingMethods=").append(missingMethods[i])
+                    .append('}');
+        }
+
+        return builder.append('}').toString();
+    }
+}
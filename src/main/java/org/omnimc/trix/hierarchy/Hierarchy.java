@@ -42,6 +42,9 @@ public class Hierarchy {
 
     private ClassWriter writer;
 
+    private ClassNode classNode;
+    private int classNodeOptions;
+
     public Hierarchy(ClassReader reader) {
         this(reader, Opcodes.ASM9);
     }
@@ -73,6 +76,24 @@ public class Hierarchy {
         return node;
     }
 
+    /**
+     * <h6>Gets a {@linkplain ClassNode} of this class that is shared between callers, parsing it only the first time.
+     *
+     * <p>Unlike {@linkplain #getClassNode(int)} the same node is returned for as long as the parsing options stay the
+     * same, so changes made to it are seen by every caller. It is meant for a single owner such as the
+     * {@linkplain org.omnimc.trix.transformer.TransformerPipeline}, anything else should take its own copy.</p>
+     *
+     * @param parsingOptions The {@linkplain ClassReader} parsing options.
+     * @return The shared {@linkplain ClassNode} of this class.
+     */
+    public ClassNode getSharedClassNode(int parsingOptions) {
+        if (classNode == null || classNodeOptions != parsingOptions) {
+            classNode = getClassNode(parsingOptions);
+            classNodeOptions = parsingOptions;
+        }
+        return classNode;
+    }
+
     public byte[] getClassBytes() {
         return writer.toByteArray();
     }
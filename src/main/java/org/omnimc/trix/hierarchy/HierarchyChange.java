@@ -29,8 +29,12 @@ import org.objectweb.asm.ClassWriter;
 import org.omnimc.asm.changes.IClassChange;
 import org.omnimc.asm.file.ClassFile;
 import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.MappingLookup;
 import org.omnimc.trix.visitors.hierarchy.HierarchyClassVisitor;
 
+import java.util.Map;
+
 /**
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
  * @since 1.0.0
@@ -38,11 +42,15 @@ import org.omnimc.trix.visitors.hierarchy.HierarchyClassVisitor;
 public class HierarchyChange implements IClassChange {
 
     private final HierarchyManager hierarchyManager;
-    private final MappingContainer mappingContainer;
+    private final MappingLookup mappingContainer;
 
     public HierarchyChange(HierarchyManager hierarchyManager, MappingContainer mappingContainer) {
+        this(hierarchyManager, MappingLookup.of(mappingContainer));
+    }
+
+    public HierarchyChange(HierarchyManager hierarchyManager, MappingLookup mappingLookup) {
         this.hierarchyManager = hierarchyManager;
-        this.mappingContainer = mappingContainer;
+        this.mappingContainer = mappingLookup;
     }
 
     @Override
@@ -55,4 +63,68 @@ public class HierarchyChange implements IClassChange {
 
         return new ClassFile(name.replace(".class", ""), classBytes);
     }
+
+    /**
+     * <h6>Builds and populates a {@linkplain HierarchyManager} from the class entries of a jar.
+     *
+     * @param entries          The jar entries, as read by {@linkplain JarIO#readJar(java.nio.file.Path)}.
+     * @param mappingContainer The mappings to apply to the hierarchy.
+     * @return A populated {@linkplain HierarchyManager}.
+     */
+    public static HierarchyManager createHierarchy(Map<String, byte[]> entries, MappingContainer mappingContainer) {
+        return createHierarchy(entries, MappingLookup.of(mappingContainer));
+    }
+
+    /**
+     * <h6>Builds and populates a {@linkplain HierarchyManager} from the class entries of a jar.
+     *
+     * @param entries       The jar entries, as read by {@linkplain JarIO#readJar(java.nio.file.Path)}.
+     * @param mappingLookup The mappings to apply to the hierarchy, such as a
+     *                      {@linkplain org.omnimc.trix.mapping.MappingTable}.
+     * @return A populated {@linkplain HierarchyManager}.
+     */
+    public static HierarchyManager createHierarchy(Map<String, byte[]> entries, MappingLookup mappingLookup) {
+        return populate(new HierarchyManager(), entries, mappingLookup);
+    }
+
+    /**
+     * <h6>Builds and populates an overlay on a frozen base hierarchy from the class entries of a jar.
+     *
+     * <p>Only the classes of the given entries end up in the overlay, everything else is looked up in the base.</p>
+     *
+     * @param base             The frozen base hierarchy, this is normally the game jar.
+     * @param entries          The jar entries, as read by {@linkplain JarIO#readJar(java.nio.file.Path)}.
+     * @param mappingContainer The mappings to apply to the overlay's classes.
+     * @return A populated overlay.
+     * @see HierarchyManager#createOverlay()
+     */
+    public static HierarchyManager createOverlay(HierarchyManager base, Map<String, byte[]> entries, MappingContainer mappingContainer) {
+        return createOverlay(base, entries, MappingLookup.of(mappingContainer));
+    }
+
+    /**
+     * <h6>Builds and populates an overlay on a frozen base hierarchy from the class entries of a jar.
+     *
+     * @param base          The frozen base hierarchy, this is normally the game jar.
+     * @param entries       The jar entries, as read by {@linkplain JarIO#readJar(java.nio.file.Path)}.
+     * @param mappingLookup The mappings to apply to the overlay's classes.
+     * @return A populated overlay.
+     * @see HierarchyManager#createOverlay()
+     */
+    public static HierarchyManager createOverlay(HierarchyManager base, Map<String, byte[]> entries, MappingLookup mappingLookup) {
+        return populate(base.createOverlay(), entries, mappingLookup);
+    }
+
+    private static HierarchyManager populate(HierarchyManager hierarchyManager, Map<String, byte[]> entries, MappingLookup mappingLookup) {
+        HierarchyChange hierarchyChange = new HierarchyChange(hierarchyManager, mappingLookup);
+
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            if (JarIO.isClass(entry.getKey())) {
+                hierarchyChange.applyChange(entry.getKey(), entry.getValue());
+            }
+        }
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager;
+    }
 }
\ No newline at end of file
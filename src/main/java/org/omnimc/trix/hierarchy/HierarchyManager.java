@@ -26,14 +26,22 @@ package org.omnimc.trix.hierarchy;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.commons.Remapper;
 import org.omnimc.trix.hierarchy.info.ClassInfo;
 import org.omnimc.trix.hierarchy.info.FieldInfo;
 import org.omnimc.trix.hierarchy.info.MethodInfo;
+import org.omnimc.trix.mapping.ClassNameIndex;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * {@code HierarchyManager} is designed to keep track of class files and their details, making it easy to manage and
@@ -42,21 +50,73 @@ import java.util.Map;
  * <p>It helps you add new classes, retrieve information about them, and look up methods and fields, even if they
  * have obfuscated names. It can also handle class dependencies, so all related information stays updated.</p>
  *
+ * <p>A frozen manager can be used as the shared base of any number of {@linkplain #createOverlay() overlays}. An
+ * overlay only holds its own classes and falls through to the base for everything else, which lets many jobs share a
+ * single copy of a large hierarchy such as the game jar.</p>
+ *
+ * <p>A manager can also be backed by a class source, such as a {@linkplain HierarchySnapshot}, in which case every
+ * {@linkplain ClassInfo} is only loaded the first time it is looked up.</p>
+ *
  * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
  * @since 1.0.0
  */
 public class HierarchyManager {
 
+    private static final ClassInfo MISSING = new ClassInfo("");
+
     private final HashMap<String, ClassInfo> classFiles = new HashMap<>();
+    private final HierarchyManager parent;
+
+    private final Function<String, ClassInfo> classSource;
+    private final ConcurrentHashMap<String, ClassInfo> loadedClasses;
+
+    private volatile boolean frozen;
+    private volatile Set<String> affectedClasses;
+    private volatile ClassNameIndex classNameIndex;
+    private volatile ReverseIndex reverseIndex;
+    private final ConcurrentHashMap<String, Map<String, Set<String>>> pinnedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * <h6>Creates a new, empty {@code HierarchyManager}.
+     */
+    public HierarchyManager() {
+        this(null, null);
+    }
+
+    /**
+     * <h6>Creates a new, frozen {@code HierarchyManager} that loads every class from the given source on its first
+     * lookup.
+     *
+     * <p>The source must hand out already populated {@linkplain ClassInfo}'s, and return {@code null} for classes it
+     * doesn't know. Loaded classes are cached, so the source is asked at most once per class name.</p>
+     *
+     * @param classSource The source of the populated {@linkplain ClassInfo}'s.
+     */
+    public HierarchyManager(@NotNull Function<String, ClassInfo> classSource) {
+        this(null, classSource);
+        this.frozen = true;
+    }
+
+    private HierarchyManager(@Nullable HierarchyManager parent, @Nullable Function<String, ClassInfo> classSource) {
+        this.parent = parent;
+        this.classSource = classSource;
+        this.loadedClasses = classSource == null ? null : new ConcurrentHashMap<>();
+    }
 
     /**
      * <h6>Adds a class file to the manager. If a class with the same name already exists, it won't be added again.
      *
+     * <p>Classes under {@code java/} are never added, so neither they nor their members are renamed even if a mapping
+     * names them.</p>
+     *
      * @param name The name of the class.
      * @param file The {@linkplain ClassInfo} object containing details about the class.
+     * @throws IllegalStateException If this manager has been {@linkplain #freeze() frozen}.
      */
     public void addClassFile(@NotNull String name, @NotNull ClassInfo file) {
-        if (classFiles.containsKey(name)) {
+        checkNotFrozen();
+
+        if (classFiles.containsKey(name) || isJavaClass(name)) {
             return;
         }
 
@@ -66,12 +126,62 @@ public class HierarchyManager {
     /**
      * <h6>Retrieves the {@linkplain ClassInfo} for a given class name.
      *
+     * <p>If this is an overlay and the class isn't part of it, the base hierarchy is checked.</p>
+     *
      * @param name The name of the class to retrieve.
      * @return The {@linkplain ClassInfo} for the class, or `null` if the class is not found.
      */
     @Nullable
     public ClassInfo getClassInfo(@NotNull String name) {
-        return classFiles.get(name);
+        ClassInfo classInfo = classFiles.get(name);
+        if (classInfo == null && classSource != null) {
+            classInfo = loadedClasses.computeIfAbsent(name, this::loadClassInfo);
+            if (classInfo == MISSING) {
+                classInfo = null;
+            }
+        }
+
+        if (classInfo == null && parent != null) {
+            return parent.getClassInfo(name);
+        }
+
+        return classInfo;
+    }
+
+    private ClassInfo loadClassInfo(String name) {
+        final ClassInfo classInfo = isJavaClass(name) ? null : classSource.apply(name);
+        return classInfo == null ? MISSING : classInfo;
+    }
+
+    /* Only the boot loader can define classes under java/, so they always come from the JDK and keep their names. */
+    private static boolean isJavaClass(String name) {
+        return name.startsWith("java/");
+    }
+
+    /**
+     * <h6>Retrieves the {@linkplain ClassInfo} for a given class name so it can be changed.
+     *
+     * <p>If this is an overlay and the class only exists in the base hierarchy, it is copied into the overlay first,
+     * so the shared base is never changed.</p>
+     *
+     * @param name The name of the class to retrieve.
+     * @return The {@linkplain ClassInfo} owned by this manager, or `null` if the class is not found.
+     * @throws IllegalStateException If this manager has been {@linkplain #freeze() frozen}.
+     */
+    @Nullable
+    public ClassInfo getClassInfoForUpdate(@NotNull String name) {
+        checkNotFrozen();
+
+        ClassInfo classInfo = classFiles.get(name);
+        if (classInfo == null && parent != null) {
+            final ClassInfo baseInfo = parent.getClassInfo(name);
+            if (baseInfo != null) {
+                classInfo = new ClassInfo(baseInfo);
+                classFiles.put(name, classInfo);
+            }
+        }
+
+        return classInfo;
     }
 
     /**
@@ -82,6 +192,15 @@ public class HierarchyManager {
      */
     @NotNull
     public String getClassName(@NotNull String name) {
+        if (frozen && classSource == null) {
+            final String mappedName = getClassNameIndex().get(name);
+            if (mappedName != null) {
+                return mappedName;
+            }
+
+            return parent == null || classFiles.containsKey(name) ? name : parent.getClassName(name);
+        }
+
         final ClassInfo classInfo = getClassInfo(name);
         if (classInfo == null) {
             return name;
@@ -90,9 +209,113 @@ public class HierarchyManager {
         return classInfo.getClassName();
     }
 
+    /**
+     * <h6>Gets the {@linkplain ClassNameIndex} class names are looked up in once this manager is frozen.
+     *
+     * <p>It is built on the first call from this manager's own classes. An overlay falls through to the index of its
+     * base, a manager backed by a class source doesn't use one.</p>
+     *
+     * @return The {@linkplain ClassNameIndex} of this manager's own classes.
+     * @throws IllegalStateException If this manager hasn't been {@linkplain #freeze() frozen} yet.
+     */
+    @NotNull
+    public ClassNameIndex getClassNameIndex() {
+        if (!frozen) {
+            throw new IllegalStateException("Only a frozen HierarchyManager has a ClassNameIndex.");
+        }
+
+        ClassNameIndex index = classNameIndex;
+        if (index == null) {
+            HashMap<String, String> classNames = new HashMap<>();
+            for (Map.Entry<String, ClassInfo> entry : classFiles.entrySet()) {
+                classNames.put(entry.getKey(), entry.getValue().getClassName());
+            }
+
+            index = ClassNameIndex.of(classNames);
+            classNameIndex = index;
+        }
+
+        return index;
+    }
+
+    /**
+     * <h6>Checks whether remapping can change anything about a class, its own name or the name of any of its members,
+     * including the ones it inherits.
+     *
+     * <p>Once this manager is {@linkplain #freeze() frozen} the answer for its own classes comes from a set that is
+     * built on the first call and never changes afterward.</p>
+     *
+     * @param name The internal name of the class.
+     * @return {@code true} if the class or any of its members has a mapping, {@code false} if it is unknown.
+     */
+    public boolean isAffected(@NotNull String name) {
+        final ClassInfo ownInfo = classFiles.get(name);
+        if (ownInfo != null) {
+            return frozen ? getAffectedClasses().contains(name) : hasMappings(name, ownInfo);
+        }
+
+        if (classSource == null && parent != null) {
+            return parent.isAffected(name);
+        }
+
+        final ClassInfo classInfo = getClassInfo(name);
+        return classInfo != null && hasMappings(name, classInfo);
+    }
+
+    private Set<String> getAffectedClasses() {
+        Set<String> affected = affectedClasses;
+        if (affected == null) {
+            affected = new HashSet<>();
+            for (Map.Entry<String, ClassInfo> entry : classFiles.entrySet()) {
+                if (hasMappings(entry.getKey(), entry.getValue())) {
+                    affected.add(entry.getKey());
+                }
+            }
+
+            affectedClasses = affected;
+        }
+
+        return affected;
+    }
+
+    private static boolean hasMappings(String name, ClassInfo classInfo) {
+        if (!classInfo.getClassName().equals(name)) {
+            return true;
+        }
+
+        for (MethodInfo method : classInfo.getMethods().values()) {
+            if (!method.getMethodName().equals(method.getObfuscatedName())) {
+                return true;
+            }
+        }
+
+        for (MethodInfo method : classInfo.getPrivateMethods().values()) {
+            if (!method.getMethodName().equals(method.getObfuscatedName())) {
+                return true;
+            }
+        }
+
+        for (FieldInfo field : classInfo.getFields().values()) {
+            if (!field.getFieldName().equals(field.getObfuscatedName())) {
+                return true;
+            }
+        }
+
+        for (FieldInfo field : classInfo.getPrivateFields().values()) {
+            if (!field.getFieldName().equals(field.getObfuscatedName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * <h6>Returns all class files currently managed by this {@code HierarchyManager}.
      *
+     * <p>For an overlay this only contains the classes of the overlay itself, not the ones of its base. Classes loaded
+     * from a class source are not part of it either.</p>
+     *
      * @return A map of class names to their corresponding {@linkplain ClassInfo} objects.
      */
     @NotNull
@@ -110,7 +333,7 @@ public class HierarchyManager {
      */
     @Nullable
     public MethodInfo getMethod(@NotNull String owner, @NotNull String obfuscatedName, @NotNull String descriptor) {
-        final ClassInfo classInfo = classFiles.get(owner);
+        final ClassInfo classInfo = getClassInfo(owner);
         if (classInfo == null) {
             return null;
         }
@@ -136,6 +359,102 @@ public class HierarchyManager {
         return method.getMethodName();
     }
 
+    /**
+     * <h6>Checks whether a method can never be renamed, because it is a constructor or initializer, or because it
+     * overrides a method of a JDK class.
+     *
+     * <p>Once this manager is {@linkplain #freeze() frozen} the methods every class inherits from its JDK ancestors
+     * are worked out on the first lookup of the class and cached, the JDK classes themselves are read through
+     * {@linkplain JdkMembers}. Before that only constructors and initializers are reported.</p>
+     *
+     * @param owner      The name of the class that owns the method.
+     * @param name       The name of the method.
+     * @param descriptor The method descriptor.
+     * @return {@code true} if the method keeps its name.
+     */
+    public boolean isPinnedMethod(@NotNull String owner, @NotNull String name, @Nullable String descriptor) {
+        if (name.charAt(0) == '<') {
+            return true;
+        }
+
+        if (!frozen || descriptor == null) {
+            return false;
+        }
+
+        Map<String, Set<String>> pinned = pinnedMethods.get(owner);
+        if (pinned == null) {
+            pinned = getPinnedMethods(owner, new HashSet<>());
+        }
+
+        final Set<String> descriptors = pinned.get(name);
+        return descriptors != null && descriptors.contains(descriptor);
+    }
+
+    private Map<String, Set<String>> getPinnedMethods(String owner, Set<String> visiting) {
+        Map<String, Set<String>> pinned = pinnedMethods.get(owner);
+        if (pinned == null) {
+            // Broken hierarchies can be circular, a class that is still being worked out on this thread pins nothing.
+            if (!visiting.add(owner)) {
+                return Collections.emptyMap();
+            }
+
+            pinned = computePinnedMethods(owner, visiting);
+            final Map<String, Set<String>> previous = pinnedMethods.putIfAbsent(owner, pinned);
+            if (previous != null) {
+                pinned = previous;
+            }
+        }
+
+        return pinned;
+    }
+
+    private Map<String, Set<String>> computePinnedMethods(String owner, Set<String> visiting) {
+        final Map<String, Set<String>> jdkMethods = JdkMembers.getInstance().getMethods(owner);
+        if (jdkMethods != null) {
+            return jdkMethods;
+        }
+
+        final ClassInfo classInfo = getClassInfo(owner);
+        if (classInfo == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Set<String>> pinned = Collections.emptyMap();
+        boolean shared = true;
+        for (String dependency : classInfo.getDependentClasses()) {
+            final Map<String, Set<String>> inherited = getPinnedMethods(dependency, visiting);
+            if (inherited.isEmpty() || inherited == pinned) {
+                continue;
+            }
+
+            // Most classes only inherit from one JDK class, so its methods are shared rather than copied.
+            if (pinned.isEmpty()) {
+                pinned = inherited;
+                continue;
+            }
+
+            if (shared) {
+                pinned = copyPinnedMethods(pinned);
+                shared = false;
+            }
+
+            for (Map.Entry<String, Set<String>> entry : inherited.entrySet()) {
+                pinned.computeIfAbsent(entry.getKey(), ignored -> new HashSet<>()).addAll(entry.getValue());
+            }
+        }
+
+        return pinned;
+    }
+
+    private static Map<String, Set<String>> copyPinnedMethods(Map<String, Set<String>> pinned) {
+        final HashMap<String, Set<String>> copy = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : pinned.entrySet()) {
+            copy.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+
+        return copy;
+    }
+
     /**
      * <h6>Looks up a private method by its owner class, obfuscated name, and descriptor.
      *
@@ -146,7 +465,7 @@ public class HierarchyManager {
      */
     @Nullable
     public MethodInfo getPrivateMethod(@NotNull String owner, @NotNull String obfuscatedName, @NotNull String descriptor) {
-        final ClassInfo classInfo = classFiles.get(owner);
+        final ClassInfo classInfo = getClassInfo(owner);
         if (classInfo == null) {
             return null;
         }
@@ -182,7 +501,7 @@ public class HierarchyManager {
      */
     @Nullable
     public FieldInfo getField(@NotNull String owner, @NotNull String obfuscatedName, @NotNull String descriptor) {
-        final ClassInfo classInfo = classFiles.get(owner);
+        final ClassInfo classInfo = getClassInfo(owner);
         if (classInfo == null) {
             return null;
         }
@@ -218,7 +537,7 @@ public class HierarchyManager {
      */
     @Nullable
     public FieldInfo getPrivateField(@NotNull String owner, @NotNull String obfuscatedName, @NotNull String descriptor) {
-        final ClassInfo classInfo = classFiles.get(owner);
+        final ClassInfo classInfo = getClassInfo(owner);
         if (classInfo == null) {
             return null;
         }
@@ -249,6 +568,8 @@ public class HierarchyManager {
      * accounted for and their fields and methods are included.
      */
     public void populateClassFiles() {
+        checkNotFrozen();
+
         final HashMap<String, ClassInfo> classFileHashMap = new HashMap<>();
 
         for (Map.Entry<String, ClassInfo> entry : classFiles.entrySet()) {
@@ -259,7 +580,7 @@ public class HierarchyManager {
             while (!dependencies.isEmpty()) {
                 ArrayList<String> nextDependencies = new ArrayList<>();
                 for (String dependency : dependencies) {
-                    ClassInfo file = classFiles.get(dependency);
+                    ClassInfo file = getClassInfo(dependency);
                     if (file != null) {
                         originalClassFile.getFields().putAll(file.getFields());
                         originalClassFile.getMethods().putAll(file.getMethods());
@@ -276,6 +597,67 @@ public class HierarchyManager {
         classFiles.putAll(classFileHashMap);
     }
 
+    /**
+     * <h6>Freezes this manager, after which no more class files can be added or populated.
+     *
+     * <p>A frozen manager is only ever read from, so it can be shared between threads and reused across many remap
+     * runs without being rebuilt.</p>
+     *
+     * @return This {@code HierarchyManager}.
+     */
+    public HierarchyManager freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * <h6>Checks if this manager has been frozen.
+     *
+     * @return {@code true} if {@linkplain #freeze()} has been called.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * <h6>Creates a new overlay on top of this manager.
+     *
+     * <p>The overlay starts empty and only holds the classes added to it, every lookup it can't answer falls through
+     * to this manager. Populating the overlay pulls inherited fields and methods from this manager into the overlay's
+     * own classes without changing this manager, so any number of overlays can share it at the same time.</p>
+     *
+     * @return A new, empty overlay.
+     * @throws IllegalStateException If this manager hasn't been {@linkplain #freeze() frozen} yet.
+     */
+    @NotNull
+    public HierarchyManager createOverlay() {
+        if (!frozen) {
+            throw new IllegalStateException("Only a frozen HierarchyManager can be used as the base of an overlay.");
+        }
+
+        return new HierarchyManager(this, null);
+    }
+
+    /**
+     * <h6>Gets the base this overlay falls through to.
+     *
+     * @return The base {@code HierarchyManager}, or {@code null} if this isn't an overlay.
+     */
+    @Nullable
+    public HierarchyManager getParent() {
+        return parent;
+    }
+
+    boolean hasClassSource() {
+        return classSource != null;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("HierarchyManager is frozen and can no longer be modified.");
+        }
+    }
+
     /**
      * Provides a custom {@linkplain Remapper} that translates obfuscated names to their readable equivalents using
      * class, method, and field name mappings.
@@ -286,6 +668,66 @@ public class HierarchyManager {
         return new CustomRemapper(this);
     }
 
+    /**
+     * <h6>Provides a {@linkplain Remapper} that goes the other way, from the readable names back to the obfuscated
+     * ones.
+     *
+     * <p>It looks names up in an inverted index of this manager's classes, built in parallel on the first call and
+     * kept for every later one. Nothing is read from a jar again, and the index holds the same strings as the classes
+     * it was built from. An overlay falls through to the index of its base.</p>
+     *
+     * @return A {@linkplain Remapper} that maps readable names to their obfuscated forms.
+     * @throws IllegalStateException If this manager hasn't been {@linkplain #freeze() frozen} yet or is backed by a
+     *                               class source.
+     */
+    @NotNull
+    public Remapper getReverseRemapper() {
+        return getReverseRemapper(Collections.emptyMap());
+    }
+
+    /**
+     * <h6>Provides a {@linkplain Remapper} that goes from the readable names back to the obfuscated ones, for the
+     * classes of the given jar.
+     *
+     * <p>Members of an owner that isn't part of this manager, like a class of a mod extending a mapped one, are
+     * looked up through its superclass and interfaces. Those are read from the given classes, so an override or an
+     * inherited call in the jar is mapped back like the member of the mapped class it resolves to.</p>
+     *
+     * @param inputClasses The classes of the jar being remapped, keyed by entry name as {@linkplain
+     *                     org.omnimc.trix.io.JarIO#readJar(java.nio.file.Path)} gives them.
+     * @return A {@linkplain Remapper} that maps readable names to their obfuscated forms.
+     * @throws IllegalStateException If this manager hasn't been {@linkplain #freeze() frozen} yet or is backed by a
+     *                               class source.
+     */
+    @NotNull
+    public Remapper getReverseRemapper(@NotNull Map<String, byte[]> inputClasses) {
+        return new ReverseRemapper(getReverseIndex(), inputClasses);
+    }
+
+    private ReverseIndex getReverseIndex() {
+        if (!frozen) {
+            throw new IllegalStateException("Only a frozen HierarchyManager can be reversed.");
+        }
+
+        if (classSource != null) {
+            throw new IllegalStateException("A HierarchyManager backed by a class source can't be reversed.");
+        }
+
+        ReverseIndex index = reverseIndex;
+        if (index == null) {
+            // Building it is far more work than waiting for another thread to do so.
+            synchronized (this) {
+                index = reverseIndex;
+                if (index == null) {
+                    index = ReverseIndex.build(this, parent == null ? null : parent.getReverseIndex());
+                    reverseIndex = index;
+                }
+            }
+        }
+
+        return index;
+    }
+
     static class CustomRemapper extends Remapper {
 
         private final HierarchyManager hierarchyManager;
@@ -339,6 +781,10 @@ public class HierarchyManager {
          */
         @Override
         public String mapMethodName(String owner, String name, String descriptor) {
+            if (name != null && hierarchyManager.isPinnedMethod(owner, name, descriptor)) {
+                return name;
+            }
+
             if (descriptor != null) {
                 descriptor = mapDesc(descriptor);
             }
@@ -402,4 +848,121 @@ public class HierarchyManager {
             return fieldName;
         }
     }
-}
\ No newline at end of file
+
+    static class ReverseRemapper extends Remapper {
+
+        private static final String[] NO_SUPERTYPES = new String[0];
+
+        private final ReverseIndex reverseIndex;
+        private final Map<String, byte[]> inputClasses;
+        private final ConcurrentHashMap<String, String[]> supertypes = new ConcurrentHashMap<>();
+
+        ReverseRemapper(ReverseIndex reverseIndex, Map<String, byte[]> inputClasses) {
+            this.reverseIndex = reverseIndex;
+            this.inputClasses = inputClasses;
+        }
+
+        @Override
+        public String map(String internalName) {
+            return mapType(internalName);
+        }
+
+        @Override
+        public String mapType(String internalName) {
+            return internalName == null ? null : reverseIndex.getClassName(internalName);
+        }
+
+        /**
+         * <h6>Maps the readable name of a method back to its obfuscated name.
+         *
+         * <p>Like {@linkplain CustomRemapper#mapMethodName(String, String, String)} the descriptor is mapped before it
+         * is looked up, so either the readable or the already obfuscated one can be given.</p>
+         *
+         * @param owner      The readable internal name of the owner class of the method.
+         * @param name       The readable name of the method.
+         * @param descriptor The method descriptor.
+         * @return The obfuscated method name, or the given name if the method isn't renamed.
+         */
+        @Override
+        public String mapMethodName(String owner, String name, String descriptor) {
+            if (owner == null || name == null || descriptor == null) {
+                return name;
+            }
+
+            String obfuscatedDescriptor = mapMethodDesc(descriptor);
+            final String obfuscatedName = getName(owner, (mappedOwner, inherited) -> reverseIndex.getMethodName(mappedOwner, name, obfuscatedDescriptor, inherited));
+            return obfuscatedName == null ? name : obfuscatedName;
+        }
+
+        /**
+         * <h6>Maps the readable name of a field back to its obfuscated name.
+         *
+         * @param owner      The readable internal name of the owner class of the field.
+         * @param name       The readable name of the field.
+         * @param descriptor The field descriptor, either the readable or the obfuscated one.
+         * @return The obfuscated field name, or the given name if the field isn't renamed.
+         */
+        @Override
+        public String mapFieldName(String owner, String name, String descriptor) {
+            if (owner == null || name == null || descriptor == null) {
+                return name;
+            }
+
+            String obfuscatedDescriptor = mapDesc(descriptor);
+            final String obfuscatedName = getName(owner, (mappedOwner, inherited) -> reverseIndex.getFieldName(mappedOwner, name, obfuscatedDescriptor, inherited));
+            return obfuscatedName == null ? name : obfuscatedName;
+        }
+
+        /* Classes of the index already hold everything they inherit, only owners outside of it are walked up. */
+        private String getName(String owner, MemberLookup lookup) {
+            if (reverseIndex.hasClass(owner)) {
+                return lookup.getName(owner, false);
+            }
+
+            ArrayDeque<String> owners = new ArrayDeque<>();
+            Collections.addAll(owners, getSupertypes(owner));
+            HashSet<String> visited = new HashSet<>();
+            while (!owners.isEmpty()) {
+                String supertype = owners.poll();
+                if (!visited.add(supertype)) {
+                    continue;
+                }
+
+                if (reverseIndex.hasClass(supertype)) {
+                    String obfuscatedName = lookup.getName(supertype, true);
+                    if (obfuscatedName != null) {
+                        return obfuscatedName;
+                    }
+                } else {
+                    Collections.addAll(owners, getSupertypes(supertype));
+                }
+            }
+
+            return null;
+        }
+
+        private String[] getSupertypes(String owner) {
+            return supertypes.computeIfAbsent(owner, name -> {
+                byte[] classBytes = inputClasses.get(name + ".class");
+                if (classBytes == null) {
+                    return NO_SUPERTYPES;
+                }
+
+                ClassReader reader = new ClassReader(classBytes);
+                String[] interfaces = reader.getInterfaces();
+                if (reader.getSuperName() == null) {
+                    return interfaces;
+                }
+
+                String[] types = new String[interfaces.length + 1];
+                types[0] = reader.getSuperName();
+                System.arraycopy(interfaces, 0, types, 1, interfaces.length);
+                return types;
+            });
+        }
+
+        private interface MemberLookup {
+            String getName(String mappedOwner, boolean inherited);
+        }
+    }
+}
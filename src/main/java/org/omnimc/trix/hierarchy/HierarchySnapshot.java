@@ -0,0 +1,339 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.hierarchy.info.FieldInfo;
+import org.omnimc.trix.hierarchy.info.MethodInfo;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code HierarchySnapshot} is a compact, memory-mapped on-disk copy of a populated {@linkplain HierarchyManager}.
+ *
+ * <p>Opening a snapshot only maps the file, nothing is decoded up front. Two hash tables in the file, one keyed by
+ * the obfuscated class name and one keyed by the mapped class name, let a single class be found and decoded in
+ * constant time. This makes the startup cost of a snapshot independent of how many classes it holds, which is what
+ * lazy consumers like the {@linkplain org.omnimc.trix.loader.RemappingClassLoader} need.</p>
+ *
+ * <p>The file layout is a header, the string offset table, the two class tables, the class records and finally the
+ * UTF-8 string data. Every name is stored once and referenced by index.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class HierarchySnapshot {
+
+    private static final int MAGIC = 0x54525848; // TRXH
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8 * Integer.BYTES;
+    private static final int EMPTY = -1;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int classCount;
+    private final int bucketMask;
+    private final int stringOffsetsPosition;
+    private final int classTablePosition;
+    private final int reverseTablePosition;
+
+    private final String[] strings;
+
+    private HierarchySnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a Trix hierarchy snapshot, or one of an unsupported version.");
+        }
+
+        this.stringCount = buffer.getInt(8);
+        this.classCount = buffer.getInt(12);
+        this.bucketMask = buffer.getInt(16) - 1;
+        this.stringOffsetsPosition = buffer.getInt(20);
+        this.classTablePosition = buffer.getInt(24);
+        this.reverseTablePosition = buffer.getInt(28);
+        this.strings = new String[stringCount];
+    }
+
+    /**
+     * <h6>Opens a snapshot by memory-mapping it.
+     *
+     * @param path The snapshot file.
+     * @return The opened {@code HierarchySnapshot}.
+     * @throws IOException If the file can't be mapped or isn't a snapshot.
+     */
+    @NotNull
+    public static HierarchySnapshot open(@NotNull Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new HierarchySnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * <h6>Gets the number of classes in this snapshot.
+     *
+     * @return The number of classes.
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * <h6>Reads the populated {@linkplain ClassInfo} of a class.
+     *
+     * @param name The obfuscated name of the class.
+     * @return The {@linkplain ClassInfo}, or {@code null} if the class isn't in this snapshot.
+     */
+    @Nullable
+    public ClassInfo readClassInfo(@NotNull String name) {
+        final int record = find(classTablePosition, name, 0);
+        return record == EMPTY ? null : readRecord(record);
+    }
+
+    /**
+     * <h6>Gets the obfuscated name of a class from its mapped name.
+     *
+     * @param mappedName The mapped name of the class.
+     * @return The obfuscated name, or {@code null} if no class in this snapshot is mapped to that name.
+     */
+    @Nullable
+    public String getObfuscatedName(@NotNull String mappedName) {
+        final int record = find(reverseTablePosition, mappedName, Integer.BYTES);
+        return record == EMPTY ? null : string(buffer.getInt(record));
+    }
+
+    /**
+     * <h6>Creates a frozen {@linkplain HierarchyManager} that loads its classes from this snapshot on demand.
+     *
+     * @return A lazily loading {@linkplain HierarchyManager}.
+     */
+    @NotNull
+    public HierarchyManager createHierarchyManager() {
+        return new HierarchyManager(this::readClassInfo);
+    }
+
+    private int find(int tablePosition, String name, int nameOffset) {
+        int bucket = hash(name) & bucketMask;
+        while (true) {
+            final int record = buffer.getInt(tablePosition + bucket * Integer.BYTES);
+            if (record == EMPTY || string(buffer.getInt(record + nameOffset)).equals(name)) {
+                return record;
+            }
+            bucket = (bucket + 1) & bucketMask;
+        }
+    }
+
+    private ClassInfo readRecord(int position) {
+        ClassInfo classInfo = new ClassInfo(string(buffer.getInt(position + 4)));
+        position += 8;
+
+        final int dependencies = buffer.getInt(position);
+        position += 4;
+        for (int i = 0; i < dependencies; i++, position += 4) {
+            classInfo.addDependentClass(string(buffer.getInt(position)));
+        }
+
+        for (int kind = 0; kind < 4; kind++) {
+            final int members = buffer.getInt(position);
+            position += 4;
+
+            for (int i = 0; i < members; i++, position += 12) {
+                String obfuscatedName = string(buffer.getInt(position));
+                String mappedName = string(buffer.getInt(position + 4));
+                String descriptor = string(buffer.getInt(position + 8));
+
+                switch (kind) {
+                    case 0 -> classInfo.addField(obfuscatedName, mappedName, descriptor);
+                    case 1 -> classInfo.addPrivateField(obfuscatedName, mappedName, descriptor);
+                    case 2 -> classInfo.addMethod(obfuscatedName, mappedName, descriptor);
+                    default -> classInfo.addPrivateMethod(obfuscatedName, mappedName, descriptor);
+                }
+            }
+        }
+
+        return classInfo;
+    }
+
+    private String string(int index) {
+        String string = strings[index];
+        if (string == null) {
+            final int position = buffer.getInt(stringOffsetsPosition + index * Integer.BYTES);
+            byte[] bytes = new byte[buffer.getInt(position)];
+            buffer.get(position + Integer.BYTES, bytes);
+
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+
+    private static int hash(String name) {
+        final int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * <h6>Writes the classes of a populated {@linkplain HierarchyManager} as a snapshot.
+     *
+     * @param hierarchyManager The populated {@linkplain HierarchyManager} to write.
+     * @param path             The file to write the snapshot to.
+     * @throws IOException If the snapshot can't be written.
+     */
+    public static void write(@NotNull HierarchyManager hierarchyManager, @NotNull Path path) throws IOException {
+        final Map<String, ClassInfo> classes = hierarchyManager.getClassFiles();
+        final LinkedHashMap<String, Integer> stringIndexes = new LinkedHashMap<>();
+
+        int bucketCount = Integer.highestOneBit(Math.max(1, classes.size()) * 2) * 2;
+
+        /* Records, their positions are relative until the final layout is known */
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        int[] classTable = emptyTable(bucketCount);
+        int[] reverseTable = emptyTable(bucketCount);
+
+        ArrayList<String> recordNames = new ArrayList<>();
+        ArrayList<Integer> recordPositions = new ArrayList<>();
+        for (Map.Entry<String, ClassInfo> entry : classes.entrySet()) {
+            ClassInfo classInfo = entry.getValue();
+            recordNames.add(entry.getKey());
+            recordPositions.add(records.size());
+
+            records.writeInt(index(stringIndexes, entry.getKey()));
+            records.writeInt(index(stringIndexes, classInfo.getClassName()));
+            records.writeInt(classInfo.getDependentClasses().size());
+            for (String dependency : classInfo.getDependentClasses()) {
+                records.writeInt(index(stringIndexes, dependency));
+            }
+
+            writeFields(records, stringIndexes, classInfo.getFields().values());
+            writeFields(records, stringIndexes, classInfo.getPrivateFields().values());
+            writeMethods(records, stringIndexes, classInfo.getMethods().values());
+            writeMethods(records, stringIndexes, classInfo.getPrivateMethods().values());
+        }
+
+        /* Now that the number of strings is known, every section can be placed */
+        final int stringOffsetsPosition = HEADER_SIZE;
+        final int classTablePosition = stringOffsetsPosition + stringIndexes.size() * Integer.BYTES;
+        final int reverseTablePosition = classTablePosition + bucketCount * Integer.BYTES;
+        final int recordsPosition = reverseTablePosition + bucketCount * Integer.BYTES;
+        final int stringsPosition = recordsPosition + records.size();
+
+        for (int i = 0; i < recordNames.size(); i++) {
+            final int position = recordsPosition + recordPositions.get(i);
+            insert(classTable, recordNames.get(i), position);
+            insert(reverseTable, classes.get(recordNames.get(i)).getClassName(), position);
+        }
+
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(stringIndexes.size());
+            output.writeInt(classes.size());
+            output.writeInt(bucketCount);
+            output.writeInt(stringOffsetsPosition);
+            output.writeInt(classTablePosition);
+            output.writeInt(reverseTablePosition);
+
+            byte[][] encodedStrings = new byte[stringIndexes.size()][];
+            int stringPosition = stringsPosition;
+            int index = 0;
+            for (String string : stringIndexes.keySet()) {
+                encodedStrings[index++] = string.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(stringPosition);
+                stringPosition += Integer.BYTES + encodedStrings[index - 1].length;
+            }
+
+            for (int position : classTable) {
+                output.writeInt(position);
+            }
+            for (int position : reverseTable) {
+                output.writeInt(position);
+            }
+
+            recordBytes.writeTo(output);
+
+            for (byte[] encodedString : encodedStrings) {
+                output.writeInt(encodedString.length);
+                output.write(encodedString);
+            }
+            output.flush();
+        }
+    }
+
+    private static void writeFields(DataOutputStream records, Map<String, Integer> stringIndexes, Collection<FieldInfo> fields) throws IOException {
+        records.writeInt(fields.size());
+        for (FieldInfo field : fields) {
+            records.writeInt(index(stringIndexes, field.getObfuscatedName()));
+            records.writeInt(index(stringIndexes, field.getFieldName()));
+            records.writeInt(index(stringIndexes, field.getDescriptor()));
+        }
+    }
+
+    private static void writeMethods(DataOutputStream records, Map<String, Integer> stringIndexes, Collection<MethodInfo> methods) throws IOException {
+        records.writeInt(methods.size());
+        for (MethodInfo method : methods) {
+            records.writeInt(index(stringIndexes, method.getObfuscatedName()));
+            records.writeInt(index(stringIndexes, method.getMethodName()));
+            records.writeInt(index(stringIndexes, method.getDescriptor()));
+        }
+    }
+
+    private static int index(Map<String, Integer> stringIndexes, String string) {
+        return stringIndexes.computeIfAbsent(string, ignored -> stringIndexes.size());
+    }
+
+    private static int[] emptyTable(int bucketCount) {
+        int[] table = new int[bucketCount];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    private static void insert(int[] table, String name, int position) {
+        final int mask = table.length - 1;
+        int bucket = hash(name) & mask;
+        while (table[bucket] != EMPTY) {
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = position;
+    }
+}
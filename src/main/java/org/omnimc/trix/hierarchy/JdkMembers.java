@@ -0,0 +1,183 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code JdkMembers} knows the methods JDK classes declare or inherit that a subclass can override, read from the
+ * {@code jrt:/} file system of the running JDK.
+ *
+ * <p>A method that overrides one of them can never be renamed, so looking it up in the mappings is wasted work. Each
+ * JDK class is read at most once, the first time it is asked about, and its methods are cached together with the ones
+ * of its JDK supertypes for the lifetime of the JVM.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class JdkMembers {
+
+    private static final Map<String, Set<String>> MISSING = Collections.emptyMap();
+    private static final JdkMembers INSTANCE = new JdkMembers();
+
+    private final FileSystem fileSystem;
+    private final ConcurrentHashMap<String, Map<String, Set<String>>> classes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Optional<Path>> packages = new ConcurrentHashMap<>();
+
+    private JdkMembers() {
+        FileSystem jrt;
+        try {
+            jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        } catch (FileSystemNotFoundException | ProviderNotFoundException e) {
+            jrt = null;
+        }
+
+        this.fileSystem = jrt;
+    }
+
+    /**
+     * @return The {@code JdkMembers} of the running JDK.
+     */
+    @NotNull
+    public static JdkMembers getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <h6>Gets the methods of a JDK class that can be overridden, including the ones of its JDK supertypes.
+     *
+     * @param className The internal name of the class.
+     * @return The descriptors of the methods by their names, or {@code null} if the class isn't part of the JDK.
+     */
+    @Nullable
+    public Map<String, Set<String>> getMethods(@NotNull String className) {
+        Map<String, Set<String>> methods = classes.get(className);
+        if (methods == null) {
+            methods = readMethods(className);
+            Map<String, Set<String>> previous = classes.putIfAbsent(className, methods);
+            if (previous != null) {
+                methods = previous;
+            }
+        }
+
+        return methods == MISSING ? null : methods;
+    }
+
+    private Map<String, Set<String>> readMethods(String className) {
+        Path classFile = findClassFile(className);
+        if (classFile == null) {
+            return MISSING;
+        }
+
+        HashMap<String, Set<String>> methods = new HashMap<>();
+        ArrayList<String> supertypes = new ArrayList<>();
+
+        try {
+            new ClassReader(Files.readAllBytes(classFile)).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    if (superName != null) {
+                        supertypes.add(superName);
+                    }
+
+                    if (interfaces != null) {
+                        supertypes.addAll(Arrays.asList(interfaces));
+                    }
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    if ((access & (Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC)) == 0 && name.charAt(0) != '<') {
+                        methods.computeIfAbsent(name, ignored -> new HashSet<>()).add(descriptor);
+                    }
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (IOException e) {
+            return MISSING;
+        }
+
+        for (String supertype : supertypes) {
+            Map<String, Set<String>> inherited = getMethods(supertype);
+            if (inherited == null) {
+                continue;
+            }
+
+            for (Map.Entry<String, Set<String>> entry : inherited.entrySet()) {
+                methods.computeIfAbsent(entry.getKey(), ignored -> new HashSet<>()).addAll(entry.getValue());
+            }
+        }
+
+        return Collections.unmodifiableMap(methods);
+    }
+
+    private Path findClassFile(String className) {
+        if (fileSystem == null) {
+            return null;
+        }
+
+        int packageEnd = className.lastIndexOf('/');
+        if (packageEnd == -1) {
+            return null;
+        }
+
+        // jrt:/packages/<package> holds a link to every module containing the package.
+        Optional<Path> module = packages.computeIfAbsent(className.substring(0, packageEnd), this::findModule);
+        if (module.isEmpty()) {
+            return null;
+        }
+
+        Path classFile = module.get().resolve(className + ".class");
+        return Files.isRegularFile(classFile) ? classFile : null;
+    }
+
+    private Optional<Path> findModule(String packageName) {
+        Path path = fileSystem.getPath("/packages", packageName.replace('/', '.'));
+        if (!Files.isDirectory(path)) {
+            return Optional.empty();
+        }
+
+        try (DirectoryStream<Path> modules = Files.newDirectoryStream(path)) {
+            for (Path module : modules) {
+                return Optional.of(fileSystem.getPath("/modules", module.getFileName().toString()));
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.MappingLookup;
+import org.omnimc.trix.visitors.hierarchy.HierarchyClassVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code MappingComposer} is used to compose a chain of {@linkplain MappingContainer}s, such as obfuscated to
+ * intermediary to named, into one frozen {@linkplain HierarchyManager} that maps straight from the first names to the
+ * last ones.
+ *
+ * <p>The classes of the jar are read once into a skeleton of their names, supertypes and members. For every layer a
+ * hierarchy is built from that skeleton with a {@linkplain HierarchyClassVisitor} and populated, exactly as if the jar
+ * had been remapped with the layers before it, and the skeleton is then renamed the way remapping with that hierarchy
+ * would rename the classes themselves. The jar is never remapped in between, so remapping with the composed hierarchy
+ * takes a single pass whatever the number of layers.</p>
+ *
+ * <p>Names a layer leaves as they are, besides constructors, synthetic members and methods that override the JDK, are
+ * reported in a {@linkplain CompositionReport}. A {@linkplain MappingContainer} can't tell a missing entry from one
+ * that maps to the same name, so both are reported.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class MappingComposer {
+
+    private final List<SkeletonClass> classes = new ArrayList<>();
+    private final List<MappingLookup> layers = new ArrayList<>();
+    private CompositionReport report;
+
+    /**
+     * <h6>Creates a new {@code MappingComposer} for the classes of a jar.
+     *
+     * @param entries The jar entries, as read by {@linkplain JarIO#readJar(java.nio.file.Path)}.
+     */
+    public MappingComposer(@NotNull Map<String, byte[]> entries) {
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            if (JarIO.isClass(entry.getKey())) {
+                classes.add(SkeletonClass.read(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * <h6>Adds the next layer of the chain, it maps the names the previous layer mapped to.
+     *
+     * @param container The mappings of the layer.
+     * @return This {@code MappingComposer}.
+     */
+    public MappingComposer addLayer(@NotNull MappingContainer container) {
+        return addLayer(MappingLookup.of(container));
+    }
+
+    /**
+     * <h6>Adds the next layer of the chain, it maps the names the previous layer mapped to.
+     *
+     * @param lookup The mappings of the layer, such as a {@linkplain org.omnimc.trix.mapping.MappingTable}.
+     * @return This {@code MappingComposer}.
+     */
+    public MappingComposer addLayer(@NotNull MappingLookup lookup) {
+        layers.add(lookup);
+        return this;
+    }
+
+    /**
+     * <h6>Composes every layer added so far into one hierarchy.
+     *
+     * @return A frozen {@linkplain HierarchyManager} that maps the original names to the ones of the last layer.
+     * @throws IllegalStateException If no layer was added.
+     */
+    @NotNull
+    public HierarchyManager compose() {
+        if (layers.isEmpty()) {
+            throw new IllegalStateException("At least one layer is needed to compose.");
+        }
+
+        CompositionReport composition = new CompositionReport(layers.size(), classes.size());
+
+        List<SkeletonClass> current = classes;
+        for (int layer = 0; layer < layers.size(); layer++) {
+            HierarchyManager hierarchyManager = new HierarchyManager();
+            for (SkeletonClass skeletonClass : current) {
+                skeletonClass.accept(new HierarchyClassVisitor(null, hierarchyManager, layers.get(layer)));
+            }
+            hierarchyManager.populateClassFiles();
+            hierarchyManager.freeze();
+
+            ArrayList<SkeletonClass> next = new ArrayList<>(current.size());
+            for (SkeletonClass skeletonClass : current) {
+                next.add(skeletonClass.remap(hierarchyManager, composition, layer));
+            }
+            current = next;
+        }
+
+        // Keyed by the original names, with the names and descriptors of the last layer.
+        HierarchyManager composed = new HierarchyManager();
+        for (int i = 0; i < classes.size(); i++) {
+            composed.addClassFile(classes.get(i).name, classes.get(i).compose(current.get(i)));
+        }
+        composed.populateClassFiles();
+
+        this.report = composition;
+        return composed.freeze();
+    }
+
+    /**
+     * <h6>Gets the report of the last {@linkplain #compose()}.
+     *
+     * @return The {@linkplain CompositionReport}.
+     * @throws IllegalStateException If nothing was composed yet.
+     */
+    @NotNull
+    public CompositionReport getReport() {
+        if (report == null) {
+            throw new IllegalStateException("Nothing was composed yet.");
+        }
+
+        return report;
+    }
+
+    /* Everything about a class a hierarchy is built from, in the names of one layer. */
+    private static final class SkeletonClass {
+        private final int access;
+        private final String name;
+        private final String superName;
+        private final String[] interfaces;
+        private final List<SkeletonMember> fields;
+        private final List<SkeletonMember> methods;
+
+        private SkeletonClass(int access, String name, String superName, String[] interfaces,
+                              List<SkeletonMember> fields, List<SkeletonMember> methods) {
+            this.access = access;
+            this.name = name;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        private static SkeletonClass read(byte[] classBytes) {
+            ClassReader reader = new ClassReader(classBytes);
+            ArrayList<SkeletonMember> fields = new ArrayList<>();
+            ArrayList<SkeletonMember> methods = new ArrayList<>();
+
+            reader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    fields.add(new SkeletonMember(access, name, descriptor));
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    methods.add(new SkeletonMember(access, name, descriptor));
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            return new SkeletonClass(reader.getAccess(), reader.getClassName(), reader.getSuperName(), reader.getInterfaces(), fields, methods);
+        }
+
+        private void accept(ClassVisitor classVisitor) {
+            classVisitor.visit(Opcodes.V17, access, name, null, superName, interfaces);
+            for (SkeletonMember field : fields) {
+                classVisitor.visitField(field.access, field.name, field.descriptor, null, null);
+            }
+            for (SkeletonMember method : methods) {
+                classVisitor.visitMethod(method.access, method.name, method.descriptor, null, null);
+            }
+            classVisitor.visitEnd();
+        }
+
+        /* Renames the way MappingContext renames the declarations of the class itself. */
+        private SkeletonClass remap(HierarchyManager hierarchyManager, CompositionReport composition, int layer) {
+            Remapper remapper = hierarchyManager.getRemapper();
+
+            String mappedName = remapper.mapType(name);
+            if (mappedName.equals(name)) {
+                composition.addMissingClass(layer, name);
+            }
+
+            String[] mappedInterfaces = interfaces == null ? null : remapper.mapTypes(interfaces);
+
+            ArrayList<SkeletonMember> mappedFields = new ArrayList<>(fields.size());
+            for (SkeletonMember field : fields) {
+                String mappedFieldName = remapper.mapFieldName(name, field.name, field.descriptor);
+                if (mappedFieldName.equals(field.name) && (field.access & Opcodes.ACC_SYNTHETIC) == 0) {
+                    composition.addMissingField(layer, name, field.name, field.descriptor);
+                }
+                mappedFields.add(new SkeletonMember(field.access, mappedFieldName, remapper.mapDesc(field.descriptor)));
+            }
+
+            ArrayList<SkeletonMember> mappedMethods = new ArrayList<>(methods.size());
+            for (SkeletonMember method : methods) {
+                String mappedDescriptor = remapper.mapMethodDesc(method.descriptor);
+                String mappedMethodName = remapper.mapMethodName(name, method.name, mappedDescriptor);
+                if (mappedMethodName.equals(method.name) && (method.access & Opcodes.ACC_SYNTHETIC) == 0
+                        && !hierarchyManager.isPinnedMethod(name, method.name, mappedDescriptor)) {
+                    composition.addMissingMethod(layer, name, method.name, method.descriptor);
+                }
+                mappedMethods.add(new SkeletonMember(method.access, mappedMethodName, mappedDescriptor));
+            }
+
+            return new SkeletonClass(access, mappedName, superName == null ? null : remapper.mapType(superName),
+                    mappedInterfaces, mappedFields, mappedMethods);
+        }
+
+        /* This is the original class, the last one is the same class after every layer. */
+        private ClassInfo compose(SkeletonClass last) {
+            ClassInfo classInfo = new ClassInfo(last.name);
+            if (superName != null) {
+                classInfo.addDependentClass(superName);
+            }
+            if (interfaces != null) {
+                for (String anInterface : interfaces) {
+                    classInfo.addDependentClass(anInterface);
+                }
+            }
+
+            for (int i = 0; i < fields.size(); i++) {
+                SkeletonMember field = fields.get(i);
+                SkeletonMember mapped = last.fields.get(i);
+                if ((field.access & Opcodes.ACC_PRIVATE) != 0) {
+                    classInfo.addPrivateField(field.name, mapped.name, mapped.descriptor);
+                } else {
+                    classInfo.addField(field.name, mapped.name, mapped.descriptor);
+                }
+            }
+
+            for (int i = 0; i < methods.size(); i++) {
+                SkeletonMember method = methods.get(i);
+                SkeletonMember mapped = last.methods.get(i);
+                if ((method.access & Opcodes.ACC_PRIVATE) != 0) {
+                    classInfo.addPrivateMethod(method.name, mapped.name, mapped.descriptor);
+                } else {
+                    classInfo.addMethod(method.name, mapped.name, mapped.descriptor);
+                }
+            }
+
+            return classInfo;
+        }
+    }
+
+    private record SkeletonMember(int access, String name, String descriptor) {
+    }
+}
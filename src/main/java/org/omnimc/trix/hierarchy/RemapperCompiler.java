@@ -0,0 +1,557 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.hierarchy.info.FieldInfo;
+import org.omnimc.trix.hierarchy.info.MethodInfo;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+/**
+ * {@code RemapperCompiler} is used to compile the mappings of a frozen {@linkplain HierarchyManager} into a generated
+ * {@linkplain Remapper}, loaded as a hidden class.
+ *
+ * <p>The generated remapper gives the same answers as the one from {@linkplain HierarchyManager#getRemapper()}, but
+ * every mapping is a string constant in its code. A lookup hashes the owner and name, picks a shard by the hash and
+ * the shard {@code switch}es on the hash and compares the arguments against the constants of that case. Nothing is
+ * looked up in a {@linkplain ClassInfo} anymore, a descriptor is only mapped once its owner and name matched a mapping,
+ * and each call to a shard only ever sees one class, so the JIT can inline it.</p>
+ *
+ * <p>A class file can only hold so many constants and so much code per method, so the mappings are spread over as
+ * many shard classes as needed. The main class gets its shards as class data. The overloads of one name share their
+ * hash, so no number of buckets tells them apart, a name with a lot of them has its descriptors compared in methods of
+ * their own.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class RemapperCompiler {
+
+    private static final String REMAPPER = Type.getInternalName(Remapper.class);
+    private static final String SHARD = Type.getInternalName(Shard.class);
+    private static final String LOOKUP_DESCRIPTOR = "(L" + REMAPPER + ";Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;I)Ljava/lang/String;";
+    private static final String OVERLOADS_DESCRIPTOR = "(Ljava/lang/String;)Ljava/lang/String;";
+    private static final String REMAPPER_NAME = RemapperCompiler.class.getPackageName().replace('.', '/') + "/CompiledRemapper";
+    private static final String SHARD_NAME = REMAPPER_NAME + "Shard";
+
+    /* HotSpot never compiles methods over 8000 bytes of code, every bucket has to stay well below that. */
+    private static final int ENTRIES_PER_BUCKET = 64;
+    private static final int MAX_ENTRIES_PER_BUCKET = 160;
+    private static final int BUCKETS_PER_SHARD = 16;
+    private static final int MAX_BUCKETS_PER_SHARD = 64;
+    /* Overloads share their owner and name, so no bucket count can split them, past this they get methods of their own. */
+    private static final int OVERLOADS_PER_METHOD = 64;
+    /* Far more buckets than any real set of mappings needs, reaching it means something can't be compiled at all. */
+    private static final int MAX_BUCKET_COUNT = 1 << 24;
+
+    private RemapperCompiler() {
+    }
+
+    /**
+     * <h6>Compiles the mappings of a {@linkplain HierarchyManager} into a new {@linkplain Remapper}.
+     *
+     * <p>The classes of an overlay are compiled together with the ones of its base. Later changes can't reach the
+     * generated remapper, which is why the manager has to be frozen.</p>
+     *
+     * @param hierarchyManager The frozen {@linkplain HierarchyManager} to compile.
+     * @return The generated {@linkplain Remapper}.
+     * @throws IllegalStateException If the manager isn't frozen, is backed by a class source, or the generated classes
+     *                               can't be generated or loaded.
+     */
+    @NotNull
+    public static Remapper compile(@NotNull HierarchyManager hierarchyManager) {
+        if (!hierarchyManager.isFrozen()) {
+            throw new IllegalStateException("Only a frozen HierarchyManager can be compiled.");
+        }
+
+        ArrayList<Entry> classes = new ArrayList<>();
+        ArrayList<Entry> methods = new ArrayList<>();
+        ArrayList<Entry> fields = new ArrayList<>();
+
+        HashSet<String> seen = new HashSet<>();
+        for (HierarchyManager manager = hierarchyManager; manager != null; manager = manager.getParent()) {
+            if (manager.hasClassSource()) {
+                throw new IllegalStateException("A HierarchyManager backed by a class source can't be compiled.");
+            }
+
+            for (Map.Entry<String, ClassInfo> classFile : manager.getClassFiles().entrySet()) {
+                if (seen.add(classFile.getKey())) {
+                    collect(hierarchyManager, classFile.getKey(), classFile.getValue(), classes, methods, fields);
+                }
+            }
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Shards classShards = defineShards(lookup, classes);
+            Shards methodShards = defineShards(lookup, methods);
+            Shards fieldShards = defineShards(lookup, fields);
+
+            ArrayList<Shard> shards = new ArrayList<>(classShards.shards());
+            shards.addAll(methodShards.shards());
+            shards.addAll(fieldShards.shards());
+
+            byte[] remapper = generateRemapper(classShards, methodShards, fieldShards);
+            MethodHandles.Lookup remapperLookup = lookup.defineHiddenClassWithClassData(remapper, shards, true);
+            return (Remapper) remapperLookup.findConstructor(remapperLookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Couldn't load the compiled remapper.", e);
+        }
+    }
+
+    /* Keeps to what CustomRemapper answers: a method or field that isn't renamed falls back to its private twin. */
+    private static void collect(HierarchyManager hierarchyManager, String owner, ClassInfo classInfo,
+                                List<Entry> classes, List<Entry> methods, List<Entry> fields) {
+        if (!classInfo.getClassName().equals(owner)) {
+            classes.add(new Entry(owner, null, null, classInfo.getClassName()));
+        }
+
+        HashMap<String, MethodInfo> mappedMethods = new HashMap<>();
+        putRenamed(classInfo.getPrivateMethods(), mappedMethods);
+        putRenamed(classInfo.getMethods(), mappedMethods);
+        for (MethodInfo method : mappedMethods.values()) {
+            if (!hierarchyManager.isPinnedMethod(owner, method.getObfuscatedName(), method.getDescriptor())) {
+                methods.add(new Entry(owner, method.getObfuscatedName(), method.getDescriptor(), method.getMethodName()));
+            }
+        }
+
+        HashMap<String, FieldInfo> mappedFields = new HashMap<>();
+        for (Map.Entry<String, FieldInfo> field : classInfo.getPrivateFields().entrySet()) {
+            if (!field.getValue().getFieldName().equals(field.getValue().getObfuscatedName())) {
+                mappedFields.put(field.getKey(), field.getValue());
+            }
+        }
+        for (Map.Entry<String, FieldInfo> field : classInfo.getFields().entrySet()) {
+            if (!field.getValue().getFieldName().equals(field.getValue().getObfuscatedName())) {
+                mappedFields.put(field.getKey(), field.getValue());
+            }
+        }
+        for (FieldInfo field : mappedFields.values()) {
+            fields.add(new Entry(owner, field.getObfuscatedName(), field.getDescriptor(), field.getFieldName()));
+        }
+    }
+
+    private static void putRenamed(Map<String, MethodInfo> methods, Map<String, MethodInfo> renamed) {
+        for (Map.Entry<String, MethodInfo> method : methods.entrySet()) {
+            if (!method.getValue().getMethodName().equals(method.getValue().getObfuscatedName())) {
+                renamed.put(method.getKey(), method.getValue());
+            }
+        }
+    }
+
+    private static Shards defineShards(MethodHandles.Lookup lookup, List<Entry> entries) throws Throwable {
+        if (entries.isEmpty()) {
+            return new Shards(List.of(), 0);
+        }
+
+        int bucketCount = Integer.highestOneBit(Math.max(1, (entries.size() - 1) / ENTRIES_PER_BUCKET)) << 1;
+        RuntimeException tooLarge = null;
+        for (; bucketCount <= MAX_BUCKET_COUNT; bucketCount <<= 1) {
+            List<List<Entry>> buckets = new ArrayList<>();
+            for (int i = 0; i < bucketCount; i++) {
+                buckets.add(new ArrayList<>());
+            }
+
+            for (Entry entry : entries) {
+                buckets.get(mix(entry.hash) & (bucketCount - 1)).add(entry);
+            }
+
+            int largest = 0;
+            for (List<Entry> bucket : buckets) {
+                largest = Math.max(largest, bucketSize(bucket));
+            }
+
+            if (largest <= MAX_ENTRIES_PER_BUCKET) {
+                try {
+                    // Bigger shards once there are a lot of them, so the dispatch stays small as well.
+                    int bucketsPerShard = Math.min(bucketCount, Math.max(BUCKETS_PER_SHARD, Math.min(MAX_BUCKETS_PER_SHARD, bucketCount / 256)));
+                    ArrayList<Shard> shards = new ArrayList<>();
+                    for (int i = 0; i < bucketCount; i += bucketsPerShard) {
+                        MethodHandles.Lookup shardLookup = lookup.defineHiddenClass(generateShard(buckets.subList(i, i + bucketsPerShard)), true);
+                        shards.add((Shard) shardLookup.findConstructor(shardLookup.lookupClass(), MethodType.methodType(void.class)).invoke());
+                    }
+                    return new Shards(shards, bucketCount);
+                } catch (MethodTooLargeException | ClassTooLargeException e) {
+                    // Too many long names in one place, the same as an unlucky spread of hashes.
+                    tooLarge = e;
+                }
+            }
+        }
+
+        throw new IllegalStateException("Couldn't spread " + entries.size() + " mappings over buckets small enough to compile.", tooLarge);
+    }
+
+    /* The entries a bucket method compares itself, overloads that get methods of their own count once. */
+    private static int bucketSize(List<Entry> bucket) {
+        HashMap<List<String>, Integer> overloads = new HashMap<>();
+        for (Entry entry : bucket) {
+            overloads.merge(Arrays.asList(entry.owner, entry.name), 1, Integer::sum);
+        }
+
+        int size = 0;
+        for (int count : overloads.values()) {
+            size += count > OVERLOADS_PER_METHOD ? 1 : count;
+        }
+        return size;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /* A shard picks the bucket by the low bits of the mixed hash, every bucket is a method of its own. */
+    private static byte[] generateShard(List<List<Entry>> buckets) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, SHARD_NAME, null, "java/lang/Object", new String[]{SHARD});
+        generateConstructor(writer, "java/lang/Object");
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "lookup", LOOKUP_DESCRIPTOR, null, null);
+        method.visitCode();
+        Label[] labels = new Label[buckets.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = new Label();
+        }
+
+        Label notFound = new Label();
+        pushBucketIndex(method, 5, buckets.size());
+        method.visitTableSwitchInsn(0, labels.length - 1, notFound, labels);
+        for (int i = 0; i < labels.length; i++) {
+            method.visitLabel(labels[i]);
+            for (int local = 1; local <= 4; local++) {
+                method.visitVarInsn(Opcodes.ALOAD, local);
+            }
+            method.visitVarInsn(Opcodes.ILOAD, 5);
+            method.visitMethodInsn(Opcodes.INVOKESTATIC, SHARD_NAME, "lookup" + i, LOOKUP_DESCRIPTOR, false);
+            method.visitInsn(Opcodes.ARETURN);
+        }
+        method.visitLabel(notFound);
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        for (int i = 0; i < buckets.size(); i++) {
+            generateBucket(writer, "lookup" + i, buckets.get(i));
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /* Locals: the remapper, owner, name, descriptor, hash and the mapped descriptor once it is needed. */
+    private static void generateBucket(ClassWriter writer, String methodName, List<Entry> entries) {
+        TreeMap<Integer, LinkedHashMap<List<String>, List<Entry>>> cases = new TreeMap<>();
+        for (Entry entry : entries) {
+            cases.computeIfAbsent(entry.hash, ignored -> new LinkedHashMap<>())
+                    .computeIfAbsent(Arrays.asList(entry.owner, entry.name), ignored -> new ArrayList<>())
+                    .add(entry);
+        }
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, methodName, LOOKUP_DESCRIPTOR, null, null);
+        method.visitCode();
+
+        int overloadMethods = 0;
+        int[] keys = new int[cases.size()];
+        Label[] labels = new Label[cases.size()];
+        int i = 0;
+        for (Integer hash : cases.keySet()) {
+            keys[i] = hash;
+            labels[i++] = new Label();
+        }
+
+        Label notFound = new Label();
+        method.visitVarInsn(Opcodes.ILOAD, 4);
+        method.visitLookupSwitchInsn(notFound, keys, labels);
+
+        i = 0;
+        for (LinkedHashMap<List<String>, List<Entry>> members : cases.values()) {
+            method.visitLabel(labels[i++]);
+
+            for (List<Entry> overloads : members.values()) {
+                Entry first = overloads.get(0);
+                Label nextMember = new Label();
+                compare(method, 1, first.owner, nextMember);
+                if (first.name != null) {
+                    compare(method, 2, first.name, nextMember);
+                }
+
+                if (first.descriptor == null) {
+                    method.visitLdcInsn(first.mapped);
+                    method.visitInsn(Opcodes.ARETURN);
+                } else {
+                    method.visitVarInsn(Opcodes.ALOAD, 0);
+                    method.visitVarInsn(Opcodes.ALOAD, 3);
+                    method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, REMAPPER, "mapDesc", "(Ljava/lang/String;)Ljava/lang/String;", false);
+                    method.visitVarInsn(Opcodes.ASTORE, 5);
+
+                    if (overloads.size() > OVERLOADS_PER_METHOD) {
+                        for (int from = 0; from < overloads.size(); from += OVERLOADS_PER_METHOD) {
+                            String overloadsName = methodName + "$" + overloadMethods++;
+                            generateOverloads(writer, overloadsName, overloads.subList(from, Math.min(overloads.size(), from + OVERLOADS_PER_METHOD)));
+
+                            Label nextOverloads = new Label();
+                            method.visitVarInsn(Opcodes.ALOAD, 5);
+                            method.visitMethodInsn(Opcodes.INVOKESTATIC, SHARD_NAME, overloadsName, OVERLOADS_DESCRIPTOR, false);
+                            method.visitInsn(Opcodes.DUP);
+                            method.visitJumpInsn(Opcodes.IFNULL, nextOverloads);
+                            method.visitInsn(Opcodes.ARETURN);
+                            method.visitLabel(nextOverloads);
+                            method.visitInsn(Opcodes.POP);
+                        }
+                    } else {
+                        for (Entry overload : overloads) {
+                            Label nextOverload = new Label();
+                            compare(method, 5, overload.descriptor, nextOverload);
+                            method.visitLdcInsn(overload.mapped);
+                            method.visitInsn(Opcodes.ARETURN);
+                            method.visitLabel(nextOverload);
+                        }
+                    }
+
+                    // No other member of this case can have the same owner and name.
+                    method.visitJumpInsn(Opcodes.GOTO, notFound);
+                }
+
+                method.visitLabel(nextMember);
+            }
+
+            method.visitJumpInsn(Opcodes.GOTO, notFound);
+        }
+
+        method.visitLabel(notFound);
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /* Takes the mapped descriptor, gives back the mapped name of the overload with it or null. */
+    private static void generateOverloads(ClassWriter writer, String methodName, List<Entry> overloads) {
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, methodName, OVERLOADS_DESCRIPTOR, null, null);
+        method.visitCode();
+
+        for (Entry overload : overloads) {
+            Label nextOverload = new Label();
+            compare(method, 0, overload.descriptor, nextOverload);
+            method.visitLdcInsn(overload.mapped);
+            method.visitInsn(Opcodes.ARETURN);
+            method.visitLabel(nextOverload);
+        }
+
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /* Pushes mix(hash) & (count - 1), count being a power of two. */
+    private static void pushBucketIndex(MethodVisitor method, int hashLocal, int count) {
+        method.visitVarInsn(Opcodes.ILOAD, hashLocal);
+        method.visitVarInsn(Opcodes.ILOAD, hashLocal);
+        method.visitIntInsn(Opcodes.BIPUSH, 16);
+        method.visitInsn(Opcodes.IUSHR);
+        method.visitInsn(Opcodes.IXOR);
+        method.visitLdcInsn(count - 1);
+        method.visitInsn(Opcodes.IAND);
+    }
+
+    private static void compare(MethodVisitor method, int local, String constant, Label mismatch) {
+        method.visitLdcInsn(constant);
+        method.visitVarInsn(Opcodes.ALOAD, local);
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+        method.visitJumpInsn(Opcodes.IFEQ, mismatch);
+    }
+
+    private static byte[] generateRemapper(Shards classShards, Shards methodShards, Shards fieldShards) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, REMAPPER_NAME, null, REMAPPER, null);
+        generateConstructor(writer, REMAPPER);
+
+        int shardCount = classShards.shards().size() + methodShards.shards().size() + fieldShards.shards().size();
+        for (int i = 0; i < shardCount; i++) {
+            writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, "shard" + i, "L" + SHARD + ";", null, null).visitEnd();
+        }
+
+        MethodVisitor initializer = writer.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        initializer.visitCode();
+        for (int i = 0; i < shardCount; i++) {
+            initializer.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "lookup", "()Ljava/lang/invoke/MethodHandles$Lookup;", false);
+            initializer.visitLdcInsn(ConstantDescs.DEFAULT_NAME);
+            initializer.visitLdcInsn(Type.getObjectType(SHARD));
+            initializer.visitLdcInsn(i);
+            initializer.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/invoke/MethodHandles", "classDataAt",
+                    "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;I)Ljava/lang/Object;", false);
+            initializer.visitTypeInsn(Opcodes.CHECKCAST, SHARD);
+            initializer.visitFieldInsn(Opcodes.PUTSTATIC, REMAPPER_NAME, "shard" + i, "L" + SHARD + ";");
+        }
+        initializer.visitInsn(Opcodes.RETURN);
+        initializer.visitMaxs(0, 0);
+        initializer.visitEnd();
+
+        generateDispatch(writer, "lookupClass", 0, classShards);
+        generateDispatch(writer, "lookupMethod", classShards.shards().size(), methodShards);
+        generateDispatch(writer, "lookupField", classShards.shards().size() + methodShards.shards().size(), fieldShards);
+
+        for (String methodName : new String[]{"mapType", "map"}) {
+            MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, methodName, "(Ljava/lang/String;)Ljava/lang/String;", null, null);
+            method.visitCode();
+            Label unmapped = new Label();
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitJumpInsn(Opcodes.IFNULL, unmapped);
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitInsn(Opcodes.ACONST_NULL);
+            method.visitInsn(Opcodes.ACONST_NULL);
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+            returnLookup(method, "lookupClass", unmapped, 1);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        generateMemberLookup(writer, "mapMethodName", "lookupMethod");
+        generateMemberLookup(writer, "mapFieldName", "lookupField");
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /* Hashes the owner and name, the descriptor is only mapped by a bucket that has a member with both. */
+    private static void generateMemberLookup(ClassWriter writer, String methodName, String lookupName) {
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, methodName,
+                "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;", null, null);
+        method.visitCode();
+
+        Label unmapped = new Label();
+        for (int local = 1; local <= 3; local++) {
+            method.visitVarInsn(Opcodes.ALOAD, local);
+            method.visitJumpInsn(Opcodes.IFNULL, unmapped);
+        }
+
+        for (int local = 0; local <= 3; local++) {
+            method.visitVarInsn(Opcodes.ALOAD, local);
+        }
+
+        // owner.hashCode() * 31 + name.hashCode()
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+        method.visitIntInsn(Opcodes.BIPUSH, 31);
+        method.visitInsn(Opcodes.IMUL);
+        method.visitVarInsn(Opcodes.ALOAD, 2);
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+        method.visitInsn(Opcodes.IADD);
+
+        returnLookup(method, lookupName, unmapped, 2);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /* Expects the lookup arguments on the stack, returns the mapped name or the given local if there is none. */
+    private static void returnLookup(MethodVisitor method, String lookupName, Label unmapped, int fallback) {
+        method.visitMethodInsn(Opcodes.INVOKESTATIC, REMAPPER_NAME, lookupName, LOOKUP_DESCRIPTOR, false);
+        method.visitInsn(Opcodes.DUP);
+        Label found = new Label();
+        method.visitJumpInsn(Opcodes.IFNONNULL, found);
+        method.visitInsn(Opcodes.POP);
+        method.visitLabel(unmapped);
+        method.visitVarInsn(Opcodes.ALOAD, fallback);
+        method.visitLabel(found);
+        method.visitInsn(Opcodes.ARETURN);
+    }
+
+    /* Every case calls a single shard, so each of those calls only ever sees one class. */
+    private static void generateDispatch(ClassWriter writer, String methodName, int firstShard, Shards shards) {
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, methodName, LOOKUP_DESCRIPTOR, null, null);
+        method.visitCode();
+
+        int shardCount = shards.shards().size();
+        Label notFound = new Label();
+        if (shardCount > 0) {
+            Label[] labels = new Label[shardCount];
+            for (int i = 0; i < shardCount; i++) {
+                labels[i] = new Label();
+            }
+
+            // The high bits of the bucket index pick the shard, the shard itself uses the low ones.
+            pushBucketIndex(method, 4, shards.bucketCount());
+            method.visitLdcInsn(Integer.numberOfTrailingZeros(shards.bucketCount() / shardCount));
+            method.visitInsn(Opcodes.IUSHR);
+            method.visitTableSwitchInsn(0, shardCount - 1, notFound, labels);
+
+            for (int i = 0; i < shardCount; i++) {
+                method.visitLabel(labels[i]);
+                method.visitFieldInsn(Opcodes.GETSTATIC, REMAPPER_NAME, "shard" + (firstShard + i), "L" + SHARD + ";");
+                for (int local = 0; local <= 3; local++) {
+                    method.visitVarInsn(Opcodes.ALOAD, local);
+                }
+                method.visitVarInsn(Opcodes.ILOAD, 4);
+                method.visitMethodInsn(Opcodes.INVOKEINTERFACE, SHARD, "lookup", LOOKUP_DESCRIPTOR, true);
+                method.visitInsn(Opcodes.ARETURN);
+            }
+        }
+
+        method.visitLabel(notFound);
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    private static void generateConstructor(ClassWriter writer, String superName) {
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+    }
+
+    /**
+     * One part of the compiled mappings, implemented by the generated shard classes.
+     */
+    interface Shard {
+        String lookup(Remapper remapper, String owner, String name, String descriptor, int hash);
+    }
+
+    private record Shards(List<Shard> shards, int bucketCount) {
+    }
+
+    private record Entry(String owner, String name, String descriptor, String mapped, int hash) {
+
+        private Entry(String owner, String name, String descriptor, String mapped) {
+            this(owner, name, descriptor, mapped, name == null ? owner.hashCode() : owner.hashCode() * 31 + name.hashCode());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.hierarchy;
+
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.hierarchy.info.FieldInfo;
+import org.omnimc.trix.hierarchy.info.MethodInfo;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ReverseIndex} is the inverted view of the classes of a frozen {@linkplain HierarchyManager}, looking names up
+ * by what they are mapped to.
+ *
+ * <p>It is built in parallel from the {@linkplain ClassInfo}s the manager already has, nothing is read from a jar
+ * again. Names are the very strings those already hold. Members are keyed by their obfuscated descriptor, the same
+ * way the forward direction keys them by the mapped one, and each of those is only worked out once and reused, the
+ * stored one itself whenever no class in it is renamed. Only members that are actually renamed are kept.</p>
+ *
+ * <p>Like {@linkplain HierarchyManager.CustomRemapper} a renamed method or field is preferred over a renamed private
+ * one with the same name and descriptor, and a method that overrides one of the JDK is left out. Private members are
+ * kept on their own, so a subclass outside of the index only ever inherits the others. A lookup for a class that isn't
+ * part of this index falls through to the index of the base of an overlay.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+final class ReverseIndex {
+
+    private final ReverseIndex parent;
+    private final Map<String, String> classNames;
+    private final Map<String, Map<Member, String>> methods;
+    private final Map<String, Map<Member, String>> fields;
+    private final Map<String, Map<Member, String>> privateMethods = new ConcurrentHashMap<>();
+    private final Map<String, Map<Member, String>> privateFields = new ConcurrentHashMap<>();
+
+    private ReverseIndex(ReverseIndex parent, Map<String, String> classNames,
+                         Map<String, Map<Member, String>> methods, Map<String, Map<Member, String>> fields) {
+        this.parent = parent;
+        this.classNames = classNames;
+        this.methods = methods;
+        this.fields = fields;
+    }
+
+    static ReverseIndex build(HierarchyManager hierarchyManager, @Nullable ReverseIndex parent) {
+        ConcurrentHashMap<String, String> classNames = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, Map<Member, String>> methods = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, Map<Member, String>> fields = new ConcurrentHashMap<>();
+        ReverseIndex index = new ReverseIndex(parent, classNames, methods, fields);
+
+        // Every class first, descriptors can only be reversed once all class names are known.
+        hierarchyManager.getClassFiles().entrySet().parallelStream().forEach(classFile -> {
+            String mappedOwner = classFile.getValue().getClassName();
+            if (!mappedOwner.equals(classFile.getKey())) {
+                classNames.put(mappedOwner, classFile.getKey());
+            }
+
+            methods.put(mappedOwner, Collections.emptyMap());
+            fields.put(mappedOwner, Collections.emptyMap());
+        });
+
+        Descriptors descriptors = new Descriptors(index);
+        hierarchyManager.getClassFiles().entrySet().parallelStream().forEach(classFile -> {
+            String owner = classFile.getKey();
+            ClassInfo classInfo = classFile.getValue();
+
+            String mappedOwner = classInfo.getClassName();
+
+            HashMap<Member, String> ownerMethods = new HashMap<>();
+            putMethods(hierarchyManager, owner, classInfo.getMethods(), descriptors, ownerMethods);
+            if (!ownerMethods.isEmpty()) {
+                methods.put(mappedOwner, ownerMethods);
+            }
+
+            HashMap<Member, String> ownerPrivateMethods = new HashMap<>();
+            putMethods(hierarchyManager, owner, classInfo.getPrivateMethods(), descriptors, ownerPrivateMethods);
+            if (!ownerPrivateMethods.isEmpty()) {
+                index.privateMethods.put(mappedOwner, ownerPrivateMethods);
+            }
+
+            HashMap<Member, String> ownerFields = new HashMap<>();
+            putFields(classInfo.getFields(), descriptors, ownerFields);
+            if (!ownerFields.isEmpty()) {
+                fields.put(mappedOwner, ownerFields);
+            }
+
+            HashMap<Member, String> ownerPrivateFields = new HashMap<>();
+            putFields(classInfo.getPrivateFields(), descriptors, ownerPrivateFields);
+            if (!ownerPrivateFields.isEmpty()) {
+                index.privateFields.put(mappedOwner, ownerPrivateFields);
+            }
+        });
+
+        return index;
+    }
+
+    private static void putMethods(HierarchyManager hierarchyManager, String owner, Map<String, MethodInfo> source,
+                                   Descriptors descriptors, Map<Member, String> target) {
+        for (MethodInfo method : source.values()) {
+            if (!method.getMethodName().equals(method.getObfuscatedName())
+                    && !hierarchyManager.isPinnedMethod(owner, method.getObfuscatedName(), method.getDescriptor())) {
+                target.put(new Member(method.getMethodName(), descriptors.reverse(method.getDescriptor())), method.getObfuscatedName());
+            }
+        }
+    }
+
+    private static void putFields(Map<String, FieldInfo> source, Descriptors descriptors, Map<Member, String> target) {
+        for (FieldInfo field : source.values()) {
+            if (!field.getFieldName().equals(field.getObfuscatedName())) {
+                target.put(new Member(field.getFieldName(), descriptors.reverse(field.getDescriptor())), field.getObfuscatedName());
+            }
+        }
+    }
+
+    /**
+     * <h6>Gets the original name of a class.
+     *
+     * @param mappedName The mapped internal name of the class.
+     * @return The original name, or the given name if the class isn't renamed.
+     */
+    String getClassName(String mappedName) {
+        String name = classNames.get(mappedName);
+        if (name != null) {
+            return name;
+        }
+
+        return parent == null || methods.containsKey(mappedName) ? mappedName : parent.getClassName(mappedName);
+    }
+
+    /**
+     * <h6>Checks if a class is part of this index or the index of the base of an overlay.
+     *
+     * @param mappedName The mapped internal name of the class.
+     * @return {@code true} if the class is known.
+     */
+    boolean hasClass(String mappedName) {
+        return methods.containsKey(mappedName) || parent != null && parent.hasClass(mappedName);
+    }
+
+    /**
+     * <h6>Gets the original name of a method.
+     *
+     * @param mappedOwner The mapped internal name of the owner class.
+     * @param mappedName  The mapped name of the method.
+     * @param descriptor  The obfuscated method descriptor.
+     * @param inherited   {@code true} if the method is looked up for a subclass, which leaves private methods out.
+     * @return The original name, or {@code null} if the method isn't renamed.
+     */
+    @Nullable
+    String getMethodName(String mappedOwner, String mappedName, String descriptor, boolean inherited) {
+        Map<Member, String> members = methods.get(mappedOwner);
+        if (members == null) {
+            return parent == null ? null : parent.getMethodName(mappedOwner, mappedName, descriptor, inherited);
+        }
+
+        return getName(members, inherited ? null : privateMethods.get(mappedOwner), mappedName, descriptor);
+    }
+
+    /**
+     * <h6>Gets the original name of a field.
+     *
+     * @param mappedOwner The mapped internal name of the owner class.
+     * @param mappedName  The mapped name of the field.
+     * @param descriptor  The obfuscated field descriptor.
+     * @param inherited   {@code true} if the field is looked up for a subclass, which leaves private fields out.
+     * @return The original name, or {@code null} if the field isn't renamed.
+     */
+    @Nullable
+    String getFieldName(String mappedOwner, String mappedName, String descriptor, boolean inherited) {
+        Map<Member, String> members = fields.get(mappedOwner);
+        if (members == null) {
+            return parent == null ? null : parent.getFieldName(mappedOwner, mappedName, descriptor, inherited);
+        }
+
+        return getName(members, inherited ? null : privateFields.get(mappedOwner), mappedName, descriptor);
+    }
+
+    /* A renamed member is preferred over a renamed private one, the same way CustomRemapper does. */
+    @Nullable
+    private static String getName(Map<Member, String> members, @Nullable Map<Member, String> privateMembers,
+                                  String mappedName, String descriptor) {
+        if (members.isEmpty() && privateMembers == null) {
+            return null;
+        }
+
+        Member member = new Member(mappedName, descriptor);
+        String name = members.get(member);
+        if (name == null && privateMembers != null) {
+            name = privateMembers.get(member);
+        }
+
+        return name;
+    }
+
+    private record Member(String name, String descriptor) {
+    }
+
+    /* Reverses every distinct descriptor once, the same descriptor is stored by a lot of members. */
+    private static final class Descriptors extends Remapper {
+        private final ReverseIndex index;
+        private final ConcurrentHashMap<String, String> reversed = new ConcurrentHashMap<>();
+
+        private Descriptors(ReverseIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public String map(String internalName) {
+            return index.getClassName(internalName);
+        }
+
+        private String reverse(String descriptor) {
+            String obfuscated = reversed.get(descriptor);
+            if (obfuscated == null) {
+                obfuscated = descriptor.charAt(0) == '(' ? mapMethodDesc(descriptor) : mapDesc(descriptor);
+                if (obfuscated.equals(descriptor)) {
+                    obfuscated = descriptor;
+                }
+
+                String previous = reversed.putIfAbsent(descriptor, obfuscated);
+                if (previous != null) {
+                    obfuscated = previous;
+                }
+            }
+
+            return obfuscated;
+        }
+    }
+}
@@ -62,6 +62,23 @@ public class ClassInfo {
         this.className = className;
     }
 
+    /**
+     * <h6>Creates a copy of another {@code ClassInfo}.
+     *
+     * <p>The {@linkplain FieldInfo}'s and {@linkplain MethodInfo}'s can't be changed, so they are shared with the
+     * original and only the maps holding them are copied.</p>
+     *
+     * @param other The {@code ClassInfo} to copy.
+     */
+    public ClassInfo(@NotNull ClassInfo other) {
+        this.className = other.className;
+        this.dependentClasses.addAll(other.dependentClasses);
+        this.fields.putAll(other.fields);
+        this.privateFields.putAll(other.privateFields);
+        this.methods.putAll(other.methods);
+        this.privateMethods.putAll(other.privateMethods);
+    }
+
     /**
      * <h6>Gets the name of the class.
      *
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * {@code JarIO} reads and writes jar files as plain maps of entry names to bytes.
+ *
+ * <p>Trix only ever needs the raw bytes of every entry, so this keeps the reading and writing side free of any
+ * extra class manager and lets callers decide what to do with each entry.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class JarIO {
+
+    private JarIO() {
+    }
+
+    /**
+     * <h6>Reads every file entry of a jar, keeping the order they appear in.
+     *
+     * @param jar The jar to read.
+     * @return A map of entry names to their bytes.
+     * @throws IOException If the jar can't be read.
+     */
+    @NotNull
+    public static LinkedHashMap<String, byte[]> readJar(@NotNull Path jar) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(jar)) {
+            return readJar(inputStream);
+        }
+    }
+
+    /**
+     * <h6>Reads every file entry of a jar from a stream, keeping the order they appear in.
+     *
+     * @param inputStream The stream containing the jar.
+     * @return A map of entry names to their bytes.
+     * @throws IOException If the jar can't be read.
+     */
+    @NotNull
+    public static LinkedHashMap<String, byte[]> readJar(@NotNull InputStream inputStream) throws IOException {
+        LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>();
+
+        ZipInputStream zipInputStream = new ZipInputStream(inputStream);
+        ZipEntry entry;
+        while ((entry = zipInputStream.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                entries.put(entry.getName(), zipInputStream.readAllBytes());
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * <h6>Writes a map of entry names to bytes as a jar.
+     *
+     * @param jar     The jar to write, replacing it if it exists.
+     * @param entries The entries to write.
+     * @throws IOException If the jar can't be written.
+     */
+    public static void writeJar(@NotNull Path jar, @NotNull Map<String, byte[]> entries) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(jar)) {
+            writeJar(outputStream, entries);
+        }
+    }
+
+    /**
+     * <h6>Writes a map of entry names to bytes as a jar into a stream.
+     *
+     * @param outputStream The stream to write the jar to.
+     * @param entries      The entries to write.
+     * @throws IOException If the jar can't be written.
+     */
+    public static void writeJar(@NotNull OutputStream outputStream, @NotNull Map<String, byte[]> entries) throws IOException {
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream);
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            zipOutputStream.putNextEntry(new ZipEntry(entry.getKey()));
+            zipOutputStream.write(entry.getValue());
+            zipOutputStream.closeEntry();
+        }
+        zipOutputStream.finish();
+    }
+
+    /**
+     * <h6>Checks if a jar entry is a class file.
+     *
+     * @param entryName The name of the entry.
+     * @return {@code true} if the entry is a class file.
+     */
+    public static boolean isClass(@NotNull String entryName) {
+        return entryName.endsWith(".class") && !entryName.startsWith("META-INF/");
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.loader;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.hierarchy.HierarchySnapshot;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * {@code RemappingClassLoader} serves the classes of an obfuscated jar by their mapped names, remapping each class
+ * the first time it is loaded.
+ *
+ * <p>A dev launch only ever loads a fraction of the game's classes, so remapping the whole jar to disk up front is
+ * mostly wasted work. This loader resolves a requested mapped name back to the obfuscated entry in the jar, remaps
+ * just that class with a {@linkplain MappingChange} and defines it. Remapped bytes are kept in a bounded LRU cache, so
+ * tools reading classes as resources don't remap them a second time.</p>
+ *
+ * <p>Resources are found the same way, a class is found by its mapped name and served remapped, every other entry of
+ * the jar is served as it is.</p>
+ *
+ * <p>When created from a {@linkplain HierarchySnapshot}, both the hierarchy and the reverse class mapping are read
+ * from the snapshot one class at a time, which keeps the time until {@code main} runs independent of the jar size.
+ * When created from a {@linkplain HierarchyManager}, the reverse class mapping is built on the first lookup.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class RemappingClassLoader extends ClassLoader implements Closeable {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Path jar;
+    private final JarFile jarFile;
+    private final Remapper remapper;
+    private final UnaryOperator<String> obfuscatedNames;
+    private final LinkedHashMap<String, byte[]> remappedClasses;
+
+    /**
+     * <h6>Creates a new {@code RemappingClassLoader} backed by a hierarchy snapshot.
+     *
+     * @param jar          The obfuscated jar to load classes from.
+     * @param snapshot     The {@linkplain HierarchySnapshot} of that jar.
+     * @param parent       The parent {@linkplain ClassLoader}.
+     * @param maxCacheSize The maximum number of remapped classes kept in memory.
+     * @throws IOException If the jar can't be opened.
+     */
+    public RemappingClassLoader(@NotNull Path jar, @NotNull HierarchySnapshot snapshot, @Nullable ClassLoader parent, int maxCacheSize) throws IOException {
+        this(jar, snapshot.createHierarchyManager().getRemapper(), snapshot::getObfuscatedName, parent, maxCacheSize);
+    }
+
+    /**
+     * <h6>Creates a new {@code RemappingClassLoader} backed by a populated hierarchy.
+     *
+     * @param jar              The obfuscated jar to load classes from.
+     * @param hierarchyManager The populated {@linkplain HierarchyManager} of that jar.
+     * @param parent           The parent {@linkplain ClassLoader}.
+     * @param maxCacheSize     The maximum number of remapped classes kept in memory.
+     * @throws IOException If the jar can't be opened.
+     */
+    public RemappingClassLoader(@NotNull Path jar, @NotNull HierarchyManager hierarchyManager, @Nullable ClassLoader parent, int maxCacheSize) throws IOException {
+        this(jar, hierarchyManager.getRemapper(), new LazyReverseMapping(hierarchyManager), parent, maxCacheSize);
+    }
+
+    private RemappingClassLoader(Path jar, Remapper remapper, UnaryOperator<String> obfuscatedNames, ClassLoader parent, int maxCacheSize) throws IOException {
+        super(parent);
+        this.jar = jar;
+        this.jarFile = new JarFile(jar.toFile());
+        this.remapper = remapper;
+        this.obfuscatedNames = obfuscatedNames;
+        this.remappedClasses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxCacheSize;
+            }
+        };
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        final byte[] classBytes;
+        try {
+            classBytes = getRemappedClass(name.replace('.', '/'));
+        } catch (IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+
+        if (classBytes == null) {
+            throw new ClassNotFoundException(name);
+        }
+
+        return defineClass(name, classBytes, 0, classBytes.length);
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String name) {
+        if (name.endsWith(".class")) {
+            try {
+                byte[] classBytes = getRemappedClass(name.substring(0, name.length() - ".class".length()));
+                if (classBytes != null) {
+                    return new ByteArrayInputStream(classBytes);
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        return super.getResourceAsStream(name);
+    }
+
+    @Override
+    protected URL findResource(String name) {
+        try {
+            if (name.endsWith(".class")) {
+                if (getRemappedClass(name.substring(0, name.length() - ".class".length())) == null) {
+                    return null;
+                }
+
+                return new URL("trix", null, -1, "/" + name, new RemappedClassHandler());
+            }
+
+            if (jarFile.getEntry(name) == null) {
+                return null;
+            }
+
+            return new URL("jar:" + jar.toUri() + "!/" + name);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @Override
+    protected Enumeration<URL> findResources(String name) {
+        URL resource = findResource(name);
+        return resource == null ? Collections.emptyEnumeration() : Collections.enumeration(Collections.singleton(resource));
+    }
+
+    /**
+     * <h6>Gets the remapped bytes of a class, remapping it if it isn't cached.
+     *
+     * @param mappedName The mapped internal name of the class.
+     * @return The remapped class bytes, or {@code null} if the jar doesn't contain the class.
+     * @throws IOException If the class can't be read from the jar.
+     */
+    @Nullable
+    public byte[] getRemappedClass(@NotNull String mappedName) throws IOException {
+        synchronized (remappedClasses) {
+            byte[] cached = remappedClasses.get(mappedName);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String obfuscatedName = obfuscatedNames.apply(mappedName);
+        if (obfuscatedName == null && !remapper.mapType(mappedName).equals(mappedName)) {
+            return null; // only reachable by its mapped name
+        }
+
+        ZipEntry entry = jarFile.getEntry((obfuscatedName == null ? mappedName : obfuscatedName) + ".class");
+        if (entry == null) {
+            return null;
+        }
+
+        final byte[] classBytes;
+        try (InputStream inputStream = jarFile.getInputStream(entry)) {
+            classBytes = new MappingChange(new MappingContext(remapper)).remap(inputStream.readAllBytes());
+        }
+
+        synchronized (remappedClasses) {
+            remappedClasses.put(mappedName, classBytes);
+        }
+        return classBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        jarFile.close();
+    }
+
+    /* Serves a remapped class, from the cache whenever it is still there. */
+    private final class RemappedClassHandler extends URLStreamHandler {
+        @Override
+        protected URLConnection openConnection(URL url) {
+            return new URLConnection(url) {
+                @Override
+                public void connect() {
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    String path = url.getPath();
+                    byte[] classBytes = getRemappedClass(path.substring(1, path.length() - ".class".length()));
+                    if (classBytes == null) {
+                        throw new IOException("Class " + path.substring(1) + " is no longer in the jar.");
+                    }
+
+                    return new ByteArrayInputStream(classBytes);
+                }
+            };
+        }
+    }
+
+    private static final class LazyReverseMapping implements UnaryOperator<String> {
+        private final HierarchyManager hierarchyManager;
+        private volatile HashMap<String, String> reverse;
+
+        private LazyReverseMapping(HierarchyManager hierarchyManager) {
+            this.hierarchyManager = hierarchyManager;
+        }
+
+        @Override
+        public String apply(String mappedName) {
+            HashMap<String, String> reverse = this.reverse;
+            if (reverse == null) {
+                synchronized (this) {
+                    reverse = this.reverse;
+                    if (reverse == null) {
+                        reverse = new HashMap<>();
+                        for (Map.Entry<String, ClassInfo> entry : hierarchyManager.getClassFiles().entrySet()) {
+                            reverse.putIfAbsent(entry.getValue().getClassName(), entry.getKey());
+                        }
+                        this.reverse = reverse;
+                    }
+                }
+            }
+
+            return reverse.get(mappedName);
+        }
+    }
+}
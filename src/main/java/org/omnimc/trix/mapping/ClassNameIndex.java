@@ -0,0 +1,318 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@code ClassNameIndex} is an immutable lookup of class name mappings built to answer "not mapped" as cheaply as
+ * possible.
+ *
+ * <p>Most names a {@linkplain org.objectweb.asm.commons.Remapper} is asked about are never mapped, such as everything
+ * under {@code java/} or the packages of libraries. The packages of the mapped classes are kept in a trie whose single
+ * child chains are merged, so {@code com/mojang/} is one edge and a name from any other package is rejected after
+ * comparing its first character against the few edges of the root. Names from a known package are then checked
+ * against a bloom filter of the simple names of mapped classes before the actual map is touched.</p>
+ *
+ * <p>Only names that are actually changed by the mappings are stored. Lookups are counted, so the effect of each
+ * rejection can be seen, and one instance can be shared between threads.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ClassNameIndex {
+
+    private final HashMap<String, String> classNames;
+    private final Node root;
+    private final long[] filter;
+    private final int filterMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder prefixRejects = new LongAdder();
+    private final LongAdder filterRejects = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private ClassNameIndex(HashMap<String, String> classNames) {
+        this.classNames = classNames;
+
+        Builder builder = new Builder();
+        for (String name : classNames.keySet()) {
+            builder.add(name, 0, name.lastIndexOf('/') + 1);
+        }
+        this.root = builder.build();
+
+        // About 16 bits per name, two of them set for each.
+        int bits = Integer.highestOneBit(Math.max(64, classNames.size() * 16 - 1)) << 1;
+        this.filter = new long[bits >>> 6];
+        this.filterMask = bits - 1;
+        for (String name : classNames.keySet()) {
+            int hash = simpleNameHash(name, name.lastIndexOf('/') + 1);
+            setBit(hash);
+            setBit(mix(hash));
+        }
+    }
+
+    /**
+     * <h6>Creates a new {@code ClassNameIndex} from a map of obfuscated to mapped class names.
+     *
+     * @param classNames The internal names of the classes and the names they are mapped to.
+     * @return A new {@code ClassNameIndex}.
+     */
+    @NotNull
+    public static ClassNameIndex of(@NotNull Map<String, String> classNames) {
+        HashMap<String, String> mapped = new HashMap<>();
+        for (Map.Entry<String, String> entry : classNames.entrySet()) {
+            if (entry.getValue() != null && !entry.getKey().equals(entry.getValue())) {
+                mapped.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return new ClassNameIndex(mapped);
+    }
+
+    /**
+     * <h6>Creates a new {@code ClassNameIndex} by mapping every given class name.
+     *
+     * <p>Every class name the mappings change has to be given, names that aren't part of the index are never
+     * mapped.</p>
+     *
+     * @param names  The internal names of the classes.
+     * @param mapper Maps an internal name to its new name, like {@code container::getClassName}.
+     * @return A new {@code ClassNameIndex}.
+     */
+    @NotNull
+    public static ClassNameIndex of(@NotNull Collection<String> names, @NotNull Function<String, String> mapper) {
+        HashMap<String, String> classNames = new HashMap<>();
+        for (String name : names) {
+            classNames.put(name, mapper.apply(name));
+        }
+
+        return of(classNames);
+    }
+
+    /**
+     * <h6>Gets the name a class is mapped to.
+     *
+     * @param name The internal name of the class.
+     * @return The mapped name, or {@code null} if the class isn't mapped.
+     */
+    @Nullable
+    public String get(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int packageEnd = name.lastIndexOf('/') + 1;
+        Node node = root;
+        int position = 0;
+
+        while (position < packageEnd) {
+            node = node.next(name, position);
+            if (node == null) {
+                prefixRejects.increment();
+                return null;
+            }
+
+            position += node.length;
+        }
+
+        if (!node.hasClasses) {
+            prefixRejects.increment();
+            return null;
+        }
+
+        int hash = simpleNameHash(name, packageEnd);
+        if (!hasBit(hash) || !hasBit(mix(hash))) {
+            filterRejects.increment();
+            return null;
+        }
+
+        String mapped = classNames.get(name);
+        if (mapped == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+
+        return mapped;
+    }
+
+    /**
+     * <h6>Maps a class name.
+     *
+     * @param name The internal name of the class.
+     * @return The mapped name, or the given name if the class isn't mapped.
+     */
+    public String map(String name) {
+        String mapped = get(name);
+        return mapped == null ? name : mapped;
+    }
+
+    /**
+     * @return The number of mapped classes in this index.
+     */
+    public int size() {
+        return classNames.size();
+    }
+
+    /**
+     * @return The number of lookups that found a mapped class.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups rejected because no mapped class is in their package.
+     */
+    public long getPrefixRejects() {
+        return prefixRejects.sum();
+    }
+
+    /**
+     * @return The number of lookups rejected by the bloom filter of simple names.
+     */
+    public long getFilterRejects() {
+        return filterRejects.sum();
+    }
+
+    /**
+     * @return The number of lookups that passed every rejection but still weren't mapped.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ClassNameIndex{" +
+                "size=" + size() +
+                ", hits=" + getHits() +
+                ", prefixRejects=" + getPrefixRejects() +
+                ", filterRejects=" + getFilterRejects() +
+                ", misses=" + getMisses() +
+                '}';
+    }
+
+    private static int simpleNameHash(String name, int start) {
+        int hash = 0;
+        for (int i = start; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+
+        return hash;
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void setBit(int hash) {
+        int bit = hash & filterMask;
+        filter[bit >>> 6] |= 1L << bit;
+    }
+
+    private boolean hasBit(int hash) {
+        int bit = hash & filterMask;
+        return (filter[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /* A package, reached through an edge of one or more whole segments, each ending in '/'. */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final String edge;
+        private final int length;
+        private final char first;
+        private final boolean hasClasses;
+        private final Node[] children;
+
+        private Node(String edge, boolean hasClasses, Node[] children) {
+            this.edge = edge;
+            this.length = edge.length();
+            this.first = length == 0 ? 0 : edge.charAt(0);
+            this.hasClasses = hasClasses;
+            this.children = children;
+        }
+
+        private Node next(String name, int position) {
+            char current = name.charAt(position);
+            for (Node child : children) {
+                if (child.first == current && name.startsWith(child.edge, position)) {
+                    return child;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private static final class Builder {
+        private final HashMap<String, Builder> children = new HashMap<>();
+        private boolean hasClasses;
+
+        private void add(String name, int position, int packageEnd) {
+            if (position == packageEnd) {
+                hasClasses = true;
+                return;
+            }
+
+            int segmentEnd = name.indexOf('/', position) + 1;
+            children.computeIfAbsent(name.substring(position, segmentEnd), ignored -> new Builder())
+                    .add(name, segmentEnd, packageEnd);
+        }
+
+        private Node build() {
+            return build("");
+        }
+
+        private Node build(String edge) {
+            Builder builder = this;
+
+            // Merge packages that only lead to a single other package.
+            while (!builder.hasClasses && builder.children.size() == 1 && !edge.isEmpty()) {
+                Map.Entry<String, Builder> only = builder.children.entrySet().iterator().next();
+                edge += only.getKey();
+                builder = only.getValue();
+            }
+
+            Node[] children = builder.children.isEmpty() ? Node.NO_CHILDREN : new Node[builder.children.size()];
+            int i = 0;
+            for (Map.Entry<String, Builder> child : builder.children.entrySet()) {
+                children[i++] = child.getValue().build(child.getKey());
+            }
+
+            return new Node(edge, builder.hasClasses, children);
+        }
+    }
+}
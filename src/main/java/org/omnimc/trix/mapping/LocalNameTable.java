@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * {@code LocalNameTable} holds parameter and local variable names for methods, keyed by the obfuscated owner, name and
+ * descriptor of the method.
+ *
+ * <p>The names of a method are stored as an array indexed by local variable slot, so the mapping pass looks a method
+ * up once and then only indexes into that array for every local variable. Classes without any names are skipped with
+ * a single lookup per class.</p>
+ *
+ * <p>Only the slots of the parameters are renamed, see {@linkplain #getParameterSlotNames(String[], int, String)}.
+ * Any other slot can be reused by several local variables of the same method, which a slot alone can't tell
+ * apart.</p>
+ *
+ * <p>A table is filled once and then only read, it may be shared between threads from then on.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class LocalNameTable {
+
+    private final HashMap<String, String[]> methods = new HashMap<>();
+    private final HashSet<String> classes = new HashSet<>();
+
+    /**
+     * <h6>Adds the name of a parameter or local variable.
+     *
+     * @param owner      The obfuscated internal name of the class of the method.
+     * @param name       The obfuscated name of the method.
+     * @param descriptor The obfuscated descriptor of the method.
+     * @param slot       The local variable slot, parameters start at {@code 0} for static and {@code 1} for other
+     *                   methods.
+     * @param localName  The name to give it.
+     * @return This {@linkplain LocalNameTable}.
+     */
+    public LocalNameTable addLocalName(@NotNull String owner, @NotNull String name, @NotNull String descriptor, int slot, @NotNull String localName) {
+        if (slot < 0 || slot > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid local variable slot: " + slot);
+        }
+
+        methods.compute(owner + '.' + name + descriptor, (key, names) -> {
+            if (names == null) {
+                names = new String[slot + 1];
+            } else if (names.length <= slot) {
+                names = Arrays.copyOf(names, slot + 1);
+            }
+
+            names[slot] = localName;
+            return names;
+        });
+        classes.add(owner);
+        return this;
+    }
+
+    /**
+     * <h6>Checks whether any method of a class has names.
+     *
+     * @param owner The obfuscated internal name of the class.
+     * @return {@code true} if the class has names.
+     */
+    public boolean hasClass(@NotNull String owner) {
+        return classes.contains(owner);
+    }
+
+    /**
+     * <h6>Gets the names of a method, indexed by local variable slot.
+     *
+     * @param owner      The obfuscated internal name of the class of the method.
+     * @param name       The obfuscated name of the method.
+     * @param descriptor The obfuscated descriptor of the method.
+     * @return The names, slots without a name are {@code null}, or {@code null} if the method has none at all.
+     */
+    @Nullable
+    public String[] getLocalNames(@NotNull String owner, @NotNull String name, @NotNull String descriptor) {
+        return methods.get(owner + '.' + name + descriptor);
+    }
+
+    /**
+     * <h6>Keeps only the names of the slots holding {@code this} and the parameters of a method.
+     *
+     * @param localNames The names indexed by slot.
+     * @param access     The access flags of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The names of the parameter slots, or {@code null} if none of them has a name.
+     */
+    @Nullable
+    public static String[] getParameterSlotNames(@NotNull String[] localNames, int access, @NotNull String descriptor) {
+        int parameterSlots = Type.getArgumentsAndReturnSizes(descriptor) >> 2;
+        if ((access & Opcodes.ACC_STATIC) != 0) {
+            parameterSlots--;
+        }
+
+        String[] parameterSlotNames = localNames.length > parameterSlots ? Arrays.copyOf(localNames, parameterSlots) : localNames;
+        for (String name : parameterSlotNames) {
+            if (name != null) {
+                return parameterSlotNames;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * <h6>Converts the slot indexed names of a method to names indexed by parameter, as used by the
+     * {@code MethodParameters} attribute.
+     *
+     * @param localNames The names indexed by slot.
+     * @param access     The access flags of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The names indexed by parameter.
+     */
+    public static String[] getParameterNames(@NotNull String[] localNames, int access, @NotNull String descriptor) {
+        Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+        String[] parameterNames = new String[argumentTypes.length];
+
+        int slot = (access & Opcodes.ACC_STATIC) == 0 ? 1 : 0;
+        for (int i = 0; i < argumentTypes.length && slot < localNames.length; i++) {
+            parameterNames[i] = localNames[slot];
+            slot += argumentTypes[i].getSize();
+        }
+
+        return parameterNames;
+    }
+
+    public int size() {
+        return methods.size();
+    }
+
+    /* Keyed by owner, name and descriptor, for MappingDiff. */
+    Map<String, String[]> getMethods() {
+        return methods;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * {@code MappedFile} is a mapping file mapped into memory, split into chunks that each start at a class and can be
+ * read by a thread of their own.
+ *
+ * <p>The bytes are never copied into a string as a whole or line by line, readers go through them with absolute
+ * reads. Files of 2 GiB or more can't be mapped into a single buffer and are rejected.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+final class MappedFile {
+
+    /* Smaller chunks aren't worth a thread of their own. */
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+
+    private final ByteBuffer buffer;
+    private final ConcurrentHashMap<String, String> symbols = new ConcurrentHashMap<>();
+
+    private MappedFile(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static MappedFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Mapping file is too large to be mapped: " + path);
+            }
+
+            return new MappedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * <h6>Creates a {@linkplain SymbolTable} for one reader thread, sharing its strings with every other one of this
+     * file.
+     *
+     * @return A new {@linkplain SymbolTable}.
+     */
+    SymbolTable newSymbolTable() {
+        return new SymbolTable(symbols);
+    }
+
+    /**
+     * <h6>Reads every chunk of a range in parallel.
+     *
+     * @param from        The offset of the first line to read, after any header.
+     * @param isClassLine Whether the line starting at an offset starts a class, chunks are only split there.
+     * @param reader      Reads the lines from the first offset up to the second one.
+     * @param <T>         The result of reading a chunk.
+     * @return The result of every chunk, in the order of the file.
+     */
+    <T> List<T> readChunks(int from, IntPredicate isClassLine, ChunkReader<T> reader) {
+        int end = size();
+        int chunkCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, (end - from) / MIN_CHUNK_SIZE));
+
+        int[] bounds = new int[chunkCount + 1];
+        bounds[0] = from;
+        bounds[chunkCount] = end;
+        for (int i = 1; i < chunkCount; i++) {
+            int start = Math.max(bounds[i - 1], from + (int) ((long) (end - from) * i / chunkCount));
+            start = nextLine(start == from ? from : start - 1);
+            while (start < end && !isClassLine.test(start)) {
+                start = nextLine(start);
+            }
+            bounds[i] = start;
+        }
+
+        return IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(i -> reader.read(bounds[i], bounds[i + 1]))
+                .toList();
+    }
+
+    /**
+     * <h6>Finds the start of the line after the one an offset is in.
+     *
+     * @param offset Any offset inside a line.
+     * @return The offset after its {@code '\n'}, or the size of the file.
+     */
+    int nextLine(int offset) {
+        int end = size();
+        while (offset < end && buffer.get(offset) != '\n') {
+            offset++;
+        }
+
+        return Math.min(offset + 1, end);
+    }
+
+    /**
+     * <h6>Finds the end of the line starting at an offset, without its line break.
+     *
+     * @param offset The start of the line.
+     * @param end    The end of the chunk.
+     * @return The offset of its {@code '\n'} or {@code '\r'}, or the end of the chunk.
+     */
+    int lineEnd(int offset, int end) {
+        while (offset < end) {
+            byte value = buffer.get(offset);
+            if (value == '\n' || value == '\r') {
+                return offset;
+            }
+            offset++;
+        }
+
+        return end;
+    }
+
+    @FunctionalInterface
+    interface ChunkReader<T> {
+        T read(int from, int to);
+    }
+}
@@ -24,37 +24,323 @@
 
 package org.omnimc.trix.mapping;
 
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
 import org.omnimc.asm.changes.IClassChange;
 import org.omnimc.asm.file.ClassFile;
+import org.omnimc.trix.classfile.ClassPreScanner;
+import org.omnimc.trix.classfile.ConstantPool;
+import org.omnimc.trix.classfile.ConstantPoolRemapper;
+import org.omnimc.trix.classfile.MethodBodyScanner;
+import org.omnimc.trix.contexts.MappingContext;
 import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.visitors.mapping.FastMappingClassVisitor;
 import org.omnimc.trix.visitors.mapping.MappingClassVisitor;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+
 /**
  * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
  * @since 1.0.0
  */
 public class MappingChange implements IClassChange {
 
-    private final IMappingContext mappingContext;
+    private final IMappingContext[] mappingContexts;
+    private boolean fastPath = true;
+    private boolean passthrough;
+    private boolean compactConstantPool;
+    private RemapProfile profile;
+    private ConstantPoolRemapper[] constantPoolRemappers;
+    private ClassPreScanner preScanner;
 
-    public MappingChange(IMappingContext mappingContext) {
-        this.mappingContext = mappingContext;
+    /**
+     * <h6>Creates a new {@code MappingChange} running all given contexts in a single pass.
+     * <p>The first context receives the class as it was read, every following context receives the output of the
+     * one before it.</p>
+     *
+     * @param mappingContexts The {@linkplain IMappingContext}s to run, in order.
+     */
+    public MappingChange(IMappingContext... mappingContexts) {
+        this.mappingContexts = mappingContexts.clone();
     }
 
-    @Override
-    public ClassFile applyChange(String name, byte[] classBytes) {
-        ClassReader reader = new ClassReader(classBytes);
-        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+    /**
+     * <h6>Sets whether the devirtualized {@linkplain FastMappingClassVisitor} may be used.
+     * <p>It is only ever used for contexts that are exactly a {@linkplain MappingContext}, subclasses and custom contexts
+     * always go through the pluggable {@linkplain MappingClassVisitor}. Defaults to {@code true}.</p>
+     *
+     * @param fastPath {@code true} to allow the fast path.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setFastPath(boolean fastPath) {
+        this.fastPath = fastPath;
+        return this;
+    }
+
+    /**
+     * <h6>Sets how classes are read and written.
+     * <p>When it isn't set, {@linkplain RemapProfile#PRESERVE} is used as long as every context is a
+     * {@linkplain MappingContext} or doesn't visit methods, and {@linkplain RemapProfile#RECOMPUTE} otherwise, since
+     * other contexts could change code and leave the maximum stack size behind.</p>
+     *
+     * @param profile The {@linkplain RemapProfile} to use, or {@code null} to choose it from the contexts.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setProfile(@Nullable RemapProfile profile) {
+        this.profile = profile;
+        return this;
+    }
+
+    /**
+     * @return The {@linkplain RemapProfile} classes are read and written with.
+     */
+    public RemapProfile getProfile() {
+        if (profile != null) {
+            return profile;
+        }
+
+        return canPassthrough() ? RemapProfile.PRESERVE : RemapProfile.RECOMPUTE;
+    }
 
-        MappingClassVisitor remappingVisitor = new MappingClassVisitor(writer, mappingContext);
-        reader.accept(remappingVisitor, ClassReader.EXPAND_FRAMES);
+    /**
+     * <h6>Sets whether method bodies that reference nothing remapped are copied without being decoded.
+     * <p>The class is written by a {@linkplain ClassWriter} that starts from the constant pool of the original class,
+     * so those methods are copied as raw bytes and only new constant pool entries are added. Their maximum stack size
+     * and frames are kept as they are, whatever the {@linkplain RemapProfile}. This is only done when every context is
+     * a {@linkplain MappingContext} or doesn't visit methods, other contexts could change code the scan knows nothing
+     * about. It works the same with or without the {@linkplain #setFastPath(boolean) fast path}, both hand the
+     * writer's own method visitor to the reader for those methods.</p>
+     *
+     * <p>Defaults to {@code false}.</p>
+     *
+     * @param passthrough {@code true} to copy unchanged method bodies.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setPassthrough(boolean passthrough) {
+        this.passthrough = passthrough;
+        return this;
+    }
 
+    /**
+     * <h6>Sets whether unused constant pool entries are removed after a passthrough remap.
+     * <p>The pool of the original class is kept in full, including the names that were remapped away. Compacting
+     * rewrites the class once more, so it trades some of the time saved for smaller classes. Defaults to
+     * {@code false}.</p>
+     *
+     * @param compactConstantPool {@code true} to remove unused entries.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setCompactConstantPool(boolean compactConstantPool) {
+        this.compactConstantPool = compactConstantPool;
+        return this;
+    }
+
+    /**
+     * <h6>Sets whether classes are remapped by rewriting their constant pool instead of visiting them.
+     * <p>This is only done when every context is a {@linkplain MappingContext} that
+     * {@linkplain MappingContext#isRenameOnly() only renames}, or doesn't do anything. Classes the
+     * {@linkplain ConstantPoolRemapper} can't handle are visited as usual. Defaults to {@code false}.</p>
+     *
+     * @param constantPoolRemapping {@code true} to rewrite constant pools.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setConstantPoolRemapping(boolean constantPoolRemapping) {
+        if (!constantPoolRemapping) {
+            this.constantPoolRemappers = null;
+            return this;
+        }
+
+        ArrayList<ConstantPoolRemapper> remappers = new ArrayList<>();
+        for (IMappingContext mappingContext : mappingContexts) {
+            if (mappingContext.getClass() == MappingContext.class) {
+                remappers.add(new ConstantPoolRemapper(((MappingContext) mappingContext).getRemapper()));
+            }
+        }
+
+        this.constantPoolRemappers = remappers.toArray(new ConstantPoolRemapper[0]);
+        return this;
+    }
+
+    /**
+     * <h6>Sets the {@linkplain ClassPreScanner} classes are checked with before they are remapped.
+     * <p>Classes it finds nothing to remap in are given back as they are, the very same array, without being read any
+     * further. It has to be built from the hierarchy the contexts remap with, and it is only used when every context is
+     * a {@linkplain MappingContext} that {@linkplain MappingContext#isRenameOnly() only renames}, or doesn't do
+     * anything. Defaults to {@code null}.</p>
+     *
+     * @param preScanner The {@linkplain ClassPreScanner} to use, or {@code null} to remap every class.
+     * @return This {@linkplain MappingChange}.
+     */
+    public MappingChange setPreScanner(ClassPreScanner preScanner) {
+        this.preScanner = preScanner;
+        return this;
+    }
+
+    @Override
+    public ClassFile applyChange(String name, byte[] classBytes) {
         if (name.contains(".class")) {
             name = name.replace(".class", "");
         }
 
-        return new ClassFile(name, writer.toByteArray());
+        return new ClassFile(name, remap(classBytes));
+    }
+
+    /**
+     * <h6>Remaps a single class and returns the remapped bytes.
+     *
+     * @param classBytes The bytes of the class to remap.
+     * @return The remapped class bytes.
+     */
+    public byte[] remap(byte[] classBytes) {
+        if (preScanner != null && canRemapConstantPool() && !preScanner.needsRemapping(classBytes)) {
+            return classBytes;
+        }
+
+        if (constantPoolRemappers != null && canRemapConstantPool()) {
+            byte[] remapped = classBytes;
+            for (ConstantPoolRemapper constantPoolRemapper : constantPoolRemappers) {
+                remapped = constantPoolRemapper.remap(remapped);
+                if (remapped == null) {
+                    break;
+                }
+            }
+
+            if (remapped != null) {
+                return remapped;
+            }
+        }
+
+        return remap(new ClassReader(classBytes));
+    }
+
+    /**
+     * <h6>Remaps a single, already parsed class and returns the remapped bytes.
+     *
+     * @param reader The {@linkplain ClassReader} of the class to remap.
+     * @return The remapped class bytes.
+     */
+    public byte[] remap(ClassReader reader) {
+        if (passthrough && canPassthrough()) {
+            return remapPassthrough(reader);
+        }
+
+        RemapProfile profile = getProfile();
+        ClassWriter writer = new ClassWriter(profile.getWriterFlags());
+
+        reader.accept(createVisitor(writer), profile.getReaderFlags());
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * <h6>Remaps a {@linkplain ClassNode} by streaming it straight into a {@linkplain ClassWriter}.
+     *
+     * @param classNode The {@linkplain ClassNode} to remap, it is left unchanged.
+     * @return The remapped class bytes.
+     */
+    public byte[] remap(ClassNode classNode) {
+        return remap(classNode, getProfile());
+    }
+
+    /**
+     * <h6>Remaps a {@linkplain ClassNode} with the given profile instead of the one of this {@code MappingChange}.
+     *
+     * @param classNode The {@linkplain ClassNode} to remap, it is left unchanged.
+     * @param profile   The {@linkplain RemapProfile} to write the class with.
+     * @return The remapped class bytes.
+     */
+    public byte[] remap(ClassNode classNode, @NotNull RemapProfile profile) {
+        ClassWriter writer = new ClassWriter(profile.getWriterFlags());
+
+        classNode.accept(createVisitor(writer));
+
+        return writer.toByteArray();
+    }
+
+    private byte[] remapPassthrough(ClassReader reader) {
+        ConstantPool constantPool = new ConstantPool(reader);
+
+        BitSet unchangedMethods = null;
+        for (IMappingContext mappingContext : mappingContexts) {
+            if (mappingContext instanceof MappingContext context) {
+                BitSet unchanged = new MethodBodyScanner(constantPool, context.getRemapper(), context.getStringRemapper() != null).scan();
+                if (unchangedMethods == null) {
+                    unchangedMethods = unchanged;
+                } else {
+                    unchangedMethods.and(unchanged);
+                }
+            }
+        }
+
+        RemapProfile profile = getProfile();
+        ClassWriter writer = new ClassWriter(reader, profile.getWriterFlags());
+        try {
+            // Every context gets the same methods, a body can only be copied if no context changes it.
+            setUnchangedMethods(unchangedMethods);
+            reader.accept(createVisitor(writer), profile.getReaderFlags());
+        } finally {
+            setUnchangedMethods(null);
+        }
+
+        if (!compactConstantPool) {
+            return writer.toByteArray();
+        }
+
+        ClassWriter compactWriter = new ClassWriter(0);
+        new ClassReader(writer.toByteArray()).accept(compactWriter, 0);
+
+        return compactWriter.toByteArray();
+    }
+
+    private boolean canPassthrough() {
+        for (IMappingContext mappingContext : mappingContexts) {
+            if (mappingContext.getClass() != MappingContext.class && (mappingContext.getCallbacks() & IMappingContext.VISIT_METHOD) != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean canRemapConstantPool() {
+        for (IMappingContext mappingContext : mappingContexts) {
+            if (mappingContext.getCallbacks() == 0) {
+                continue;
+            }
+
+            if (mappingContext.getClass() != MappingContext.class || !((MappingContext) mappingContext).isRenameOnly()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void setUnchangedMethods(BitSet unchangedMethods) {
+        for (IMappingContext mappingContext : mappingContexts) {
+            if (mappingContext instanceof MappingContext context) {
+                context.setUnchangedMethods(unchangedMethods);
+            }
+        }
+    }
+
+    private ClassVisitor createVisitor(ClassVisitor writer) {
+        ClassVisitor visitor = writer;
+        for (int i = mappingContexts.length - 1; i >= 0; i--) {
+            IMappingContext mappingContext = mappingContexts[i];
+
+            if (fastPath && mappingContext.getClass() == MappingContext.class) {
+                visitor = new FastMappingClassVisitor(visitor, (MappingContext) mappingContext);
+            } else if (mappingContext.getCallbacks() != 0) {
+                visitor = new MappingClassVisitor(visitor, mappingContext);
+            }
+        }
+
+        return visitor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@code MappingDiff} is the difference between two versions of the same {@linkplain MappingTable}, such as before
+ * and after an edit of its file.
+ *
+ * <p>It only tells which classes have to be looked at again, a class whose own name is mapped differently and a class
+ * with any method or field mapped differently or with other parameter names, and how many entries changed in total.
+ * Entries are compared by their obfuscated names, so an entry added, removed or given another name all count as a
+ * change.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class MappingDiff {
+
+    private static final MappingTable.Members EMPTY = new MappingTable.Members();
+
+    private final Set<String> changedClasses;
+    private final Set<String> changedOwners;
+    private final int changeCount;
+
+    private MappingDiff(Set<String> changedClasses, Set<String> changedOwners, int changeCount) {
+        this.changedClasses = Collections.unmodifiableSet(changedClasses);
+        this.changedOwners = Collections.unmodifiableSet(changedOwners);
+        this.changeCount = changeCount;
+    }
+
+    /**
+     * <h6>Compares two versions of a {@linkplain MappingTable}.
+     *
+     * @param previous The table before the change.
+     * @param next     The table after the change.
+     * @return The {@code MappingDiff} from the previous table to the next one.
+     */
+    @NotNull
+    public static MappingDiff of(@NotNull MappingTable previous, @NotNull MappingTable next) {
+        HashSet<String> changedClasses = new HashSet<>();
+        int changeCount = 0;
+
+        for (Map.Entry<String, String> entry : previous.getClassNames().entrySet()) {
+            if (!Objects.equals(entry.getValue(), next.getClassNames().get(entry.getKey()))) {
+                changedClasses.add(entry.getKey());
+            }
+        }
+        for (String name : next.getClassNames().keySet()) {
+            if (!previous.getClassNames().containsKey(name)) {
+                changedClasses.add(name);
+            }
+        }
+        changeCount += changedClasses.size();
+
+        HashSet<String> changedOwners = new HashSet<>();
+        HashSet<String> owners = new HashSet<>(previous.getMembers().keySet());
+        owners.addAll(next.getMembers().keySet());
+        for (String owner : owners) {
+            int changes = compare(previous.getMembers().get(owner), next.getMembers().get(owner));
+            if (changes != 0) {
+                changedOwners.add(owner);
+                changeCount += changes;
+            }
+        }
+
+        Map<String, String[]> previousLocalNames = previous.getLocalNameTable().getMethods();
+        Map<String, String[]> nextLocalNames = next.getLocalNameTable().getMethods();
+        HashSet<String> methods = new HashSet<>(previousLocalNames.keySet());
+        methods.addAll(nextLocalNames.keySet());
+        for (String method : methods) {
+            if (!sameNames(previousLocalNames.get(method), nextLocalNames.get(method))) {
+                // Owner names never hold a '.', the method key starts with one.
+                changedOwners.add(method.substring(0, method.indexOf('.')));
+                changeCount++;
+            }
+        }
+
+        return new MappingDiff(changedClasses, changedOwners, changeCount);
+    }
+
+    /**
+     * @return {@code true} if both tables map every name the same way.
+     */
+    public boolean isEmpty() {
+        return changeCount == 0;
+    }
+
+    /**
+     * @return The obfuscated names of the classes whose own name is mapped differently.
+     */
+    @NotNull
+    public Set<String> getChangedClasses() {
+        return changedClasses;
+    }
+
+    /**
+     * @return The obfuscated names of the classes that have any method or field mapped differently, or other parameter
+     * names.
+     */
+    @NotNull
+    public Set<String> getChangedOwners() {
+        return changedOwners;
+    }
+
+    /**
+     * @return The number of class, method and field entries and of methods with other parameter names that changed.
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MappingDiff{" +
+                "changes=" + changeCount +
+                ", changedClasses=" + changedClasses.size() +
+                ", changedOwners=" + changedOwners.size() +
+                '}';
+    }
+
+    private static int compare(MappingTable.Members previous, MappingTable.Members next) {
+        previous = previous == null ? EMPTY : previous;
+        next = next == null ? EMPTY : next;
+
+        // Changed and removed entries are found from the previous side, added ones from the next.
+        int changes = 0;
+        for (Map.Entry<String, String[]> method : previous.methods.entrySet()) {
+            String[] overloads = method.getValue();
+            String[] others = next.methods.get(method.getKey());
+            for (int i = 0; i < overloads.length; i += 2) {
+                if (!overloads[i + 1].equals(find(others, overloads[i]))) {
+                    changes++;
+                }
+            }
+        }
+        for (Map.Entry<String, String[]> method : next.methods.entrySet()) {
+            String[] overloads = method.getValue();
+            String[] others = previous.methods.get(method.getKey());
+            for (int i = 0; i < overloads.length; i += 2) {
+                if (find(others, overloads[i]) == null) {
+                    changes++;
+                }
+            }
+        }
+
+        for (Map.Entry<String, String> field : previous.fields.entrySet()) {
+            if (!field.getValue().equals(next.fields.get(field.getKey()))) {
+                changes++;
+            }
+        }
+        for (String field : next.fields.keySet()) {
+            if (!previous.fields.containsKey(field)) {
+                changes++;
+            }
+        }
+
+        return changes;
+    }
+
+    /* The arrays grow with the highest slot, trailing slots without a name don't count. */
+    private static boolean sameNames(String[] previous, String[] next) {
+        previous = previous == null ? new String[0] : previous;
+        next = next == null ? new String[0] : next;
+
+        for (int slot = 0; slot < Math.max(previous.length, next.length); slot++) {
+            String previousName = slot < previous.length ? previous[slot] : null;
+            String nextName = slot < next.length ? next[slot] : null;
+            if (!Objects.equals(previousName, nextName)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String find(String[] overloads, String descriptor) {
+        if (overloads == null) {
+            return null;
+        }
+
+        for (int i = 0; i < overloads.length; i += 2) {
+            if (overloads[i].equals(descriptor)) {
+                return overloads[i + 1];
+            }
+        }
+
+        return null;
+    }
+}
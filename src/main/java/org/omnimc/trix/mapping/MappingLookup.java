@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+import org.omnimc.lumina.paser.MappingContainer;
+
+/**
+ * {@code MappingLookup} is anything class, method and field names can be mapped with, asked the same way as a
+ * {@linkplain MappingContainer}.
+ *
+ * <p>Every name is given as the obfuscated one, except for method descriptors, those are already mapped. A name that
+ * isn't mapped is given back as it is.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public interface MappingLookup {
+
+    /**
+     * <h6>Wraps a {@linkplain MappingContainer}.
+     *
+     * @param container The container to look names up in.
+     * @return A {@code MappingLookup} backed by the container.
+     */
+    @NotNull
+    static MappingLookup of(@NotNull MappingContainer container) {
+        return new MappingLookup() {
+            @Override
+            public String getClassName(String name) {
+                return container.getClassName(name);
+            }
+
+            @Override
+            public String getMethodName(String owner, String name, String descriptor) {
+                return container.getMethodName(owner, name, descriptor);
+            }
+
+            @Override
+            public String getFieldName(String owner, String name) {
+                return container.getFieldName(owner, name);
+            }
+        };
+    }
+
+    /**
+     * <h6>Maps the internal name of a class.
+     *
+     * @param name The obfuscated internal name of the class.
+     * @return The mapped name, or the given name if there is none.
+     */
+    String getClassName(String name);
+
+    /**
+     * <h6>Maps the name of a method.
+     *
+     * @param owner      The obfuscated internal name of the class of the method.
+     * @param name       The obfuscated name of the method.
+     * @param descriptor The mapped method descriptor.
+     * @return The mapped name, or the given name if there is none.
+     */
+    String getMethodName(String owner, String name, String descriptor);
+
+    /**
+     * <h6>Maps the name of a field.
+     *
+     * @param owner The obfuscated internal name of the class of the field.
+     * @param name  The obfuscated name of the field.
+     * @return The mapped name, or the given name if there is none.
+     */
+    String getFieldName(String owner, String name);
+}
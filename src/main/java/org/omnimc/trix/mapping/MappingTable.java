@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code MappingTable} is a compact, read-only {@linkplain MappingLookup} built straight from a mapping file by a
+ * {@linkplain ProGuardReader} or a {@linkplain TinyReader}.
+ *
+ * <p>Every name in it is interned while the file is read, so a name or descriptor used by many members is only held
+ * once. Methods are stored per class and name, with the descriptors of all overloads next to their mapped names in one
+ * array, so a lookup never builds a key. Parameter and local variable names the file holds are kept in a
+ * {@linkplain LocalNameTable}.</p>
+ *
+ * <p>A table is never changed once read, it may be shared between threads.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class MappingTable implements MappingLookup {
+
+    private final HashMap<String, String> classNames;
+    private final HashMap<String, Members> members;
+    private final LocalNameTable localNameTable;
+    private final int methodCount;
+    private final int fieldCount;
+
+    MappingTable(HashMap<String, String> classNames, HashMap<String, Members> members, LocalNameTable localNameTable) {
+        this.classNames = classNames;
+        this.members = members;
+        this.localNameTable = localNameTable;
+
+        int methods = 0;
+        int fields = 0;
+        for (Members classMembers : members.values()) {
+            for (String[] overloads : classMembers.methods.values()) {
+                methods += overloads.length / 2;
+            }
+            fields += classMembers.fields.size();
+        }
+        this.methodCount = methods;
+        this.fieldCount = fields;
+    }
+
+    @Override
+    public String getClassName(String name) {
+        String mapped = classNames.get(name);
+        return mapped == null ? name : mapped;
+    }
+
+    @Override
+    public String getMethodName(String owner, String name, String descriptor) {
+        Members classMembers = members.get(owner);
+        if (classMembers == null) {
+            return name;
+        }
+
+        String[] overloads = classMembers.methods.get(name);
+        if (overloads == null) {
+            return name;
+        }
+
+        for (int i = 0; i < overloads.length; i += 2) {
+            if (overloads[i].equals(descriptor)) {
+                return overloads[i + 1];
+            }
+        }
+
+        return name;
+    }
+
+    @Override
+    public String getFieldName(String owner, String name) {
+        Members classMembers = members.get(owner);
+        if (classMembers == null) {
+            return name;
+        }
+
+        String mapped = classMembers.fields.get(name);
+        return mapped == null ? name : mapped;
+    }
+
+    /**
+     * @return Every class name of the table, obfuscated to mapped, such as for a {@linkplain ClassNameIndex}.
+     */
+    @NotNull
+    public Map<String, String> getClassNames() {
+        return Collections.unmodifiableMap(classNames);
+    }
+
+    /**
+     * @return The parameter and local variable names of the file, empty if it has none.
+     */
+    @NotNull
+    public LocalNameTable getLocalNameTable() {
+        return localNameTable;
+    }
+
+    /**
+     * @return The number of classes in this table.
+     */
+    public int getClassCount() {
+        return classNames.size();
+    }
+
+    /**
+     * @return The number of methods in this table.
+     */
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    /**
+     * @return The number of fields in this table.
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    HashMap<String, Members> getMembers() {
+        return members;
+    }
+
+    @Override
+    public String toString() {
+        return "MappingTable{" +
+                "classes=" + getClassCount() +
+                ", methods=" + methodCount +
+                ", fields=" + fieldCount +
+                ", localNames=" + localNameTable.size() +
+                '}';
+    }
+
+    /* The members of one class, each method name leads to { descriptor, mapped name, descriptor, mapped name, ... }. */
+    static final class Members {
+        final HashMap<String, String[]> methods = new HashMap<>();
+        final HashMap<String, String> fields = new HashMap<>();
+
+        void addMethod(String name, String descriptor, String mappedName) {
+            String[] overloads = methods.get(name);
+            if (overloads == null) {
+                methods.put(name, new String[]{descriptor, mappedName});
+                return;
+            }
+
+            for (int i = 0; i < overloads.length; i += 2) {
+                if (overloads[i].equals(descriptor)) {
+                    overloads[i + 1] = mappedName;
+                    return;
+                }
+            }
+
+            String[] grown = new String[overloads.length + 2];
+            System.arraycopy(overloads, 0, grown, 0, overloads.length);
+            grown[overloads.length] = descriptor;
+            grown[overloads.length + 1] = mappedName;
+            methods.put(name, grown);
+        }
+
+        void addField(String name, String mappedName) {
+            fields.put(name, mappedName);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * {@code ProGuardReader} reads ProGuard mapping files, such as the ones Mojang publishes, into a
+ * {@linkplain MappingTable} that maps the obfuscated names back to the original ones.
+ *
+ * <p>The file is mapped into memory and split at class lines into chunks that are read in parallel. Names are read
+ * straight from the bytes into a {@linkplain SymbolTable}, the Java types of a method are turned into its descriptor
+ * the same way, so no string is made for a line or for a name already seen.</p>
+ *
+ * <p>Line numbers are ignored, and so are the frames of inlined methods. R8 writes every method inlined into another
+ * one as a line with the same line range and obfuscated name right before it, only the last line of such a group, the
+ * method itself, is kept.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class ProGuardReader {
+
+    private static final byte[][] PRIMITIVES = {
+            "void".getBytes(), "boolean".getBytes(), "byte".getBytes(), "char".getBytes(),
+            "short".getBytes(), "int".getBytes(), "long".getBytes(), "float".getBytes(), "double".getBytes()
+    };
+    private static final byte[] PRIMITIVE_DESCRIPTORS = {'V', 'Z', 'B', 'C', 'S', 'I', 'J', 'F', 'D'};
+
+    /**
+     * <h6>Reads a ProGuard mapping file.
+     *
+     * @param path The path of the file.
+     * @return A new {@linkplain MappingTable} of the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    @NotNull
+    public MappingTable readPath(@NotNull Path path) throws IOException {
+        MappedFile file = MappedFile.map(path);
+        ByteBuffer buffer = file.getBuffer();
+
+        List<ArrayList<ClassRecord>> chunks = file.readChunks(0, offset -> isClassLine(buffer.get(offset)),
+                (from, to) -> readChunk(file, from, to));
+
+        HashMap<String, String> classNames = new HashMap<>();
+        HashMap<String, MappingTable.Members> members = new HashMap<>();
+        for (ArrayList<ClassRecord> chunk : chunks) {
+            for (ClassRecord record : chunk) {
+                classNames.put(record.obfName, record.name);
+                if (!record.members.methods.isEmpty() || !record.members.fields.isEmpty()) {
+                    members.put(record.obfName, record.members);
+                }
+            }
+        }
+
+        return new MappingTable(classNames, members, new LocalNameTable());
+    }
+
+    /**
+     * <h6>Reads a ProGuard mapping file.
+     *
+     * @param path The path of the file.
+     * @return A new {@linkplain MappingTable} of the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    @NotNull
+    public MappingTable readPath(@NotNull String path) throws IOException {
+        return readPath(Path.of(path));
+    }
+
+    private static boolean isClassLine(byte first) {
+        return first != ' ' && first != '\t' && first != '#' && first != '\n' && first != '\r';
+    }
+
+    private static ArrayList<ClassRecord> readChunk(MappedFile file, int from, int to) {
+        ByteBuffer buffer = file.getBuffer();
+        SymbolTable symbols = file.newSymbolTable();
+        ArrayList<ClassRecord> records = new ArrayList<>();
+        ClassRecord current = null;
+        // The member line read last, it is only kept once the next line isn't an outer frame of it.
+        int pendingStart = -1;
+        int pendingEnd = -1;
+
+        for (int start = from; start < to; start = file.nextLine(start)) {
+            int end = file.lineEnd(start, to);
+            if (start == end) {
+                continue;
+            }
+
+            if (isClassLine(buffer.get(start))) {
+                if (current != null && pendingStart != -1) {
+                    readMember(buffer, symbols, current.members, pendingStart, pendingEnd);
+                }
+                pendingStart = -1;
+
+                // "original.Name -> obf:"
+                int arrow = indexOfArrow(buffer, start, end);
+                if (arrow == -1) {
+                    current = null;
+                    continue;
+                }
+
+                int obfEnd = trimEnd(buffer, arrow + 4, end);
+                if (obfEnd > arrow + 4 && buffer.get(obfEnd - 1) == ':') {
+                    obfEnd--;
+                }
+
+                String name = symbols.clear().appendInternalName(buffer, start, trimEnd(buffer, start, arrow)).intern();
+                String obfName = symbols.clear().appendInternalName(buffer, arrow + 4, obfEnd).intern();
+                current = new ClassRecord(obfName, name);
+                records.add(current);
+                continue;
+            }
+
+            int position = trimStart(buffer, start, end);
+            if (current == null || position == end || buffer.get(position) == '#') {
+                continue;
+            }
+
+            if (pendingStart != -1 && !isSameFrame(buffer, pendingStart, pendingEnd, start, end)) {
+                readMember(buffer, symbols, current.members, pendingStart, pendingEnd);
+            }
+            pendingStart = start;
+            pendingEnd = end;
+        }
+
+        if (current != null && pendingStart != -1) {
+            readMember(buffer, symbols, current.members, pendingStart, pendingEnd);
+        }
+
+        return records;
+    }
+
+    /* Inlined frames share the line range and obfuscated name of the frame they were inlined into, which comes last. */
+    private static boolean isSameFrame(ByteBuffer buffer, int firstStart, int firstEnd, int secondStart, int secondEnd) {
+        firstStart = trimStart(buffer, firstStart, firstEnd);
+        secondStart = trimStart(buffer, secondStart, secondEnd);
+
+        int firstRangeEnd = lineRangeEnd(buffer, firstStart, firstEnd);
+        int secondRangeEnd = lineRangeEnd(buffer, secondStart, secondEnd);
+        if (firstRangeEnd == -1 || !equals(buffer, firstStart, firstRangeEnd, secondStart, secondRangeEnd)) {
+            return false;
+        }
+
+        int firstArrow = indexOfArrow(buffer, firstRangeEnd, firstEnd);
+        int secondArrow = indexOfArrow(buffer, secondRangeEnd, secondEnd);
+        if (firstArrow == -1 || secondArrow == -1) {
+            return false;
+        }
+
+        return equals(buffer, firstArrow + 4, trimEnd(buffer, firstArrow + 4, firstEnd), secondArrow + 4, trimEnd(buffer, secondArrow + 4, secondEnd));
+    }
+
+    /* The offset after the "a:b:" in front of a method, or -1 if it has none. */
+    private static int lineRangeEnd(ByteBuffer buffer, int position, int end) {
+        int colons = 0;
+        while (position < end && colons < 2) {
+            byte value = buffer.get(position++);
+            if (value == ':') {
+                colons++;
+            } else if (!isDigit(value)) {
+                return -1;
+            }
+        }
+
+        return colons == 2 ? position : -1;
+    }
+
+    /* "    [a:b:]type name[(args)][:c:d] -> obf" */
+    private static void readMember(ByteBuffer buffer, SymbolTable symbols, MappingTable.Members members, int start, int end) {
+        int position = trimStart(buffer, start, end);
+        if (position == end || buffer.get(position) == '#') {
+            return;
+        }
+
+        int arrow = indexOfArrow(buffer, position, end);
+        if (arrow == -1) {
+            return;
+        }
+
+        // Line numbers, "12:" twice in front of methods.
+        while (position < arrow && isDigit(buffer.get(position))) {
+            int digitsEnd = position;
+            while (digitsEnd < arrow && isDigit(buffer.get(digitsEnd))) {
+                digitsEnd++;
+            }
+
+            if (digitsEnd == arrow || buffer.get(digitsEnd) != ':') {
+                break;
+            }
+            position = digitsEnd + 1;
+        }
+
+        int typeEnd = position;
+        while (typeEnd < arrow && buffer.get(typeEnd) != ' ') {
+            typeEnd++;
+        }
+
+        int nameStart = typeEnd + 1;
+        if (nameStart >= arrow) {
+            return;
+        }
+
+        String obfName = symbols.intern(buffer, arrow + 4, trimEnd(buffer, arrow + 4, end));
+
+        int parameters = indexOf(buffer, (byte) '(', nameStart, arrow);
+        if (parameters == -1) {
+            members.addField(obfName, symbols.intern(buffer, nameStart, trimEnd(buffer, nameStart, arrow)));
+            return;
+        }
+
+        if (indexOf(buffer, (byte) '.', nameStart, parameters) != -1) {
+            return;
+        }
+
+        int parametersEnd = indexOf(buffer, (byte) ')', parameters, arrow);
+        if (parametersEnd == -1) {
+            return;
+        }
+
+        String name = symbols.intern(buffer, nameStart, parameters);
+
+        symbols.clear().append('(');
+        for (int argument = parameters + 1; argument < parametersEnd; ) {
+            int argumentEnd = indexOf(buffer, (byte) ',', argument, parametersEnd);
+            if (argumentEnd == -1) {
+                argumentEnd = parametersEnd;
+            }
+
+            appendDescriptor(buffer, symbols, trimStart(buffer, argument, argumentEnd), trimEnd(buffer, argument, argumentEnd));
+            argument = argumentEnd + 1;
+        }
+        symbols.append(')');
+        appendDescriptor(buffer, symbols, position, typeEnd);
+
+        members.addMethod(obfName, symbols.intern(), name);
+    }
+
+    /* Turns a Java type like "java.lang.String[]" into "[Ljava/lang/String;". */
+    private static void appendDescriptor(ByteBuffer buffer, SymbolTable symbols, int start, int end) {
+        while (end - start >= 2 && buffer.get(end - 2) == '[' && buffer.get(end - 1) == ']') {
+            symbols.append('[');
+            end -= 2;
+        }
+
+        for (int i = 0; i < PRIMITIVES.length; i++) {
+            if (matches(buffer, start, end, PRIMITIVES[i])) {
+                symbols.append(PRIMITIVE_DESCRIPTORS[i]);
+                return;
+            }
+        }
+
+        symbols.append('L').appendInternalName(buffer, start, end).append(';');
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] value) {
+        if (end - start != value.length) {
+            return false;
+        }
+
+        for (int i = 0; i < value.length; i++) {
+            if (buffer.get(start + i) != value[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean equals(ByteBuffer buffer, int firstStart, int firstEnd, int secondStart, int secondEnd) {
+        if (secondStart < 0 || secondEnd < 0 || firstEnd - firstStart != secondEnd - secondStart) {
+            return false;
+        }
+
+        for (int i = 0; i < firstEnd - firstStart; i++) {
+            if (buffer.get(firstStart + i) != buffer.get(secondStart + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /* The offset of " -> ", names never hold a space. */
+    private static int indexOfArrow(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i + 4 <= end; i++) {
+            if (buffer.get(i) == ' ' && buffer.get(i + 1) == '-' && buffer.get(i + 2) == '>' && buffer.get(i + 3) == ' ') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static int trimStart(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '\t')) {
+            start++;
+        }
+
+        return start;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '\t')) {
+            end--;
+        }
+
+        return end;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static final class ClassRecord {
+        private final String obfName;
+        private final String name;
+        private final MappingTable.Members members = new MappingTable.Members();
+
+        private ClassRecord(String obfName, String name) {
+            this.obfName = obfName;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+/**
+ * {@code RemapProfile} decides how a {@linkplain MappingChange} reads and writes the classes it remaps.
+ *
+ * <p>Renaming never changes how deep the operand stack gets or how many locals a method uses, so by default stack map
+ * frames are kept compressed and the original maximums are written back as they are. Contexts that add or change code
+ * should use {@linkplain #RECOMPUTE} instead.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public enum RemapProfile {
+
+    /**
+     * Keeps the frames compressed and the maximum stack size and locals of every method as they were.
+     */
+    PRESERVE(0, 0),
+
+    /**
+     * Expands every frame while reading and computes the maximum stack size and locals again while writing.
+     */
+    RECOMPUTE(ClassReader.EXPAND_FRAMES, ClassWriter.COMPUTE_MAXS);
+
+    private final int readerFlags;
+    private final int writerFlags;
+
+    RemapProfile(int readerFlags, int writerFlags) {
+        this.readerFlags = readerFlags;
+        this.writerFlags = writerFlags;
+    }
+
+    /**
+     * @return The flags to pass to {@linkplain ClassReader#accept(org.objectweb.asm.ClassVisitor, int)}.
+     */
+    public int getReaderFlags() {
+        return readerFlags;
+    }
+
+    /**
+     * @return The flags to create the {@linkplain ClassWriter} with.
+     */
+    public int getWriterFlags() {
+        return writerFlags;
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code SymbolTable} turns the bytes of a mapping file into interned strings, without making a string for every line
+ * or token on the way.
+ *
+ * <p>Bytes are put together in a reusable buffer, and {@linkplain #intern()} looks them up in a table of this reader
+ * thread first, comparing the bytes against the strings already there. Only a name seen for the first time becomes a
+ * string, which is then looked up in the table shared by every thread reading the same file, so each name is only
+ * held once. One instance is only ever used by one thread.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+final class SymbolTable {
+
+    private final ConcurrentHashMap<String, String> shared;
+    private String[] symbols = new String[1 << 12];
+    private int size;
+
+    private byte[] buffer = new byte[128];
+    private int length;
+
+    SymbolTable(ConcurrentHashMap<String, String> shared) {
+        this.shared = shared;
+    }
+
+    SymbolTable clear() {
+        length = 0;
+        return this;
+    }
+
+    boolean isEmpty() {
+        return length == 0;
+    }
+
+    SymbolTable append(int value) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, length * 2);
+        }
+
+        buffer[length++] = (byte) value;
+        return this;
+    }
+
+    SymbolTable append(ByteBuffer source, int from, int to) {
+        ensureCapacity(to - from);
+        source.get(from, buffer, length, to - from);
+        length += to - from;
+        return this;
+    }
+
+    /* Class names are written with dots in some formats, internal names use slashes. */
+    SymbolTable appendInternalName(ByteBuffer source, int from, int to) {
+        ensureCapacity(to - from);
+        for (int i = from; i < to; i++) {
+            byte value = source.get(i);
+            buffer[length++] = value == '.' ? (byte) '/' : value;
+        }
+        return this;
+    }
+
+    /* Tiny v2 files with escaped-names may write \\, \n, \r, \t and \0 in names. */
+    SymbolTable appendUnescaped(ByteBuffer source, int from, int to) {
+        ensureCapacity(to - from);
+        for (int i = from; i < to; i++) {
+            byte value = source.get(i);
+            if (value == '\\' && i + 1 < to) {
+                value = switch (source.get(++i)) {
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case '0' -> 0;
+                    default -> source.get(i);
+                };
+            }
+            buffer[length++] = value;
+        }
+        return this;
+    }
+
+    String intern(ByteBuffer source, int from, int to) {
+        return clear().append(source, from, to).intern();
+    }
+
+    /**
+     * <h6>Gets the string of the bytes put together since the last {@linkplain #clear()}.
+     *
+     * @return The one instance of that string.
+     */
+    String intern() {
+        // For ASCII this is exactly String.hashCode(), which every string caches.
+        int hash = 0;
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer[i];
+            ascii &= buffer[i] >= 0;
+        }
+
+        if (!ascii) {
+            return shareString(new String(buffer, 0, length, StandardCharsets.UTF_8));
+        }
+
+        int mask = symbols.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        for (String symbol = symbols[slot]; symbol != null; symbol = symbols[slot]) {
+            if (symbol.hashCode() == hash && matches(symbol)) {
+                return symbol;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String symbol = shareString(new String(buffer, 0, length, StandardCharsets.ISO_8859_1));
+        symbols[slot] = symbol;
+        if (++size * 2 > symbols.length) {
+            rehash();
+        }
+
+        return symbol;
+    }
+
+    private boolean matches(String symbol) {
+        if (symbol.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != buffer[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String shareString(String value) {
+        String previous = shared.putIfAbsent(value, value);
+        return previous == null ? value : previous;
+    }
+
+    private void rehash() {
+        String[] old = symbols;
+        symbols = new String[old.length * 2];
+        int mask = symbols.length - 1;
+
+        for (String symbol : old) {
+            if (symbol == null) {
+                continue;
+            }
+
+            int hash = symbol.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (symbols[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            symbols[slot] = symbol;
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
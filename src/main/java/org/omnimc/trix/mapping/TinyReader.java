@@ -0,0 +1,375 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.mapping;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.commons.Remapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code TinyReader} reads Tiny v2 mapping files into a {@linkplain MappingTable} from one of their namespaces to
+ * another.
+ *
+ * <p>The file is mapped into memory and split at class lines into chunks that are read in parallel. Names are read
+ * straight from the bytes into a {@linkplain SymbolTable}, so no string is made for a line or for a name already seen.
+ * Descriptors in the file are written with the names of its first namespace, once every class is known they are
+ * mapped to the target namespace, each distinct descriptor once.</p>
+ *
+ * <p>Parameter names are kept in the {@linkplain MappingTable#getLocalNameTable() LocalNameTable} of the table. Local
+ * variable names are ignored, their slots can be reused within a method, which the table can't tell apart. A name left
+ * empty for a namespace is taken from the source namespace.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class TinyReader {
+
+    private final String sourceNamespace;
+    private final String targetNamespace;
+
+    /**
+     * <h6>Creates a new {@code TinyReader} from the first namespace of a file to its last.
+     */
+    public TinyReader() {
+        this(null, null);
+    }
+
+    /**
+     * <h6>Creates a new {@code TinyReader} between two given namespaces.
+     *
+     * @param sourceNamespace The namespace of the names to map, or {@code null} for the first one of the file.
+     * @param targetNamespace The namespace to map them to, or {@code null} for the last one of the file.
+     */
+    public TinyReader(@Nullable String sourceNamespace, @Nullable String targetNamespace) {
+        this.sourceNamespace = sourceNamespace;
+        this.targetNamespace = targetNamespace;
+    }
+
+    /**
+     * <h6>Reads a Tiny v2 mapping file.
+     *
+     * @param path The path of the file.
+     * @return A new {@linkplain MappingTable} of the file.
+     * @throws IOException              If the file couldn't be read or isn't a Tiny v2 file.
+     * @throws IllegalArgumentException If one of the namespaces isn't part of the file.
+     */
+    @NotNull
+    public MappingTable readPath(@NotNull Path path) throws IOException {
+        MappedFile file = MappedFile.map(path);
+        ByteBuffer buffer = file.getBuffer();
+
+        // tiny	2	0	namespace...
+        int headerEnd = file.lineEnd(0, file.size());
+        String[] header = new String(readBytes(buffer, 0, headerEnd), StandardCharsets.UTF_8).split("\t");
+        if (header.length < 5 || !header[0].equals("tiny") || !header[1].equals("2")) {
+            throw new IOException("Not a Tiny v2 mapping file: " + path);
+        }
+
+        String[] namespaces = Arrays.copyOfRange(header, 3, header.length);
+        int source = indexOfNamespace(namespaces, sourceNamespace, 0);
+        int target = indexOfNamespace(namespaces, targetNamespace, namespaces.length - 1);
+
+        // Properties follow the header, indented once.
+        boolean escapedNames = false;
+        int sectionsStart = file.nextLine(headerEnd);
+        while (sectionsStart < file.size() && buffer.get(sectionsStart) == '\t') {
+            int end = file.lineEnd(sectionsStart, file.size());
+            String property = new String(readBytes(buffer, sectionsStart + 1, end), StandardCharsets.UTF_8);
+            escapedNames |= property.equals("escaped-names");
+            sectionsStart = file.nextLine(end);
+        }
+
+        boolean escaped = escapedNames;
+        List<ArrayList<ClassRecord>> chunks = file.readChunks(sectionsStart,
+                offset -> buffer.get(offset) == 'c' && offset + 1 < file.size() && buffer.get(offset + 1) == '\t',
+                (from, to) -> new ChunkReader(file, namespaces.length, source, target, escaped).read(from, to));
+
+        HashMap<String, String> classNames = new HashMap<>();
+        HashMap<String, String> targetNames = new HashMap<>();
+        HashMap<String, String> sourceNames = new HashMap<>();
+        for (ArrayList<ClassRecord> chunk : chunks) {
+            for (ClassRecord record : chunk) {
+                classNames.put(record.sourceName, record.targetName);
+                targetNames.put(record.name, record.targetName);
+                sourceNames.put(record.name, record.sourceName);
+            }
+        }
+
+        // Method keys need the target descriptor the lookup is asked with, local names the source one.
+        DescriptorMapper toTarget = target == 0 ? null : new DescriptorMapper(targetNames);
+        DescriptorMapper toSource = source == 0 ? null : new DescriptorMapper(sourceNames);
+        if (toTarget != null) {
+            chunks.parallelStream().forEach(chunk -> {
+                for (ClassRecord record : chunk) {
+                    for (String[] overloads : record.members.methods.values()) {
+                        for (int i = 0; i < overloads.length; i += 2) {
+                            overloads[i] = toTarget.mapDescriptor(overloads[i]);
+                        }
+                    }
+                }
+            });
+        }
+
+        HashMap<String, MappingTable.Members> members = new HashMap<>();
+        LocalNameTable localNameTable = new LocalNameTable();
+        for (ArrayList<ClassRecord> chunk : chunks) {
+            for (ClassRecord record : chunk) {
+                if (!record.members.methods.isEmpty() || !record.members.fields.isEmpty()) {
+                    members.put(record.sourceName, record.members);
+                }
+
+                for (Parameter parameter : record.parameters) {
+                    String descriptor = toSource == null ? parameter.methodDescriptor : toSource.mapDescriptor(parameter.methodDescriptor);
+                    localNameTable.addLocalName(record.sourceName, parameter.methodName, descriptor, parameter.slot, parameter.name);
+                }
+            }
+        }
+
+        return new MappingTable(classNames, members, localNameTable);
+    }
+
+    /**
+     * <h6>Reads a Tiny v2 mapping file.
+     *
+     * @param path The path of the file.
+     * @return A new {@linkplain MappingTable} of the file.
+     * @throws IOException              If the file couldn't be read or isn't a Tiny v2 file.
+     * @throws IllegalArgumentException If one of the namespaces isn't part of the file.
+     */
+    @NotNull
+    public MappingTable readPath(@NotNull String path) throws IOException {
+        return readPath(Path.of(path));
+    }
+
+    private static int indexOfNamespace(String[] namespaces, String namespace, int fallback) {
+        if (namespace == null) {
+            return fallback;
+        }
+
+        for (int i = 0; i < namespaces.length; i++) {
+            if (namespaces[i].equals(namespace)) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Namespace " + namespace + " isn't part of the file, it has " + Arrays.toString(namespaces));
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+
+    private static final class ChunkReader {
+        private final MappedFile file;
+        private final ByteBuffer buffer;
+        private final SymbolTable symbols;
+        private final int source;
+        private final int target;
+        private final boolean escaped;
+
+        /* The columns of the current line after its kind, as [start, end) offsets. */
+        private final int[] starts;
+        private final int[] ends;
+        private int columns;
+
+        private ChunkReader(MappedFile file, int namespaceCount, int source, int target, boolean escaped) {
+            this.file = file;
+            this.buffer = file.getBuffer();
+            this.symbols = file.newSymbolTable();
+            this.source = source;
+            this.target = target;
+            this.escaped = escaped;
+            this.starts = new int[namespaceCount + 1];
+            this.ends = new int[namespaceCount + 1];
+        }
+
+        private ArrayList<ClassRecord> read(int from, int to) {
+            ArrayList<ClassRecord> records = new ArrayList<>();
+            ClassRecord current = null;
+            String methodName = null;
+            String methodDescriptor = null;
+
+            for (int start = from; start < to; start = file.nextLine(start)) {
+                int end = file.lineEnd(start, to);
+
+                int depth = start;
+                while (depth < end && buffer.get(depth) == '\t') {
+                    depth++;
+                }
+
+                int kindEnd = depth;
+                while (kindEnd < end && buffer.get(kindEnd) != '\t') {
+                    kindEnd++;
+                }
+
+                if (kindEnd - depth != 1) {
+                    continue;
+                }
+
+                byte kind = buffer.get(depth);
+                depth -= start;
+                readColumns(kindEnd, end);
+
+                if (depth == 0) {
+                    // c	names...
+                    current = null;
+                    if (kind == 'c' && columns > 0) {
+                        String name = name(0, null);
+                        String sourceName = name(source, name);
+                        current = new ClassRecord(name, sourceName, name(target, sourceName));
+                        records.add(current);
+                    }
+                } else if (depth == 1 && current != null) {
+                    // m	descriptor	names...  or  f	descriptor	names...
+                    methodName = null;
+                    if ((kind == 'm' || kind == 'f') && columns > 1) {
+                        String descriptor = symbols.intern(buffer, starts[0], ends[0]);
+                        String sourceName = name(1 + source, name(1, null));
+                        String targetName = name(1 + target, sourceName);
+
+                        if (kind == 'f') {
+                            if (!targetName.equals(sourceName)) {
+                                current.members.addField(sourceName, targetName);
+                            }
+                        } else {
+                            if (!targetName.equals(sourceName)) {
+                                current.members.addMethod(sourceName, descriptor, targetName);
+                            }
+                            methodName = sourceName;
+                            methodDescriptor = descriptor;
+                        }
+                    }
+                } else if (depth == 2 && methodName != null && kind == 'p' && columns > 1) {
+                    // p	slot	names...
+                    if (1 + target < columns && ends[1 + target] > starts[1 + target]) {
+                        current.parameters.add(new Parameter(methodName, methodDescriptor, readInt(starts[0], ends[0]), name(1 + target, null)));
+                    }
+                }
+            }
+
+            return records;
+        }
+
+        private int readInt(int start, int end) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                value = value * 10 + (buffer.get(i) - '0');
+            }
+
+            return value;
+        }
+
+        private void readColumns(int position, int end) {
+            columns = 0;
+            while (position < end && columns < starts.length) {
+                int columnStart = position + 1;
+                int columnEnd = columnStart;
+                while (columnEnd < end && buffer.get(columnEnd) != '\t') {
+                    columnEnd++;
+                }
+
+                starts[columns] = columnStart;
+                ends[columns++] = columnEnd;
+                position = columnEnd;
+            }
+        }
+
+        /* The name in a column, or the fallback if it's missing or empty. */
+        private String name(int column, String fallback) {
+            if (column >= columns || starts[column] == ends[column]) {
+                return fallback;
+            }
+
+            symbols.clear();
+            if (escaped) {
+                symbols.appendUnescaped(buffer, starts[column], ends[column]);
+            } else {
+                symbols.append(buffer, starts[column], ends[column]);
+            }
+            return symbols.intern();
+        }
+    }
+
+    private static final class ClassRecord {
+        private final String name;
+        private final String sourceName;
+        private final String targetName;
+        private final MappingTable.Members members = new MappingTable.Members();
+        private final ArrayList<Parameter> parameters = new ArrayList<>(0);
+
+        private ClassRecord(String name, String sourceName, String targetName) {
+            this.name = name;
+            this.sourceName = sourceName;
+            this.targetName = targetName;
+        }
+    }
+
+    /* A parameter name, its method descriptor is the one of the first namespace. */
+    private static final class Parameter {
+        private final String methodName;
+        private final String methodDescriptor;
+        private final int slot;
+        private final String name;
+
+        private Parameter(String methodName, String methodDescriptor, int slot, String name) {
+            this.methodName = methodName;
+            this.methodDescriptor = methodDescriptor;
+            this.slot = slot;
+            this.name = name;
+        }
+    }
+
+    /* Maps descriptors of the first namespace to another one, each distinct descriptor only once. */
+    private static final class DescriptorMapper extends Remapper {
+        private final HashMap<String, String> classNames;
+        private final ConcurrentHashMap<String, String> descriptors = new ConcurrentHashMap<>();
+
+        private DescriptorMapper(HashMap<String, String> classNames) {
+            this.classNames = classNames;
+        }
+
+        @Override
+        public String map(String internalName) {
+            return classNames.get(internalName);
+        }
+
+        private String mapDescriptor(String descriptor) {
+            return descriptors.computeIfAbsent(descriptor, this::mapMethodDesc);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.session;
+
+import org.jetbrains.annotations.NotNull;
+import org.omnimc.trix.mapping.MappingDiff;
+
+/**
+ * {@code ReloadResult} describes what a {@linkplain WatchSession} did with one version of its mappings.
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class ReloadResult {
+
+    private final MappingDiff diff;
+    private final int affectedClasses;
+    private final int overlayClasses;
+    private final int rewrittenClasses;
+    private final long elapsedMillis;
+
+    ReloadResult(MappingDiff diff, int affectedClasses, int overlayClasses, int rewrittenClasses, long elapsedMillis) {
+        this.diff = diff;
+        this.affectedClasses = affectedClasses;
+        this.overlayClasses = overlayClasses;
+        this.rewrittenClasses = rewrittenClasses;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * <h6>Gets the difference between the previous version of the mappings and this one.
+     *
+     * @return The {@linkplain MappingDiff}, empty for the first version.
+     */
+    @NotNull
+    public MappingDiff getDiff() {
+        return diff;
+    }
+
+    /**
+     * <h6>Gets the number of classes whose names or inherited members the change can reach.
+     *
+     * @return The number of affected classes.
+     */
+    public int getAffectedClasses() {
+        return affectedClasses;
+    }
+
+    /**
+     * <h6>Gets the number of classes rebuilt on top of the base hierarchy, counting every change since the base was
+     * built.
+     *
+     * @return The number of classes in the overlay, or {@code -1} if the whole hierarchy was built again.
+     */
+    public int getOverlayClasses() {
+        return overlayClasses;
+    }
+
+    /**
+     * <h6>Gets the number of classes remapped and written again.
+     *
+     * @return The number of rewritten classes.
+     */
+    public int getRewrittenClasses() {
+        return rewrittenClasses;
+    }
+
+    /**
+     * <h6>Gets the time from reading the mappings to writing the last class.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "ReloadResult{" +
+                "changes=" + diff.getChangeCount() +
+                ", affectedClasses=" + affectedClasses +
+                ", overlayClasses=" + overlayClasses +
+                ", rewrittenClasses=" + rewrittenClasses +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.session;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.trix.classfile.ClassPreScanner;
+import org.omnimc.trix.classfile.DescriptorScanner;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyChange;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.LocalNameTable;
+import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.mapping.MappingLookup;
+import org.omnimc.trix.mapping.MappingTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code RemapSession} remaps several jars that share a namespace, such as the client, server and library jars of a
+ * game version, in a single run.
+ *
+ * <p>Remapping each jar on its own builds its own hierarchy and remaps every shared class once per jar. A session
+ * instead reads every input up front, detects byte-identical classes across inputs by their SHA-256 hash, builds one
+ * combined {@linkplain HierarchyManager} from the unique classes and remaps each unique class exactly once, skipping
+ * the ones a {@linkplain ClassPreScanner} finds nothing to remap in. The results are then fanned out into one output
+ * jar per input, keeping each input's own resources and entry order.</p>
+ *
+ * <p>All inputs have to use the same mapping namespace. If two inputs contain a class with the same name but
+ * different bytes, the first one is used for the hierarchy and the clash is reported in the
+ * {@linkplain SessionResult}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class RemapSession {
+
+    private final MappingLookup container;
+    private final LinkedHashMap<Path, Path> inputs = new LinkedHashMap<>();
+
+    /**
+     * <h6>Creates a new {@code RemapSession} using the given mappings for every input.
+     *
+     * @param container The {@linkplain MappingContainer} to remap with.
+     */
+    public RemapSession(@NotNull MappingContainer container) {
+        this(MappingLookup.of(container));
+    }
+
+    /**
+     * <h6>Creates a new {@code RemapSession} using the given mappings for every input.
+     *
+     * @param lookup The {@linkplain MappingLookup} to remap with, such as a {@linkplain MappingTable}, whose
+     *               parameter names are applied as well.
+     */
+    public RemapSession(@NotNull MappingLookup lookup) {
+        this.container = lookup;
+    }
+
+    /**
+     * <h6>Adds an input jar and the jar its remapped version is written to.
+     *
+     * @param inputJar  The jar to remap.
+     * @param outputJar The jar to write the remapped classes and resources to.
+     * @return This {@code RemapSession}.
+     */
+    public RemapSession addInput(@NotNull Path inputJar, @NotNull Path outputJar) {
+        inputs.put(inputJar, outputJar);
+        return this;
+    }
+
+    /**
+     * <h6>Reads every input, remaps each unique class once and writes all output jars.
+     *
+     * @return The {@linkplain SessionResult} of this run.
+     * @throws IOException If an input can't be read or an output can't be written.
+     */
+    @NotNull
+    public SessionResult run() throws IOException {
+        /* Reading */
+        LinkedHashMap<Path, Map<String, byte[]>> inputEntries = new LinkedHashMap<>();
+        for (Path inputJar : inputs.keySet()) {
+            inputEntries.put(inputJar, JarIO.readJar(inputJar));
+        }
+
+        /* Dedup */
+        LinkedHashMap<ContentHash, byte[]> uniqueClasses = new LinkedHashMap<>();
+        HashMap<Path, HashMap<String, ContentHash>> inputHashes = new HashMap<>();
+        HashMap<String, ContentHash> namesToHash = new HashMap<>();
+        LinkedHashMap<String, byte[]> hierarchyEntries = new LinkedHashMap<>();
+        ArrayList<String> conflicts = new ArrayList<>();
+        int totalClasses = 0;
+
+        for (Map.Entry<Path, Map<String, byte[]>> input : inputEntries.entrySet()) {
+            HashMap<String, ContentHash> hashes = inputHashes.computeIfAbsent(input.getKey(), ignored -> new HashMap<>());
+
+            for (Map.Entry<String, byte[]> entry : input.getValue().entrySet()) {
+                if (!JarIO.isClass(entry.getKey())) {
+                    continue;
+                }
+
+                totalClasses++;
+                ContentHash hash = ContentHash.of(entry.getValue());
+                uniqueClasses.putIfAbsent(hash, entry.getValue());
+                hashes.put(entry.getKey(), hash);
+
+                ContentHash previous = namesToHash.putIfAbsent(entry.getKey(), hash);
+                if (previous == null) {
+                    hierarchyEntries.put(entry.getKey(), entry.getValue());
+                } else if (!previous.equals(hash)) {
+                    conflicts.add(entry.getKey());
+                }
+            }
+        }
+
+        /* Hierarchy */
+        HierarchyManager hierarchyManager = HierarchyChange.createHierarchy(hierarchyEntries, container).freeze();
+        Remapper remapper = hierarchyManager.getRemapper();
+
+        /* Remapping, MappingContext keeps track of the current class so every thread needs its own. The pool threads
+         * outlive the session, so their MappingChange's are kept here instead of in a ThreadLocal nothing removes. */
+        LocalNameTable localNameTable = container instanceof MappingTable mappingTable && mappingTable.getLocalNameTable().size() != 0
+                ? mappingTable.getLocalNameTable() : null;
+        ConcurrentHashMap<Thread, MappingChange> mappingChanges = new ConcurrentHashMap<>();
+        ConcurrentHashMap<ContentHash, byte[]> remappedClasses = new ConcurrentHashMap<>();
+
+        /* Classes that reference nothing remapped keep their entry name and bytes, and are never parsed any further.
+         * The scanner is asked directly instead of through MappingChange#setPreScanner, which only takes rename-only
+         * contexts, so classes that only have parameter names mapped are let through as well. */
+        ClassPreScanner preScanner = localNameTable == null ? new ClassPreScanner(hierarchyManager)
+                : new ClassPreScanner(name -> hierarchyManager.isAffected(name) || localNameTable.hasClass(name), DescriptorScanner.getInstance());
+        Set<ContentHash> passthroughClasses = ConcurrentHashMap.newKeySet();
+
+        try {
+            uniqueClasses.entrySet().parallelStream().forEach(entry -> {
+                if (!preScanner.needsRemapping(entry.getValue())) {
+                    passthroughClasses.add(entry.getKey());
+                    return;
+                }
+
+                MappingChange mappingChange = mappingChanges.computeIfAbsent(Thread.currentThread(), ignored ->
+                        new MappingChange(new MappingContext(remapper).setLocalNameTable(localNameTable)));
+                remappedClasses.put(entry.getKey(), mappingChange.remap(entry.getValue()));
+            });
+        } finally {
+            mappingChanges.clear();
+        }
+
+        /* Fan out */
+        try {
+            inputEntries.entrySet().parallelStream().forEach(input -> {
+                HashMap<String, ContentHash> hashes = inputHashes.get(input.getKey());
+                LinkedHashMap<String, byte[]> outputEntries = new LinkedHashMap<>();
+
+                for (Map.Entry<String, byte[]> entry : input.getValue().entrySet()) {
+                    String name = entry.getKey();
+                    if (!JarIO.isClass(name)) {
+                        outputEntries.put(name, entry.getValue());
+                        continue;
+                    }
+
+                    ContentHash hash = hashes.get(name);
+                    if (passthroughClasses.contains(hash)) {
+                        outputEntries.put(name, entry.getValue());
+                        continue;
+                    }
+
+                    String className = name.substring(0, name.length() - ".class".length());
+                    outputEntries.put(remapper.mapType(className) + ".class", remappedClasses.get(hash));
+                }
+
+                try {
+                    JarIO.writeJar(inputs.get(input.getKey()), outputEntries);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new SessionResult(inputs.size(), totalClasses, uniqueClasses.size(), preScanner.getSkippedClasses(),
+                preScanner.getRemappedClasses(), conflicts);
+    }
+
+    private static final class ContentHash {
+        private final byte[] digest;
+        private final int hashCode;
+
+        private ContentHash(byte[] digest) {
+            this.digest = digest;
+            this.hashCode = Arrays.hashCode(digest);
+        }
+
+        private static ContentHash of(byte[] bytes) {
+            try {
+                return new ContentHash(MessageDigest.getInstance("SHA-256").digest(bytes));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available.", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ContentHash && Arrays.equals(digest, ((ContentHash) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.session;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code SessionResult} describes what a {@linkplain RemapSession} did.
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class SessionResult {
+
+    private final int inputCount;
+    private final int totalClasses;
+    private final int uniqueClasses;
+    private final long skippedClasses;
+    private final long remappedClasses;
+    private final List<String> conflicts;
+
+    SessionResult(int inputCount, int totalClasses, int uniqueClasses, long skippedClasses, long remappedClasses,
+                  List<String> conflicts) {
+        this.inputCount = inputCount;
+        this.totalClasses = totalClasses;
+        this.uniqueClasses = uniqueClasses;
+        this.skippedClasses = skippedClasses;
+        this.remappedClasses = remappedClasses;
+        this.conflicts = Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * <h6>Gets the number of input jars of the session.
+     *
+     * @return The number of inputs.
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * <h6>Gets the number of classes across every input, counting shared classes once per input.
+     *
+     * @return The total number of classes.
+     */
+    public int getTotalClasses() {
+        return totalClasses;
+    }
+
+    /**
+     * <h6>Gets the number of byte-identical classes, each of them was either remapped or skipped once.
+     *
+     * @return The number of unique classes.
+     */
+    public int getUniqueClasses() {
+        return uniqueClasses;
+    }
+
+    /**
+     * <h6>Gets the number of unique classes that reference nothing remapped, they were written out unchanged.
+     *
+     * @return The number of skipped classes.
+     */
+    public long getSkippedClasses() {
+        return skippedClasses;
+    }
+
+    /**
+     * <h6>Gets the number of unique classes that were actually remapped.
+     *
+     * @return The number of remapped classes.
+     */
+    public long getRemappedClasses() {
+        return remappedClasses;
+    }
+
+    /**
+     * <h6>Gets the names of classes that appear in more than one input with different bytes.
+     *
+     * @return The conflicting class entries.
+     */
+    @NotNull
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionResult{" +
+                "inputCount=" + inputCount +
+                ", totalClasses=" + totalClasses +
+                ", uniqueClasses=" + uniqueClasses +
+                ", skippedClasses=" + skippedClasses +
+                ", remappedClasses=" + remappedClasses +
+                ", conflicts=" + conflicts +
+                '}';
+    }
+}
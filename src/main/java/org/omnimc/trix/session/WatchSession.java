@@ -0,0 +1,455 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package org.omnimc.trix.session;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.classfile.ClassPreScanner;
+import org.omnimc.trix.classfile.DescriptorScanner;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyChange;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.LocalNameTable;
+import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.mapping.MappingDiff;
+import org.omnimc.trix.mapping.MappingTable;
+import org.omnimc.trix.mapping.ProGuardReader;
+import org.omnimc.trix.mapping.TinyReader;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@code WatchSession} keeps the remapped version of a jar up to date while its mapping file is being edited.
+ *
+ * <p>The first version of the mappings is used the way a {@linkplain RemapSession} would, building a frozen base
+ * {@linkplain HierarchyManager} and remapping every class. After that the file is watched, and every time it is saved
+ * the new version is compared against the previous one in a {@linkplain MappingDiff}. Only the classes the change can
+ * reach, the ones with changed entries, the ones whose member descriptors name a renamed class and every subclass of
+ * either, since they inherit those members, are built again, as an overlay on the base hierarchy. Only the classes
+ * that name one of them are remapped again and written, everything else keeps the output it already has.</p>
+ *
+ * <p>The overlay always holds every change since the base was built, once it grows past a quarter of the classes the
+ * base is built again instead. Writing to a directory only touches the files of rewritten classes, a jar is written as
+ * a whole from the entries kept in memory.</p>
+ *
+ * <p>The parameter names of the mapping file are applied as well, an edit of them only rewrites the classes declaring
+ * the methods.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class WatchSession implements AutoCloseable {
+
+    /* Past this share of all classes, building the base again is cheaper than a large overlay. */
+    private static final int OVERLAY_DIVISOR = 4;
+    /* Editors often save a file in more than one write. */
+    private static final long QUIET_MILLIS = 50;
+
+    private final Path mappings;
+    private final MappingReader reader;
+    private final Path inputJar;
+    private final Path output;
+    private final boolean directoryOutput;
+    private Consumer<ReloadResult> listener = result -> {
+    };
+    private Consumer<Exception> errorListener = error -> {
+    };
+
+    private LinkedHashMap<String, byte[]> entries;
+    private final HashMap<String, String> classEntries = new HashMap<>();
+    private final HashMap<String, List<String>> subclasses = new HashMap<>();
+    private final HashMap<String, List<String>> descriptorUsers = new HashMap<>();
+
+    private MappingTable baseTable;
+    private HierarchyManager base;
+    private MappingTable table;
+    private HierarchyManager hierarchyManager;
+    private final HashMap<String, String> outputNames = new HashMap<>();
+    private final HashMap<String, byte[]> outputBytes = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    /**
+     * <h6>Creates a new {@code WatchSession}, reading {@code .tiny} files with a {@linkplain TinyReader} and any other
+     * file with a {@linkplain ProGuardReader}.
+     *
+     * @param mappings The mapping file to watch.
+     * @param inputJar The jar to remap.
+     * @param output   The jar to write, or a directory to write every entry of it to.
+     */
+    public WatchSession(@NotNull Path mappings, @NotNull Path inputJar, @NotNull Path output) {
+        this(mappings, mappings.getFileName().toString().endsWith(".tiny") ? new TinyReader()::readPath : new ProGuardReader()::readPath,
+                inputJar, output);
+    }
+
+    /**
+     * <h6>Creates a new {@code WatchSession}.
+     *
+     * @param mappings The mapping file to watch.
+     * @param reader   Reads every version of the mapping file.
+     * @param inputJar The jar to remap.
+     * @param output   The jar to write, or a directory to write every entry of it to.
+     */
+    public WatchSession(@NotNull Path mappings, @NotNull MappingReader reader, @NotNull Path inputJar, @NotNull Path output) {
+        this.mappings = mappings.toAbsolutePath();
+        this.reader = reader;
+        this.inputJar = inputJar;
+        this.output = output;
+        this.directoryOutput = Files.isDirectory(output) || !output.getFileName().toString().endsWith(".jar");
+    }
+
+    /**
+     * <h6>Sets what is told about every reload done while watching.
+     *
+     * @param listener Called with the result of each reload, on the thread watching the file.
+     * @return This {@code WatchSession}.
+     */
+    public WatchSession setListener(@NotNull Consumer<ReloadResult> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * <h6>Sets what is told about a reload done while watching that failed, such as for a file saved half way.
+     *
+     * <p>The session keeps watching, the next save reloads the file again.</p>
+     *
+     * @param errorListener Called with the {@linkplain IOException} or {@linkplain RuntimeException} of the reload, on
+     *                      the thread watching the file.
+     * @return This {@code WatchSession}.
+     */
+    public WatchSession setErrorListener(@NotNull Consumer<Exception> errorListener) {
+        this.errorListener = errorListener;
+        return this;
+    }
+
+    /**
+     * <h6>Remaps the whole jar with the current mappings, writes the output and starts watching the mapping file.
+     *
+     * @return The {@linkplain ReloadResult} of the first remap.
+     * @throws IOException           If the jar or mappings can't be read or the output can't be written.
+     * @throws IllegalStateException If this session was already started.
+     */
+    @NotNull
+    public synchronized ReloadResult start() throws IOException {
+        if (entries != null) {
+            throw new IllegalStateException("WatchSession was already started.");
+        }
+
+        long start = System.nanoTime();
+        entries = JarIO.readJar(inputJar);
+        readStructure();
+
+        table = reader.read(mappings);
+        baseTable = table;
+        base = HierarchyChange.createHierarchy(entries, table).freeze();
+        hierarchyManager = base;
+
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            outputNames.put(entry.getKey(), entry.getKey());
+            outputBytes.put(entry.getKey(), entry.getValue());
+        }
+        LocalNameTable localNameTable = table.getLocalNameTable();
+        HierarchyManager startHierarchy = hierarchyManager;
+        List<String> rewritten = remap(new ClassPreScanner(name -> startHierarchy.isAffected(name) || localNameTable.hasClass(name),
+                DescriptorScanner.getInstance()));
+        write(directoryOutput ? entries.keySet() : rewritten, Collections.emptyMap());
+
+        watchService = mappings.getFileSystem().newWatchService();
+        mappings.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcher = new Thread(this::watch, "Trix-WatchSession");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        MappingDiff diff = MappingDiff.of(table, table);
+        return new ReloadResult(diff, classEntries.size(), 0, rewritten.size(), elapsedMillis(start));
+    }
+
+    /**
+     * <h6>Reads the mapping file again and brings the output up to date with it, without waiting for it to change.
+     *
+     * @return The {@linkplain ReloadResult} of this reload.
+     * @throws IOException           If the mappings can't be read or the output can't be written.
+     * @throws IllegalStateException If this session wasn't started yet.
+     */
+    @NotNull
+    public synchronized ReloadResult reload() throws IOException {
+        if (entries == null) {
+            throw new IllegalStateException("WatchSession has to be started before it can reload.");
+        }
+
+        long start = System.nanoTime();
+        MappingTable next = reader.read(mappings);
+        MappingDiff diff = MappingDiff.of(table, next);
+        if (diff.isEmpty()) {
+            return new ReloadResult(diff, 0, hierarchyManager == base ? 0 : hierarchyManager.getClassFiles().size(), 0, elapsedMillis(start));
+        }
+
+        Set<String> affected = affectedBy(diff);
+
+        // The overlay is rebuilt against the base, so it never stacks on an older overlay.
+        Set<String> overlay = affectedBy(MappingDiff.of(baseTable, next));
+        overlay.retainAll(classEntries.keySet());
+
+        int overlayClasses;
+        if (overlay.size() > classEntries.size() / OVERLAY_DIVISOR) {
+            base = HierarchyChange.createHierarchy(entries, next).freeze();
+            baseTable = next;
+            hierarchyManager = base;
+            overlayClasses = -1;
+        } else if (overlay.isEmpty()) {
+            hierarchyManager = base;
+            overlayClasses = 0;
+        } else {
+            LinkedHashMap<String, byte[]> overlayEntries = new LinkedHashMap<>();
+            for (String className : overlay) {
+                String entryName = classEntries.get(className);
+                overlayEntries.put(entryName, entries.get(entryName));
+            }
+
+            hierarchyManager = HierarchyChange.createOverlay(base, overlayEntries, next).freeze();
+            overlayClasses = overlay.size();
+        }
+        table = next;
+
+        HashMap<String, String> previousNames = new HashMap<>();
+        List<String> rewritten = remap(new ClassPreScanner(affected::contains, DescriptorScanner.getInstance()), previousNames);
+        write(rewritten, previousNames);
+
+        return new ReloadResult(diff, affected.size(), overlayClasses, rewritten.size(), elapsedMillis(start));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!isMappingsChanged(watchService.take())) {
+                    continue;
+                }
+
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+
+                try {
+                    listener.accept(reload());
+                } catch (IOException | RuntimeException e) {
+                    // The file may be saved half way, the next save reloads it again.
+                    errorListener.accept(e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed.
+        }
+    }
+
+    private boolean isMappingsChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || mappings.getFileName().equals(event.context());
+        }
+
+        key.reset();
+        return changed;
+    }
+
+    /* Subclasses and the classes naming a class in a member descriptor, the ones whose hierarchy entries depend on
+     * it. */
+    private void readStructure() {
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            if (!JarIO.isClass(entry.getKey())) {
+                continue;
+            }
+
+            ClassReader reader = new ClassReader(entry.getValue());
+            String className = reader.getClassName();
+            classEntries.put(className, entry.getKey());
+
+            if (reader.getSuperName() != null) {
+                subclasses.computeIfAbsent(reader.getSuperName(), ignored -> new ArrayList<>()).add(className);
+            }
+            for (String anInterface : reader.getInterfaces()) {
+                subclasses.computeIfAbsent(anInterface, ignored -> new ArrayList<>()).add(className);
+            }
+
+            HashSet<String> referenced = new HashSet<>();
+            reader.accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    addClassNames(descriptor, referenced);
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    addClassNames(descriptor, referenced);
+                    return null;
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+            for (String name : referenced) {
+                descriptorUsers.computeIfAbsent(name, ignored -> new ArrayList<>()).add(className);
+            }
+        }
+    }
+
+    private static void addClassNames(String descriptor, Set<String> classNames) {
+        for (int i = 0; i < descriptor.length(); i++) {
+            if (descriptor.charAt(i) == 'L') {
+                int end = descriptor.indexOf(';', i);
+                classNames.add(descriptor.substring(i + 1, end));
+                i = end;
+            }
+        }
+    }
+
+    private Set<String> affectedBy(MappingDiff diff) {
+        ArrayDeque<String> pending = new ArrayDeque<>(diff.getChangedOwners());
+        for (String className : diff.getChangedClasses()) {
+            pending.add(className);
+            pending.addAll(descriptorUsers.getOrDefault(className, Collections.emptyList()));
+        }
+
+        HashSet<String> affected = new HashSet<>();
+        while (!pending.isEmpty()) {
+            String className = pending.poll();
+            if (affected.add(className)) {
+                pending.addAll(subclasses.getOrDefault(className, Collections.emptyList()));
+            }
+        }
+
+        return affected;
+    }
+
+    private List<String> remap(ClassPreScanner preScanner) {
+        return remap(preScanner, new HashMap<>());
+    }
+
+    /* Remaps every class the scanner lets through, gives back their entry names and fills in the output names they
+     * had before. */
+    private List<String> remap(ClassPreScanner preScanner, Map<String, String> previousNames) {
+        Remapper remapper = hierarchyManager.getRemapper();
+        LocalNameTable localNameTable = table.getLocalNameTable().size() == 0 ? null : table.getLocalNameTable();
+        /* One MappingChange per pool thread, dropped again once the reload is done. */
+        ConcurrentHashMap<Thread, MappingChange> mappingChanges = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, byte[]> remapped = new ConcurrentHashMap<>();
+
+        try {
+            classEntries.values().parallelStream().forEach(entryName -> {
+                byte[] classBytes = entries.get(entryName);
+                if (preScanner.needsRemapping(classBytes)) {
+                    MappingChange mappingChange = mappingChanges.computeIfAbsent(Thread.currentThread(), ignored ->
+                            new MappingChange(new MappingContext(remapper).setLocalNameTable(localNameTable)));
+                    remapped.put(entryName, mappingChange.remap(classBytes));
+                }
+            });
+        } finally {
+            mappingChanges.clear();
+        }
+
+        ArrayList<String> rewritten = new ArrayList<>(remapped.size());
+        for (Map.Entry<String, String> entry : classEntries.entrySet()) {
+            byte[] classBytes = remapped.get(entry.getValue());
+            if (classBytes == null) {
+                continue;
+            }
+
+            previousNames.put(entry.getValue(), outputNames.get(entry.getValue()));
+            outputNames.put(entry.getValue(), remapper.mapType(entry.getKey()) + ".class");
+            outputBytes.put(entry.getValue(), classBytes);
+            rewritten.add(entry.getValue());
+        }
+
+        return rewritten;
+    }
+
+    private void write(Collection<String> changedEntries, Map<String, String> previousNames) throws IOException {
+        if (!directoryOutput) {
+            LinkedHashMap<String, byte[]> outputEntries = new LinkedHashMap<>();
+            for (String entryName : entries.keySet()) {
+                outputEntries.put(outputNames.get(entryName), outputBytes.get(entryName));
+            }
+
+            JarIO.writeJar(output, outputEntries);
+            return;
+        }
+
+        // Every stale file goes first, a renamed class may now be written to the file another one just left.
+        HashSet<String> changedNames = new HashSet<>();
+        for (String entryName : changedEntries) {
+            changedNames.add(outputNames.get(entryName));
+        }
+        for (String previousName : previousNames.values()) {
+            if (previousName != null && !changedNames.contains(previousName)) {
+                Files.deleteIfExists(output.resolve(previousName));
+            }
+        }
+
+        for (String entryName : changedEntries) {
+            String outputName = outputNames.get(entryName);
+            Path file = output.resolve(outputName);
+            Files.createDirectories(file.getParent());
+            Files.write(file, outputBytes.get(entryName));
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * {@code MappingReader} reads one version of a mapping file, like {@linkplain ProGuardReader#readPath(Path)}.
+     */
+    @FunctionalInterface
+    public interface MappingReader {
+        @NotNull
+        MappingTable read(@NotNull Path path) throws IOException;
+    }
+}
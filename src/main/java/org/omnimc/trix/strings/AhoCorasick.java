@@ -0,0 +1,219 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.strings;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code AhoCorasick} is an Aho–Corasick automaton over a fixed set of patterns.
+ *
+ * <p>It finds every occurrence of every pattern in a text in a single pass, no matter how many patterns there are. After
+ * it is built the automaton is immutable and may be used by many threads at once. Transitions are kept in a single open
+ * addressing table keyed by state and character, so a lookup is one or two array reads.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class AhoCorasick {
+
+    private final String[] patterns;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] dictionary;
+    private final int minimumLength;
+
+    private final long[] transitionKeys;
+    private final int[] transitionStates;
+    private final int transitionMask;
+
+    /**
+     * <h6>Builds the automaton for the given patterns, duplicates and empty patterns are ignored.
+     *
+     * @param patterns The patterns to search for.
+     */
+    public AhoCorasick(@NotNull List<String> patterns) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        List<String> accepted = new ArrayList<>();
+        children.add(new HashMap<>());
+        outputs.add(-1);
+
+        int shortest = Integer.MAX_VALUE;
+        int transitionCount = 0;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                continue;
+            }
+
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.get(state).put(pattern.charAt(i), next);
+                    children.add(new HashMap<>());
+                    outputs.add(-1);
+                    transitionCount++;
+                }
+                state = next;
+            }
+
+            if (outputs.get(state) == -1) {
+                outputs.set(state, accepted.size());
+                accepted.add(pattern);
+                shortest = Math.min(shortest, pattern.length());
+            }
+        }
+
+        int stateCount = children.size();
+        this.patterns = accepted.toArray(new String[0]);
+        this.minimumLength = accepted.isEmpty() ? Integer.MAX_VALUE : shortest;
+        this.output = new int[stateCount];
+        this.fail = new int[stateCount];
+        this.dictionary = new int[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            output[i] = outputs.get(i);
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, transitionCount * 2 - 1)) << 1;
+        this.transitionKeys = new long[capacity];
+        this.transitionStates = new int[capacity];
+        this.transitionMask = capacity - 1;
+
+        // Breadth first, so the fail link of a state is always resolved before its children.
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        dictionary[0] = -1;
+        for (Map.Entry<Character, Integer> child : children.get(0).entrySet()) {
+            putTransition(0, child.getKey(), child.getValue());
+            fail[child.getValue()] = 0;
+            dictionary[child.getValue()] = -1;
+            queue.add(child.getValue());
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            for (Map.Entry<Character, Integer> child : children.get(state).entrySet()) {
+                char character = child.getKey();
+                int next = child.getValue();
+                putTransition(state, character, next);
+
+                int fallback = fail[state];
+                while (fallback != 0 && getTransition(fallback, character) == -1) {
+                    fallback = fail[fallback];
+                }
+                int target = getTransition(fallback, character);
+                fail[next] = target == -1 || target == next ? 0 : target;
+                dictionary[next] = output[fail[next]] != -1 ? fail[next] : dictionary[fail[next]];
+
+                queue.add(next);
+            }
+        }
+    }
+
+    private static long key(int state, char character) {
+        return ((long) state << 16 | character) + 1;
+    }
+
+    private static int hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void putTransition(int state, char character, int next) {
+        long key = key(state, character);
+        int slot = hash(key) & transitionMask;
+        while (transitionKeys[slot] != 0) {
+            slot = (slot + 1) & transitionMask;
+        }
+
+        transitionKeys[slot] = key;
+        transitionStates[slot] = next;
+    }
+
+    private int getTransition(int state, char character) {
+        long key = key(state, character);
+        int slot = hash(key) & transitionMask;
+        long found;
+        while ((found = transitionKeys[slot]) != 0) {
+            if (found == key) {
+                return transitionStates[slot];
+            }
+            slot = (slot + 1) & transitionMask;
+        }
+
+        return -1;
+    }
+
+    /**
+     * <h6>Reports every occurrence of every pattern in the text.
+     *
+     * @param text     The text to search.
+     * @param consumer Called with the start, end (exclusive) and pattern index of every match, in order of their end.
+     */
+    public void search(@NotNull CharSequence text, @NotNull MatchConsumer consumer) {
+        if (text.length() < minimumLength) {
+            return;
+        }
+
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+
+            int next;
+            while ((next = getTransition(state, character)) == -1 && state != 0) {
+                state = fail[state];
+            }
+            state = next == -1 ? 0 : next;
+
+            for (int match = output[state] != -1 ? state : dictionary[state]; match > 0; match = dictionary[match]) {
+                int pattern = output[match];
+                consumer.accept(i + 1 - patterns[pattern].length(), i + 1, pattern);
+            }
+        }
+    }
+
+    public String getPattern(int index) {
+        return patterns[index];
+    }
+
+    public int getPatternCount() {
+        return patterns.length;
+    }
+
+    /**
+     * Receives the matches of {@linkplain #search(CharSequence, MatchConsumer)}.
+     */
+    @FunctionalInterface
+    public interface MatchConsumer {
+        void accept(int start, int end, int pattern);
+    }
+}
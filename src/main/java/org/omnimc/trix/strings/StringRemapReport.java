@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.strings;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * {@code StringRemapReport} records every string a {@linkplain StringRemapper} changed, so reflection heavy code can
+ * be checked by hand afterwards. It is safe to add to from several threads.
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class StringRemapReport {
+
+    private final ConcurrentLinkedQueue<Replacement> replacements = new ConcurrentLinkedQueue<>();
+
+    void add(@Nullable String location, String original, String remapped) {
+        replacements.add(new Replacement(location, original, remapped));
+    }
+
+    public List<Replacement> getReplacements() {
+        return new ArrayList<>(replacements);
+    }
+
+    public int size() {
+        return replacements.size();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Replaced ").append(replacements.size()).append(" string(s)");
+        for (Replacement replacement : replacements) {
+            builder.append(System.lineSeparator()).append("  ").append(replacement);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * A single replaced string.
+     *
+     * @param location Where the string was found, may be {@code null}.
+     * @param original The string as it was.
+     * @param remapped The string as it was written.
+     */
+    public record Replacement(@Nullable String location, String original, String remapped) {
+        @Override
+        public String toString() {
+            return (location == null ? "" : location + ": ") + '"' + original + "\" -> \"" + remapped + '"';
+        }
+    }
+}
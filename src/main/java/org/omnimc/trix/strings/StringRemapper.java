@@ -0,0 +1,252 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.strings;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.hierarchy.info.FieldInfo;
+import org.omnimc.trix.hierarchy.info.MethodInfo;
+
+import java.util.*;
+
+/**
+ * {@code StringRemapper} rewrites obfuscated names inside string constants, such as the ones used for reflection.
+ *
+ * <p>All obfuscated class names, in both their slashed ({@code net/minecraft/a}) and dotted ({@code net.minecraft.a})
+ * form, and optionally member names, are compiled into a single {@linkplain AhoCorasick} automaton. Every string is then
+ * scanned once, in time linear to its length, no matter how many names there are.</p>
+ *
+ * <p>A name is only replaced where it stands on its own, i.e. it isn't directly preceded or followed by another
+ * identifier character, {@code /}, {@code .} or {@code $}. Where matches overlap the longest one starting first wins.
+ * Names without a package that are shorter than the {@linkplain Builder#setMinimumLength(int) minimum length} are
+ * left out. Every replacement is recorded in the {@linkplain #getReport() report}.</p>
+ *
+ * <p>This is opt-in, see {@linkplain org.omnimc.trix.contexts.MappingContext#setStringRemapper(StringRemapper)}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class StringRemapper {
+
+    private static final int DEFAULT_MINIMUM_LENGTH = 3;
+
+    private final AhoCorasick automaton;
+    private final String[] replacements;
+    private final StringRemapReport report = new StringRemapReport();
+
+    private StringRemapper(AhoCorasick automaton, String[] replacements) {
+        this.automaton = automaton;
+        this.replacements = replacements;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * <h6>Remaps the names inside a string.
+     *
+     * @param value    The string to remap.
+     * @param location Where the string was found, used for the report, may be {@code null}.
+     * @return The remapped string, or the same instance if nothing was replaced.
+     */
+    public String remap(@NotNull String value, @Nullable String location) {
+        // The longest match at each start, as its pattern index plus one.
+        final int[][] matches = {null};
+
+        automaton.search(value, (start, end, pattern) -> {
+            if (!isBoundary(value, start - 1) || !isBoundary(value, end)) {
+                return;
+            }
+
+            if (matches[0] == null) {
+                matches[0] = new int[value.length()];
+            }
+
+            int previous = matches[0][start];
+            if (previous == 0 || automaton.getPattern(previous - 1).length() < end - start) {
+                matches[0][start] = pattern + 1;
+            }
+        });
+
+        if (matches[0] == null) {
+            return value;
+        }
+
+        int[] found = matches[0];
+        StringBuilder builder = new StringBuilder(value.length() + 16);
+        int position = 0;
+        for (int start = 0; start < found.length; start++) {
+            if (found[start] == 0) {
+                continue;
+            }
+
+            int pattern = found[start] - 1;
+            builder.append(value, position, start).append(replacements[pattern]);
+            position = start + automaton.getPattern(pattern).length();
+            start = position - 1;
+        }
+        builder.append(value, position, value.length());
+
+        String remapped = builder.toString();
+        report.add(location, value, remapped);
+        return remapped;
+    }
+
+    private static boolean isBoundary(String value, int index) {
+        if (index < 0 || index >= value.length()) {
+            return true;
+        }
+
+        char character = value.charAt(index);
+        return !Character.isJavaIdentifierPart(character) && character != '/' && character != '.';
+    }
+
+    /**
+     * @return The {@linkplain StringRemapReport} of every replacement made so far.
+     */
+    public StringRemapReport getReport() {
+        return report;
+    }
+
+    public int getPatternCount() {
+        return automaton.getPatternCount();
+    }
+
+    /**
+     * Collects the names to replace and builds the {@linkplain StringRemapper}.
+     */
+    public static final class Builder {
+        private final LinkedHashMap<String, String> names = new LinkedHashMap<>();
+        private final Set<String> ambiguousMembers = new HashSet<>();
+        private final LinkedHashMap<String, String> members = new LinkedHashMap<>();
+        private int minimumLength = DEFAULT_MINIMUM_LENGTH;
+
+        private Builder() {
+        }
+
+        /**
+         * <h6>Adds a class, in both its slashed and dotted form.
+         *
+         * @param obfuscatedName The obfuscated internal name of the class.
+         * @param mappedName     The mapped internal name of the class.
+         * @return This {@linkplain Builder}.
+         */
+        public Builder addClass(@NotNull String obfuscatedName, @NotNull String mappedName) {
+            if (obfuscatedName.equals(mappedName)) {
+                return this;
+            }
+
+            names.put(obfuscatedName, mappedName);
+            if (obfuscatedName.indexOf('/') != -1) {
+                names.put(obfuscatedName.replace('/', '.'), mappedName.replace('/', '.'));
+            }
+            return this;
+        }
+
+        /**
+         * <h6>Adds a member name, names that map differently depending on their owner are left out.
+         *
+         * @param obfuscatedName The obfuscated name of the member.
+         * @param mappedName     The mapped name of the member.
+         * @return This {@linkplain Builder}.
+         */
+        public Builder addMember(@NotNull String obfuscatedName, @NotNull String mappedName) {
+            if (obfuscatedName.equals(mappedName) || obfuscatedName.startsWith("<") || ambiguousMembers.contains(obfuscatedName)) {
+                return this;
+            }
+
+            String previous = members.putIfAbsent(obfuscatedName, mappedName);
+            if (previous != null && !previous.equals(mappedName)) {
+                members.remove(obfuscatedName);
+                ambiguousMembers.add(obfuscatedName);
+            }
+            return this;
+        }
+
+        /**
+         * <h6>Adds every class of a {@linkplain HierarchyManager}, and optionally every member.
+         *
+         * @param hierarchyManager The {@linkplain HierarchyManager} to take the names from.
+         * @param includeMembers   {@code true} to also add field and method names.
+         * @return This {@linkplain Builder}.
+         */
+        public Builder addHierarchy(@NotNull HierarchyManager hierarchyManager, boolean includeMembers) {
+            for (Map.Entry<String, ClassInfo> entry : hierarchyManager.getClassFiles().entrySet()) {
+                ClassInfo classInfo = entry.getValue();
+                addClass(entry.getKey(), classInfo.getClassName());
+
+                if (!includeMembers) {
+                    continue;
+                }
+
+                for (FieldInfo field : classInfo.getFields().values()) {
+                    addMember(field.getObfuscatedName(), field.getFieldName());
+                }
+                for (FieldInfo field : classInfo.getPrivateFields().values()) {
+                    addMember(field.getObfuscatedName(), field.getFieldName());
+                }
+                for (MethodInfo method : classInfo.getMethods().values()) {
+                    addMember(method.getObfuscatedName(), method.getMethodName());
+                }
+                for (MethodInfo method : classInfo.getPrivateMethods().values()) {
+                    addMember(method.getObfuscatedName(), method.getMethodName());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * <h6>Sets the shortest name without a package that is replaced.
+         * <p>Obfuscated member and class names are often one or two letters long, and so are a lot of strings that
+         * have nothing to do with them. Names with a package are always replaced, they can hardly match by accident.</p>
+         *
+         * @param minimumLength The minimum length, {@code 3} by default.
+         * @return This {@linkplain Builder}.
+         */
+        public Builder setMinimumLength(int minimumLength) {
+            this.minimumLength = minimumLength;
+            return this;
+        }
+
+        public StringRemapper build() {
+            LinkedHashMap<String, String> all = new LinkedHashMap<>(members);
+            all.putAll(names); // Class names win over member names.
+
+            List<String> patterns = new ArrayList<>(all.size());
+            List<String> replacements = new ArrayList<>(all.size());
+            all.forEach((pattern, replacement) -> {
+                if (pattern.length() >= minimumLength || pattern.indexOf('/') != -1 || pattern.indexOf('.') != -1) {
+                    patterns.add(pattern);
+                    replacements.add(replacement);
+                }
+            });
+
+            return new StringRemapper(new AhoCorasick(patterns), replacements.toArray(new String[0]));
+        }
+    }
+}
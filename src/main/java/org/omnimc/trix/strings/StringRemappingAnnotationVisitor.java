@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.strings;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * {@code StringRemappingAnnotationVisitor} runs the string values of an annotation, including those in arrays and
+ * nested annotations, through a {@linkplain StringRemapper}.
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class StringRemappingAnnotationVisitor extends AnnotationVisitor {
+
+    private final StringRemapper stringRemapper;
+    private final String location;
+
+    public StringRemappingAnnotationVisitor(AnnotationVisitor annotationVisitor, StringRemapper stringRemapper, String location) {
+        super(Opcodes.ASM9, annotationVisitor);
+        this.stringRemapper = stringRemapper;
+        this.location = location;
+    }
+
+    /**
+     * <h6>Wraps an annotation visitor, {@code null} stays {@code null}.
+     *
+     * @param annotationVisitor The {@linkplain AnnotationVisitor} to wrap, may be {@code null}.
+     * @param stringRemapper    The {@linkplain StringRemapper} to remap with.
+     * @param location          Where the annotation was found, used for the report.
+     * @return The wrapped {@linkplain AnnotationVisitor}.
+     */
+    public static AnnotationVisitor wrap(AnnotationVisitor annotationVisitor, StringRemapper stringRemapper, String location) {
+        return annotationVisitor == null ? null : new StringRemappingAnnotationVisitor(annotationVisitor, stringRemapper, location);
+    }
+
+    @Override
+    public void visit(String name, Object value) {
+        if (value instanceof String string) {
+            value = stringRemapper.remap(string, location);
+        }
+
+        super.visit(name, value);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+        return wrap(super.visitAnnotation(name, descriptor), stringRemapper, location);
+    }
+
+    @Override
+    public AnnotationVisitor visitArray(String name) {
+        return wrap(super.visitArray(name), stringRemapper, location);
+    }
+}
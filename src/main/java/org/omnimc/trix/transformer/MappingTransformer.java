@@ -0,0 +1,878 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.transformer;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.*;
+import org.objectweb.asm.tree.*;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@code MappingTransformer} remaps a {@linkplain ClassNode} in place.
+ *
+ * <p>Tools that already hold a tree would otherwise have to write it to bytes, run it through the
+ * {@linkplain org.omnimc.trix.visitors.mapping.MappingClassVisitor} and parse it back. This transformer walks the tree
+ * instead and hands every class, member, instruction, frame, annotation and invokedynamic to the same
+ * {@linkplain IMappingContext} and {@linkplain IMethodContext} callbacks the visitor path uses. Their results are
+ * captured and written back into the existing nodes, so both paths always agree on what a remapped class looks
+ * like.</p>
+ *
+ * <p>A field, record component, method or try catch block the context doesn't pass on is removed from the tree, the
+ * same way the visitor path leaves it out of the class. If a context emits instructions, labels or try catch blocks of
+ * its own, they are inserted around the instruction it was given, in the order it emitted them. Instructions emitted outside an instruction callback have nowhere to go
+ * and are rejected with an {@linkplain IllegalStateException}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class MappingTransformer implements Transformer {
+
+    private final IMappingContext mappingContext;
+
+    /**
+     * <h6>Creates a new {@code MappingTransformer} remapping with the given context.
+     *
+     * @param mappingContext The {@linkplain IMappingContext} to remap with, e.g. a
+     *                       {@linkplain org.omnimc.trix.contexts.MappingContext}.
+     */
+    public MappingTransformer(@NotNull IMappingContext mappingContext) {
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public ClassNode transform(ClassNode classNode) {
+        ClassCapture capture = new ClassCapture(classNode);
+        final int callbacks = mappingContext.getCallbacks();
+
+        if ((callbacks & IMappingContext.VISIT) != 0) {
+            mappingContext.visit(classNode.version, classNode.access, classNode.name, classNode.signature, classNode.superName,
+                    classNode.interfaces == null ? null : classNode.interfaces.toArray(new String[0]), capture);
+        }
+
+        if (classNode.nestHostClass != null && (callbacks & IMappingContext.VISIT_NEST_HOST) != 0) {
+            mappingContext.visitNestHost(classNode.nestHostClass, capture);
+        }
+
+        if (classNode.outerClass != null && (callbacks & IMappingContext.VISIT_OUTER_CLASS) != 0) {
+            mappingContext.visitOuterClass(classNode.outerClass, classNode.outerMethod, classNode.outerMethodDesc, capture);
+        }
+
+        if ((callbacks & IMappingContext.VISIT_ANNOTATION) != 0) {
+            remapAnnotations(classNode.visibleAnnotations, capture, annotation -> mappingContext.visitAnnotation(annotation.desc, true, capture));
+            remapAnnotations(classNode.invisibleAnnotations, capture, annotation -> mappingContext.visitAnnotation(annotation.desc, false, capture));
+        }
+
+        if ((callbacks & IMappingContext.VISIT_TYPE_ANNOTATION) != 0) {
+            remapAnnotations(classNode.visibleTypeAnnotations, capture, annotation ->
+                    mappingContext.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true, capture));
+            remapAnnotations(classNode.invisibleTypeAnnotations, capture, annotation ->
+                    mappingContext.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false, capture));
+        }
+
+        if (classNode.nestMembers != null && (callbacks & IMappingContext.VISIT_NEST_MEMBER) != 0) {
+            for (int i = 0; i < classNode.nestMembers.size(); i++) {
+                mappingContext.visitNestMember(classNode.nestMembers.get(i), capture);
+                classNode.nestMembers.set(i, capture.value);
+            }
+        }
+
+        if (classNode.permittedSubclasses != null && (callbacks & IMappingContext.VISIT_PERMITTED_SUBCLASS) != 0) {
+            for (int i = 0; i < classNode.permittedSubclasses.size(); i++) {
+                mappingContext.visitPermittedSubclass(classNode.permittedSubclasses.get(i), capture);
+                classNode.permittedSubclasses.set(i, capture.value);
+            }
+        }
+
+        if ((callbacks & IMappingContext.VISIT_INNER_CLASS) != 0) {
+            for (InnerClassNode innerClass : classNode.innerClasses) {
+                capture.innerClass = innerClass;
+                mappingContext.visitInnerClass(innerClass.name, innerClass.outerName, innerClass.innerName, innerClass.access, capture);
+            }
+        }
+
+        if (classNode.recordComponents != null && (callbacks & IMappingContext.VISIT_RECORD_COMPONENT) != 0) {
+            for (Iterator<RecordComponentNode> iterator = classNode.recordComponents.iterator(); iterator.hasNext(); ) {
+                RecordComponentNode recordComponent = iterator.next();
+                capture.recordComponent = recordComponent;
+                capture.recordComponentSink = null;
+                RecordComponentVisitor recordComponentVisitor = mappingContext.visitRecordComponent(recordComponent.name,
+                        recordComponent.descriptor, recordComponent.signature, capture);
+
+                RecordComponentNode sink = capture.recordComponentSink;
+                if (sink == null) {
+                    iterator.remove();
+                    continue;
+                }
+
+                if (recordComponentVisitor != null) {
+                    replayAnnotations(recordComponent.visibleAnnotations, annotation -> recordComponentVisitor.visitAnnotation(annotation.desc, true));
+                    replayAnnotations(recordComponent.invisibleAnnotations, annotation -> recordComponentVisitor.visitAnnotation(annotation.desc, false));
+                    replayAnnotations(recordComponent.visibleTypeAnnotations, annotation ->
+                            recordComponentVisitor.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true));
+                    replayAnnotations(recordComponent.invisibleTypeAnnotations, annotation ->
+                            recordComponentVisitor.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false));
+                }
+
+                recordComponent.visibleAnnotations = sink.visibleAnnotations;
+                recordComponent.invisibleAnnotations = sink.invisibleAnnotations;
+                recordComponent.visibleTypeAnnotations = sink.visibleTypeAnnotations;
+                recordComponent.invisibleTypeAnnotations = sink.invisibleTypeAnnotations;
+            }
+        }
+
+        if ((callbacks & IMappingContext.VISIT_FIELD) != 0) {
+            for (Iterator<FieldNode> iterator = classNode.fields.iterator(); iterator.hasNext(); ) {
+                FieldNode field = iterator.next();
+                capture.field = field;
+                capture.fieldSink = null;
+                FieldVisitor fieldVisitor = mappingContext.visitField(field.access, field.name, field.desc, field.signature, field.value, capture);
+
+                FieldNode sink = capture.fieldSink;
+                if (sink == null) {
+                    iterator.remove();
+                    continue;
+                }
+
+                if (fieldVisitor != null) {
+                    replayAnnotations(field.visibleAnnotations, annotation -> fieldVisitor.visitAnnotation(annotation.desc, true));
+                    replayAnnotations(field.invisibleAnnotations, annotation -> fieldVisitor.visitAnnotation(annotation.desc, false));
+                    replayAnnotations(field.visibleTypeAnnotations, annotation ->
+                            fieldVisitor.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true));
+                    replayAnnotations(field.invisibleTypeAnnotations, annotation ->
+                            fieldVisitor.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false));
+                }
+
+                field.visibleAnnotations = sink.visibleAnnotations;
+                field.invisibleAnnotations = sink.invisibleAnnotations;
+                field.visibleTypeAnnotations = sink.visibleTypeAnnotations;
+                field.invisibleTypeAnnotations = sink.invisibleTypeAnnotations;
+            }
+        }
+
+        if ((callbacks & IMappingContext.VISIT_METHOD) != 0) {
+            for (Iterator<MethodNode> iterator = classNode.methods.iterator(); iterator.hasNext(); ) {
+                MethodNode method = iterator.next();
+                capture.method = method;
+                capture.methodWritten = false;
+                IMethodContext methodContext = mappingContext.visitMethod(method.access, method.name, method.desc, method.signature,
+                        method.exceptions == null ? null : method.exceptions.toArray(new String[0]), capture);
+
+                if (!capture.methodWritten) {
+                    iterator.remove();
+                    continue;
+                }
+
+                if (method.annotationDefault != null) {
+                    remapAnnotationDefault(method, methodContext.getParentVisitor(), capture.methodCapture);
+                }
+
+                if (methodContext.getCallbacks() != 0) {
+                    remapMethod(method, methodContext, capture.methodCapture);
+                }
+            }
+        }
+
+        return classNode;
+    }
+
+    private static void remapMethod(MethodNode method, IMethodContext methodContext, MethodCapture capture) {
+        final MethodVisitor parent = methodContext.getParentVisitor();
+        final int callbacks = methodContext.getCallbacks();
+        capture.begin(method.instructions);
+
+        if (method.parameters != null && (callbacks & IMethodContext.VISIT_PARAMETER) != 0) {
+            for (ParameterNode parameter : method.parameters) {
+                capture.parameter = parameter;
+                methodContext.visitParameter(parameter.name, parameter.access, parent);
+            }
+        }
+
+        if ((callbacks & IMethodContext.VISIT_ANNOTATION) != 0) {
+            remapAnnotations(method.visibleAnnotations, capture, annotation -> methodContext.visitAnnotation(annotation.desc, true, parent));
+            remapAnnotations(method.invisibleAnnotations, capture, annotation -> methodContext.visitAnnotation(annotation.desc, false, parent));
+        }
+
+        if ((callbacks & IMethodContext.VISIT_TYPE_ANNOTATION) != 0) {
+            remapAnnotations(method.visibleTypeAnnotations, capture, annotation ->
+                    methodContext.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true, parent));
+            remapAnnotations(method.invisibleTypeAnnotations, capture, annotation ->
+                    methodContext.visitTypeAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false, parent));
+        }
+
+        if ((callbacks & IMethodContext.VISIT_PARAMETER_ANNOTATION) != 0) {
+            remapParameterAnnotations(method.visibleParameterAnnotations, true, methodContext, capture);
+            remapParameterAnnotations(method.invisibleParameterAnnotations, false, methodContext, capture);
+        }
+
+        AbstractInsnNode instruction = method.instructions.getFirst();
+        while (instruction != null) {
+            final AbstractInsnNode next = instruction.getNext();
+            final AbstractInsnNode current = instruction;
+
+            if ((callbacks & getCallback(current.getType())) == 0) {
+                if ((callbacks & IMethodContext.VISIT_INSN_ANNOTATION) != 0) {
+                    remapInsnAnnotations(current, methodContext, capture);
+                }
+
+                instruction = next;
+                continue;
+            }
+
+            capture.target = current;
+            capture.written = false;
+
+            switch (current.getType()) {
+                case AbstractInsnNode.TYPE_INSN -> methodContext.visitTypeInsn(current.getOpcode(), ((TypeInsnNode) current).desc, parent);
+                case AbstractInsnNode.FIELD_INSN -> {
+                    FieldInsnNode fieldInsn = (FieldInsnNode) current;
+                    methodContext.visitFieldInsn(fieldInsn.getOpcode(), fieldInsn.owner, fieldInsn.name, fieldInsn.desc, parent);
+                }
+                case AbstractInsnNode.METHOD_INSN -> {
+                    MethodInsnNode methodInsn = (MethodInsnNode) current;
+                    methodContext.visitMethodInsn(methodInsn.getOpcode(), methodInsn.owner, methodInsn.name, methodInsn.desc, methodInsn.itf, parent);
+                }
+                case AbstractInsnNode.INVOKE_DYNAMIC_INSN -> {
+                    InvokeDynamicInsnNode indyInsn = (InvokeDynamicInsnNode) current;
+                    methodContext.visitInvokeDynamicInsn(indyInsn.name, indyInsn.desc, indyInsn.bsm, parent, indyInsn.bsmArgs);
+                }
+                case AbstractInsnNode.LDC_INSN -> methodContext.visitLdcInsn(((LdcInsnNode) current).cst, parent);
+                case AbstractInsnNode.MULTIANEWARRAY_INSN -> {
+                    MultiANewArrayInsnNode arrayInsn = (MultiANewArrayInsnNode) current;
+                    methodContext.visitMultiANewArrayInsn(arrayInsn.desc, arrayInsn.dims, parent);
+                }
+                case AbstractInsnNode.FRAME -> {
+                    FrameNode frame = (FrameNode) current;
+                    Object[] local = frame.local == null ? null : toFrameTypes(frame.local);
+                    Object[] stack = frame.stack == null ? null : toFrameTypes(frame.stack);
+                    methodContext.visitFrame(frame.type, local == null ? 0 : local.length, local, stack == null ? 0 : stack.length, stack, parent);
+                }
+            }
+
+            capture.finish();
+
+            if ((callbacks & IMethodContext.VISIT_INSN_ANNOTATION) != 0) {
+                remapInsnAnnotations(current, methodContext, capture);
+            }
+
+            instruction = next;
+        }
+
+        /* Blocks emitted while remapping instructions go last, like a MethodWriter would see them. */
+        List<TryCatchBlockNode> emittedTryCatchBlocks = capture.takeTryCatchBlocks();
+        List<TryCatchBlockNode> tryCatchBlocks = new ArrayList<>(method.tryCatchBlocks.size() + emittedTryCatchBlocks.size());
+        for (TryCatchBlockNode tryCatchBlock : method.tryCatchBlocks) {
+            capture.tryCatchBlock = tryCatchBlock;
+            capture.tryCatchBlockWritten = false;
+            if ((callbacks & IMethodContext.VISIT_TRY_CATCH_BLOCK) != 0) {
+                methodContext.visitTryCatchBlock(tryCatchBlock.start.getLabel(), tryCatchBlock.end.getLabel(), tryCatchBlock.handler.getLabel(), tryCatchBlock.type, parent);
+            } else {
+                capture.tryCatchBlockWritten = true;
+            }
+
+            if (capture.tryCatchBlockWritten) {
+                tryCatchBlocks.add(tryCatchBlock);
+            }
+            tryCatchBlocks.addAll(capture.takeTryCatchBlocks());
+
+            if (!capture.tryCatchBlockWritten || (callbacks & IMethodContext.VISIT_TRY_CATCH_ANNOTATION) == 0) {
+                continue;
+            }
+
+            remapAnnotations(tryCatchBlock.visibleTypeAnnotations, capture, annotation ->
+                    methodContext.visitTryCatchAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true, parent));
+            remapAnnotations(tryCatchBlock.invisibleTypeAnnotations, capture, annotation ->
+                    methodContext.visitTryCatchAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false, parent));
+        }
+        capture.tryCatchBlock = null;
+        tryCatchBlocks.addAll(emittedTryCatchBlocks);
+        method.tryCatchBlocks = tryCatchBlocks;
+
+        if (method.localVariables != null && (callbacks & IMethodContext.VISIT_LOCAL_VARIABLE) != 0) {
+            for (LocalVariableNode localVariable : method.localVariables) {
+                capture.localVariable = localVariable;
+                methodContext.visitLocalVariable(localVariable.name, localVariable.desc, localVariable.signature,
+                        localVariable.start.getLabel(), localVariable.end.getLabel(), localVariable.index, parent);
+            }
+        }
+
+        if ((callbacks & IMethodContext.VISIT_LOCAL_VARIABLE_ANNOTATION) != 0) {
+            remapLocalVariableAnnotations(method.visibleLocalVariableAnnotations, true, methodContext, capture);
+            remapLocalVariableAnnotations(method.invisibleLocalVariableAnnotations, false, methodContext, capture);
+        }
+    }
+
+    /* The default is held as the only value of an annotation without a descriptor, one value pair to replay. */
+    private static void remapAnnotationDefault(MethodNode method, MethodVisitor parent, MethodCapture capture) {
+        capture.setAnnotationSink(null);
+        AnnotationVisitor annotationVisitor = parent == null ? null : parent.visitAnnotationDefault();
+
+        AnnotationNode sink = capture.getAnnotationSink();
+        if (sink == null) {
+            return;
+        }
+
+        AnnotationNode annotationDefault = new AnnotationNode(Opcodes.ASM9, null);
+        annotationDefault.values = new ArrayList<>(Arrays.asList(null, method.annotationDefault));
+        if (annotationVisitor != null) {
+            annotationDefault.accept(annotationVisitor);
+        }
+
+        method.annotationDefault = sink.values == null ? null : sink.values.get(0);
+    }
+
+    private static int getCallback(int instructionType) {
+        return switch (instructionType) {
+            case AbstractInsnNode.TYPE_INSN -> IMethodContext.VISIT_TYPE_INSN;
+            case AbstractInsnNode.FIELD_INSN -> IMethodContext.VISIT_FIELD_INSN;
+            case AbstractInsnNode.METHOD_INSN -> IMethodContext.VISIT_METHOD_INSN;
+            case AbstractInsnNode.INVOKE_DYNAMIC_INSN -> IMethodContext.VISIT_INVOKE_DYNAMIC_INSN;
+            case AbstractInsnNode.LDC_INSN -> IMethodContext.VISIT_LDC_INSN;
+            case AbstractInsnNode.MULTIANEWARRAY_INSN -> IMethodContext.VISIT_MULTI_ANEW_ARRAY_INSN;
+            case AbstractInsnNode.FRAME -> IMethodContext.VISIT_FRAME;
+            default -> 0;
+        };
+    }
+
+    private static void remapInsnAnnotations(AbstractInsnNode instruction, IMethodContext methodContext, MethodCapture capture) {
+        remapAnnotations(instruction.visibleTypeAnnotations, capture, annotation ->
+                methodContext.visitInsnAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, true, methodContext.getParentVisitor()));
+        remapAnnotations(instruction.invisibleTypeAnnotations, capture, annotation ->
+                methodContext.visitInsnAnnotation(annotation.typeRef, annotation.typePath, annotation.desc, false, methodContext.getParentVisitor()));
+    }
+
+    private static void remapParameterAnnotations(List<AnnotationNode>[] parameterAnnotations, boolean visible, IMethodContext methodContext, MethodCapture capture) {
+        if (parameterAnnotations == null) {
+            return;
+        }
+
+        for (int parameter = 0; parameter < parameterAnnotations.length; parameter++) {
+            final int index = parameter;
+            remapAnnotations(parameterAnnotations[parameter], capture, annotation ->
+                    methodContext.visitParameterAnnotation(index, annotation.desc, visible, methodContext.getParentVisitor()));
+        }
+    }
+
+    private static void remapLocalVariableAnnotations(List<LocalVariableAnnotationNode> annotations, boolean visible, IMethodContext methodContext, MethodCapture capture) {
+        remapAnnotations(annotations, capture, annotation -> methodContext.visitLocalVariableAnnotation(annotation.typeRef, annotation.typePath,
+                labels(annotation.start), labels(annotation.end), annotation.index.stream().mapToInt(Integer::intValue).toArray(),
+                annotation.desc, visible, methodContext.getParentVisitor()));
+    }
+
+    /* FrameNode keeps uninitialized types as LabelNodes, visitors expect the Label. */
+    private static Object[] toFrameTypes(List<Object> types) {
+        Object[] frameTypes = types.toArray();
+        for (int i = 0; i < frameTypes.length; i++) {
+            if (frameTypes[i] instanceof LabelNode labelNode) {
+                frameTypes[i] = labelNode.getLabel();
+            }
+        }
+        return frameTypes;
+    }
+
+    private static Label[] labels(List<LabelNode> labelNodes) {
+        Label[] labels = new Label[labelNodes.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = labelNodes.get(i).getLabel();
+        }
+        return labels;
+    }
+
+    private static <T extends AnnotationNode> void replayAnnotations(List<T> annotations, Function<T, AnnotationVisitor> visit) {
+        if (annotations == null) {
+            return;
+        }
+
+        for (T annotation : annotations) {
+            annotation.accept(visit.apply(annotation));
+        }
+    }
+
+    /**
+     * Hands an annotation to the context, replays its values into whatever visitor the context returned and copies
+     * the captured descriptor and values back into the original node.
+     */
+    private static <T extends AnnotationNode> void remapAnnotations(List<T> annotations, AnnotationCapture capture, Function<T, AnnotationVisitor> visit) {
+        if (annotations == null) {
+            return;
+        }
+
+        for (T annotation : annotations) {
+            capture.setAnnotationSink(null);
+            AnnotationVisitor annotationVisitor = visit.apply(annotation);
+
+            AnnotationNode sink = capture.getAnnotationSink();
+            if (sink == null) {
+                continue;
+            }
+
+            if (annotationVisitor != null) {
+                annotation.accept(annotationVisitor);
+            }
+
+            annotation.desc = sink.desc;
+            annotation.values = sink.values;
+        }
+    }
+
+    private interface AnnotationCapture {
+        AnnotationNode getAnnotationSink();
+
+        void setAnnotationSink(AnnotationNode annotationSink);
+    }
+
+    /**
+     * Receives the remapped class level calls of the context and writes them into the {@linkplain ClassNode}.
+     */
+    private static final class ClassCapture extends ClassVisitor implements AnnotationCapture {
+        private final ClassNode classNode;
+        private final MethodCapture methodCapture = new MethodCapture();
+
+        private String value;
+        private InnerClassNode innerClass;
+        private RecordComponentNode recordComponent;
+        private FieldNode field;
+        private MethodNode method;
+        private boolean methodWritten;
+        private RecordComponentNode recordComponentSink;
+        private FieldNode fieldSink;
+        private AnnotationNode annotationSink;
+
+        private ClassCapture(ClassNode classNode) {
+            super(Opcodes.ASM9);
+            this.classNode = classNode;
+        }
+
+        @Override
+        public AnnotationNode getAnnotationSink() {
+            return annotationSink;
+        }
+
+        @Override
+        public void setAnnotationSink(AnnotationNode annotationSink) {
+            this.annotationSink = annotationSink;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            classNode.version = version;
+            classNode.access = access;
+            classNode.name = name;
+            classNode.signature = signature;
+            classNode.superName = superName;
+            classNode.interfaces = interfaces == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(interfaces));
+        }
+
+        @Override
+        public void visitNestHost(String nestHost) {
+            classNode.nestHostClass = nestHost;
+        }
+
+        @Override
+        public void visitOuterClass(String owner, String name, String descriptor) {
+            classNode.outerClass = owner;
+            classNode.outerMethod = name;
+            classNode.outerMethodDesc = descriptor;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public void visitNestMember(String nestMember) {
+            value = nestMember;
+        }
+
+        @Override
+        public void visitPermittedSubclass(String permittedSubclass) {
+            value = permittedSubclass;
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            innerClass.name = name;
+            innerClass.outerName = outerName;
+            innerClass.innerName = innerName;
+            innerClass.access = access;
+        }
+
+        @Override
+        public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+            recordComponent.name = name;
+            recordComponent.descriptor = descriptor;
+            recordComponent.signature = signature;
+            recordComponentSink = new RecordComponentNode(Opcodes.ASM9, name, descriptor, signature);
+            return recordComponentSink;
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            field.access = access;
+            field.name = name;
+            field.desc = descriptor;
+            field.signature = signature;
+            field.value = value;
+            fieldSink = new FieldNode(Opcodes.ASM9, access, name, descriptor, signature, value);
+            return fieldSink;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            method.access = access;
+            method.name = name;
+            method.desc = descriptor;
+            method.signature = signature;
+            method.exceptions = exceptions == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(exceptions));
+            methodWritten = true;
+            return methodCapture;
+        }
+    }
+
+    /**
+     * Receives the remapped method level calls of the context and writes them into the current node. Calls that
+     * don't match the current instruction are collected and spliced in around it, before it if they came before the
+     * context wrote it and after it otherwise.
+     */
+    private static final class MethodCapture extends MethodVisitor implements AnnotationCapture {
+        private InsnList instructions;
+        private AbstractInsnNode target;
+        private boolean written;
+        private MethodNode emitted;
+
+        private ParameterNode parameter;
+        private TryCatchBlockNode tryCatchBlock;
+        private boolean tryCatchBlockWritten;
+        private List<TryCatchBlockNode> emittedTryCatchBlocks = new ArrayList<>();
+        private LocalVariableNode localVariable;
+        private AnnotationNode annotationSink;
+
+        private MethodCapture() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public AnnotationNode getAnnotationSink() {
+            return annotationSink;
+        }
+
+        @Override
+        public void setAnnotationSink(AnnotationNode annotationSink) {
+            this.annotationSink = annotationSink;
+        }
+
+        private boolean claim(int type) {
+            if (written || target == null || target.getType() != type) {
+                return false;
+            }
+
+            if (emitted != null) {
+                instructions.insertBefore(target, emitted.instructions);
+            }
+            written = true;
+            return true;
+        }
+
+        private MethodVisitor emitted() {
+            if (target == null) {
+                throw new IllegalStateException("Instructions can only be emitted while remapping an instruction");
+            }
+
+            if (emitted == null) {
+                emitted = new MethodNode(Opcodes.ASM9);
+            }
+            return emitted;
+        }
+
+        private void finish() {
+            if (emitted != null) {
+                if (written) {
+                    instructions.insert(target, emitted.instructions);
+                } else {
+                    instructions.insertBefore(target, emitted.instructions);
+                }
+            }
+
+            if (!written) {
+                instructions.remove(target);
+            }
+
+            target = null;
+            emitted = null;
+        }
+
+        /* LabelNode#getLabel() doesn't link the label back to its node, so the labels the context gets are linked here. */
+        private void begin(InsnList instructions) {
+            this.instructions = instructions;
+            for (AbstractInsnNode instruction : instructions) {
+                if (instruction instanceof LabelNode labelNode) {
+                    labelNode.getLabel().info = labelNode;
+                }
+            }
+        }
+
+        private List<TryCatchBlockNode> takeTryCatchBlocks() {
+            if (emittedTryCatchBlocks.isEmpty()) {
+                return List.of();
+            }
+
+            List<TryCatchBlockNode> tryCatchBlocks = emittedTryCatchBlocks;
+            emittedTryCatchBlocks = new ArrayList<>();
+            return tryCatchBlocks;
+        }
+
+        private static List<Object> toFrameNodeTypes(Object[] types, int count) {
+            List<Object> frameNodeTypes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                frameNodeTypes.add(types[i] instanceof Label label ? getLabelNode(label) : types[i]);
+            }
+            return frameNodeTypes;
+        }
+
+        private static LabelNode getLabelNode(Label label) {
+            if (!(label.info instanceof LabelNode)) {
+                label.info = new LabelNode();
+            }
+            return (LabelNode) label.info;
+        }
+
+        @Override
+        public void visitTypeInsn(int opcode, String type) {
+            if (claim(AbstractInsnNode.TYPE_INSN)) {
+                TypeInsnNode typeInsn = (TypeInsnNode) target;
+                typeInsn.setOpcode(opcode);
+                typeInsn.desc = type;
+                return;
+            }
+            emitted().visitTypeInsn(opcode, type);
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (claim(AbstractInsnNode.FIELD_INSN)) {
+                FieldInsnNode fieldInsn = (FieldInsnNode) target;
+                fieldInsn.setOpcode(opcode);
+                fieldInsn.owner = owner;
+                fieldInsn.name = name;
+                fieldInsn.desc = descriptor;
+                return;
+            }
+            emitted().visitFieldInsn(opcode, owner, name, descriptor);
+        }
+
+        @Override
+        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+            if (claim(AbstractInsnNode.METHOD_INSN)) {
+                MethodInsnNode methodInsn = (MethodInsnNode) target;
+                methodInsn.setOpcode(opcode);
+                methodInsn.owner = owner;
+                methodInsn.name = name;
+                methodInsn.desc = descriptor;
+                methodInsn.itf = isInterface;
+                return;
+            }
+            emitted().visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+        }
+
+        @Override
+        public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+            if (claim(AbstractInsnNode.INVOKE_DYNAMIC_INSN)) {
+                InvokeDynamicInsnNode indyInsn = (InvokeDynamicInsnNode) target;
+                indyInsn.name = name;
+                indyInsn.desc = descriptor;
+                indyInsn.bsm = bootstrapMethodHandle;
+                indyInsn.bsmArgs = bootstrapMethodArguments;
+                return;
+            }
+            emitted().visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+        }
+
+        @Override
+        public void visitLdcInsn(Object value) {
+            if (claim(AbstractInsnNode.LDC_INSN)) {
+                ((LdcInsnNode) target).cst = value;
+                return;
+            }
+            emitted().visitLdcInsn(value);
+        }
+
+        @Override
+        public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+            if (claim(AbstractInsnNode.MULTIANEWARRAY_INSN)) {
+                MultiANewArrayInsnNode arrayInsn = (MultiANewArrayInsnNode) target;
+                arrayInsn.desc = descriptor;
+                arrayInsn.dims = numDimensions;
+                return;
+            }
+            emitted().visitMultiANewArrayInsn(descriptor, numDimensions);
+        }
+
+        @Override
+        public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack) {
+            if (claim(AbstractInsnNode.FRAME)) {
+                FrameNode frame = (FrameNode) target;
+                frame.type = type;
+                frame.local = local == null ? null : toFrameNodeTypes(local, numLocal);
+                frame.stack = stack == null ? null : toFrameNodeTypes(stack, numStack);
+                return;
+            }
+            emitted().visitFrame(type, numLocal, local, numStack, stack);
+        }
+
+        @Override
+        public void visitInsn(int opcode) {
+            emitted().visitInsn(opcode);
+        }
+
+        @Override
+        public void visitIntInsn(int opcode, int operand) {
+            emitted().visitIntInsn(opcode, operand);
+        }
+
+        @Override
+        public void visitVarInsn(int opcode, int varIndex) {
+            emitted().visitVarInsn(opcode, varIndex);
+        }
+
+        @Override
+        public void visitJumpInsn(int opcode, Label label) {
+            emitted().visitJumpInsn(opcode, label);
+        }
+
+        @Override
+        public void visitLabel(Label label) {
+            LabelNode labelNode = getLabelNode(label);
+            if (labelNode.getPrevious() != null || labelNode.getNext() != null || instructions.getFirst() == labelNode) {
+                throw new IllegalStateException("Label " + label + " is already placed in the method");
+            }
+            emitted().visitLabel(label);
+        }
+
+        @Override
+        public void visitIincInsn(int varIndex, int increment) {
+            emitted().visitIincInsn(varIndex, increment);
+        }
+
+        @Override
+        public void visitTableSwitchInsn(int min, int max, Label dflt, Label... labels) {
+            emitted().visitTableSwitchInsn(min, max, dflt, labels);
+        }
+
+        @Override
+        public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+            emitted().visitLookupSwitchInsn(dflt, keys, labels);
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            emitted().visitLineNumber(line, start);
+        }
+
+        @Override
+        public void visitParameter(String name, int access) {
+            parameter.name = name;
+            parameter.access = access;
+        }
+
+        @Override
+        public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+            if (tryCatchBlock != null && !tryCatchBlockWritten) {
+                tryCatchBlock.start = getLabelNode(start);
+                tryCatchBlock.end = getLabelNode(end);
+                tryCatchBlock.handler = getLabelNode(handler);
+                tryCatchBlock.type = type;
+                tryCatchBlockWritten = true;
+                return;
+            }
+            emittedTryCatchBlocks.add(new TryCatchBlockNode(getLabelNode(start), getLabelNode(end), getLabelNode(handler), type));
+        }
+
+        @Override
+        public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+            localVariable.name = name;
+            localVariable.desc = descriptor;
+            localVariable.signature = signature;
+            localVariable.start = getLabelNode(start);
+            localVariable.end = getLabelNode(end);
+            localVariable.index = index;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotationDefault() {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, null);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+
+        @Override
+        public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+            annotationSink = new AnnotationNode(Opcodes.ASM9, descriptor);
+            return annotationSink;
+        }
+    }
+}
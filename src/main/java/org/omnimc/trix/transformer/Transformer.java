@@ -34,4 +34,17 @@ public interface Transformer {
 
     ClassNode transform(ClassNode classNode);
 
+    /**
+     * <h6>Checks if this transformer wants to change the given class.
+     *
+     * <p>This is asked before the class is parsed into a {@linkplain ClassNode}, so it should be cheap, like a
+     * name or package check. A {@linkplain TransformerPipeline} skips building the tree entirely when no transformer
+     * targets a class.</p>
+     *
+     * @param className The internal name of the class.
+     * @return {@code true} if {@linkplain #transform(ClassNode)} should be called for the class.
+     */
+    default boolean isTarget(String className) {
+        return true;
+    }
 }
\ No newline at end of file
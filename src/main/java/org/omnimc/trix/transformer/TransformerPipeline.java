@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.transformer;
+
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.omnimc.asm.changes.IClassChange;
+import org.omnimc.asm.file.ClassFile;
+import org.omnimc.trix.hierarchy.Hierarchy;
+import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.mapping.RemapProfile;
+
+import java.util.ArrayList;
+
+/**
+ * {@code TransformerPipeline} runs an ordered list of {@linkplain Transformer}s and the mapping step over a class in
+ * a single parse and a single write.
+ *
+ * <p>The class is parsed into a {@linkplain ClassNode} once, every targeting transformer changes that node in turn,
+ * and the node is then streamed through the {@linkplain MappingChange} straight into the
+ * {@linkplain org.objectweb.asm.ClassWriter}. When no transformer {@linkplain Transformer#isTarget(String) targets} a
+ * class, no tree is built at all and the class is remapped straight from its {@linkplain ClassReader}.</p>
+ *
+ * <p>Classes that went through a transformer may have had their code changed, so they are always written with
+ * {@linkplain RemapProfile#RECOMPUTE}. Every other class uses the profile of the {@linkplain MappingChange}.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public class TransformerPipeline implements IClassChange {
+
+    private final MappingChange mappingChange;
+    private final ArrayList<Transformer> transformers = new ArrayList<>();
+
+    /**
+     * <h6>Creates a new {@code TransformerPipeline} that ends with the given mapping step.
+     *
+     * @param mappingChange The {@linkplain MappingChange} to run after every transformer.
+     */
+    public TransformerPipeline(@NotNull MappingChange mappingChange) {
+        this.mappingChange = mappingChange;
+    }
+
+    /**
+     * <h6>Adds a transformer to the end of the pipeline.
+     *
+     * @param transformer The {@linkplain Transformer} to add.
+     * @return This {@code TransformerPipeline}.
+     */
+    public TransformerPipeline addTransformer(@NotNull Transformer transformer) {
+        transformers.add(transformer);
+        return this;
+    }
+
+    @Override
+    public ClassFile applyChange(String name, byte[] classBytes) {
+        if (name.contains(".class")) {
+            name = name.replace(".class", "");
+        }
+
+        return new ClassFile(name, transform(classBytes));
+    }
+
+    /**
+     * <h6>Runs every targeting transformer and the mapping step over a single class.
+     *
+     * @param classBytes The bytes of the class.
+     * @return The transformed and remapped class bytes.
+     */
+    public byte[] transform(byte[] classBytes) {
+        ClassReader reader = new ClassReader(classBytes);
+        final String className = reader.getClassName();
+        final Hierarchy hierarchy = Hierarchy.getHierarchy(reader);
+
+        ClassNode classNode = null;
+        for (Transformer transformer : transformers) {
+            if (!transformer.isTarget(className)) {
+                continue;
+            }
+
+            if (classNode == null) {
+                classNode = hierarchy.getSharedClassNode(RemapProfile.RECOMPUTE.getReaderFlags());
+            }
+
+            classNode = transformer.transform(classNode);
+        }
+
+        return classNode == null ? mappingChange.remap(reader) : mappingChange.remap(classNode, RemapProfile.RECOMPUTE);
+    }
+}
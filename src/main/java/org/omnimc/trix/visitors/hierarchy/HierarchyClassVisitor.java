@@ -33,6 +33,7 @@ import org.omnimc.lumina.paser.MappingContainer;
 import org.omnimc.trix.TrixRemapper;
 import org.omnimc.trix.hierarchy.HierarchyManager;
 import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.mapping.MappingLookup;
 
 import static org.omnimc.asm.access.AccessFlagChecker.isPrivatePresent;
 
@@ -51,7 +52,7 @@ import static org.omnimc.asm.access.AccessFlagChecker.isPrivatePresent;
 public class HierarchyClassVisitor extends ClassVisitor {
 
     private final HierarchyManager hierarchyManager;
-    private final MappingContainer container;
+    private final MappingLookup container;
 
     private final Remapper remapper;
 
@@ -67,10 +68,22 @@ public class HierarchyClassVisitor extends ClassVisitor {
      * @param container        The {@linkplain MappingContainer} for mapping names and descriptors.
      */
     public HierarchyClassVisitor(ClassVisitor classVisitor, HierarchyManager hierarchyManager, MappingContainer container) {
+        this(classVisitor, hierarchyManager, MappingLookup.of(container));
+    }
+
+    /**
+     * <h6>Constructs a new {@code HierarchyClassVisitor} that will use the given {@linkplain HierarchyManager} and
+     * {@linkplain MappingLookup}.
+     *
+     * @param classVisitor     The parent {@linkplain ClassVisitor} to use.
+     * @param hierarchyManager The {@linkplain HierarchyManager} to update with class information.
+     * @param lookup           The {@linkplain MappingLookup} for mapping names and descriptors.
+     */
+    public HierarchyClassVisitor(ClassVisitor classVisitor, HierarchyManager hierarchyManager, MappingLookup lookup) {
         super(Opcodes.ASM9, classVisitor);
-        this.container = container;
+        this.container = lookup;
         this.hierarchyManager = hierarchyManager;
-        this.remapper = new TrixRemapper(container);
+        this.remapper = new TrixRemapper(lookup);
     }
 
     /**
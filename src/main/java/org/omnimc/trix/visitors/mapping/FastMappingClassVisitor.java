@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.visitors.mapping;
+
+import org.objectweb.asm.*;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.contexts.MethodContext;
+
+/**
+ * {@code FastMappingClassVisitor} is the devirtualized counterpart of {@linkplain MappingClassVisitor}.
+ *
+ * <p>It only works with the default {@linkplain MappingContext} and calls it directly instead of going through
+ * {@linkplain org.omnimc.trix.contexts.interfaces.IMappingContext}. Method bodies are handled by a single
+ * {@linkplain FastMappingMethodVisitor} and {@linkplain MethodContext} that are reused for every method of the class,
+ * so no objects are created per method unless it has parameter names to apply. The output is identical to the
+ * pluggable path.</p>
+ *
+ * <p>Like the {@linkplain MappingContext} it wraps, an instance must only be used for one class at a time.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class FastMappingClassVisitor extends ClassVisitor {
+
+    private final MappingContext mappingContext;
+    private FastMappingMethodVisitor methodVisitor;
+
+    public FastMappingClassVisitor(ClassVisitor classVisitor, MappingContext mappingContext) {
+        super(Opcodes.ASM9, classVisitor);
+        this.mappingContext = mappingContext;
+    }
+
+
+    /* Class changes */
+
+    @Override
+    public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        mappingContext.visit(version, access, name, signature, superName, interfaces, cv);
+    }
+
+    @Override
+    public void visitOuterClass(String owner, String name, String descriptor) {
+        mappingContext.visitOuterClass(owner, name, descriptor, cv);
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName, String innerName, int access) {
+        mappingContext.visitInnerClass(name, outerName, innerName, access, cv);
+    }
+
+    @Override
+    public void visitPermittedSubclass(String permittedSubclass) {
+        mappingContext.visitPermittedSubclass(permittedSubclass, cv);
+    }
+
+    @Override
+    public void visitNestHost(String nestHost) {
+        mappingContext.visitNestHost(nestHost, cv);
+    }
+
+    @Override
+    public void visitNestMember(String nestMember) {
+        mappingContext.visitNestMember(nestMember, cv);
+    }
+
+    @Override
+    public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+        return mappingContext.visitRecordComponent(name, descriptor, signature, cv);
+    }
+
+
+    /* Field and Method Changes */
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        return mappingContext.visitField(access, name, descriptor, signature, value, cv);
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        MethodVisitor parentVisitor = mappingContext.visitMethodHeader(access, name, descriptor, signature, exceptions, cv);
+        if (parentVisitor == null || mappingContext.isMethodBodyUnchanged()) {
+            return parentVisitor;
+        }
+
+        if (mappingContext.hasMethodLocalNames()) {
+            // Methods with names of their own are rare, they get their own context rather than the shared one.
+            return new FastMappingMethodVisitor(mappingContext.createMethodContext(parentVisitor)).reset(parentVisitor);
+        }
+
+        if (methodVisitor == null) {
+            // Created once the class has been visited, so the context knows which class it is in.
+            methodVisitor = new FastMappingMethodVisitor(mappingContext.createMethodContext(null));
+        }
+
+        return methodVisitor.reset(parentVisitor);
+    }
+
+
+    /* Annotation Changes */
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return mappingContext.visitTypeAnnotation(typeRef, typePath, descriptor, visible, cv);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return mappingContext.visitAnnotation(descriptor, visible, cv);
+    }
+}
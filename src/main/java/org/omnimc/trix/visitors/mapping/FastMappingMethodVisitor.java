@@ -0,0 +1,138 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 OmniMC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.omnimc.trix.visitors.mapping;
+
+import org.objectweb.asm.*;
+import org.omnimc.trix.contexts.MethodContext;
+
+/**
+ * {@code FastMappingMethodVisitor} is the devirtualized counterpart of {@linkplain MappingMethodVisitor}.
+ *
+ * <p>It calls a concrete {@linkplain MethodContext} directly and is {@linkplain #reset(MethodVisitor) reset} by its
+ * {@linkplain FastMappingClassVisitor} for every method, instead of being created again.</p>
+ *
+ * @author <b><a href="https://github.com/CadenCCC">Caden</a></b>
+ * @since 1.0.0
+ */
+public final class FastMappingMethodVisitor extends MethodVisitor {
+
+    private final MethodContext methodContext;
+
+    FastMappingMethodVisitor(MethodContext methodContext) {
+        super(Opcodes.ASM9);
+        this.methodContext = methodContext;
+    }
+
+    /**
+     * <h6>Points this visitor at the {@linkplain MethodVisitor} of the next method.
+     *
+     * @param parentVisitor The {@linkplain MethodVisitor} to forward the remapped method to.
+     * @return This visitor.
+     */
+    FastMappingMethodVisitor reset(MethodVisitor parentVisitor) {
+        this.mv = parentVisitor;
+        return this;
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
+        methodContext.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, mv, bootstrapMethodArguments);
+    }
+
+    @Override
+    public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+        methodContext.visitLocalVariable(name, descriptor, signature, start, end, index, mv);
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        methodContext.visitLdcInsn(value, mv);
+    }
+
+    @Override
+    public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack) {
+        methodContext.visitFrame(type, numLocal, local, numStack, stack, mv);
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        methodContext.visitTypeInsn(opcode, type, mv);
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        methodContext.visitFieldInsn(opcode, owner, name, descriptor, mv);
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        methodContext.visitMethodInsn(opcode, owner, name, descriptor, isInterface, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+        return methodContext.visitLocalVariableAnnotation(typeRef, typePath, start, end, index, descriptor, visible, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return methodContext.visitInsnAnnotation(typeRef, typePath, descriptor, visible, mv);
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        methodContext.visitTryCatchBlock(start, end, handler, type, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return methodContext.visitTypeAnnotation(typeRef, typePath, descriptor, visible, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+        return methodContext.visitParameterAnnotation(parameter, descriptor, visible, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return methodContext.visitAnnotation(descriptor, visible, mv);
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        methodContext.visitMultiANewArrayInsn(descriptor, numDimensions, mv);
+    }
+
+    @Override
+    public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        return methodContext.visitTryCatchAnnotation(typeRef, typePath, descriptor, visible, mv);
+    }
+
+    @Override
+    public void visitParameter(String name, int access) {
+        methodContext.visitParameter(name, access, mv);
+    }
+}
@@ -35,10 +35,12 @@ import org.omnimc.trix.contexts.interfaces.IMethodContext;
 public class MappingClassVisitor extends ClassVisitor {
 
     private final IMappingContext mappingContext;
+    private final int callbacks;
 
     public MappingClassVisitor(ClassVisitor classVisitor, IMappingContext mappingContext) {
         super(Opcodes.ASM9, classVisitor);
         this.mappingContext = mappingContext;
+        this.callbacks = mappingContext.getCallbacks();
     }
 
 
@@ -62,6 +64,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+        if ((callbacks & IMappingContext.VISIT) == 0) {
+            super.visit(version, access, name, signature, superName, interfaces);
+            return;
+        }
+
         mappingContext.visit(version, access, name, signature, superName, interfaces, getDelegate());
     }
 
@@ -80,6 +87,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visitOuterClass(String owner, String name, String descriptor) {
+        if ((callbacks & IMappingContext.VISIT_OUTER_CLASS) == 0) {
+            super.visitOuterClass(owner, name, descriptor);
+            return;
+        }
+
         mappingContext.visitOuterClass(owner, name, descriptor, getDelegate());
     }
 
@@ -96,6 +108,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visitInnerClass(String name, String outerName, String innerName, int access) {
+        if ((callbacks & IMappingContext.VISIT_INNER_CLASS) == 0) {
+            super.visitInnerClass(name, outerName, innerName, access);
+            return;
+        }
+
         mappingContext.visitInnerClass(name, outerName, innerName, access, getDelegate());
     }
 
@@ -106,6 +123,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visitPermittedSubclass(String permittedSubclass) {
+        if ((callbacks & IMappingContext.VISIT_PERMITTED_SUBCLASS) == 0) {
+            super.visitPermittedSubclass(permittedSubclass);
+            return;
+        }
+
         mappingContext.visitPermittedSubclass(permittedSubclass, getDelegate());
     }
 
@@ -116,6 +138,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visitNestHost(String nestHost) {
+        if ((callbacks & IMappingContext.VISIT_NEST_HOST) == 0) {
+            super.visitNestHost(nestHost);
+            return;
+        }
+
         mappingContext.visitNestHost(nestHost, getDelegate());
     }
 
@@ -126,6 +153,11 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public void visitNestMember(String nestMember) {
+        if ((callbacks & IMappingContext.VISIT_NEST_MEMBER) == 0) {
+            super.visitNestMember(nestMember);
+            return;
+        }
+
         mappingContext.visitNestMember(nestMember, getDelegate());
     }
 
@@ -140,6 +172,10 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature) {
+        if ((callbacks & IMappingContext.VISIT_RECORD_COMPONENT) == 0) {
+            return super.visitRecordComponent(name, descriptor, signature);
+        }
+
         return mappingContext.visitRecordComponent(name, descriptor, signature, getDelegate());
     }
 
@@ -164,6 +200,10 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+        if ((callbacks & IMappingContext.VISIT_FIELD) == 0) {
+            return super.visitField(access, name, descriptor, signature, value);
+        }
+
         return mappingContext.visitField(access, name, descriptor, signature, value, getDelegate());
     }
 
@@ -182,7 +222,16 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+        if ((callbacks & IMappingContext.VISIT_METHOD) == 0) {
+            return super.visitMethod(access, name, descriptor, signature, exceptions);
+        }
+
         IMethodContext methodContext = mappingContext.visitMethod(access, name, descriptor, signature, exceptions, getDelegate());
+        // Not wrapping it keeps a MethodWriter reachable, so bodies a passthrough remap leaves alone are copied.
+        if (methodContext.getParentVisitor() == null || methodContext.getCallbacks() == 0) {
+            return methodContext.getParentVisitor();
+        }
+
         return new MappingMethodVisitor(methodContext.getParentVisitor(), methodContext);
     }
 
@@ -203,6 +252,10 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        if ((callbacks & IMappingContext.VISIT_TYPE_ANNOTATION) == 0) {
+            return super.visitTypeAnnotation(typeRef, typePath, descriptor, visible);
+        }
+
         return mappingContext.visitTypeAnnotation(typeRef, typePath, descriptor, visible, getDelegate());
     }
 
@@ -216,6 +269,10 @@ public class MappingClassVisitor extends ClassVisitor {
      */
     @Override
     public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        if ((callbacks & IMappingContext.VISIT_ANNOTATION) == 0) {
+            return super.visitAnnotation(descriptor, visible);
+        }
+
         return mappingContext.visitAnnotation(descriptor, visible, getDelegate());
     }
 }
\ No newline at end of file
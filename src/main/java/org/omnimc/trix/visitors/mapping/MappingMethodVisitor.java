@@ -34,10 +34,12 @@ import org.omnimc.trix.contexts.interfaces.IMethodContext;
 public class MappingMethodVisitor extends MethodVisitor {
 
     private final IMethodContext methodContext;
+    private final int callbacks;
 
     public MappingMethodVisitor(MethodVisitor methodVisitor, IMethodContext methodContext) {
         super(Opcodes.ASM9, methodVisitor);
         this.methodContext = methodContext;
+        this.callbacks = methodContext.getCallbacks();
     }
 
     /**
@@ -54,7 +56,12 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitInvokeDynamicInsn(String name, String descriptor, Handle bootstrapMethodHandle, Object... bootstrapMethodArguments) {
-        methodContext.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, getDelegate(), bootstrapMethodArguments); // todo fix
+        if ((callbacks & IMethodContext.VISIT_INVOKE_DYNAMIC_INSN) == 0) {
+            super.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, bootstrapMethodArguments);
+            return;
+        }
+
+        methodContext.visitInvokeDynamicInsn(name, descriptor, bootstrapMethodHandle, getDelegate(), bootstrapMethodArguments);
     }
 
     /**
@@ -70,6 +77,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitLocalVariable(String name, String descriptor, String signature, Label start, Label end, int index) {
+        if ((callbacks & IMethodContext.VISIT_LOCAL_VARIABLE) == 0) {
+            super.visitLocalVariable(name, descriptor, signature, start, end, index);
+            return;
+        }
+
         methodContext.visitLocalVariable(name, descriptor, signature, start, end, index, getDelegate());
     }
 
@@ -84,6 +96,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitLdcInsn(Object value) {
+        if ((callbacks & IMethodContext.VISIT_LDC_INSN) == 0) {
+            super.visitLdcInsn(value);
+            return;
+        }
+
         methodContext.visitLdcInsn(value, getDelegate());
     }
 
@@ -109,6 +126,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitFrame(int type, int numLocal, Object[] local, int numStack, Object[] stack) {
+        if ((callbacks & IMethodContext.VISIT_FRAME) == 0) {
+            super.visitFrame(type, numLocal, local, numStack, stack);
+            return;
+        }
+
         methodContext.visitFrame(type, numLocal, local, numStack, stack, getDelegate());
     }
 
@@ -122,6 +144,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitTypeInsn(int opcode, String type) {
+        if ((callbacks & IMethodContext.VISIT_TYPE_INSN) == 0) {
+            super.visitTypeInsn(opcode, type);
+            return;
+        }
+
         methodContext.visitTypeInsn(opcode, type, getDelegate());
     }
 
@@ -136,6 +163,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+        if ((callbacks & IMethodContext.VISIT_FIELD_INSN) == 0) {
+            super.visitFieldInsn(opcode, owner, name, descriptor);
+            return;
+        }
+
         methodContext.visitFieldInsn(opcode, owner, name, descriptor, getDelegate());
     }
 
@@ -151,6 +183,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+        if ((callbacks & IMethodContext.VISIT_METHOD_INSN) == 0) {
+            super.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+            return;
+        }
+
         methodContext.visitMethodInsn(opcode, owner, name, descriptor, isInterface, getDelegate());
     }
 
@@ -174,6 +211,10 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public AnnotationVisitor visitLocalVariableAnnotation(int typeRef, TypePath typePath, Label[] start, Label[] end, int[] index, String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_LOCAL_VARIABLE_ANNOTATION) == 0) {
+            return super.visitLocalVariableAnnotation(typeRef, typePath, start, end, index, descriptor, visible);
+        }
+
         return methodContext.visitLocalVariableAnnotation(typeRef, typePath, start, end, index, descriptor, visible, getDelegate());
     }
 
@@ -195,6 +236,10 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public AnnotationVisitor visitInsnAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_INSN_ANNOTATION) == 0) {
+            return super.visitInsnAnnotation(typeRef, typePath, descriptor, visible);
+        }
+
         return methodContext.visitInsnAnnotation(typeRef, typePath, descriptor, visible, getDelegate());
     }
 
@@ -210,6 +255,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        if ((callbacks & IMethodContext.VISIT_TRY_CATCH_BLOCK) == 0) {
+            super.visitTryCatchBlock(start, end, handler, type);
+            return;
+        }
+
         methodContext.visitTryCatchBlock(start, end, handler, type, getDelegate());
     }
 
@@ -229,6 +279,10 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_TYPE_ANNOTATION) == 0) {
+            return super.visitTypeAnnotation(typeRef, typePath, descriptor, visible);
+        }
+
         return methodContext.visitTypeAnnotation(typeRef, typePath, descriptor, visible, getDelegate());
     }
 
@@ -252,6 +306,10 @@ public class MappingMethodVisitor extends MethodVisitor {
     @SuppressWarnings("SpellCheckingInspection")
     @Override
     public AnnotationVisitor visitParameterAnnotation(int parameter, String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_PARAMETER_ANNOTATION) == 0) {
+            return super.visitParameterAnnotation(parameter, descriptor, visible);
+        }
+
         return methodContext.visitParameterAnnotation(parameter, descriptor, visible, getDelegate());
     }
 
@@ -264,6 +322,10 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_ANNOTATION) == 0) {
+            return super.visitAnnotation(descriptor, visible);
+        }
+
         return methodContext.visitAnnotation(descriptor, visible, getDelegate());
     }
 
@@ -275,6 +337,11 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        if ((callbacks & IMethodContext.VISIT_MULTI_ANEW_ARRAY_INSN) == 0) {
+            super.visitMultiANewArrayInsn(descriptor, numDimensions);
+            return;
+        }
+
         methodContext.visitMultiANewArrayInsn(descriptor, numDimensions, getDelegate());
     }
 
@@ -291,6 +358,27 @@ public class MappingMethodVisitor extends MethodVisitor {
      */
     @Override
     public AnnotationVisitor visitTryCatchAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+        if ((callbacks & IMethodContext.VISIT_TRY_CATCH_ANNOTATION) == 0) {
+            return super.visitTryCatchAnnotation(typeRef, typePath, descriptor, visible);
+        }
+
         return methodContext.visitTryCatchAnnotation(typeRef, typePath, descriptor, visible, getDelegate());
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param name   parameter name or {@literal null} if none is provided.
+     * @param access the parameter's access flags, only {@code ACC_FINAL}, {@code ACC_SYNTHETIC} or/and
+     *               {@code ACC_MANDATED} are allowed (see {@link Opcodes}).
+     */
+    @Override
+    public void visitParameter(String name, int access) {
+        if ((callbacks & IMethodContext.VISIT_PARAMETER) == 0) {
+            super.visitParameter(name, access);
+            return;
+        }
+
+        methodContext.visitParameter(name, access, getDelegate());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.Remapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.omnimc.lumina.paser.MappingContainer;
+import org.omnimc.lumina.reader.LuminaReader;
+import org.omnimc.trix.TrixRemapper;
+import org.omnimc.trix.classfile.ClassPreScanner;
+import org.omnimc.trix.classfile.ConstantPool;
+import org.omnimc.trix.classfile.DescriptorScanner;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyChange;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.hierarchy.RemapperCompiler;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.hierarchy.info.FieldInfo;
+import org.omnimc.trix.hierarchy.info.MethodInfo;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.mapping.RemapProfile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Compares the different remapping paths on a real jar. Every mode remaps every class of the jar once per round, the
+ * first rounds are thrown away to let the JIT settle.
+ * <p>
+ * The last modes remap the same way but with a different {@linkplain Remapper} each: the {@linkplain TrixRemapper} of
+ * the mappings, the {@linkplain SimpleRemapper} of a plain map and the one generated by {@linkplain RemapperCompiler}.
+ * The remapper of the {@linkplain HierarchyManager} is the one in {@code fast}. Afterward the lookups alone are timed
+ * for every remapper, with the names found in the jar.
+ * <p>
+ * Last, the {@linkplain DescriptorScanner#scalar() scalar} {@linkplain DescriptorScanner} is checked against the one
+ * {@linkplain DescriptorScanner#getInstance()} picks, on every {@code CONSTANT_Utf8} entry of the jar, and both are
+ * timed on their own and in a {@linkplain ClassPreScanner}. Add {@code --add-modules jdk.incubator.vector} to the JVM
+ * arguments to get the vectorized one.
+ * <p>
+ * Usage: {@code RemapBenchmark <mappings> <jar>}
+ *
+ * @author <b><a href=https://github.com/CadenCCC>Caden</a></b>
+ * @since 1.0.0
+ */
+public class RemapBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RemapBenchmark <mappings> <jar>");
+            return;
+        }
+
+        MappingContainer mappingContainer = new LuminaReader().readPath(args[0]);
+        Map<String, byte[]> entries = JarIO.readJar(Path.of(args[1]));
+        HierarchyManager hierarchyManager = HierarchyChange.createHierarchy(entries, mappingContainer).freeze();
+
+        List<byte[]> classes = new ArrayList<>();
+        entries.forEach((name, bytes) -> {
+            if (JarIO.isClass(name)) {
+                classes.add(bytes);
+            }
+        });
+
+        Map<String, UnaryOperator<byte[]>> modes = new LinkedHashMap<>();
+        modes.put("pluggable", new MappingChange(new MappingContext(hierarchyManager.getRemapper())).setFastPath(false)::remap);
+        modes.put("fast", new MappingChange(new MappingContext(hierarchyManager.getRemapper()))::remap);
+        modes.put("constant-pool", new MappingChange(new MappingContext(hierarchyManager.getRemapper())).setConstantPoolRemapping(true)::remap);
+        modes.put("recompute", new MappingChange(new MappingContext(hierarchyManager.getRemapper())).setProfile(RemapProfile.RECOMPUTE)::remap);
+
+        long start = System.nanoTime();
+        Remapper compiled = RemapperCompiler.compile(hierarchyManager);
+        System.out.printf("compiled the remapper in %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        Map<String, Remapper> remappers = new LinkedHashMap<>();
+        remappers.put("trix", new TrixRemapper(mappingContainer));
+        remappers.put("custom", hierarchyManager.getRemapper());
+        remappers.put("map", new SimpleRemapper(toMap(hierarchyManager)));
+        remappers.put("compiled", compiled);
+        remappers.forEach((name, remapper) -> {
+            if (!name.equals("custom")) {
+                modes.put(name, new MappingChange(new MappingContext(remapper))::remap);
+            }
+        });
+
+        System.out.printf("%d classes, %d warmup rounds, %d measured rounds%n", classes.size(), WARMUP_ROUNDS, MEASURED_ROUNDS);
+        modes.forEach((name, mode) -> run(name, classes, mode));
+
+        List<String[]> lookups = collectLookups(classes);
+        System.out.printf("%d lookups%n", lookups.size());
+        remappers.forEach((name, remapper) -> measure(name + "-lookup", lookups, lookup -> lookup(remapper, lookup)));
+
+        compareScanners(hierarchyManager, classes);
+    }
+
+    private static void compareScanners(HierarchyManager hierarchyManager, List<byte[]> classes) {
+        DescriptorScanner scalar = DescriptorScanner.scalar();
+        DescriptorScanner preferred = DescriptorScanner.getInstance();
+        System.out.printf("preferred scanner is %s%n", preferred.isVectorized() ? "vectorized" : "scalar");
+
+        // Every entry as { class index, start, end }.
+        List<int[]> utf8Entries = new ArrayList<>();
+        for (int i = 0; i < classes.size(); i++) {
+            ClassReader reader = new ClassReader(classes.get(i));
+            ConstantPool constantPool = new ConstantPool(reader);
+            for (int index = 1; index < constantPool.size(); index++) {
+                if (constantPool.getTag(index) == ConstantPool.UTF8) {
+                    int start = constantPool.getOffset(index) + 2;
+                    utf8Entries.add(new int[]{i, start, start + reader.readUnsignedShort(start - 2)});
+                }
+            }
+        }
+
+        int mismatches = 0;
+        for (int[] entry : utf8Entries) {
+            if (scan(scalar, classes.get(entry[0]), entry[1], entry[2]) != scan(preferred, classes.get(entry[0]), entry[1], entry[2])) {
+                mismatches++;
+            }
+        }
+        System.out.printf("%d entries, %d mismatches%n", utf8Entries.size(), mismatches);
+
+        measure("scalar-scan", utf8Entries, entry -> scan(scalar, classes.get(entry[0]), entry[1], entry[2]));
+        measure("preferred-scan", utf8Entries, entry -> scan(preferred, classes.get(entry[0]), entry[1], entry[2]));
+
+        ClassPreScanner scalarPreScanner = new ClassPreScanner(hierarchyManager, scalar);
+        ClassPreScanner preferredPreScanner = new ClassPreScanner(hierarchyManager, preferred);
+        measure("scalar-prescan", classes, classBytes -> scalarPreScanner.needsRemapping(classBytes) ? 1 : 0);
+        measure("preferred-prescan", classes, classBytes -> preferredPreScanner.needsRemapping(classBytes) ? 1 : 0);
+    }
+
+    private static final byte[] NAME_ENDS = {';', '<', '.'};
+
+    /* Everything a DescriptorScanner answers about one entry, folded into one number. */
+    private static int scan(DescriptorScanner scanner, byte[] bytes, int from, int to) {
+        int result = scanner.isAscii(bytes, from, to) ? 1 : 0;
+        result = result * 31 + scanner.indexOf(bytes, from, to, (byte) 'L');
+        result = result * 31 + scanner.indexOf(bytes, from, to, (byte) '[');
+        result = result * 31 + scanner.indexOfAny(bytes, from, to, NAME_ENDS);
+        return result * 31 + scanner.lastIndexOf(bytes, from, to, (byte) '/');
+    }
+
+    /*
+     * The way SimpleRemapper keys its map, with a member of an unchanged class under the name of the class. Methods are
+     * looked up with the descriptor of the class file, so the mapped descriptors of the hierarchy are reversed first.
+     */
+    private static Map<String, String> toMap(HierarchyManager hierarchyManager) {
+        Remapper reverseRemapper = hierarchyManager.getReverseRemapper();
+        HashMap<String, String> mappings = new HashMap<>();
+        for (Map.Entry<String, ClassInfo> classFile : hierarchyManager.getClassFiles().entrySet()) {
+            String owner = classFile.getKey();
+            ClassInfo classInfo = classFile.getValue();
+            mappings.put(owner, classInfo.getClassName());
+
+            for (MethodInfo method : classInfo.getPrivateMethods().values()) {
+                mappings.put(owner + '.' + method.getObfuscatedName() + reverseRemapper.mapMethodDesc(method.getDescriptor()), method.getMethodName());
+            }
+            for (MethodInfo method : classInfo.getMethods().values()) {
+                mappings.put(owner + '.' + method.getObfuscatedName() + reverseRemapper.mapMethodDesc(method.getDescriptor()), method.getMethodName());
+            }
+            for (FieldInfo field : classInfo.getPrivateFields().values()) {
+                mappings.put(owner + '.' + field.getObfuscatedName(), field.getFieldName());
+            }
+            for (FieldInfo field : classInfo.getFields().values()) {
+                mappings.put(owner + '.' + field.getObfuscatedName(), field.getFieldName());
+            }
+        }
+
+        return mappings;
+    }
+
+    /* Every class, method and field reference of the jar, as { kind, owner, name, descriptor }. */
+    private static List<String[]> collectLookups(List<byte[]> classes) {
+        ArrayList<String[]> lookups = new ArrayList<>();
+        for (byte[] classBytes : classes) {
+            new ClassReader(classBytes).accept(new ClassVisitor(Opcodes.ASM9) {
+                private String owner;
+
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+                    owner = name;
+                    lookups.add(new String[]{"T", name, null, null});
+                }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+                    lookups.add(new String[]{"F", owner, name, descriptor});
+                    return null;
+                }
+
+                @Override
+                public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                    lookups.add(new String[]{"M", owner, name, descriptor});
+                    return new MethodVisitor(Opcodes.ASM9) {
+                        @Override
+                        public void visitTypeInsn(int opcode, String type) {
+                            lookups.add(new String[]{"T", type, null, null});
+                        }
+
+                        @Override
+                        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                            lookups.add(new String[]{"F", owner, name, descriptor});
+                        }
+
+                        @Override
+                        public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface) {
+                            lookups.add(new String[]{"M", owner, name, descriptor});
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        }
+
+        return lookups;
+    }
+
+    private static int lookup(Remapper remapper, String[] lookup) {
+        String mapped = switch (lookup[0]) {
+            case "T" -> remapper.mapType(lookup[1]);
+            case "M" -> remapper.mapMethodName(lookup[1], lookup[2], lookup[3]);
+            default -> remapper.mapFieldName(lookup[1], lookup[2], lookup[3]);
+        };
+        return mapped == null ? 0 : mapped.length();
+    }
+
+    private static void run(String name, List<byte[]> classes, UnaryOperator<byte[]> mode) {
+        measure(name, classes, classBytes -> mode.apply(classBytes).length);
+    }
+
+    private static <T> void measure(String name, List<T> inputs, ToIntFunction<T> mode) {
+        long written = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (T input : inputs) {
+                written += mode.applyAsInt(input);
+            }
+        }
+
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (T input : inputs) {
+                written += mode.applyAsInt(input);
+            }
+            times[round] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+
+        long median = times[times.length / 2];
+        System.out.printf("%-16s median %8.2f ms  min %8.2f ms  %8.0f ns/input  (%d written)%n",
+                name, median / 1e6, times[0] / 1e6, (double) median / inputs.size(), written);
+    }
+}
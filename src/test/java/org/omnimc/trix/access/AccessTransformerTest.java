@@ -0,0 +1,114 @@
+package org.omnimc.trix.access;
+
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AccessTransformerTest {
+
+    private static final SimpleRemapper REMAPPER = new SimpleRemapper(Map.of(
+            "a", "net/example/Level",
+            "b", "net/example/BlockPos"));
+
+    @Test
+    public void parsesRulesAndSkipsComments() throws IOException {
+        AccessTransformer accessTransformer = AccessTransformer.parse(new StringReader("""
+                # a comment
+                public net.example.Level
+
+                public-f net.example.Level isClientSide   # trailing comment
+                protected net.example.Level getBlock(Lnet/example/BlockPos;)V
+                """));
+
+        assertEquals(3, accessTransformer.getRuleCount());
+    }
+
+    @Test
+    public void invalidRulesReportTheirLine() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> AccessTransformer.parse(new StringReader("""
+                public net.example.Level
+                open net.example.Level field
+                """)));
+
+        assertTrue(exception.getMessage(), exception.getMessage().contains("line 2"));
+        assertThrows(IllegalArgumentException.class, () -> AccessTransformer.parse(new StringReader("public")));
+    }
+
+    @Test
+    public void compiledRulesMatchMappedAndObfuscatedNames() throws IOException {
+        AccessIndex accessIndex = AccessTransformer.parse(new StringReader("""
+                public a
+                public-f net.example.Level isClientSide
+                protected a c
+                protected net.example.Level getBlock(Lb;)V
+                """)).compile(REMAPPER);
+
+        assertEquals(1, accessIndex.size());
+        assertNull(accessIndex.get("a"));
+
+        ClassAccess classAccess = accessIndex.get("net/example/Level");
+        assertNotNull(classAccess);
+        assertEquals(Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, classAccess.applyToClass(Opcodes.ACC_SUPER));
+
+        /* Mapped name. */
+        assertEquals(Opcodes.ACC_PUBLIC, classAccess.applyToField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "d", "isClientSide"));
+        /* Obfuscated name. */
+        assertEquals(Opcodes.ACC_PROTECTED, classAccess.applyToField(Opcodes.ACC_PRIVATE, "c", "level"));
+        assertEquals(Opcodes.ACC_PRIVATE, classAccess.applyToField(Opcodes.ACC_PRIVATE, "e", "other"));
+
+        /* The obfuscated descriptor of the rule was mapped. */
+        assertEquals(Opcodes.ACC_PROTECTED, classAccess.applyToMethod(Opcodes.ACC_PRIVATE, "f", "getBlock", "(Lnet/example/BlockPos;)V"));
+        assertEquals(Opcodes.ACC_PRIVATE, classAccess.applyToMethod(Opcodes.ACC_PRIVATE, "f", "getBlock", "()V"));
+    }
+
+    @Test
+    public void widerAccessIsNeverNarrowed() {
+        AccessChange change = AccessChange.parse("protected");
+
+        assertEquals(Opcodes.ACC_PUBLIC, change.apply(Opcodes.ACC_PUBLIC));
+        assertEquals(Opcodes.ACC_PROTECTED, change.apply(0));
+        assertEquals(Opcodes.ACC_PROTECTED | Opcodes.ACC_STATIC, change.apply(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC));
+    }
+
+    @Test
+    public void finalChangesAndMerging() {
+        assertEquals(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, AccessChange.parse("private+f").apply(Opcodes.ACC_PRIVATE));
+        assertEquals(Opcodes.ACC_PUBLIC, AccessChange.parse("public-f").apply(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL));
+        assertEquals("default", AccessChange.parse("default").toString());
+
+        AccessChange merged = AccessChange.parse("private+f").merge(AccessChange.parse("protected-f"));
+        assertEquals(AccessChange.Level.PROTECTED, merged.getLevel());
+        assertEquals(AccessChange.FinalChange.REMOVE, merged.getFinalChange());
+        assertEquals("protected-f", merged.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> AccessChange.parse("public+x"));
+    }
+
+    @Test
+    public void wildcardsSkipConstructors() {
+        AccessIndex accessIndex = new AccessTransformer()
+                .addField("a", "*", AccessChange.parse("public"))
+                .addMethod("a", "*", "()V", AccessChange.parse("protected"))
+                .addMethod("a", "<init>", "(Lb;)V", AccessChange.parse("public"))
+                .compile(REMAPPER);
+
+        ClassAccess classAccess = accessIndex.get("net/example/Level");
+        assertEquals(Opcodes.ACC_PUBLIC, classAccess.applyToField(Opcodes.ACC_PRIVATE, "x", "anything"));
+        assertEquals(Opcodes.ACC_PROTECTED, classAccess.applyToMethod(Opcodes.ACC_PRIVATE, "x", "tick", "(IJ)Z"));
+        assertEquals(Opcodes.ACC_PRIVATE, classAccess.applyToMethod(Opcodes.ACC_PRIVATE, "<init>", "<init>", "()V"));
+        assertEquals(Opcodes.ACC_PUBLIC, classAccess.applyToMethod(Opcodes.ACC_PRIVATE, "<init>", "<init>", "(Lnet/example/BlockPos;)V"));
+        assertEquals(Opcodes.ACC_PRIVATE, classAccess.applyToClass(Opcodes.ACC_PRIVATE));
+    }
+
+    @Test
+    public void noRulesCompileToTheEmptyIndex() {
+        assertSame(AccessIndex.EMPTY, new AccessTransformer().compile(REMAPPER));
+        assertTrue(AccessIndex.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,96 @@
+package org.omnimc.trix.agent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ClassCacheTest {
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("trix-cache");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void storedClassesAreHitAcrossLaunches() throws IOException {
+        ClassCache cache = new ClassCache(directory, "mappings");
+        String key = ClassCache.key(emptyClass("a"));
+
+        assertNull(cache.get(key));
+        cache.put(key, new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get(key));
+
+        /* A new cache on the same directory is what the next launch gets. */
+        assertArrayEquals(new byte[]{1, 2, 3}, new ClassCache(directory, "mappings").get(key));
+
+        cache.put(key, new byte[]{4});
+        assertArrayEquals(new byte[]{4}, cache.get(key));
+        try (Stream<Path> files = Files.list(directory.resolve("mappings"))) {
+            assertEquals(List.of(key), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    public void changedClassesAndMappingsMiss() throws IOException {
+        ClassCache cache = new ClassCache(directory, "mappings");
+        String key = ClassCache.key(emptyClass("a"));
+        cache.put(key, new byte[]{1});
+
+        assertEquals(key, ClassCache.key(emptyClass("a")));
+        assertNotEquals(key, ClassCache.key(emptyClass("b")));
+        assertNull(cache.get(ClassCache.key(emptyClass("b"))));
+
+        /* Other mappings get a directory of their own, so nothing remapped with the old ones is served. */
+        assertNull(new ClassCache(directory, "other-mappings").get(key));
+    }
+
+    @Test
+    public void transformerOnlyRemapsOnAMiss() throws IOException {
+        ClassCache cache = new ClassCache(directory, "mappings");
+        TransformStatistics statistics = new TransformStatistics();
+        RemapTransformer transformer = new RemapTransformer(new SimpleRemapper(Map.of("a", "com/example/Counter")), cache, statistics);
+        byte[] classBytes = emptyClass("a");
+
+        byte[] remapped = transformer.transform(null, "a", null, null, classBytes);
+        assertEquals("com/example/Counter", new ClassReader(remapped).getClassName());
+        assertArrayEquals(remapped, cache.get(ClassCache.key(classBytes)));
+
+        /* Whatever is cached is served as is. */
+        byte[] cached = emptyClass("com/example/Cached");
+        cache.put(ClassCache.key(classBytes), cached);
+        assertArrayEquals(cached, transformer.transform(null, "a", null, null, classBytes));
+        assertTrue(statistics.toString(), statistics.toString().contains("(1 remapped, 1 from cache)"));
+    }
+
+    private static byte[] emptyClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
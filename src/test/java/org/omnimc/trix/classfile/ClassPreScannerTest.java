@@ -0,0 +1,113 @@
+package org.omnimc.trix.classfile;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ClassPreScannerTest {
+
+    @Test
+    public void skippedClassesAreReallyUnchanged() {
+        HierarchyManager hierarchyManager = hierarchy();
+        MappingChange remapAll = new MappingChange(new MappingContext(hierarchyManager.getRemapper()));
+        ClassPreScanner preScanner = new ClassPreScanner(hierarchyManager);
+
+        List<byte[]> classes = List.of(
+                userClass("x", "Le;", null, "e", "f", "I"),
+                userClass("x", "[Ljava/lang/String;", "Ljava/util/List<Le;>;", "java/lang/System", "out", "Ljava/io/PrintStream;"),
+                userClass("x", "La;", null, "e", "f", "I"),
+                userClass("x", "[[La;", null, "e", "f", "I"),
+                userClass("x", "Ljava/util/List;", "Ljava/util/List<La;>;", "e", "f", "I"),
+                userClass("x", "I", null, "a", "c", "I"),
+                userClass("x", "I", null, "b", "c", "I"));
+        boolean[] skipped = {true, true, false, false, false, false, false};
+
+        for (int i = 0; i < classes.size(); i++) {
+            byte[] classBytes = classes.get(i);
+            boolean unchanged = Arrays.equals(normalize(classBytes), normalize(remapAll.remap(classBytes)));
+
+            assertEquals("class " + i, skipped[i], !preScanner.needsRemapping(classBytes));
+            assertEquals("class " + i, skipped[i], unchanged);
+        }
+        assertEquals(2, preScanner.getSkippedClasses());
+        assertEquals(5, preScanner.getRemappedClasses());
+    }
+
+    @Test
+    public void skippedClassesAreGivenBackAsTheyAre() {
+        HierarchyManager hierarchyManager = hierarchy();
+        MappingChange mappingChange = new MappingChange(new MappingContext(hierarchyManager.getRemapper()))
+                .setPreScanner(new ClassPreScanner(hierarchyManager));
+
+        byte[] untouched = userClass("x", "Le;", null, "e", "f", "I");
+        assertSame(untouched, mappingChange.remap(untouched));
+
+        byte[] touched = userClass("x", "La;", null, "e", "f", "I");
+        assertEquals("Lcom/example/Counter;", node(mappingChange.remap(touched)).fields.get(0).desc);
+    }
+
+    /* a (Counter) has its field c mapped, b (Player) extends it and e has a field that keeps its name. */
+    private static HierarchyManager hierarchy() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+
+        ClassInfo counter = new ClassInfo("com/example/Counter");
+        counter.addDependentClass("java/lang/Object");
+        counter.addField("c", "count", "I");
+        hierarchyManager.addClassFile("a", counter);
+
+        ClassInfo player = new ClassInfo("b");
+        player.addDependentClass("a");
+        hierarchyManager.addClassFile("b", player);
+
+        ClassInfo other = new ClassInfo("e");
+        other.addDependentClass("java/lang/Object");
+        other.addField("f", "f", "I");
+        hierarchyManager.addClassFile("e", other);
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager.freeze();
+    }
+
+    /* A class with one field of the given type and signature, and a method reading the given static field. */
+    private static byte[] userClass(String name, String fieldDescriptor, String fieldSignature, String owner, String field, String descriptor) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitField(0, "value", fieldDescriptor, fieldSignature, null).visitEnd();
+
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_STATIC, "read", "()V", null, null);
+        method.visitCode();
+        method.visitFieldInsn(Opcodes.GETSTATIC, owner, field, descriptor);
+        method.visitInsn(Opcodes.POP);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(1, 0);
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /* Writes the class again so both outputs get a constant pool in the same order. */
+    private static byte[] normalize(byte[] classBytes) {
+        ClassWriter classWriter = new ClassWriter(0);
+        new ClassReader(classBytes).accept(classWriter, 0);
+        return classWriter.toByteArray();
+    }
+
+    private static ClassNode node(byte[] classBytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode;
+    }
+}
@@ -0,0 +1,118 @@
+package org.omnimc.trix.classfile;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.ClassNode;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ConstantPoolRemapperTest {
+
+    private static final String TEST = "org/omnimc/trix/classfile/ConstantPoolRemapperTest";
+    private static final String POINT = TEST + "$Point";
+    private static final String COUNTER = TEST + "$Counter";
+    private static final String READER = TEST + "$Counter$Reader";
+    private static final String CALLS = TEST + "$Calls";
+
+    private static final SimpleRemapper REMAPPER = new SimpleRemapper(Map.of(
+            POINT, "com/example/Position",
+            COUNTER, "com/example/Counter",
+            READER, "com/example/Counter$Reader",
+            POINT + ".x", "column",
+            POINT + ".x()I", "column",
+            COUNTER + ".count", "total",
+            READER + ".read()I", "get",
+            CALLS + ".task(Lcom/example/Position;)Ljava/lang/Runnable;", "schedule"));
+
+    @Test
+    public void matchesTheVisitorPath() throws IOException {
+        MappingChange visitorPath = new MappingChange(new MappingContext(REMAPPER));
+        ConstantPoolRemapper constantPoolRemapper = new ConstantPoolRemapper(REMAPPER);
+
+        for (String name : List.of(TEST, POINT, COUNTER, READER, CALLS)) {
+            byte[] classBytes = read(name);
+            byte[] remapped = constantPoolRemapper.remap(classBytes);
+
+            assertNotNull(name, remapped);
+            assertNotSame(name, classBytes, remapped);
+            assertArrayEquals(name, normalize(visitorPath.remap(classBytes)), normalize(remapped));
+        }
+    }
+
+    @Test
+    public void recordsAndNestsAreRenamed() throws IOException {
+        ClassNode point = node(new ConstantPoolRemapper(REMAPPER).remap(read(POINT)));
+        assertEquals("com/example/Position", point.name);
+        assertEquals(TEST, point.nestHostClass);
+        assertEquals("column", point.fields.get(0).name);
+        assertTrue(point.methods.stream().anyMatch(method -> method.name.equals("column") && method.desc.equals("()I")));
+
+        ClassNode counter = node(new ConstantPoolRemapper(REMAPPER).remap(read(COUNTER)));
+        assertEquals("total", counter.fields.get(0).name);
+        assertEquals(TEST, counter.nestHostClass);
+        assertTrue(counter.innerClasses.stream().anyMatch(innerClass -> innerClass.name.equals("com/example/Counter$Reader")));
+
+        ClassNode test = node(new ConstantPoolRemapper(REMAPPER).remap(read(TEST)));
+        assertTrue(test.nestMembers.containsAll(List.of("com/example/Position", "com/example/Counter", "com/example/Counter$Reader")));
+    }
+
+    @Test
+    public void untouchedClassesAreReturnedAsIs() {
+        byte[] classBytes = new ClassWriter(0) {{
+            visit(org.objectweb.asm.Opcodes.V17, 0, "a", null, "java/lang/Object", null);
+            visitEnd();
+        }}.toByteArray();
+
+        assertSame(classBytes, new ConstantPoolRemapper(REMAPPER).remap(classBytes));
+    }
+
+    /* Writes the class again so both outputs get a constant pool in the same order. */
+    private static byte[] normalize(byte[] classBytes) {
+        ClassWriter classWriter = new ClassWriter(0);
+        new ClassReader(classBytes).accept(classWriter, 0);
+        return classWriter.toByteArray();
+    }
+
+    private static ClassNode node(byte[] classBytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode;
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream input = ConstantPoolRemapperTest.class.getResourceAsStream("/" + name + ".class")) {
+            assertNotNull(name, input);
+            return input.readAllBytes();
+        }
+    }
+
+    /* The fixtures, compiled by javac: a record, a nest with private access, a lambda and a string concatenation. */
+
+    record Point(int x, String label) {
+    }
+
+    static final class Counter {
+        private int count;
+
+        final class Reader {
+            int read() {
+                return count;
+            }
+        }
+    }
+
+    static final class Calls {
+        Runnable task(Point point) {
+            return () -> System.out.println("at " + point.x() + point);
+        }
+    }
+}
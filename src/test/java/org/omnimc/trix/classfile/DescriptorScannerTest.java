@@ -0,0 +1,88 @@
+package org.omnimc.trix.classfile;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class DescriptorScannerTest {
+
+    private static final DescriptorScanner SCALAR = DescriptorScanner.scalar();
+    private static final DescriptorScanner PREFERRED = DescriptorScanner.getInstance();
+    private static final byte[] NAME_ENDS = {';', '<', '.'};
+
+    @Test
+    public void vectorizedScannerIsUsedWhenTheModuleIsThere() {
+        assertFalse(SCALAR.isVectorized());
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && !"false".equals(System.getProperty("trix.vector")),
+                PREFERRED.isVectorized());
+    }
+
+    @Test
+    public void scannersAgreeOnEveryRange() {
+        /* Long enough for a few full vectors of the widest species, with a tail after them. */
+        byte[] bytes = randomDescriptorBytes(new Random(42), 150);
+
+        for (int from = 0; from <= bytes.length; from++) {
+            for (int to = from; to <= bytes.length; to++) {
+                String range = from + ".." + to;
+                assertEquals(range, SCALAR.isAscii(bytes, from, to), PREFERRED.isAscii(bytes, from, to));
+                assertEquals(range, SCALAR.indexOf(bytes, from, to, (byte) 'L'), PREFERRED.indexOf(bytes, from, to, (byte) 'L'));
+                assertEquals(range, SCALAR.indexOfAny(bytes, from, to, NAME_ENDS), PREFERRED.indexOfAny(bytes, from, to, NAME_ENDS));
+                assertEquals(range, SCALAR.lastIndexOf(bytes, from, to, (byte) '/'), PREFERRED.lastIndexOf(bytes, from, to, (byte) '/'));
+            }
+        }
+    }
+
+    @Test
+    public void matchesInTheTailAreFound() {
+        for (int length = 1; length <= 130; length++) {
+            byte[] bytes = new byte[length];
+            Arrays.fill(bytes, (byte) 'a');
+
+            for (DescriptorScanner scanner : new DescriptorScanner[]{SCALAR, PREFERRED}) {
+                bytes[length - 1] = ';';
+                assertEquals(length - 1, scanner.indexOf(bytes, 0, length, (byte) ';'));
+                assertEquals(length - 1, scanner.indexOfAny(bytes, 0, length, NAME_ENDS));
+                assertEquals(length - 1, scanner.lastIndexOf(bytes, 0, length, (byte) ';'));
+                /* Right past the range, so it mustn't be seen. */
+                assertEquals(-1, scanner.indexOf(bytes, 0, length - 1, (byte) ';'));
+                assertEquals(-1, scanner.lastIndexOf(bytes, 0, length - 1, (byte) ';'));
+
+                assertTrue(scanner.isAscii(bytes, 0, length));
+                bytes[length - 1] = (byte) 0xE9;
+                assertFalse(scanner.isAscii(bytes, 0, length));
+                assertTrue(scanner.isAscii(bytes, 0, length - 1));
+            }
+        }
+    }
+
+    @Test
+    public void nonAsciiNamesAreScanned() {
+        /* Every 'é' takes two bytes, so the ';' after the first name is at 19 and the last '/' at 25. */
+        byte[] bytes = "(Lnet/été/Caféé;[Lnet/a;)V".getBytes(StandardCharsets.UTF_8);
+
+        for (DescriptorScanner scanner : new DescriptorScanner[]{SCALAR, PREFERRED}) {
+            assertFalse(scanner.isAscii(bytes, 0, bytes.length));
+            assertTrue(scanner.isAscii(bytes, 0, 5));
+            assertEquals(1, scanner.indexOf(bytes, 0, bytes.length, (byte) 'L'));
+            assertEquals(20, scanner.indexOf(bytes, 2, bytes.length, (byte) '['));
+            assertEquals(25, scanner.lastIndexOf(bytes, 0, bytes.length, (byte) '/'));
+            assertEquals(19, scanner.indexOfAny(bytes, 0, bytes.length, NAME_ENDS));
+            assertEquals(27, scanner.indexOfAny(bytes, 20, bytes.length, NAME_ENDS));
+        }
+    }
+
+    /* Mostly name characters, with the bytes scanners look for and the bytes of 'é' mixed in. */
+    private static byte[] randomDescriptorBytes(Random random, int length) {
+        byte[] special = {'L', ';', '<', '.', '/', '[', (byte) 0xC3, (byte) 0xA9};
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = random.nextInt(8) == 0 ? special[random.nextInt(special.length)] : (byte) ('a' + random.nextInt(26));
+        }
+        return bytes;
+    }
+}
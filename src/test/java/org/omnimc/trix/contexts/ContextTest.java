@@ -0,0 +1,165 @@
+package org.omnimc.trix.contexts;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.Remapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.ClassNode;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMappingContextProvider;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+import org.omnimc.trix.mapping.MappingChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ContextTest {
+
+    private static final SimpleRemapper REMAPPER = new SimpleRemapper(Map.of("a", "com/example/Counter", "a.c", "count"));
+
+    /* What the provided contexts saw, they are created by the ServiceLoader so they can't be handed a list. */
+    private static final List<String> SERVICE_CALLS = new ArrayList<>();
+
+    @Before
+    public void clearServiceCalls() {
+        SERVICE_CALLS.clear();
+    }
+
+    @Test
+    public void maskedCallbacksAreSkipped() {
+        List<String> calls = new ArrayList<>();
+        for (boolean fastPath : new boolean[]{true, false}) {
+            calls.clear();
+            ClassNode classNode = remap(Context.ofChain(new MappingContext(REMAPPER),
+                    new RecordingContext("fields", IMappingContext.VISIT_FIELD, calls)).setFastPath(fastPath));
+
+            assertEquals(List.of("fields field count"), calls);
+            /* Everything the context skipped is still forwarded. */
+            assertEquals("com/example/Counter", classNode.name);
+            assertEquals("m", classNode.methods.get(0).name);
+            assertEquals("Ljava/lang/Deprecated;", classNode.visibleAnnotations.get(0).desc);
+        }
+
+        calls.clear();
+        remap(Context.ofChain(new MappingContext(REMAPPER), new RecordingContext("none", 0, calls)));
+        assertTrue(calls.isEmpty());
+    }
+
+    @Test
+    public void chainedContextsRunInOrder() {
+        List<String> calls = new ArrayList<>();
+        remap(Context.ofChain(new MappingContext(REMAPPER),
+                new RecordingContext("first", IMappingContext.ALL_CALLBACKS, calls),
+                new RecordingContext("second", IMappingContext.VISIT_FIELD | IMappingContext.VISIT_METHOD, calls)));
+
+        /* Contexts after the mapping see mapped names. */
+        assertEquals(List.of(
+                "first visit com/example/Counter",
+                "first annotation Ljava/lang/Deprecated;",
+                "first field count",
+                "second field count",
+                "first method m",
+                "second method m"), calls);
+    }
+
+    @Test
+    public void providedContextsRunByOrderAfterTheMapping() {
+        ClassNode classNode = remap(Context.ofServices(REMAPPER));
+
+        assertEquals("com/example/Counter", classNode.name);
+        assertEquals(List.of("early field count", "late field count"), SERVICE_CALLS);
+    }
+
+    private static ClassNode remap(MappingChange mappingChange) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(mappingChange.remap(counterClass())).accept(classNode, 0);
+        return classNode;
+    }
+
+    /* @Deprecated class a { int c; void m() { } } */
+    private static byte[] counterClass() {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "a", null, "java/lang/Object", null);
+        classWriter.visitAnnotation("Ljava/lang/Deprecated;", true).visitEnd();
+        classWriter.visitField(0, "c", "I", null, null).visitEnd();
+
+        MethodVisitor method = classWriter.visitMethod(0, "m", "()V", null, null);
+        method.visitCode();
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 1);
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    public static final class EarlyProvider implements IMappingContextProvider {
+        @Override
+        public IMappingContext create(Remapper remapper) {
+            return new RecordingContext("early", IMappingContext.VISIT_FIELD, SERVICE_CALLS);
+        }
+
+        @Override
+        public int getOrder() {
+            return -1;
+        }
+    }
+
+    public static final class LateProvider implements IMappingContextProvider {
+        @Override
+        public IMappingContext create(Remapper remapper) {
+            return new RecordingContext("late", IMappingContext.VISIT_FIELD, SERVICE_CALLS);
+        }
+
+        @Override
+        public int getOrder() {
+            return 1;
+        }
+    }
+
+    /* Writes down every call it gets and forwards it unchanged. */
+    private static final class RecordingContext extends ForwardingMappingContext {
+        private final String name;
+        private final int callbacks;
+        private final List<String> calls;
+
+        private RecordingContext(String name, int callbacks, List<String> calls) {
+            this.name = name;
+            this.callbacks = callbacks;
+            this.calls = calls;
+        }
+
+        @Override
+        public int getCallbacks() {
+            return callbacks;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces, ClassVisitor classVisitor) {
+            calls.add(this.name + " visit " + name);
+            super.visit(version, access, name, signature, superName, interfaces, classVisitor);
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible, ClassVisitor classVisitor) {
+            calls.add(name + " annotation " + descriptor);
+            return super.visitAnnotation(descriptor, visible, classVisitor);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value, ClassVisitor classVisitor) {
+            calls.add(this.name + " field " + name);
+            return super.visitField(access, name, descriptor, signature, value, classVisitor);
+        }
+
+        @Override
+        public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+            calls.add(this.name + " method " + name);
+            return super.visitMethod(access, name, descriptor, signature, exceptions, classVisitor);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.omnimc.trix.contexts;
+
+import org.junit.Test;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InvokeDynamicRemapperTest {
+
+    private static final Handle METAFACTORY = new Handle(Opcodes.H_INVOKESTATIC, "java/lang/invoke/LambdaMetafactory", "metafactory",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodType;"
+                    + "Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;", false);
+    private static final Handle OBJECT_METHODS = new Handle(Opcodes.H_INVOKESTATIC, "java/lang/runtime/ObjectMethods", "bootstrap",
+            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/TypeDescriptor;Ljava/lang/Class;"
+                    + "Ljava/lang/String;[Ljava/lang/invoke/MethodHandle;)Ljava/lang/Object;", false);
+
+    private final InvokeDynamicRemapper remapper = new InvokeDynamicRemapper(new SimpleRemapper(Map.of(
+            "a", "com/example/Action",
+            "c", "com/example/Item",
+            "e", "com/example/Entry",
+            "a.b(Lcom/example/Item;)V", "accept",
+            "d.f(Lcom/example/Item;)V", "handle",
+            "e.x", "count",
+            "e.y", "action",
+            ".g()I", "size")));
+
+    @Test
+    public void lambdaCallSitesAreNamedAfterTheirInterfaceMethod() {
+        Object[] arguments = {Type.getMethodType("(Lc;)V"), new Handle(Opcodes.H_INVOKESTATIC, "d", "f", "(Lc;)V", false), Type.getMethodType("(Lc;)V")};
+
+        assertEquals("accept", remapper.mapInvokeDynamicName("b", "()La;", METAFACTORY, arguments));
+
+        Object[] mapped = remapper.mapArguments(METAFACTORY, arguments);
+        assertEquals(Type.getMethodType("(Lcom/example/Item;)V"), mapped[0]);
+        assertEquals(new Handle(Opcodes.H_INVOKESTATIC, "d", "handle", "(Lcom/example/Item;)V", false), mapped[1]);
+        assertEquals(Type.getMethodType("(Lcom/example/Item;)V"), mapped[2]);
+    }
+
+    @Test
+    public void otherCallSitesUseTheRemapper() {
+        Handle bootstrap = new Handle(Opcodes.H_INVOKESTATIC, "h", "bootstrap", "()V", false);
+
+        assertEquals("size", remapper.mapInvokeDynamicName("g", "()I", bootstrap, new Object[0]));
+        /* A primitive return type has no interface method to look up. */
+        assertEquals("b", remapper.mapInvokeDynamicName("b", "()V", METAFACTORY, new Object[]{Type.getMethodType("()V")}));
+    }
+
+    @Test
+    public void recordComponentNamesFollowTheirGetters() {
+        Object[] arguments = {Type.getObjectType("e"), "x;y",
+                new Handle(Opcodes.H_GETFIELD, "e", "x", "I", false),
+                new Handle(Opcodes.H_GETFIELD, "e", "y", "La;", false)};
+
+        Object[] mapped = remapper.mapArguments(OBJECT_METHODS, arguments);
+        assertEquals(Type.getObjectType("com/example/Entry"), mapped[0]);
+        assertEquals("count;action", mapped[1]);
+        assertEquals(new Handle(Opcodes.H_GETFIELD, "com/example/Entry", "action", "Lcom/example/Action;", false), mapped[3]);
+    }
+
+    @Test
+    public void argumentsAreCopiedAndCached() {
+        Object[] arguments = {Type.getObjectType("c"), "unchanged"};
+
+        Object[] first = remapper.mapArguments(OBJECT_METHODS, arguments);
+        Object[] second = remapper.mapArguments(OBJECT_METHODS, arguments.clone());
+        assertNotSame(first, second);
+        assertArrayEquals(first, second);
+        assertEquals(Type.getObjectType("c"), arguments[0]);
+
+        assertNull(remapper.mapArguments(OBJECT_METHODS, null));
+        Handle handle = new Handle(Opcodes.H_INVOKEVIRTUAL, "a", "b", "(Lc;)V", true);
+        assertSame(remapper.mapHandle(handle), remapper.mapHandle(handle));
+        assertEquals(new Handle(Opcodes.H_INVOKEVIRTUAL, "com/example/Action", "accept", "(Lcom/example/Item;)V", true), remapper.mapHandle(handle));
+    }
+
+    @Test
+    public void dynamicConstantsAreRemapped() {
+        Handle bootstrap = new Handle(Opcodes.H_INVOKESTATIC, "a", "b", "(Lc;)V", true);
+        ConstantDynamic constant = new ConstantDynamic("g", "Lc;", bootstrap, Type.getObjectType("e"), new ConstantDynamic("inner", "I", bootstrap));
+
+        ConstantDynamic mapped = (ConstantDynamic) remapper.mapValue(constant);
+        assertEquals("Lcom/example/Item;", mapped.getDescriptor());
+        assertEquals(new Handle(Opcodes.H_INVOKESTATIC, "com/example/Action", "accept", "(Lcom/example/Item;)V", true), mapped.getBootstrapMethod());
+        assertEquals(Type.getObjectType("com/example/Entry"), mapped.getBootstrapMethodArgument(0));
+        assertEquals("com/example/Action", ((ConstantDynamic) mapped.getBootstrapMethodArgument(1)).getBootstrapMethod().getOwner());
+        assertEquals("unchanged", remapper.mapValue("unchanged"));
+    }
+}
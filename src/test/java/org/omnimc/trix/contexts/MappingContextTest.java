@@ -0,0 +1,141 @@
+package org.omnimc.trix.contexts;
+
+import org.junit.Test;
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.AnnotationNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.omnimc.trix.mapping.LocalNameTable;
+import org.omnimc.trix.mapping.MappingChange;
+import org.omnimc.trix.strings.StringRemapper;
+import org.omnimc.trix.transformer.MappingTransformer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MappingContextTest {
+
+    private static final SimpleRemapper REMAPPER = new SimpleRemapper(Map.of("a", "com/example/Counter"));
+
+    @Test
+    public void onlyParameterSlotsAreRenamed() {
+        LocalNameTable localNameTable = new LocalNameTable()
+                .addLocalName("a", "b", "(I)V", 0, "amount")
+                .addLocalName("a", "b", "(I)V", 1, "reused");
+
+        MethodNode method = remapMethod(new MappingContext(REMAPPER).setLocalNameTable(localNameTable));
+
+        assertEquals("amount", method.parameters.get(0).name);
+        LocalVariableNode[] locals = method.localVariables.toArray(new LocalVariableNode[0]);
+        assertEquals("amount", locals[0].name);
+        /* Slot 1 holds two locals one after the other, neither is renamed. */
+        assertEquals("first", locals[1].name);
+        assertEquals("second", locals[2].name);
+        assertEquals("Lcom/example/Counter;", locals[2].desc);
+    }
+
+    @Test
+    public void namesPastTheParametersAreIgnored() {
+        assertNull(LocalNameTable.getParameterSlotNames(new String[]{null, "local"}, Opcodes.ACC_STATIC, "(I)V"));
+        assertArrayEquals(new String[]{"this", "value", null},
+                LocalNameTable.getParameterSlotNames(new String[]{"this", "value", null, "local"}, 0, "(J)V"));
+        assertArrayEquals(new String[]{null, "value", null, "other"},
+                LocalNameTable.getParameterSlotNames(new String[]{null, "value", null, "other", "local"}, Opcodes.ACC_STATIC, "(JD)V"));
+    }
+
+    @Test
+    public void memberAnnotationsAreRemapped() {
+        ClassNode viaVisitor = new ClassNode();
+        new ClassReader(new MappingChange(stringContext()).remap(annotatedClass())).accept(viaVisitor, 0);
+
+        ClassNode viaTree = new ClassNode();
+        new ClassReader(annotatedClass()).accept(viaTree, 0);
+        new MappingTransformer(stringContext()).transform(viaTree);
+
+        for (ClassNode classNode : List.of(viaVisitor, viaTree)) {
+            assertAnnotation(classNode.fields.get(0).invisibleAnnotations.get(0));
+            assertEquals("Lcom/example/Counter;", classNode.fields.get(0).visibleTypeAnnotations.get(0).desc);
+            assertAnnotation(classNode.recordComponents.get(0).visibleAnnotations.get(0));
+            assertEquals("com/example/Counter", classNode.methods.get(0).annotationDefault);
+        }
+    }
+
+    private static void assertAnnotation(AnnotationNode annotation) {
+        assertEquals("Lcom/example/Counter;", annotation.desc);
+        assertEquals(List.of("value", "com/example/Counter"), annotation.values);
+    }
+
+    private static MappingContext stringContext() {
+        return new MappingContext(REMAPPER).setStringRemapper(StringRemapper.builder().addClass("a", "com/example/Counter").setMinimumLength(1).build());
+    }
+
+    /* A record with a field, a component and a method with a default, each annotated with a, naming a in strings. */
+    private static byte[] annotatedClass() {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "a", null, "java/lang/Record", null);
+
+        RecordComponentVisitor recordComponent = classWriter.visitRecordComponent("x", "I", null);
+        AnnotationVisitor annotation = recordComponent.visitAnnotation("La;", true);
+        annotation.visit("value", "a");
+        annotation.visitEnd();
+        recordComponent.visitEnd();
+
+        FieldVisitor field = classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "x", "I", null, null);
+        annotation = field.visitAnnotation("La;", false);
+        annotation.visit("value", "a");
+        annotation.visitEnd();
+        field.visitTypeAnnotation(TypeReference.newTypeReference(TypeReference.FIELD).getValue(), null, "La;", true).visitEnd();
+        field.visitEnd();
+
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "c", "()Ljava/lang/String;", null, null);
+        annotation = method.visitAnnotationDefault();
+        annotation.visit(null, "a");
+        annotation.visitEnd();
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    private static MethodNode remapMethod(MappingContext mappingContext) {
+        byte[] remapped = new MappingChange(mappingContext).remap(counterClass());
+        ClassNode classNode = new ClassNode();
+        new ClassReader(remapped).accept(classNode, 0);
+        return classNode.methods.get(0);
+    }
+
+    /* static void b(int x) { int first = x; { a second = null; } } with a MethodParameters attribute. */
+    private static byte[] counterClass() {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "a", null, "java/lang/Object", null);
+
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_STATIC, "b", "(I)V", null, null);
+        method.visitParameter("x", 0);
+        method.visitCode();
+        Label start = new Label();
+        Label firstStart = new Label();
+        Label secondStart = new Label();
+        Label end = new Label();
+        method.visitLabel(start);
+        method.visitVarInsn(Opcodes.ILOAD, 0);
+        method.visitVarInsn(Opcodes.ISTORE, 1);
+        method.visitLabel(firstStart);
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitVarInsn(Opcodes.ASTORE, 1);
+        method.visitLabel(secondStart);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitLabel(end);
+        method.visitLocalVariable("x", "I", null, start, end, 0);
+        method.visitLocalVariable("first", "I", null, firstStart, secondStart, 1);
+        method.visitLocalVariable("second", "La;", null, secondStart, end, 1);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
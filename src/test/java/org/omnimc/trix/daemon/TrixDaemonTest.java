@@ -0,0 +1,94 @@
+package org.omnimc.trix.daemon;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TrixDaemonTest {
+
+    private Path directory;
+    private Path socket;
+    private TrixDaemon daemon;
+    private final BlockingQueue<IOException> errors = new LinkedBlockingQueue<>();
+
+    @Before
+    public void startDaemon() throws Exception {
+        directory = Files.createTempDirectory("trix-daemon");
+        socket = directory.resolve("trix.sock");
+        daemon = new TrixDaemon(socket, 1, 1).setErrorListener(errors::add);
+
+        Thread thread = new Thread(() -> {
+            try {
+                daemon.run();
+            } catch (IOException ignored) {
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+
+        // The socket file shows up just before the daemon listens on it.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try (SocketChannel probe = connect()) {
+                break;
+            } catch (IOException e) {
+                Thread.sleep(10);
+            }
+        }
+        errors.poll(1, TimeUnit.SECONDS);
+        errors.clear();
+    }
+
+    private SocketChannel connect() throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @After
+    public void stopDaemon() throws Exception {
+        daemon.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Test(timeout = 10000)
+    public void stalledClientDoesNotBlockOtherRequests() throws Exception {
+        try (SocketChannel stalled = connect()) {
+            // Never sends its request, the next client still has to be answered.
+            RemapRequest request = new RemapRequest(directory.resolve("missing.lumina"), directory.resolve("base.jar"),
+                    directory.resolve("input.jar"), 0);
+            IOException error = assertThrows(IOException.class,
+                    () -> new TrixClient(socket).remap(request, directory.resolve("output.jar")));
+            assertTrue(error.getMessage(), error.getMessage().startsWith("Daemon failed to remap"));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void unreadableRequestIsReportedToErrorListener() throws Exception {
+        connect().close();
+
+        assertNotNull(errors.poll(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,143 @@
+package org.omnimc.trix.hierarchy;
+
+import org.junit.Test;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HierarchyManagerTest {
+
+    @Test
+    public void overlayChangesDoNotReachTheBase() {
+        HierarchyManager base = base();
+        ClassInfo baseEntity = base.getClassInfo("a");
+
+        HierarchyManager overlay = base.createOverlay();
+        ClassInfo entity = overlay.getClassInfoForUpdate("a");
+        assertNotNull(entity);
+        assertNotSame(baseEntity, entity);
+        entity.addMethod("g", "heal", "()V");
+        entity.addField("h", "armor", "I");
+
+        assertSame(entity, overlay.getClassInfo("a"));
+        assertEquals("heal", overlay.getMethodName("a", "g", "()V"));
+        assertEquals("armor", overlay.getFieldName("a", "h", "I"));
+
+        assertSame(baseEntity, base.getClassInfo("a"));
+        assertEquals("g", base.getMethodName("a", "g", "()V"));
+        assertEquals("h", base.getFieldName("a", "h", "I"));
+        assertEquals(1, baseEntity.getMethods().size());
+        assertEquals(1, baseEntity.getFields().size());
+    }
+
+    @Test
+    public void baseClassesAreSharedUntilWritten() {
+        HierarchyManager base = base();
+        HierarchyManager overlay = base.createOverlay();
+
+        /* Reads fall through to the base without copying anything. */
+        assertSame(base.getClassInfo("a"), overlay.getClassInfo("a"));
+        assertEquals("copy", overlay.getMethodName("a", "b", "(La;)V"));
+        assertTrue(overlay.getClassFiles().isEmpty());
+
+        ClassInfo entity = overlay.getClassInfoForUpdate("a");
+        assertEquals(1, overlay.getClassFiles().size());
+        /* The copy is only made once. */
+        assertSame(entity, overlay.getClassInfoForUpdate("a"));
+        assertNull(overlay.getClassInfoForUpdate("z"));
+        assertTrue(overlay.getClassFiles().containsKey("a"));
+    }
+
+    @Test
+    public void overlaysDoNotSeeEachOther() {
+        HierarchyManager base = base();
+
+        HierarchyManager first = base.createOverlay();
+        ClassInfo player = new ClassInfo("com/example/Player");
+        player.addDependentClass("a");
+        player.addMethod("b", "copy", "(La;)V");
+        first.addClassFile("e", player);
+        first.populateClassFiles();
+        first.getClassInfoForUpdate("a").addMethod("g", "heal", "()V");
+
+        HierarchyManager second = base.createOverlay();
+
+        assertEquals("com/example/Player", first.getClassName("e"));
+        assertEquals("heal", first.getMethodName("a", "g", "()V"));
+        /* Inherited members are pulled into the overlay's own class. */
+        assertEquals("health", first.getFieldName("e", "c", "I"));
+
+        assertEquals("e", second.getClassName("e"));
+        assertEquals("g", second.getMethodName("a", "g", "()V"));
+        assertEquals("e", base.getClassName("e"));
+        assertNull(base.getClassInfo("e"));
+    }
+
+    @Test
+    public void onlyFrozenManagersCanBeShared() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+        assertThrows(IllegalStateException.class, hierarchyManager::createOverlay);
+
+        HierarchyManager base = base();
+        assertThrows(IllegalStateException.class, () -> base.getClassInfoForUpdate("a"));
+        assertThrows(IllegalStateException.class, () -> base.addClassFile("e", new ClassInfo("com/example/Player")));
+    }
+
+    @Test
+    public void javaClassesAreNeverRemapped() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+
+        /* A mapping that names java/lang/Object itself and methods overriding the JDK ones. */
+        ClassInfo object = new ClassInfo("com/example/Root");
+        object.addMethod("hashCode", "hash", "()I");
+        object.addField("x", "y", "I");
+        hierarchyManager.addClassFile("java/lang/Object", object);
+
+        ClassInfo entity = new ClassInfo("com/example/Entity");
+        entity.addDependentClass("java/lang/Object");
+        entity.addDependentClass("java/lang/Runnable");
+        entity.addMethod("toString", "describe", "()Ljava/lang/String;");
+        entity.addMethod("run", "execute", "()V");
+        entity.addMethod("b", "tick", "()V");
+        hierarchyManager.addClassFile("a", entity);
+
+        hierarchyManager.populateClassFiles();
+        hierarchyManager.freeze();
+
+        assertNull(hierarchyManager.getClassInfo("java/lang/Object"));
+        assertTrue(hierarchyManager.isPinnedMethod("a", "toString", "()Ljava/lang/String;"));
+        assertTrue(hierarchyManager.isPinnedMethod("a", "run", "()V"));
+        assertFalse(hierarchyManager.isPinnedMethod("a", "b", "()V"));
+
+        for (Remapper remapper : List.of(hierarchyManager.getRemapper(), RemapperCompiler.compile(hierarchyManager))) {
+            assertEquals("java/lang/Object", remapper.mapType("java/lang/Object"));
+            assertEquals("hashCode", remapper.mapMethodName("java/lang/Object", "hashCode", "()I"));
+            assertEquals("hashCode", remapper.mapMethodName("a", "hashCode", "()I"));
+            assertEquals("x", remapper.mapFieldName("java/lang/Object", "x", "I"));
+            assertEquals("x", remapper.mapFieldName("a", "x", "I"));
+            assertEquals("toString", remapper.mapMethodName("a", "toString", "()Ljava/lang/String;"));
+            assertEquals("run", remapper.mapMethodName("a", "run", "()V"));
+
+            /* Everything else of a is still renamed. */
+            assertEquals("com/example/Entity", remapper.mapType("a"));
+            assertEquals("tick", remapper.mapMethodName("a", "b", "()V"));
+        }
+    }
+
+    /* a (Entity) has a method and a field. */
+    private static HierarchyManager base() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+
+        ClassInfo entity = new ClassInfo("com/example/Entity");
+        entity.addDependentClass("java/lang/Object");
+        entity.addMethod("b", "copy", "(La;)V");
+        entity.addField("c", "health", "I");
+        hierarchyManager.addClassFile("a", entity);
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager.freeze();
+    }
+}
@@ -0,0 +1,56 @@
+package org.omnimc.trix.hierarchy;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+
+import static org.junit.Assert.*;
+
+public class HierarchyTest {
+
+    @Test
+    public void everyCallGetsItsOwnClassNode() {
+        Hierarchy hierarchy = Hierarchy.getHierarchy(new ClassReader(counterClass()));
+
+        ClassNode first = hierarchy.getClassNode(0);
+        first.name = "changed";
+        first.methods.clear();
+
+        ClassNode second = hierarchy.getClassNode(0);
+        assertNotSame(first, second);
+        assertEquals("a", second.name);
+        assertEquals(1, second.methods.size());
+    }
+
+    @Test
+    public void theSharedClassNodeIsParsedOncePerOptions() {
+        Hierarchy hierarchy = Hierarchy.getHierarchy(new ClassReader(counterClass()));
+
+        ClassNode shared = hierarchy.getSharedClassNode(0);
+        assertSame(shared, hierarchy.getSharedClassNode(0));
+        /* Taking a copy doesn't touch the shared node. */
+        assertNotSame(shared, hierarchy.getClassNode(0));
+
+        ClassNode skipCode = hierarchy.getSharedClassNode(ClassReader.SKIP_CODE);
+        assertNotSame(shared, skipCode);
+        assertEquals(0, skipCode.methods.get(0).instructions.size());
+    }
+
+    /* class a { void r() { } } */
+    private static byte[] counterClass() {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "a", null, "java/lang/Object", null);
+
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "r", "()V", null, null);
+        method.visitCode();
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 1);
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
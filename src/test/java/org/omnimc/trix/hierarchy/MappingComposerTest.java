@@ -0,0 +1,109 @@
+package org.omnimc.trix.hierarchy;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.mapping.MappingLookup;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MappingComposerTest {
+
+    /* Obfuscated to intermediary, keyed the way MappingLookup asks, with descriptors in the names of the layer. */
+    private static final MappingLookup INTERMEDIARY = layer(Map.of(
+            "a", "int/class_1",
+            "d", "int/class_2",
+            "a.b", "field_1",
+            "d.e", "field_2",
+            "a.c(Lint/class_1;)V", "method_1",
+            "d.c(Lint/class_1;)V", "method_1"));
+
+    /* Intermediary to named, field_2 is left out. */
+    private static final MappingLookup NAMED = layer(Map.of(
+            "int/class_1", "com/example/Entity",
+            "int/class_2", "com/example/Player",
+            "int/class_1.field_1", "health",
+            "int/class_1.method_1(Lcom/example/Entity;)V", "copy",
+            "int/class_2.method_1(Lcom/example/Entity;)V", "copy"));
+
+    @Test
+    public void twoLayersMapStraightToTheLastNames() {
+        MappingComposer composer = new MappingComposer(classes()).addLayer(INTERMEDIARY).addLayer(NAMED);
+        HierarchyManager composed = composer.compose();
+        Remapper remapper = composed.getRemapper();
+
+        assertTrue(composed.isFrozen());
+        assertEquals("com/example/Entity", remapper.mapType("a"));
+        assertEquals("com/example/Player", remapper.mapType("d"));
+        assertEquals("(Lcom/example/Entity;)V", remapper.mapMethodDesc("(La;)V"));
+        assertEquals("health", remapper.mapFieldName("a", "b", "I"));
+        assertEquals("health", remapper.mapFieldName("d", "b", "I"));
+        assertEquals("copy", remapper.mapMethodName("a", "c", "(La;)V"));
+        assertEquals("copy", remapper.mapMethodName("d", "c", "(La;)V"));
+        /* Only the first layer names it. */
+        assertEquals("field_2", remapper.mapFieldName("d", "e", "I"));
+    }
+
+    @Test
+    public void namesLeftAsTheyAreAreReported() {
+        MappingComposer composer = new MappingComposer(classes()).addLayer(INTERMEDIARY).addLayer(NAMED);
+        composer.compose();
+        CompositionReport report = composer.getReport();
+
+        assertEquals(2, report.getLayerCount());
+        assertEquals(2, report.getClassCount());
+        assertEquals(0, report.getMissingClasses(0) + report.getMissingFields(0) + report.getMissingMethods(0));
+        assertEquals(0, report.getMissingClasses(1));
+        assertEquals(1, report.getMissingFields(1));
+        assertEquals(0, report.getMissingMethods(1));
+        assertEquals(1, report.getMissingEntries(1).size());
+        assertTrue(report.getMissingEntries(1).get(0).contains("field_2"));
+    }
+
+    @Test
+    public void composingNeedsALayer() {
+        MappingComposer composer = new MappingComposer(classes());
+
+        assertThrows(IllegalStateException.class, composer::compose);
+        assertThrows(IllegalStateException.class, composer::getReport);
+    }
+
+    private static MappingLookup layer(Map<String, String> names) {
+        return new MappingLookup() {
+            @Override
+            public String getClassName(String name) {
+                return names.getOrDefault(name, name);
+            }
+
+            @Override
+            public String getMethodName(String owner, String name, String descriptor) {
+                return names.getOrDefault(owner + '.' + name + descriptor, name);
+            }
+
+            @Override
+            public String getFieldName(String owner, String name) {
+                return names.getOrDefault(owner + '.' + name, name);
+            }
+        };
+    }
+
+    /* abstract class a { int b; abstract void c(a a); }, abstract class d extends a { int e; void c(a a); } */
+    private static Map<String, byte[]> classes() {
+        ClassWriter entity = new ClassWriter(0);
+        entity.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "a", null, "java/lang/Object", null);
+        entity.visitField(Opcodes.ACC_PUBLIC, "b", "I", null, null).visitEnd();
+        entity.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "c", "(La;)V", null, null).visitEnd();
+        entity.visitEnd();
+
+        ClassWriter player = new ClassWriter(0);
+        player.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "d", null, "a", null);
+        player.visitField(Opcodes.ACC_PUBLIC, "e", "I", null, null).visitEnd();
+        player.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT, "c", "(La;)V", null, null).visitEnd();
+        player.visitEnd();
+
+        return Map.of("a.class", entity.toByteArray(), "d.class", player.toByteArray());
+    }
+}
@@ -0,0 +1,111 @@
+package org.omnimc.trix.hierarchy;
+
+import org.junit.Test;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RemapperCompilerTest {
+
+    @Test
+    public void compiledRemapperMatchesTheHierarchy() {
+        HierarchyManager hierarchyManager = hierarchy();
+        Remapper custom = hierarchyManager.getRemapper();
+        Remapper compiled = RemapperCompiler.compile(hierarchyManager);
+
+        for (String type : List.of("a", "e", "g", "java/lang/Object")) {
+            assertEquals(type, custom.mapType(type), compiled.mapType(type));
+        }
+
+        List<String[]> methods = List.of(
+                new String[]{"a", "b", "(La;)V"},
+                new String[]{"e", "b", "(La;)V"},
+                new String[]{"a", "b", "()V"},
+                new String[]{"a", "d", "()V"},
+                new String[]{"e", "d", "()V"},
+                new String[]{"a", "toString", "()Ljava/lang/String;"},
+                new String[]{"a", "<init>", "()V"},
+                new String[]{"g", "b", "(La;)V"});
+        for (String[] method : methods) {
+            assertEquals(Arrays.toString(method), custom.mapMethodName(method[0], method[1], method[2]),
+                    compiled.mapMethodName(method[0], method[1], method[2]));
+        }
+
+        List<String[]> fields = List.of(
+                new String[]{"a", "c", "I"},
+                new String[]{"e", "c", "I"},
+                new String[]{"e", "f", "La;"},
+                new String[]{"a", "f", "La;"},
+                new String[]{"g", "c", "I"});
+        for (String[] field : fields) {
+            assertEquals(Arrays.toString(field), custom.mapFieldName(field[0], field[1], field[2]),
+                    compiled.mapFieldName(field[0], field[1], field[2]));
+        }
+
+        assertEquals("com/example/Entity", compiled.mapType("a"));
+        assertEquals("copy", compiled.mapMethodName("e", "b", "(La;)V"));
+        assertEquals("tick", compiled.mapMethodName("a", "d", "()V"));
+        assertEquals("health", compiled.mapFieldName("a", "c", "I"));
+        assertEquals("target", compiled.mapFieldName("e", "f", "La;"));
+    }
+
+    @Test(timeout = 60000)
+    public void manyOverloadsOfOneNameAreCompiled() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+        ClassInfo entity = new ClassInfo("com/example/Entity");
+        entity.addDependentClass("java/lang/Object");
+        for (int i = 0; i < 250; i++) {
+            entity.addMethod("a", "method" + i, "(" + "I".repeat(i) + ")V");
+        }
+        hierarchyManager.addClassFile("a", entity);
+
+        ClassInfo player = new ClassInfo("com/example/Player");
+        player.addDependentClass("a");
+        hierarchyManager.addClassFile("e", player);
+        hierarchyManager.populateClassFiles();
+        hierarchyManager.freeze();
+
+        Remapper custom = hierarchyManager.getRemapper();
+        Remapper compiled = RemapperCompiler.compile(hierarchyManager);
+        for (int i = 0; i < 250; i++) {
+            String descriptor = "(" + "I".repeat(i) + ")V";
+            assertEquals("method" + i, compiled.mapMethodName("a", "a", descriptor));
+            assertEquals(custom.mapMethodName("e", "a", descriptor), compiled.mapMethodName("e", "a", descriptor));
+        }
+        assertEquals("a", compiled.mapMethodName("a", "a", "(J)V"));
+    }
+
+    @Test
+    public void onlyFrozenHierarchiesCanBeCompiled() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+        hierarchyManager.addClassFile("a", new ClassInfo("com/example/Entity"));
+
+        assertThrows(IllegalStateException.class, () -> RemapperCompiler.compile(hierarchyManager));
+    }
+
+    /* a (Entity) has a method, a private method and a field, e (Player) extends it and overrides the method. */
+    private static HierarchyManager hierarchy() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+
+        ClassInfo entity = new ClassInfo("com/example/Entity");
+        entity.addDependentClass("java/lang/Object");
+        entity.addMethod("b", "copy", "(Lcom/example/Entity;)V");
+        entity.addMethod("toString", "toString", "()Ljava/lang/String;");
+        entity.addPrivateMethod("d", "tick", "()V");
+        entity.addField("c", "health", "I");
+        hierarchyManager.addClassFile("a", entity);
+
+        ClassInfo player = new ClassInfo("com/example/Player");
+        player.addDependentClass("a");
+        player.addMethod("b", "copy", "(Lcom/example/Entity;)V");
+        player.addField("f", "target", "Lcom/example/Entity;");
+        hierarchyManager.addClassFile("e", player);
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager.freeze();
+    }
+}
@@ -0,0 +1,132 @@
+package org.omnimc.trix.hierarchy;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.Remapper;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ReverseIndexTest {
+
+    @Test
+    public void reverseRemapperUndoesTheRemapper() {
+        HierarchyManager hierarchyManager = hierarchy();
+        Remapper remapper = hierarchyManager.getRemapper();
+        Remapper reverseRemapper = hierarchyManager.getReverseRemapper();
+
+        for (String type : new String[]{"a", "e", "java/lang/Object"}) {
+            assertEquals(type, reverseRemapper.mapType(remapper.mapType(type)));
+        }
+        assertEquals("(La;Le;)La;", reverseRemapper.mapMethodDesc(remapper.mapMethodDesc("(La;Le;)La;")));
+
+        assertRoundTrip(remapper, reverseRemapper, "a", "b", "(La;)V");
+        assertRoundTrip(remapper, reverseRemapper, "e", "b", "(La;)V");
+        assertRoundTrip(remapper, reverseRemapper, "a", "d", "()V");
+        assertEquals("c", reverseRemapper.mapFieldName("com/example/Entity", remapper.mapFieldName("a", "c", "I"), "I"));
+        assertEquals("f", reverseRemapper.mapFieldName("com/example/Player", remapper.mapFieldName("e", "f", "La;"), "Lcom/example/Entity;"));
+    }
+
+    @Test
+    public void descriptorsCanBeGivenEitherWay() {
+        Remapper reverseRemapper = hierarchy().getReverseRemapper();
+
+        assertEquals("b", reverseRemapper.mapMethodName("com/example/Entity", "copy", "(Lcom/example/Entity;)V"));
+        assertEquals("b", reverseRemapper.mapMethodName("com/example/Entity", "copy", "(La;)V"));
+        assertEquals("f", reverseRemapper.mapFieldName("com/example/Player", "target", "La;"));
+    }
+
+    @Test
+    public void unknownNamesAreKept() {
+        Remapper reverseRemapper = hierarchy().getReverseRemapper();
+
+        assertEquals("com/example/Missing", reverseRemapper.mapType("com/example/Missing"));
+        assertEquals("toString", reverseRemapper.mapMethodName("com/example/Entity", "toString", "()Ljava/lang/String;"));
+        assertEquals("copy", reverseRemapper.mapMethodName("com/example/Entity", "copy", "()V"));
+        assertEquals("health", reverseRemapper.mapFieldName("com/example/Missing", "health", "I"));
+    }
+
+    @Test
+    public void overlaysFallThroughToTheirBase() {
+        HierarchyManager overlay = hierarchy().createOverlay();
+        ClassInfo zombie = new ClassInfo("com/example/Zombie");
+        zombie.addDependentClass("a");
+        zombie.addMethod("h", "groan", "(Lcom/example/Player;)V");
+        overlay.addClassFile("g", zombie);
+        overlay.populateClassFiles();
+        overlay.freeze();
+
+        Remapper reverseRemapper = overlay.getReverseRemapper();
+        assertEquals("g", reverseRemapper.mapType("com/example/Zombie"));
+        assertEquals("a", reverseRemapper.mapType("com/example/Entity"));
+        assertEquals("h", reverseRemapper.mapMethodName("com/example/Zombie", "groan", "(Lcom/example/Player;)V"));
+        assertEquals("c", reverseRemapper.mapFieldName("com/example/Entity", "health", "I"));
+        assertEquals("(Le;)Lg;", reverseRemapper.mapMethodDesc("(Lcom/example/Player;)Lcom/example/Zombie;"));
+    }
+
+    @Test
+    public void modClassesResolveThroughTheirSupertypes() {
+        /* mod/Boss extends mod/Base, which extends com/example/Player, both only known from the mod jar. */
+        Map<String, byte[]> modClasses = Map.of(
+                "mod/Boss.class", modClass("mod/Boss", "mod/Base"),
+                "mod/Base.class", modClass("mod/Base", "com/example/Player"));
+        Remapper reverseRemapper = hierarchy().getReverseRemapper(modClasses);
+
+        assertEquals("b", reverseRemapper.mapMethodName("mod/Boss", "copy", "(Lcom/example/Entity;)V"));
+        assertEquals("b", reverseRemapper.mapMethodName("mod/Base", "copy", "(Lcom/example/Entity;)V"));
+        assertEquals("c", reverseRemapper.mapFieldName("mod/Boss", "health", "I"));
+        assertEquals("f", reverseRemapper.mapFieldName("mod/Boss", "target", "Lcom/example/Entity;"));
+        /* Private members aren't inherited, and members no supertype has are kept. */
+        assertEquals("tick", reverseRemapper.mapMethodName("mod/Boss", "tick", "()V"));
+        assertEquals("roar", reverseRemapper.mapMethodName("mod/Boss", "roar", "()V"));
+        assertEquals("toString", reverseRemapper.mapMethodName("mod/Boss", "toString", "()Ljava/lang/String;"));
+
+        assertEquals("copy", hierarchy().getReverseRemapper().mapMethodName("mod/Boss", "copy", "(Lcom/example/Entity;)V"));
+    }
+
+    @Test
+    public void onlyFrozenHierarchiesCanBeReversed() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+        hierarchyManager.addClassFile("a", new ClassInfo("com/example/Entity"));
+
+        assertThrows(IllegalStateException.class, hierarchyManager::getReverseRemapper);
+    }
+
+    private static void assertRoundTrip(Remapper remapper, Remapper reverseRemapper, String owner, String name, String descriptor) {
+        String mappedName = remapper.mapMethodName(owner, name, descriptor);
+        assertNotEquals(name, mappedName);
+        assertEquals(name, reverseRemapper.mapMethodName(remapper.mapType(owner), mappedName, remapper.mapMethodDesc(descriptor)));
+    }
+
+    private static byte[] modClass(String name, String superName) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, superName, null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /* a (Entity) has a method, a private method and a field, e (Player) extends it and overrides the method. */
+    private static HierarchyManager hierarchy() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+
+        ClassInfo entity = new ClassInfo("com/example/Entity");
+        entity.addDependentClass("java/lang/Object");
+        entity.addMethod("b", "copy", "(Lcom/example/Entity;)V");
+        entity.addMethod("toString", "toString", "()Ljava/lang/String;");
+        entity.addPrivateMethod("d", "tick", "()V");
+        entity.addField("c", "health", "I");
+        hierarchyManager.addClassFile("a", entity);
+
+        ClassInfo player = new ClassInfo("com/example/Player");
+        player.addDependentClass("a");
+        player.addMethod("b", "copy", "(Lcom/example/Entity;)V");
+        player.addField("f", "target", "Lcom/example/Entity;");
+        hierarchyManager.addClassFile("e", player);
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager.freeze();
+    }
+}
@@ -0,0 +1,112 @@
+package org.omnimc.trix.loader;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.omnimc.trix.hierarchy.HierarchyManager;
+import org.omnimc.trix.hierarchy.info.ClassInfo;
+import org.omnimc.trix.io.JarIO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RemappingClassLoaderTest {
+
+    private Path directory;
+    private Path jar;
+    private RemappingClassLoader loader;
+
+    @Before
+    public void writeJar() throws IOException {
+        directory = Files.createTempDirectory("trix-loader");
+        jar = directory.resolve("client.jar");
+        JarIO.writeJar(jar, Map.of(
+                "a.class", emptyClass("a"),
+                "b.class", emptyClass("b"),
+                "assets/data.txt", "data".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @After
+    public void deleteJar() throws IOException {
+        if (loader != null) {
+            loader.close();
+        }
+        Files.delete(jar);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void classesAreDefinedUnderTheirMappedName() throws Exception {
+        loader = new RemappingClassLoader(jar, hierarchy(), RemappingClassLoaderTest.class.getClassLoader(), 16);
+
+        Class<?> first = loader.loadClass("com.example.First");
+        assertEquals("com.example.First", first.getName());
+        assertSame(loader, first.getClassLoader());
+        /* A renamed class is only reachable by its mapped name. */
+        assertThrows(ClassNotFoundException.class, () -> loader.loadClass("a"));
+    }
+
+    @Test
+    public void resourcesAreFoundInTheJar() throws IOException {
+        loader = new RemappingClassLoader(jar, hierarchy(), null, 16);
+
+        URL classResource = loader.getResource("com/example/First.class");
+        assertNotNull(classResource);
+        try (InputStream inputStream = classResource.openStream()) {
+            assertEquals("com/example/First", new ClassReader(inputStream.readAllBytes()).getClassName());
+        }
+        assertNull(loader.getResource("a.class"));
+
+        URL dataResource = loader.getResource("assets/data.txt");
+        assertNotNull(dataResource);
+        try (InputStream inputStream = dataResource.openStream()) {
+            assertEquals("data", new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(1, Collections.list(loader.getResources("assets/data.txt")).size());
+        assertNull(loader.getResource("assets/missing.txt"));
+    }
+
+    @Test
+    public void leastRecentlyUsedClassesAreEvicted() throws IOException {
+        loader = new RemappingClassLoader(jar, hierarchy(), null, 1);
+
+        byte[] first = loader.getRemappedClass("com/example/First");
+        assertSame(first, loader.getRemappedClass("com/example/First"));
+
+        /* Only one class fits, so First is remapped again after Second pushed it out. */
+        loader.getRemappedClass("com/example/Second");
+        byte[] remappedAgain = loader.getRemappedClass("com/example/First");
+        assertNotSame(first, remappedAgain);
+        assertArrayEquals(first, remappedAgain);
+    }
+
+    private static HierarchyManager hierarchy() {
+        HierarchyManager hierarchyManager = new HierarchyManager();
+        for (String[] names : new String[][]{{"a", "com/example/First"}, {"b", "com/example/Second"}}) {
+            ClassInfo classInfo = new ClassInfo(names[1]);
+            classInfo.addDependentClass("java/lang/Object");
+            hierarchyManager.addClassFile(names[0], classInfo);
+        }
+
+        hierarchyManager.populateClassFiles();
+        return hierarchyManager.freeze();
+    }
+
+    private static byte[] emptyClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
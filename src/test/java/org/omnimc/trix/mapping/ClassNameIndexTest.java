@@ -0,0 +1,82 @@
+package org.omnimc.trix.mapping;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ClassNameIndexTest {
+
+    private static final Map<String, String> CLASS_NAMES = Map.of(
+            "a", "com/example/Counter",
+            "a$b", "com/example/Counter$Entry",
+            "net/minecraft/c", "net/minecraft/world/Level",
+            "net/minecraft/client/d", "net/minecraft/client/Minecraft",
+            "org/lib/e", "org/lib/e");
+
+    @Test
+    public void mappedNamesAreFound() {
+        ClassNameIndex index = ClassNameIndex.of(CLASS_NAMES);
+
+        assertEquals("com/example/Counter", index.get("a"));
+        assertEquals("com/example/Counter$Entry", index.get("a$b"));
+        assertEquals("net/minecraft/world/Level", index.get("net/minecraft/c"));
+        assertEquals("net/minecraft/client/Minecraft", index.get("net/minecraft/client/d"));
+        assertEquals("net/minecraft/client/Minecraft", index.map("net/minecraft/client/d"));
+
+        assertEquals(5, index.getHits());
+        /* Names mapped to themselves aren't kept. */
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void unmappedNamesAreRejected() {
+        ClassNameIndex index = ClassNameIndex.of(CLASS_NAMES);
+
+        List<String> otherPackages = List.of(
+                "java/lang/Object",
+                "net/Other",
+                "net/minecraftforge/c",
+                "net/minecraft/client/render/d",
+                "org/lib/e",
+                "org/lib/f",
+                "com/example/Counter");
+        for (String name : otherPackages) {
+            assertNull(name, index.get(name));
+            assertEquals(name, index.map(name));
+        }
+        assertEquals(otherPackages.size() * 2, index.getPrefixRejects());
+
+        List<String> knownPackages = List.of("b", "a$c", "ab", "net/minecraft/d", "net/minecraft/client/c");
+        for (String name : knownPackages) {
+            assertNull(name, index.get(name));
+        }
+        assertEquals(knownPackages.size(), index.getFilterRejects() + index.getMisses());
+
+        assertNull(index.get(null));
+        assertEquals(0, index.getHits());
+    }
+
+    @Test
+    public void everyLookupIsCountedOnce() {
+        HashMap<String, String> classNames = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            classNames.put("net/minecraft/class_" + i, "net/minecraft/Named" + i);
+        }
+        ClassNameIndex index = ClassNameIndex.of(classNames.keySet(), classNames::get);
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(i < 1000 ? "net/minecraft/Named" + i : null, index.get("net/minecraft/class_" + i));
+            assertNull(index.get("java/util/class_" + i));
+        }
+
+        assertEquals(1000, index.getHits());
+        assertEquals(2000, index.getPrefixRejects());
+        assertEquals(1000, index.getFilterRejects() + index.getMisses());
+        /* The bloom filter turns away most names of a mapped package before the map is asked. */
+        assertTrue(index.toString(), index.getFilterRejects() > index.getMisses());
+    }
+}
@@ -0,0 +1,229 @@
+package org.omnimc.trix.mapping;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.SimpleRemapper;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.util.CheckClassAdapter;
+import org.omnimc.trix.contexts.Context;
+import org.omnimc.trix.contexts.ForwardingMappingContext;
+import org.omnimc.trix.contexts.ForwardingMethodContext;
+import org.omnimc.trix.contexts.MappingContext;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+import org.omnimc.trix.strings.StringRemapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MappingChangeTest {
+
+    private static final SimpleRemapper REMAPPER = new SimpleRemapper(Map.of("a", "com/example/Counter", "a.c", "count"));
+
+    private static final String TEST = "org/omnimc/trix/mapping/MappingChangeTest";
+    private static final String POINT = TEST + "$Point";
+    private static final String COUNTER = TEST + "$Counter";
+    private static final String READER = TEST + "$Counter$Reader";
+    private static final String CALLS = TEST + "$Calls";
+
+    private static final SimpleRemapper FIXTURE_REMAPPER = new SimpleRemapper(Map.of(
+            POINT, "com/example/Position",
+            COUNTER, "com/example/Counter",
+            READER, "com/example/Counter$Reader",
+            POINT + ".x", "column",
+            POINT + ".x()I", "column",
+            COUNTER + ".count", "total",
+            READER + ".read()I", "get",
+            CALLS + ".task(Lcom/example/Position;)Ljava/lang/Runnable;", "schedule",
+            CALLS + ".task(Lcom/example/Position;I)Ljava/lang/Runnable;", "scheduleTimes"));
+
+    /* Copied bodies keep the max stack they were read with, rewritten ones get it computed by RECOMPUTE. */
+    private static final int DECLARED_MAX_STACK = 7;
+
+    @Test
+    public void passthroughCopiesUnchangedBodiesOnBothPaths() {
+        for (boolean fastPath : new boolean[]{true, false}) {
+            assertCopied(fastPath, new MappingContext(REMAPPER));
+            assertCopied(fastPath, new MappingContext(REMAPPER).setStringRemapper(StringRemapper.builder().addClass("b", "com/example/Other").build()));
+            assertCopied(fastPath, new MappingContext(REMAPPER), new MappingContext(new SimpleRemapper(Map.of())));
+            assertCopied(fastPath, new ForwardingMappingContext() {
+                @Override
+                public int getCallbacks() {
+                    return VISIT_ANNOTATION;
+                }
+            }, new MappingContext(REMAPPER));
+        }
+    }
+
+    @Test
+    public void bodiesAreRewrittenWithoutPassthrough() {
+        ClassNode classNode = remap(new MappingChange(new MappingContext(REMAPPER)).setProfile(RemapProfile.RECOMPUTE));
+
+        assertEquals(1, method(classNode, "r").maxStack);
+        assertEquals(1, method(classNode, "c").maxStack);
+    }
+
+    @Test
+    public void contextsThatChangeCodeRecomputeByDefault() {
+        assertEquals(RemapProfile.PRESERVE, new MappingChange(new MappingContext(REMAPPER)).getProfile());
+
+        /* Pushes two more values before every field instruction, past the max stack the class declares. */
+        IMappingContext injecting = new ForwardingMappingContext() {
+            @Override
+            public int getCallbacks() {
+                return VISIT_METHOD;
+            }
+
+            @Override
+            public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+                return new ForwardingMethodContext(classVisitor.visitMethod(access, name, descriptor, signature, exceptions)) {
+                    @Override
+                    public int getCallbacks() {
+                        return VISIT_FIELD_INSN;
+                    }
+
+                    @Override
+                    public void visitFieldInsn(int opcode, String owner, String name, String descriptor, MethodVisitor methodVisitor) {
+                        methodVisitor.visitInsn(Opcodes.ICONST_0);
+                        methodVisitor.visitInsn(Opcodes.ICONST_0);
+                        methodVisitor.visitInsn(Opcodes.POP2);
+                        methodVisitor.visitFieldInsn(opcode, owner, name, descriptor);
+                    }
+                };
+            }
+        };
+
+        for (boolean fastPath : new boolean[]{true, false}) {
+            MappingChange mappingChange = Context.ofChain(new MappingContext(REMAPPER), injecting).setFastPath(fastPath);
+            assertEquals(RemapProfile.RECOMPUTE, mappingChange.getProfile());
+
+            StringWriter errors = new StringWriter();
+            CheckClassAdapter.verify(new ClassReader(mappingChange.remap(counterClass(1))), MappingChangeTest.class.getClassLoader(), false, new PrintWriter(errors));
+            assertEquals("", errors.toString());
+        }
+    }
+
+    @Test
+    public void fastAndPluggablePathsWriteTheSameClasses() throws IOException {
+        for (String name : List.of(TEST, POINT, COUNTER, READER, CALLS)) {
+            byte[] classBytes = read(name);
+
+            for (boolean passthrough : new boolean[]{false, true}) {
+                byte[] fast = new MappingChange(new MappingContext(FIXTURE_REMAPPER)).setPassthrough(passthrough).remap(classBytes);
+                byte[] pluggable = new MappingChange(new MappingContext(FIXTURE_REMAPPER)).setFastPath(false).setPassthrough(passthrough).remap(classBytes);
+
+                assertArrayEquals(name + (passthrough ? " with passthrough" : ""), normalize(pluggable), normalize(fast));
+            }
+        }
+
+        ClassNode calls = node(new MappingChange(new MappingContext(FIXTURE_REMAPPER)).remap(read(CALLS)));
+        assertTrue(calls.methods.stream().anyMatch(method -> method.name.equals("schedule") && method.desc.equals("(Lcom/example/Position;)Ljava/lang/Runnable;")));
+        assertTrue(calls.methods.stream().anyMatch(method -> method.name.equals("scheduleTimes") && method.desc.equals("(Lcom/example/Position;I)Ljava/lang/Runnable;")));
+    }
+
+    private static void assertCopied(boolean fastPath, IMappingContext... mappingContexts) {
+        ClassNode classNode = remap(new MappingChange(mappingContexts).setFastPath(fastPath).setPassthrough(true).setProfile(RemapProfile.RECOMPUTE));
+        String path = fastPath ? "fast path" : "pluggable path";
+
+        assertEquals("com/example/Counter", classNode.name);
+        assertEquals(path, DECLARED_MAX_STACK, method(classNode, "r").maxStack);
+        /* Reads a remapped field, so it has to be rewritten. */
+        assertEquals(path, 1, method(classNode, "c").maxStack);
+    }
+
+    private static ClassNode remap(MappingChange mappingChange) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(mappingChange.remap(counterClass(DECLARED_MAX_STACK))).accept(classNode, 0);
+        return classNode;
+    }
+
+    /* Writes the class again so both outputs get a constant pool in the same order. */
+    private static byte[] normalize(byte[] classBytes) {
+        ClassWriter classWriter = new ClassWriter(0);
+        new ClassReader(classBytes).accept(classWriter, 0);
+        return classWriter.toByteArray();
+    }
+
+    private static ClassNode node(byte[] classBytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode;
+    }
+
+    private static byte[] read(String name) throws IOException {
+        try (InputStream input = MappingChangeTest.class.getResourceAsStream("/" + name + ".class")) {
+            assertNotNull(name, input);
+            return input.readAllBytes();
+        }
+    }
+
+    private static MethodNode method(ClassNode classNode, String name) {
+        return classNode.methods.stream().filter(method -> method.name.equals(name)).findFirst().orElseThrow();
+    }
+
+    /* int c; void r() { } int c() { return c; }, both declaring the given max stack. */
+    private static byte[] counterClass(int maxStack) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "a", null, "java/lang/Object", null);
+        classWriter.visitField(0, "c", "I", null, null).visitEnd();
+
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "r", "()V", null, null);
+        method.visitCode();
+        method.visitInsn(Opcodes.ICONST_0);
+        method.visitInsn(Opcodes.POP);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(maxStack, 1);
+        method.visitEnd();
+
+        method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "c", "()I", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitFieldInsn(Opcodes.GETFIELD, "a", "c", "I");
+        method.visitInsn(Opcodes.IRETURN);
+        method.visitMaxs(maxStack, 1);
+        method.visitEnd();
+
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /* The fixtures, compiled by javac: a record, an inner class with private access, lambdas and overloads. */
+
+    record Point(int x, String label) {
+    }
+
+    static final class Counter {
+        private int count;
+
+        final class Reader {
+            int read() {
+                return count;
+            }
+        }
+    }
+
+    static final class Calls {
+        Runnable task(Point point) {
+            return () -> System.out.println("at " + point.x() + point);
+        }
+
+        Runnable task(Point point, int times) {
+            return () -> {
+                for (int i = 0; i < times; i++) {
+                    task(point).run();
+                }
+            };
+        }
+    }
+}
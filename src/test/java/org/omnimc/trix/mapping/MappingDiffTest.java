@@ -0,0 +1,123 @@
+package org.omnimc.trix.mapping;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class MappingDiffTest {
+
+    private static final String HEADER = "tiny\t2\t0\tofficial\tnamed\n";
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("trix-diff");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void parameterNameEditsChangeTheirOwner() throws IOException {
+        MappingTable previous = read("""
+                c\ta\tcom/example/Counter
+                \tm\t(I)V\tb\tadd
+                \t\tp\t1\t\tamount
+                c\tc\tcom/example/Other
+                """);
+        MappingTable next = read("""
+                c\ta\tcom/example/Counter
+                \tm\t(I)V\tb\tadd
+                \t\tp\t1\t\tdelta
+                c\tc\tcom/example/Other
+                """);
+
+        MappingDiff diff = MappingDiff.of(previous, next);
+        assertFalse(diff.isEmpty());
+        assertEquals(Set.of("a"), diff.getChangedOwners());
+        assertTrue(diff.getChangedClasses().isEmpty());
+        assertEquals(1, diff.getChangeCount());
+
+        assertTrue(MappingDiff.of(next, read("""
+                c\ta\tcom/example/Counter
+                \tm\t(I)V\tb\tadd
+                \t\tp\t1\t\tdelta
+                c\tc\tcom/example/Other
+                """)).isEmpty());
+    }
+
+    @Test
+    public void renamedClassesAndMembersAreTold() throws IOException {
+        MappingTable previous = read("""
+                c\ta\tcom/example/Counter
+                \tf\tI\tb\tcount
+                \tm\t()V\tc\treset
+                c\td\tcom/example/Other
+                """);
+        MappingTable next = read("""
+                c\ta\tcom/example/Counter
+                \tf\tI\tb\ttotal
+                \tm\t()V\tc\treset
+                c\td\tcom/example/Renamed
+                """);
+
+        MappingDiff diff = MappingDiff.of(previous, next);
+        assertEquals(Set.of("d"), diff.getChangedClasses());
+        assertEquals(Set.of("a"), diff.getChangedOwners());
+        assertEquals(2, diff.getChangeCount());
+    }
+
+    @Test
+    public void swappedClassNamesChangeBothClasses() throws IOException {
+        MappingDiff diff = MappingDiff.of(read("""
+                c\ta\tcom/example/First
+                c\tb\tcom/example/Second
+                """), read("""
+                c\ta\tcom/example/Second
+                c\tb\tcom/example/First
+                """));
+
+        assertEquals(Set.of("a", "b"), diff.getChangedClasses());
+        assertEquals(2, diff.getChangeCount());
+    }
+
+    @Test
+    public void addedAndRemovedEntriesAreChanges() throws IOException {
+        MappingTable previous = read("""
+                c\ta\tcom/example/Counter
+                \tm\t()V\tc\treset
+                """);
+        MappingTable next = read("""
+                c\ta\tcom/example/Counter
+                \tf\tI\tb\tcount
+                c\te\tcom/example/Added
+                """);
+
+        MappingDiff diff = MappingDiff.of(previous, next);
+        assertEquals(Set.of("e"), diff.getChangedClasses());
+        assertEquals(Set.of("a"), diff.getChangedOwners());
+        assertEquals(3, diff.getChangeCount());
+        assertTrue(MappingDiff.of(previous, previous).isEmpty());
+    }
+
+    private MappingTable read(String body) throws IOException {
+        Path file = Files.createTempFile(directory, "mappings", ".tiny");
+        Files.writeString(file, HEADER + body);
+        return new TinyReader().readPath(file);
+    }
+}
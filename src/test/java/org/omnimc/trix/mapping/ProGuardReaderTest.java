@@ -0,0 +1,108 @@
+package org.omnimc.trix.mapping;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class ProGuardReaderTest {
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("trix-proguard");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void classesMembersAndDescriptorsAreRead() throws IOException {
+        MappingTable table = read("""
+                # {"fileName":"client.jar","id":"sourceFile"}
+                com.example.Counter -> a:
+                    int count -> b
+                    java.lang.String[] names -> c
+                    1:3:void add(int,com.example.Counter) -> d
+                    4:4:com.example.Counter copy() -> e
+                    long[][] history(java.lang.String[],boolean) -> f
+                    # {"id":"com.android.tools.r8.synthesized"}
+                com.example.Counter$Entry -> a$a:
+                    double value -> a
+                """);
+
+        assertEquals("com/example/Counter", table.getClassName("a"));
+        assertEquals("com/example/Counter$Entry", table.getClassName("a$a"));
+        assertEquals("x", table.getClassName("x"));
+
+        assertEquals("count", table.getFieldName("a", "b"));
+        assertEquals("names", table.getFieldName("a", "c"));
+        assertEquals("value", table.getFieldName("a$a", "a"));
+
+        /* Descriptors are looked up in the original names. */
+        assertEquals("add", table.getMethodName("a", "d", "(ILcom/example/Counter;)V"));
+        assertEquals("copy", table.getMethodName("a", "e", "()Lcom/example/Counter;"));
+        assertEquals("history", table.getMethodName("a", "f", "([Ljava/lang/String;Z)[[J"));
+        assertEquals("d", table.getMethodName("a", "d", "(ILa;)V"));
+
+        assertEquals(2, table.getClassCount());
+        assertEquals(3, table.getMethodCount());
+        assertEquals(3, table.getFieldCount());
+    }
+
+    @Test
+    public void inlinedMethodsAreSkipped() throws IOException {
+        MappingTable table = read("""
+                com.example.Counter -> a:
+                    5:5:void com.example.Other.helper():10:10 -> g
+                    5:5:void reset():20 -> g
+                    6:6:void reset() -> g
+                """);
+
+        assertEquals("reset", table.getMethodName("a", "g", "()V"));
+        assertEquals(1, table.getMethodCount());
+    }
+
+    @Test
+    public void framesInlinedFromTheSameClassAreSkipped() throws IOException {
+        MappingTable table = read("""
+                com.example.Counter -> a:
+                    1:1:int compute(int):30:30 -> g
+                    1:1:void reset():20 -> g
+                    # {"id":"com.android.tools.r8.residualsignature"}
+                    2:2:void reset():21 -> g
+                    3:5:int compute(int):30:32 -> h
+                    6:6:void clear():40:40 -> i
+                    6:6:void clear() -> i
+                com.example.Other -> b:
+                    1:1:void run():5:5 -> a
+                """);
+
+        assertEquals("reset", table.getMethodName("a", "g", "()V"));
+        /* compute was only inlined into reset, it isn't an overload of g. */
+        assertEquals("g", table.getMethodName("a", "g", "(I)I"));
+        assertEquals("compute", table.getMethodName("a", "h", "(I)I"));
+        assertEquals("clear", table.getMethodName("a", "i", "()V"));
+        assertEquals("run", table.getMethodName("b", "a", "()V"));
+        assertEquals(4, table.getMethodCount());
+    }
+
+    private MappingTable read(String body) throws IOException {
+        Path file = Files.createTempFile(directory, "mappings", ".txt");
+        Files.writeString(file, body);
+        return new ProGuardReader().readPath(file);
+    }
+}
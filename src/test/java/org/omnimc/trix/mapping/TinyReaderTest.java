@@ -0,0 +1,102 @@
+package org.omnimc.trix.mapping;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class TinyReaderTest {
+
+    private static final String MAPPINGS = """
+            tiny\t2\t0\tofficial\tintermediary\tnamed
+            \tescaped-names
+            c\ta\tint/class_1\tcom/example/Counter
+            \tc\tA counter.
+            \tf\tI\tb\tfield_1\tcount
+            \tm\t(La;)V\tc\tmethod_1\tadd
+            \t\tp\t1\t\t\tother
+            \t\tv\t2\t0\t\t\t\tlocal
+            \tm\t()V\td\tmethod_2\t
+            c\ta$b\tint/class_1$class_2\tcom/example/Counter$Entry
+            c\te\tint/class_3\tcom/example/Tab\\tName
+            """;
+
+    private Path directory;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("trix-tiny");
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void firstToLastNamespaceByDefault() throws IOException {
+        MappingTable table = new TinyReader().readPath(write(MAPPINGS));
+
+        assertEquals("com/example/Counter", table.getClassName("a"));
+        assertEquals("com/example/Counter$Entry", table.getClassName("a$b"));
+        assertEquals("com/example/Tab\tName", table.getClassName("e"));
+        assertEquals("count", table.getFieldName("a", "b"));
+        /* Descriptors are looked up in the target names. */
+        assertEquals("add", table.getMethodName("a", "c", "(Lcom/example/Counter;)V"));
+        assertEquals("c", table.getMethodName("a", "c", "(La;)V"));
+        /* An empty name falls back to the source one, so d isn't renamed and isn't kept. */
+        assertEquals("d", table.getMethodName("a", "d", "()V"));
+
+        assertEquals(3, table.getClassCount());
+        assertEquals(1, table.getMethodCount());
+        assertEquals(1, table.getFieldCount());
+    }
+
+    @Test
+    public void parameterNamesAreKeptInTheSourceNames() throws IOException {
+        LocalNameTable localNameTable = new TinyReader().readPath(write(MAPPINGS)).getLocalNameTable();
+
+        assertTrue(localNameTable.hasClass("a"));
+        assertArrayEquals(new String[]{null, "other"}, localNameTable.getLocalNames("a", "c", "(La;)V"));
+        assertEquals(1, localNameTable.size());
+    }
+
+    @Test
+    public void namespacesCanBeChosen() throws IOException {
+        MappingTable table = new TinyReader("intermediary", "named").readPath(write(MAPPINGS));
+
+        assertEquals("com/example/Counter", table.getClassName("int/class_1"));
+        assertEquals("count", table.getFieldName("int/class_1", "field_1"));
+        assertEquals("add", table.getMethodName("int/class_1", "method_1", "(Lcom/example/Counter;)V"));
+        assertArrayEquals(new String[]{null, "other"}, table.getLocalNameTable().getLocalNames("int/class_1", "method_1", "(Lint/class_1;)V"));
+
+        MappingTable reversed = new TinyReader("named", "official").readPath(write(MAPPINGS));
+        assertEquals("a", reversed.getClassName("com/example/Counter"));
+        assertEquals("c", reversed.getMethodName("com/example/Counter", "add", "(La;)V"));
+    }
+
+    @Test
+    public void badFilesAreRejected() throws IOException {
+        Path notTiny = write("v1\tofficial\tnamed\n");
+        assertThrows(IOException.class, () -> new TinyReader().readPath(notTiny));
+
+        Path mappings = write(MAPPINGS);
+        assertThrows(IllegalArgumentException.class, () -> new TinyReader("mojang", null).readPath(mappings));
+    }
+
+    private Path write(String contents) throws IOException {
+        Path file = Files.createTempFile(directory, "mappings", ".tiny");
+        Files.writeString(file, contents);
+        return file;
+    }
+}
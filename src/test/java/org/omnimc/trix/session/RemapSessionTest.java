@@ -0,0 +1,167 @@
+package org.omnimc.trix.session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.omnimc.trix.io.JarIO;
+import org.omnimc.trix.mapping.TinyReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class RemapSessionTest {
+
+    private static final String HEADER = "tiny\t2\t0\tofficial\tnamed\n";
+
+    private Path directory;
+    private RemapSession session;
+
+    @Before
+    public void createSession() throws IOException {
+        directory = Files.createTempDirectory("trix-session");
+
+        Path mappings = directory.resolve("mappings.tiny");
+        Files.writeString(mappings, HEADER + "c\ta\tcom/example/First\n\tf\tI\tc\tcount\nc\tb\tcom/example/Second\n");
+        session = new RemapSession(new TinyReader().readPath(mappings));
+    }
+
+    @After
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void sharedClassesAreRemappedOnce() throws IOException {
+        LinkedHashMap<String, byte[]> client = new LinkedHashMap<>();
+        client.put("a.class", emptyClass("a"));
+        client.put("b.class", emptyClass("b"));
+        client.put("client.txt", new byte[]{1});
+        LinkedHashMap<String, byte[]> server = new LinkedHashMap<>();
+        server.put("b.class", emptyClass("b"));
+        server.put("a.class", emptyClass("a"));
+        server.put("x.class", emptyClass("x"));
+
+        SessionResult result = run(client, server);
+
+        assertEquals(2, result.getInputCount());
+        assertEquals(5, result.getTotalClasses());
+        assertEquals(3, result.getUniqueClasses());
+        assertEquals(2, result.getRemappedClasses());
+        /* x references nothing remapped. */
+        assertEquals(1, result.getSkippedClasses());
+        assertTrue(result.getConflicts().isEmpty());
+
+        Map<String, byte[]> clientOutput = JarIO.readJar(directory.resolve("output0.jar"));
+        Map<String, byte[]> serverOutput = JarIO.readJar(directory.resolve("output1.jar"));
+        assertEquals(List.of("com/example/First.class", "com/example/Second.class", "client.txt"), new ArrayList<>(clientOutput.keySet()));
+        assertEquals(List.of("com/example/Second.class", "com/example/First.class", "x.class"), new ArrayList<>(serverOutput.keySet()));
+
+        /* Both outputs get the one remapped copy. */
+        assertArrayEquals(clientOutput.get("com/example/First.class"), serverOutput.get("com/example/First.class"));
+        assertArrayEquals(server.get("x.class"), serverOutput.get("x.class"));
+        assertEquals("com/example/First", new ClassReader(serverOutput.get("com/example/First.class")).getClassName());
+    }
+
+    @Test
+    public void conflictingClassesAreReportedAndKeepTheirOwnBytes() throws IOException {
+        SessionResult result = run(Map.of("a.class", counterClass("a")), Map.of("a.class", emptyClass("a")));
+
+        assertEquals(List.of("a.class"), result.getConflicts());
+        assertEquals(2, result.getTotalClasses());
+        assertEquals(2, result.getUniqueClasses());
+        assertEquals(2, result.getRemappedClasses());
+
+        /* The first copy is the one the hierarchy is built from. */
+        ClassNode first = node(JarIO.readJar(directory.resolve("output0.jar")).get("com/example/First.class"));
+        assertEquals("com/example/First", first.name);
+        assertEquals("count", first.fields.get(0).name);
+
+        ClassNode second = node(JarIO.readJar(directory.resolve("output1.jar")).get("com/example/First.class"));
+        assertEquals("com/example/First", second.name);
+        assertTrue(second.fields.isEmpty());
+    }
+
+    @Test
+    public void classesWithOnlyParameterNamesAreNotSkipped() throws IOException {
+        Path mappings = directory.resolve("parameters.tiny");
+        Files.writeString(mappings, HEADER + "c\tp\tp\n\tm\t(I)V\tadd\tadd\n\t\tp\t1\t\tamount\n");
+        session = new RemapSession(new TinyReader().readPath(mappings));
+
+        SessionResult result = run(Map.of("p.class", parameterClass("p"), "x.class", emptyClass("x")));
+
+        assertEquals(1, result.getRemappedClasses());
+        assertEquals(1, result.getSkippedClasses());
+        ClassNode classNode = node(JarIO.readJar(directory.resolve("output0.jar")).get("p.class"));
+        assertEquals("amount", classNode.methods.get(0).localVariables.get(0).name);
+    }
+
+    @SafeVarargs
+    private SessionResult run(Map<String, byte[]>... inputs) throws IOException {
+        for (int i = 0; i < inputs.length; i++) {
+            Path inputJar = directory.resolve("input" + i + ".jar");
+            JarIO.writeJar(inputJar, inputs[i]);
+            session.addInput(inputJar, directory.resolve("output" + i + ".jar"));
+        }
+
+        return session.run();
+    }
+
+    private static ClassNode node(byte[] classBytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode;
+    }
+
+    private static byte[] emptyClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /* A class with an instance method add(int), whose parameter is called arg0 in the local variable table. */
+    private static byte[] parameterClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "add", "(I)V", null, null);
+        Label start = new Label();
+        Label end = new Label();
+        method.visitCode();
+        method.visitLabel(start);
+        method.visitInsn(Opcodes.RETURN);
+        method.visitLabel(end);
+        method.visitLocalVariable("arg0", "I", null, start, end, 1);
+        method.visitMaxs(0, 2);
+        method.visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    /* The same class as emptyClass, with an int c added. */
+    private static byte[] counterClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitField(0, "c", "I", null, null).visitEnd();
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
@@ -0,0 +1,107 @@
+package org.omnimc.trix.session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.omnimc.trix.io.JarIO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class WatchSessionTest {
+
+    private static final String HEADER = "tiny\t2\t0\tofficial\tnamed\n";
+
+    private Path directory;
+    private Path mappings;
+    private Path output;
+    private WatchSession session;
+    private final BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+
+    @Before
+    public void startSession() throws IOException {
+        directory = Files.createTempDirectory("trix-watch");
+        mappings = directory.resolve("mappings.tiny");
+        output = Files.createDirectory(directory.resolve("output"));
+
+        Path inputJar = directory.resolve("input.jar");
+        JarIO.writeJar(inputJar, Map.of("a.class", emptyClass("a"), "b.class", emptyClass("b")));
+        Files.writeString(mappings, HEADER + "c\ta\tcom/example/First\nc\tb\tcom/example/Second\n");
+
+        session = new WatchSession(mappings, inputJar, output).setErrorListener(errors::add);
+        session.start();
+    }
+
+    @After
+    public void closeSession() throws IOException {
+        session.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void swappedNamesKeepBothClasses() throws IOException {
+        assertEquals(List.of("com/example/First.class", "com/example/Second.class"), outputFiles());
+
+        Files.writeString(mappings, HEADER + "c\ta\tcom/example/Second\nc\tb\tcom/example/First\n");
+        ReloadResult result = session.reload();
+
+        assertEquals(2, result.getRewrittenClasses());
+        assertEquals(List.of("com/example/First.class", "com/example/Second.class"), outputFiles());
+        /* Each file holds the class now mapped to its name. */
+        assertEquals("com/example/First", className("com/example/First.class"));
+        assertEquals("com/example/Second", className("com/example/Second.class"));
+    }
+
+    @Test
+    public void renamedClassesLeaveNoStaleFile() throws IOException {
+        Files.writeString(mappings, HEADER + "c\ta\tcom/example/Third\nc\tb\tcom/example/Second\n");
+        session.reload();
+
+        assertEquals(List.of("com/example/Second.class", "com/example/Third.class"), outputFiles());
+    }
+
+    @Test(timeout = 10000)
+    public void failedReloadsAreReported() throws Exception {
+        Files.writeString(mappings, "not a mapping file\n");
+
+        Exception error = errors.poll(5, TimeUnit.SECONDS);
+        assertTrue(error instanceof IOException);
+    }
+
+    private List<String> outputFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(output)) {
+            return files.filter(Files::isRegularFile)
+                    .map(file -> output.relativize(file).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private String className(String file) throws IOException {
+        return new ClassReader(Files.readAllBytes(output.resolve(file))).getClassName();
+    }
+
+    private static byte[] emptyClass(String name) {
+        ClassWriter classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package org.omnimc.trix.strings;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StringRemapperTest {
+
+    private static final StringRemapper REMAPPER = StringRemapper.builder()
+            .addClass("net/a", "com/example/Level")
+            .addClass("net/a/b", "com/example/level/Chunk")
+            .addMember("c", "getName")
+            .addMember("d", "first")
+            .addMember("d", "second")
+            .setMinimumLength(1)
+            .build();
+
+    @Test
+    public void namesAreOnlyReplacedBetweenBoundaries() {
+        assertEquals("com/example/Level", REMAPPER.remap("net/a", null));
+        assertEquals("(com.example.Level)", REMAPPER.remap("(net.a)", null));
+        assertEquals("call getName now", REMAPPER.remap("call c now", null));
+        assertEquals("getName", REMAPPER.remap("c", null));
+        assertEquals("getName getName", REMAPPER.remap("c c", null));
+
+        /* Part of a longer identifier, package or inner class name. */
+        assertSame("net/ab", REMAPPER.remap("net/ab", "x"));
+        assertSame("xnet/a", REMAPPER.remap("xnet/a", "x"));
+        assertSame("net.a.Other", REMAPPER.remap("net.a.Other", "x"));
+        assertSame("net/a$Inner", REMAPPER.remap("net/a$Inner", "x"));
+        assertSame("Lnet/a;", REMAPPER.remap("Lnet/a;", "x"));
+        assertSame("abc", REMAPPER.remap("abc", "x"));
+    }
+
+    @Test
+    public void nonAsciiNeighboursFollowJavaIdentifiers() {
+        /* 'é' can be part of an identifier, an arrow can't. */
+        assertSame("éc", REMAPPER.remap("éc", null));
+        assertEquals("→getName←", REMAPPER.remap("→c←", null));
+    }
+
+    @Test
+    public void longestNameWins() {
+        assertEquals("com/example/level/Chunk", REMAPPER.remap("net/a/b", null));
+        assertEquals("com/example/level/Chunk, com/example/Level", REMAPPER.remap("net/a/b, net/a", null));
+    }
+
+    @Test
+    public void ambiguousAndUnchangedMembersAreLeftOut() {
+        assertSame("d", REMAPPER.remap("d", null));
+
+        StringRemapper remapper = StringRemapper.builder()
+                .addMember("e", "e")
+                .addMember("<init>", "constructor")
+                .addClass("f", "f")
+                .build();
+        assertEquals(0, remapper.getPatternCount());
+        assertSame("e <init> f", remapper.remap("e <init> f", null));
+    }
+
+    @Test
+    public void shortNamesCanBeSkipped() {
+        StringRemapper remapper = StringRemapper.builder()
+                .addMember("c", "getName")
+                .addMember("cd", "getData")
+                .setMinimumLength(2)
+                .build();
+
+        assertEquals("c getData", remapper.remap("c cd", null));
+    }
+
+    @Test
+    public void shortNamesWithoutAPackageAreSkippedByDefault() {
+        StringRemapper remapper = StringRemapper.builder()
+                .addClass("a", "com/example/Counter")
+                .addClass("net/b", "com/example/Level")
+                .addMember("c", "getName")
+                .addMember("cde", "getData")
+                .build();
+
+        assertSame("a c", remapper.remap("a c", null));
+        assertEquals("com/example/Level getData", remapper.remap("net/b cde", null));
+    }
+
+    @Test
+    public void moreThanSixtyFiveThousandNamesCanBeReplaced() {
+        StringRemapper.Builder builder = StringRemapper.builder();
+        for (int i = 0; i < 70000; i++) {
+            builder.addMember("field" + i, "member" + i);
+        }
+        StringRemapper remapper = builder.build();
+
+        assertEquals(70000, remapper.getPatternCount());
+        assertEquals("member69999 member100", remapper.remap("field69999 field100", null));
+    }
+
+    @Test
+    public void replacementsAreReported() {
+        StringRemapper remapper = StringRemapper.builder().addClass("net/a", "com/example/Level").build();
+        remapper.remap("net/a", "net/Owner");
+        remapper.remap("nothing here", "net/Owner");
+
+        assertEquals(1, remapper.getReport().size());
+        StringRemapReport.Replacement replacement = remapper.getReport().getReplacements().get(0);
+        assertEquals("net/Owner", replacement.location());
+        assertEquals("net/a", replacement.original());
+        assertEquals("com/example/Level", replacement.remapped());
+    }
+}
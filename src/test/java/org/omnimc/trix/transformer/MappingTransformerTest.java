@@ -0,0 +1,273 @@
+package org.omnimc.trix.transformer;
+
+import org.junit.Test;
+import org.objectweb.asm.*;
+import org.objectweb.asm.tree.*;
+import org.omnimc.trix.contexts.ForwardingMappingContext;
+import org.omnimc.trix.contexts.ForwardingMethodContext;
+import org.omnimc.trix.contexts.interfaces.IMappingContext;
+import org.omnimc.trix.contexts.interfaces.IMethodContext;
+import org.omnimc.trix.visitors.mapping.MappingClassVisitor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappingTransformerTest {
+
+    @Test
+    public void emittedJumpsAndLabelsAreKept() throws Exception {
+        ClassNode classNode = guardedCallClass();
+
+        /* Guards every call to hit() with "if (flag != 0)". */
+        new MappingTransformer(new ForwardingMappingContext() {
+            @Override
+            public int getCallbacks() {
+                return VISIT_METHOD;
+            }
+
+            @Override
+            public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+                return new ForwardingMethodContext(classVisitor.visitMethod(access, name, descriptor, signature, exceptions)) {
+                    @Override
+                    public int getCallbacks() {
+                        return VISIT_METHOD_INSN;
+                    }
+
+                    @Override
+                    public void visitMethodInsn(int opcode, String owner, String name, String descriptor, boolean isInterface, MethodVisitor methodVisitor) {
+                        if (!name.equals("hit")) {
+                            methodVisitor.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                            return;
+                        }
+
+                        Label skip = new Label();
+                        methodVisitor.visitVarInsn(Opcodes.ILOAD, 0);
+                        methodVisitor.visitJumpInsn(Opcodes.IFEQ, skip);
+                        methodVisitor.visitMethodInsn(opcode, owner, name, descriptor, isInterface);
+                        methodVisitor.visitLabel(skip);
+                        methodVisitor.visitIincInsn(0, 1);
+                    }
+                };
+            }
+        }).transform(classNode);
+
+        MethodNode run = classNode.methods.stream().filter(method -> method.name.equals("run")).findFirst().orElseThrow();
+        int[] opcodes = new int[run.instructions.size()];
+        for (int i = 0; i < opcodes.length; i++) {
+            opcodes[i] = run.instructions.get(i).getOpcode();
+        }
+        assertArrayEquals(new int[]{Opcodes.ILOAD, Opcodes.IFEQ, Opcodes.INVOKESTATIC, -1, Opcodes.IINC, Opcodes.RETURN}, opcodes);
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        classNode.accept(classWriter);
+        Class<?> type = MethodHandles.lookup().defineHiddenClass(classWriter.toByteArray(), true).lookupClass();
+
+        Method runMethod = type.getDeclaredMethod("run", int.class);
+        runMethod.setAccessible(true);
+        runMethod.invoke(null, 0);
+        runMethod.invoke(null, 1);
+        runMethod.invoke(null, 2);
+        assertEquals(2, type.getDeclaredField("calls").getInt(null));
+    }
+
+    @Test
+    public void fieldAndRecordComponentAnnotationsGoThroughTheContext() {
+        ClassNode classNode = new ClassNode();
+        classNode.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "org/omnimc/trix/transformer/Point", null, "java/lang/Record", null);
+        RecordComponentVisitor recordComponent = classNode.visitRecordComponent("x", "I", null);
+        recordComponent.visitAnnotation("Lobf/a;", true).visit("value", "kept");
+        recordComponent.visitEnd();
+        FieldVisitor field = classNode.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "x", "I", null, null);
+        field.visitAnnotation("Lobf/a;", false).visit("value", "kept");
+        field.visitTypeAnnotation(TypeReference.newTypeReference(TypeReference.FIELD).getValue(), null, "Lobf/a;", true);
+        field.visitEnd();
+        classNode.visitEnd();
+
+        new MappingTransformer(new ForwardingMappingContext() {
+            @Override
+            public int getCallbacks() {
+                return VISIT_FIELD | VISIT_RECORD_COMPONENT;
+            }
+
+            @Override
+            public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature, ClassVisitor classVisitor) {
+                return new RecordComponentVisitor(Opcodes.ASM9, classVisitor.visitRecordComponent(name, descriptor, signature)) {
+                    @Override
+                    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                        return super.visitAnnotation(remap(descriptor), visible);
+                    }
+                };
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value, ClassVisitor classVisitor) {
+                return new FieldVisitor(Opcodes.ASM9, classVisitor.visitField(access, name, descriptor, signature, value)) {
+                    @Override
+                    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                        return super.visitAnnotation(remap(descriptor), visible);
+                    }
+
+                    @Override
+                    public AnnotationVisitor visitTypeAnnotation(int typeRef, TypePath typePath, String descriptor, boolean visible) {
+                        return super.visitTypeAnnotation(typeRef, typePath, remap(descriptor), visible);
+                    }
+                };
+            }
+        }).transform(classNode);
+
+        AnnotationNode recordAnnotation = classNode.recordComponents.get(0).visibleAnnotations.get(0);
+        assertEquals("Lnamed/Marker;", recordAnnotation.desc);
+        assertEquals("kept", recordAnnotation.values.get(1));
+
+        FieldNode fieldNode = classNode.fields.get(0);
+        assertNull(fieldNode.visibleAnnotations);
+        assertEquals("Lnamed/Marker;", fieldNode.invisibleAnnotations.get(0).desc);
+        assertEquals("kept", fieldNode.invisibleAnnotations.get(0).values.get(1));
+        assertEquals("Lnamed/Marker;", fieldNode.visibleTypeAnnotations.get(0).desc);
+        assertEquals(TypeReference.FIELD, new TypeReference(fieldNode.visibleTypeAnnotations.get(0).typeRef).getSort());
+    }
+
+    @Test
+    public void elementsTheContextDropsAreRemovedOnBothPaths() {
+        /* Drops the field x, every record component and every try catch block. */
+        IMappingContext dropping = new ForwardingMappingContext() {
+            @Override
+            public int getCallbacks() {
+                return VISIT_FIELD | VISIT_RECORD_COMPONENT | VISIT_METHOD;
+            }
+
+            @Override
+            public RecordComponentVisitor visitRecordComponent(String name, String descriptor, String signature, ClassVisitor classVisitor) {
+                return null;
+            }
+
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value, ClassVisitor classVisitor) {
+                return name.equals("x") ? null : classVisitor.visitField(access, name, descriptor, signature, value);
+            }
+
+            @Override
+            public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+                return new ForwardingMethodContext(classVisitor.visitMethod(access, name, descriptor, signature, exceptions)) {
+                    @Override
+                    public int getCallbacks() {
+                        return VISIT_TRY_CATCH_BLOCK;
+                    }
+
+                    @Override
+                    public void visitTryCatchBlock(Label start, Label end, Label handler, String type, MethodVisitor methodVisitor) {
+                    }
+                };
+            }
+        };
+
+        ClassNode viaTree = new MappingTransformer(dropping).transform(pointClass());
+
+        ClassWriter classWriter = new ClassWriter(0);
+        pointClass().accept(classWriter);
+        ClassNode viaVisitor = new ClassNode();
+        new ClassReader(classWriter.toByteArray()).accept(new MappingClassVisitor(viaVisitor, dropping), 0);
+
+        for (ClassNode classNode : List.of(viaTree, viaVisitor)) {
+            assertEquals(List.of("y"), classNode.fields.stream().map(field -> field.name).toList());
+            assertTrue(classNode.recordComponents == null || classNode.recordComponents.isEmpty());
+            assertTrue(classNode.methods.get(0).tryCatchBlocks.isEmpty());
+        }
+    }
+
+    @Test
+    public void instructionsEmittedOutsideAnInstructionAreRejected() {
+        ClassNode classNode = guardedCallClass();
+        classNode.methods.get(0).visitParameter("flag", 0);
+
+        MappingTransformer transformer = new MappingTransformer(new ForwardingMappingContext() {
+            @Override
+            public int getCallbacks() {
+                return VISIT_METHOD;
+            }
+
+            @Override
+            public IMethodContext visitMethod(int access, String name, String descriptor, String signature, String[] exceptions, ClassVisitor classVisitor) {
+                return new ForwardingMethodContext(classVisitor.visitMethod(access, name, descriptor, signature, exceptions)) {
+                    @Override
+                    public int getCallbacks() {
+                        return VISIT_PARAMETER;
+                    }
+
+                    @Override
+                    public void visitParameter(String name, int access, MethodVisitor methodVisitor) {
+                        methodVisitor.visitParameter(name, access);
+                        methodVisitor.visitInsn(Opcodes.NOP);
+                    }
+                };
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () -> transformer.transform(classNode));
+    }
+
+    private static String remap(String descriptor) {
+        return descriptor.equals("Lobf/a;") ? "Lnamed/Marker;" : descriptor;
+    }
+
+    /* record Point(int x) with a second field y and a method catching an exception. */
+    private static ClassNode pointClass() {
+        ClassNode classNode = new ClassNode();
+        classNode.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, "org/omnimc/trix/transformer/Point", null, "java/lang/Record", null);
+        classNode.visitRecordComponent("x", "I", null).visitEnd();
+        classNode.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "x", "I", null, null).visitEnd();
+        classNode.visitField(Opcodes.ACC_PRIVATE, "y", "I", null, null).visitEnd();
+
+        MethodVisitor run = classNode.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null);
+        Label start = new Label();
+        Label end = new Label();
+        Label handler = new Label();
+        Label after = new Label();
+        run.visitCode();
+        run.visitTryCatchBlock(start, end, handler, "java/lang/Exception");
+        run.visitLabel(start);
+        run.visitInsn(Opcodes.NOP);
+        run.visitLabel(end);
+        run.visitJumpInsn(Opcodes.GOTO, after);
+        run.visitLabel(handler);
+        run.visitInsn(Opcodes.POP);
+        run.visitLabel(after);
+        run.visitInsn(Opcodes.RETURN);
+        run.visitMaxs(1, 1);
+        run.visitEnd();
+
+        classNode.visitEnd();
+        return classNode;
+    }
+
+    /* static int calls; static void run(int flag) { hit(); } static void hit() { calls++; } */
+    private static ClassNode guardedCallClass() {
+        String name = "org/omnimc/trix/transformer/Guarded";
+        ClassNode classNode = new ClassNode();
+        classNode.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+        classNode.visitField(Opcodes.ACC_STATIC | Opcodes.ACC_PUBLIC, "calls", "I", null, null).visitEnd();
+
+        MethodVisitor run = classNode.visitMethod(Opcodes.ACC_STATIC, "run", "(I)V", null, null);
+        run.visitCode();
+        run.visitMethodInsn(Opcodes.INVOKESTATIC, name, "hit", "()V", false);
+        run.visitInsn(Opcodes.RETURN);
+        run.visitMaxs(1, 1);
+        run.visitEnd();
+
+        MethodVisitor hit = classNode.visitMethod(Opcodes.ACC_STATIC, "hit", "()V", null, null);
+        hit.visitCode();
+        hit.visitFieldInsn(Opcodes.GETSTATIC, name, "calls", "I");
+        hit.visitInsn(Opcodes.ICONST_1);
+        hit.visitInsn(Opcodes.IADD);
+        hit.visitFieldInsn(Opcodes.PUTSTATIC, name, "calls", "I");
+        hit.visitInsn(Opcodes.RETURN);
+        hit.visitMaxs(2, 0);
+        hit.visitEnd();
+
+        classNode.visitEnd();
+        return classNode;
+    }
+}